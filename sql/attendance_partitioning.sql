@@ -0,0 +1,45 @@
+-- ============================================
+-- MIGRATION: partition bảng attendance theo học kỳ (DB tạo từ clean_schema.sql cũ)
+-- ALTER TABLE chép lại cả bảng: chạy ngoài giờ, dừng loader / check-in trước
+-- Sau đó: AttendanceArchiveJob extend (thêm partition học kỳ mới)
+-- ============================================
+USE student_clean_db;
+-- Học kỳ đã archive (AttendanceArchiveJob), có dòng = AttendanceLoader từ chối ghi vào học kỳ đó
+CREATE TABLE IF NOT EXISTS attendance_archives (
+    term_code INT PRIMARY KEY,
+    partition_name VARCHAR(64),
+    from_date DATE NOT NULL,
+    to_date DATE NOT NULL,
+    row_count BIGINT NOT NULL,
+    file_path VARCHAR(500) NOT NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE = InnoDB;
+-- Partitioned InnoDB không hỗ trợ FOREIGN KEY (tên mặc định do MySQL đặt)
+ALTER TABLE attendance
+    DROP FOREIGN KEY attendance_ibfk_1,
+    DROP FOREIGN KEY attendance_ibfk_2;
+-- Mọi unique key phải chứa cột partition; index đơn cột → index ghép theo truy vấn thực tế
+ALTER TABLE attendance
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, attendance_date),
+    DROP INDEX idx_student_id,
+    DROP INDEX idx_class_id,
+    DROP INDEX idx_attendance_date,
+    DROP INDEX idx_status,
+    ADD INDEX idx_date_session_class (
+        attendance_date,
+        session_number,
+        class_id,
+        student_id
+    ),
+    ADD INDEX idx_class_date (class_id, attendance_date);
+ALTER TABLE attendance
+PARTITION BY RANGE COLUMNS(attendance_date) (
+    PARTITION p20232 VALUES LESS THAN ('2024-08-01'),
+    PARTITION p20241 VALUES LESS THAN ('2025-02-01'),
+    PARTITION p20242 VALUES LESS THAN ('2025-08-01'),
+    PARTITION p20251 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p20252 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p20261 VALUES LESS THAN ('2027-02-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
@@ -78,8 +78,13 @@ CREATE TABLE students (
     INDEX idx_enrollment_year (enrollment_year)
 ) ENGINE = InnoDB;
 -- Bảng Điểm danh CLEAN
+-- Partition theo học kỳ (RANGE COLUMNS attendance_date, tên p<term_code> như AttendanceTerm):
+--   partition đầu chứa cả dữ liệu cũ hơn, pmax nhận ngày chưa có partition
+--   AttendanceArchiveJob thêm partition học kỳ mới (tách pmax) và export + DROP PARTITION học kỳ cũ
+-- Partitioned InnoDB không hỗ trợ FOREIGN KEY và mọi unique key phải chứa attendance_date:
+--   student_id/class_id đã được validator kiểm tra (StudentKeyCache, ClassCodeSnapshot)
 CREATE TABLE attendance (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT AUTO_INCREMENT,
     student_id BIGINT NOT NULL,
     class_id INT NOT NULL,
     attendance_date DATE NOT NULL,
@@ -92,18 +97,74 @@ CREATE TABLE attendance (
     -- Metadata
     raw_data_id BIGINT,
     recorded_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
-    FOREIGN KEY (class_id) REFERENCES classes(id) ON DELETE RESTRICT,
+    PRIMARY KEY (id, attendance_date),
+    -- Upsert của loader; prefix student_id phục vụ truy vấn theo sinh viên
     UNIQUE KEY unique_attendance (
         student_id,
         class_id,
         attendance_date,
         session_number
     ),
-    INDEX idx_student_id (student_id),
-    INDEX idx_class_id (class_id),
-    INDEX idx_attendance_date (attendance_date),
-    INDEX idx_status (status)
+    -- Đóng buổi (ngày + buổi → lớp, sinh viên: covering), báo cáo theo ngày
+    INDEX idx_date_session_class (
+        attendance_date,
+        session_number,
+        class_id,
+        student_id
+    ),
+    -- Báo cáo theo lớp trong khoảng ngày
+    INDEX idx_class_date (class_id, attendance_date)
+) ENGINE = InnoDB
+PARTITION BY RANGE COLUMNS(attendance_date) (
+    PARTITION p20232 VALUES LESS THAN ('2024-08-01'),
+    PARTITION p20241 VALUES LESS THAN ('2025-02-01'),
+    PARTITION p20242 VALUES LESS THAN ('2025-08-01'),
+    PARTITION p20251 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p20252 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p20261 VALUES LESS THAN ('2027-02-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+-- Tổng hợp điểm danh theo lớp × ngày
+-- Cộng delta cùng transaction với attendance (AttendanceSummaryWriter), sửa lệch bằng AttendanceSummaryRepair
+CREATE TABLE attendance_daily_summary (
+    class_id INT NOT NULL,
+    attendance_date DATE NOT NULL,
+    present_count INT NOT NULL DEFAULT 0,
+    absent_count INT NOT NULL DEFAULT 0,
+    late_count INT NOT NULL DEFAULT 0,
+    excused_count INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (class_id, attendance_date),
+    INDEX idx_attendance_date (attendance_date)
+) ENGINE = InnoDB;
+-- Tổng hợp điểm danh theo sinh viên × học kỳ
+CREATE TABLE attendance_term_summary (
+    student_id BIGINT NOT NULL,
+    term_code INT NOT NULL,
+    -- 20241 = 2024-2025 HK1 (AttendanceTerm)
+    present_count INT NOT NULL DEFAULT 0,
+    absent_count INT NOT NULL DEFAULT 0,
+    late_count INT NOT NULL DEFAULT 0,
+    excused_count INT NOT NULL DEFAULT 0,
+    version INT NOT NULL DEFAULT 0,
+    -- +1 mỗi transaction ghi dòng này, gửi kèm AttendanceChange để AtRiskDetector bỏ thay đổi đã áp dụng
+    -- DB cũ: ALTER TABLE attendance_term_summary ADD COLUMN version INT NOT NULL DEFAULT 0 AFTER excused_count
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (student_id, term_code),
+    INDEX idx_term_code (term_code)
+) ENGINE = InnoDB;
+-- Học kỳ đã archive khỏi bảng attendance (AttendanceArchiveJob)
+-- Bảng tổng hợp của các ngày này được giữ nguyên, AttendanceSummaryRepair không tính lại
+-- Có dòng = học kỳ đã đóng: AttendanceLoader từ chối ghi (row_count = 0 trong lúc đang archive)
+CREATE TABLE attendance_archives (
+    term_code INT PRIMARY KEY,
+    partition_name VARCHAR(64),
+    -- NULL nếu bảng attendance không partition (xóa theo lô)
+    from_date DATE NOT NULL,
+    to_date DATE NOT NULL,
+    row_count BIGINT NOT NULL,
+    file_path VARCHAR(500) NOT NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 ) ENGINE = InnoDB;
 -- Bảng lưu lỗi Validation
 CREATE TABLE validation_errors (
@@ -293,4 +354,53 @@ VALUES -- IT Classes
         '2021-2025',
         0,
         'ACTIVE'
+    ),
+    -- Classes dùng bởi MessyDataGenerator (ClassCodeReferenceRule)
+    (
+        'SE01K01',
+        'Software Engineering K01',
+        1,
+        '2021-2025',
+        0,
+        'ACTIVE'
+    ),
+    (
+        'SE01K02',
+        'Software Engineering K02',
+        1,
+        '2021-2025',
+        0,
+        'ACTIVE'
+    ),
+    (
+        'AI01K01',
+        'Artificial Intelligence K01',
+        1,
+        '2021-2025',
+        0,
+        'ACTIVE'
+    ),
+    (
+        'DS01K01',
+        'Data Science K01',
+        1,
+        '2021-2025',
+        0,
+        'ACTIVE'
+    ),
+    (
+        'CS01K01',
+        'Computer Science K01',
+        1,
+        '2021-2025',
+        0,
+        'ACTIVE'
+    ),
+    (
+        'IS01K01',
+        'Information Systems K01',
+        1,
+        '2021-2025',
+        0,
+        'ACTIVE'
     );
\ No newline at end of file
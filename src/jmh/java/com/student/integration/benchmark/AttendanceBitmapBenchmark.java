@@ -0,0 +1,98 @@
+package com.student.integration.benchmark;
+
+import com.student.integration.analytics.AttendanceBitmapStore;
+import com.student.integration.analytics.AttendanceStats;
+import com.student.integration.analytics.AttendanceTerm;
+import com.student.integration.model.entity.Attendance;
+import com.student.integration.model.enums.AttendanceStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thống kê chuyên cần một sinh viên trong một lớp/học kỳ
+ * - rowScan: duyệt các dòng điểm danh của lớp (như GROUP BY trên bảng attendance, không tính I/O)
+ * - bitmap: AttendanceBitmapStore (popcount)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttendanceBitmapBenchmark {
+    
+    private static final int STUDENTS = 60;
+    private static final int SESSIONS = 90; // ~3 buổi/tuần × 30 tuần
+    
+    private final List<Attendance> rows = new ArrayList<>();
+    private AttendanceBitmapStore store;
+    private int term;
+    private long cursor;
+    
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2024, 9, 2);
+        term = AttendanceTerm.of(start);
+        AttendanceStatus[] statuses = AttendanceStatus.values();
+        
+        for (int session = 0; session < SESSIONS; session++) {
+            for (long student = 1; student <= STUDENTS; student++) {
+                Attendance attendance = new Attendance();
+                attendance.setStudentId(student);
+                attendance.setClassId(1);
+                attendance.setAttendanceDate(start.plusDays(session / 3 * 2L));
+                attendance.setSessionNumber(1 + session % 3);
+                attendance.setStatus(statuses[random.nextInt(10) < 7 ? 0 : random.nextInt(statuses.length)]);
+                rows.add(attendance);
+            }
+        }
+        
+        store = AttendanceBitmapStore.inMemory(STUDENTS);
+        store.applyUpserts(rows);
+    }
+    
+    private long nextStudent() {
+        cursor = cursor % STUDENTS + 1;
+        return cursor;
+    }
+    
+    @Benchmark
+    public int rowScan() {
+        long student = nextStudent();
+        int attended = 0;
+        for (Attendance row : rows) {
+            if (row.getStudentId() == student && row.getClassId() == 1
+                    && (row.getStatus() == AttendanceStatus.PRESENT || row.getStatus() == AttendanceStatus.LATE)) {
+                attended++;
+            }
+        }
+        return attended;
+    }
+    
+    @Benchmark
+    public AttendanceStats bitmapStats() {
+        return store.stats(nextStudent(), 1, term);
+    }
+    
+    @Benchmark
+    public int bitmapAbsentInLast10() {
+        return store.absentInLast(nextStudent(), 1, term, 10);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.student.integration.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.student.integration.config.DatabaseConfig;
+import com.student.integration.config.QueueManager;
+import com.student.integration.consumer.TransformerLoaderConsumer;
+import com.student.integration.consumer.ValidatorConsumer;
+import com.student.integration.generator.MessyDataGenerator;
+import com.student.integration.loader.ClassCodeSnapshot;
+import com.student.integration.loader.ImportBatchRepository;
+import com.student.integration.model.dto.BatchMarker;
+import com.student.integration.model.dto.ValidationResult;
+import com.student.integration.model.entity.ImportBatch;
+import com.student.integration.model.enums.ImportBatchStatus;
+import com.student.integration.producer.StudentProducer;
+import com.student.integration.tracing.TraceContext;
+import com.student.integration.transport.TransportFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kiểm tra hoàn thành batch khi có record không load được (transport inmemory, H2, không cần Docker)
+ *
+ * 1. Một record luôn lỗi khi load: transport bỏ sau khi hết lượt thử lại, batch vẫn COMPLETED
+ *    với record đó tính vào failed_rows
+ * 2. Một record biến mất (không bao giờ được ghi nhận): batch FAILED sau batch.completion.timeout.seconds,
+ *    awaitBatchCompletion trả về thay vì chờ mãi
+ *
+ * Usage:
+ *   java -cp target/benchmarks.jar com.student.integration.benchmark.BatchCompletionHarness [--sql-dir sql]
+ */
+public class BatchCompletionHarness {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BatchCompletionHarness.class);
+    
+    private static final int RECORDS = 500;
+    private static final int TIMEOUT_SECONDS = 2;
+    
+    private enum Mode { FAIL_ONE, LOSE_ONE }
+    
+    public static void main(String[] args) throws Exception {
+        BenchmarkData.quietLogging();
+        ((ch.qos.logback.classic.Logger) logger).setLevel(Level.INFO);
+        
+        Path sqlDir = args.length == 2 && "--sql-dir".equals(args[0]) ? Paths.get(args[1]) : Paths.get("sql");
+        boolean passed;
+        try (EmbeddedDatabase rawDb = EmbeddedDatabase.create("student_raw_db", sqlDir.resolve("raw_schema.sql"));
+             EmbeddedDatabase cleanDb = EmbeddedDatabase.create("student_clean_db", sqlDir.resolve("clean_schema.sql"))) {
+            
+            System.setProperty("transport.type", "inmemory");
+            System.setProperty("transport.inmemory.max.retries", "2");
+            System.setProperty("batch.completion.timeout.seconds", String.valueOf(TIMEOUT_SECONDS));
+            System.setProperty("metrics.http.enabled", "false");
+            System.setProperty("db.raw.url", rawDb.getUrl());
+            System.setProperty("db.raw.username", "sa");
+            System.setProperty("db.raw.password", "");
+            System.setProperty("db.clean.url", cleanDb.getUrl());
+            System.setProperty("db.clean.username", "sa");
+            System.setProperty("db.clean.password", "");
+            
+            passed = run();
+            
+            TransportFactory.getTransport().close();
+            ClassCodeSnapshot.getInstance().shutdown();
+            DatabaseConfig.getInstance().close();
+        }
+        
+        logger.info(passed ? "✅ All checks passed" : "❌ Some checks failed");
+        System.exit(passed ? 0 : 1);
+    }
+    
+    private static boolean run() throws Exception {
+        QueueManager queueManager = new QueueManager();
+        queueManager.setupQueues();
+        
+        FaultyLoader loader = new FaultyLoader();
+        ValidatorConsumer validator = new ValidatorConsumer();
+        validator.startConsuming(queueManager.getQueueRaw(), 50);
+        loader.startConsuming(queueManager.getQueueValidated(), 50);
+        
+        ImportBatchRepository batches = new ImportBatchRepository();
+        boolean passed = true;
+        
+        // 1. Record lỗi khi load
+        loader.mode = Mode.FAIL_ONE;
+        String batchId = publish("students_fail_one.csv", 1);
+        BatchMarker event = loader.awaitBatchCompletion(batchId, 30, TimeUnit.SECONDS);
+        ImportBatch batch = batches.findByBatchId(batchId);
+        logger.info("1️⃣  Failing record {}: event={}, import_batches={} loaded={} failed={} total={}",
+            loader.target.getRawData().getStudentId(), event, batch.getStatus(), batch.getSuccessfulRows(),
+            batch.getFailedRows(), batch.getTotalRows());
+        passed &= check(event != null, "batch with a failing record completed");
+        passed &= check(batch.getStatus() == ImportBatchStatus.COMPLETED, "import_batches COMPLETED");
+        passed &= check(batch.getSuccessfulRows() == validator.getValidCount() - 1,
+            "loaded = valid records - 1");
+        passed &= check(batch.getSuccessfulRows() + batch.getFailedRows() == batch.getTotalRows(),
+            "loaded + failed = total rows");
+        
+        // 2. Record bị mất
+        loader.mode = Mode.LOSE_ONE;
+        loader.target = null;
+        long start = System.nanoTime();
+        batchId = publish("students_lose_one.csv", 2);
+        event = loader.awaitBatchCompletion(batchId, 30, TimeUnit.SECONDS);
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        batch = batches.findByBatchId(batchId);
+        logger.info("2️⃣  Lost record {}: returned after {} ms, import_batches={} loaded={} ({})",
+            loader.target.getRawData().getStudentId(), waitedMs, batch.getStatus(), batch.getSuccessfulRows(),
+            batch.getErrorMessage());
+        passed &= check(event != null, "awaitBatchCompletion returned for the stuck batch");
+        passed &= check(batch.getStatus() == ImportBatchStatus.FAILED, "import_batches FAILED after timeout");
+        passed &= check(waitedMs >= TIMEOUT_SECONDS * 1000L, "batch failed only after the timeout");
+        
+        validator.stop();
+        loader.stop();
+        return passed;
+    }
+    
+    private static String publish(String fileName, long seed) throws Exception {
+        Path dir = Files.createTempDirectory("batch-completion");
+        Path csvFile = dir.resolve(fileName);
+        csvFile.toFile().deleteOnExit();
+        dir.toFile().deleteOnExit();
+        MessyDataGenerator.generateMessyStudentData(csvFile.toString(), RECORDS, seed);
+        return new StudentProducer().publishFromCSVStreaming(csvFile);
+    }
+    
+    private static boolean check(boolean condition, String description) {
+        logger.info("   {} {}", condition ? "✓" : "✗", description);
+        return condition;
+    }
+    
+    /**
+     * Loader thật, trừ một record (record đầu tiên nhận được của batch): luôn lỗi hoặc bị nuốt mất
+     */
+    private static final class FaultyLoader extends TransformerLoaderConsumer {
+        
+        volatile Mode mode = Mode.FAIL_ONE;
+        // In-memory transport giao lại đúng object khi thử lại → so sánh theo reference (messy data có trùng MSSV)
+        volatile ValidationResult target;
+        
+        @Override
+        protected void processMessage(ValidationResult result, TraceContext trace) throws Exception {
+            if (target == null) {
+                target = result;
+            }
+            if (result == target) {
+                if (mode == Mode.FAIL_ONE) {
+                    throw new SQLException("Simulated load failure for " + result.getRawData().getStudentId());
+                }
+                return;
+            }
+            super.processMessage(result, trace);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.student.integration.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.student.integration.generator.MessyDataGenerator;
+import com.student.integration.loader.ClassCodeSnapshot;
+import com.student.integration.model.dto.StudentRawDTO;
+import com.student.integration.model.dto.ValidationResult;
+import com.student.integration.producer.CSVReader;
+import com.student.integration.validator.ValidationChainBuilder;
+import com.student.integration.validator.Validator;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dataset dùng chung cho các benchmark
+ *
+ * - Sinh bằng MessyDataGenerator với seed cố định → mọi lần chạy cùng input
+ * - Không cần DB/RabbitMQ: class snapshot là map cố định các class_code của generator
+ * - Override bằng -Dbenchmark.records=... / -Dbenchmark.seed=...
+ */
+public final class BenchmarkData {
+    
+    public static final int RECORDS = Integer.getInteger("benchmark.records", 10000);
+    public static final long SEED = Long.getLong("benchmark.seed", 20240501L);
+    
+    private static Path csvFile;
+    
+    private BenchmarkData() {}
+    
+    /**
+     * Tắt DEBUG/INFO log (logback mặc định log DEBUG ra console)
+     */
+    public static void quietLogging() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+            .setLevel(Level.WARN);
+    }
+    
+    /**
+     * File CSV của dataset (sinh một lần mỗi JVM fork)
+     */
+    public static synchronized Path csvFile() {
+        if (csvFile == null) {
+            try {
+                Path dir = Files.createTempDirectory("student-benchmark");
+                Path file = dir.resolve("students_" + RECORDS + "_" + SEED + ".csv");
+                MessyDataGenerator.generateMessyStudentData(file.toString(), RECORDS, SEED);
+                file.toFile().deleteOnExit();
+                dir.toFile().deleteOnExit();
+                csvFile = file;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return csvFile;
+    }
+    
+    /**
+     * CSVRecords thô (cùng CSVFormat với CSVReader)
+     */
+    public static List<CSVRecord> csvRecords() {
+        try (Reader reader = Files.newBufferedReader(csvFile(), StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader,
+                 CSVFormat.DEFAULT
+                     .builder()
+                     .setHeader()
+                     .setSkipHeaderRecord(true)
+                     .setIgnoreEmptyLines(true)
+                     .setTrim(true)
+                     .build())) {
+            return parser.getRecords();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public static List<StudentRawDTO> students() {
+        try {
+            return new CSVReader().readCSV(csvFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Snapshot cố định các class_code mà generator sinh ra (không đọc DB)
+     */
+    public static ClassCodeSnapshot classSnapshot() {
+        return ClassCodeSnapshot.of(Map.of(
+            "SE01K01", 1, "SE01K02", 2, "AI01K01", 3,
+            "DS01K01", 4, "CS01K01", 5, "IS01K01", 6));
+    }
+    
+    /**
+     * Kết quả validate toàn bộ dataset qua chain đầy đủ
+     */
+    public static List<ValidationResult> validate(List<StudentRawDTO> students) {
+        Validator chain = ValidationChainBuilder.buildStudentValidationChain(classSnapshot());
+        List<ValidationResult> results = new ArrayList<>(students.size());
+        for (StudentRawDTO student : students) {
+            ValidationResult result = new ValidationResult(student);
+            chain.validate(student, result);
+            results.add(result);
+        }
+        return results;
+    }
+    
+    /**
+     * Records hợp lệ (valid = true) hoặc không hợp lệ
+     */
+    public static List<StudentRawDTO> students(boolean valid) {
+        List<StudentRawDTO> selected = new ArrayList<>();
+        for (ValidationResult result : validate(students())) {
+            if (result.isValid() == valid) {
+                selected.add(result.getRawData());
+            }
+        }
+        return selected;
+    }
+}
\ No newline at end of file
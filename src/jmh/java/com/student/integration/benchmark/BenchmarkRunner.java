@@ -0,0 +1,35 @@
+package com.student.integration.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point của target/benchmarks.jar
+ *
+ * Nhận các tham số giống org.openjdk.jmh.Main; nếu không chỉ định profiler (-prof)
+ * thì tự bật GC profiler để báo cáo cả bytes/op (gc.alloc.rate.norm) bên cạnh ns/op.
+ *
+ * VD: java -jar target/benchmarks.jar ValidationBenchmark -f 1
+ */
+public class BenchmarkRunner {
+    
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams()
+                || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (cli.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        
+        new Runner(options.build()).run();
+    }
+}
\ No newline at end of file
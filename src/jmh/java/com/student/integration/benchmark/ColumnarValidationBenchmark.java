@@ -0,0 +1,80 @@
+package com.student.integration.benchmark;
+
+import com.student.integration.model.dto.StudentRawDTO;
+import com.student.integration.model.dto.ValidationResult;
+import com.student.integration.validator.ValidationChainBuilder;
+import com.student.integration.validator.Validator;
+import com.student.integration.validator.batch.BatchValidationResult;
+import com.student.integration.validator.batch.ColumnarValidationEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validator chain từng record vs ColumnarValidationEngine trên cùng một batch (ns mỗi record)
+ * - mixed: dataset MessyDataGenerator nguyên bản (~20% record lỗi → slow path qua chain)
+ * - valid: chỉ record hợp lệ (engine không cần chạy lại chain)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnarValidationBenchmark {
+    
+    private static final int BATCH = 1024;
+    
+    @Param({"mixed", "valid"})
+    public String dataset;
+    
+    private Validator chain;
+    private ColumnarValidationEngine engine;
+    private List<StudentRawDTO> batch;
+    
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        chain = ValidationChainBuilder.buildStudentValidationChain(BenchmarkData.classSnapshot());
+        engine = new ColumnarValidationEngine(BenchmarkData.classSnapshot());
+        
+        List<StudentRawDTO> students = "valid".equals(dataset)
+            ? BenchmarkData.students(true)
+            : BenchmarkData.students();
+        if (students.size() < BATCH) {
+            throw new IllegalStateException("Dataset has only " + students.size() + " " + dataset + " records");
+        }
+        batch = new ArrayList<>(students.subList(0, BATCH));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<ValidationResult> chain() {
+        List<ValidationResult> results = new ArrayList<>(BATCH);
+        for (StudentRawDTO student : batch) {
+            ValidationResult result = new ValidationResult(student);
+            chain.validate(student, result);
+            results.add(result);
+        }
+        return results;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BatchValidationResult columnar() {
+        return engine.validate(batch);
+    }
+}
\ No newline at end of file
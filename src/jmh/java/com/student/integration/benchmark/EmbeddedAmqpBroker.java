@@ -0,0 +1,75 @@
+package com.student.integration.benchmark;
+
+import org.apache.qpid.server.SystemLauncher;
+import org.apache.qpid.server.model.SystemConfig;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AMQP 0-9-1 broker chạy trong JVM (Qpid Broker-J, memory store)
+ * Thay cho RabbitMQ trong PipelineThroughputHarness - không cần Docker
+ */
+public class EmbeddedAmqpBroker implements AutoCloseable {
+    
+    private static final String INITIAL_CONFIG = "harness/qpid-config.json";
+    
+    private final SystemLauncher launcher = new SystemLauncher();
+    private final int port;
+    private final Path workDir;
+    
+    private EmbeddedAmqpBroker(int port, Path workDir) {
+        this.port = port;
+        this.workDir = workDir;
+    }
+    
+    /**
+     * Start broker trên port trống với user/password chỉ định
+     */
+    public static EmbeddedAmqpBroker start(String username, String password) throws Exception {
+        URL config = EmbeddedAmqpBroker.class.getClassLoader().getResource(INITIAL_CONFIG);
+        if (config == null) {
+            throw new IllegalStateException("Missing classpath resource " + INITIAL_CONFIG);
+        }
+        
+        EmbeddedAmqpBroker broker = new EmbeddedAmqpBroker(freePort(),
+            Files.createTempDirectory("qpid-work"));
+        
+        Map<String, String> context = new HashMap<>();
+        context.put("qpid.amqp_port", String.valueOf(broker.port));
+        context.put("qpid.work_dir", broker.workDir.toString());
+        context.put("harness.amqp.username", username);
+        context.put("harness.amqp.password", password);
+        // QueueManager khai báo x-message-ttl / x-max-length (argument riêng của RabbitMQ)
+        context.put("queue.behaviourOnUnknownDeclareArgument", "IGNORE");
+        
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(SystemConfig.TYPE, "Memory");
+        attributes.put(SystemConfig.INITIAL_CONFIGURATION_LOCATION, config.toExternalForm());
+        attributes.put(SystemConfig.STARTUP_LOGGED_TO_SYSTEM_OUT, false);
+        attributes.put(SystemConfig.CONTEXT, context);
+        
+        broker.launcher.startup(attributes);
+        return broker;
+    }
+    
+    public int getPort() {
+        return port;
+    }
+    
+    @Override
+    public void close() {
+        launcher.shutdown();
+    }
+    
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.student.integration.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Database in-memory (H2, MODE=MySQL) thay cho MySQL trong PipelineThroughputHarness
+ *
+ * Schema lấy trực tiếp từ sql/*.sql, chỉ chỉnh những chỗ H2 không chấp nhận:
+ * - Bỏ DROP/CREATE DATABASE và USE
+ * - Tên index inline được prefix bằng tên bảng (H2: tên index unique trong cả schema)
+ * - Bỏ mệnh đề PARTITION BY (bảng attendance thành bảng thường)
+ */
+public class EmbeddedDatabase implements AutoCloseable {
+    
+    private static final Pattern CREATE_TABLE = Pattern.compile("^CREATE TABLE (\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INLINE_INDEX = Pattern.compile("\\b(INDEX|KEY) (\\w+) \\(");
+    
+    private final String url;
+    
+    // Giữ 1 connection để DB tồn tại suốt vòng đời harness
+    private final Connection keepAlive;
+    
+    private EmbeddedDatabase(String name) throws SQLException {
+        this.url = "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        this.keepAlive = DriverManager.getConnection(url, "sa", "");
+    }
+    
+    public static EmbeddedDatabase create(String name, Path schemaFile) throws SQLException, IOException {
+        EmbeddedDatabase database = new EmbeddedDatabase(name);
+        database.runScript(schemaFile);
+        return database;
+    }
+    
+    public String getUrl() {
+        return url;
+    }
+    
+    public void execute(String sql) throws SQLException {
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+    
+    private void runScript(Path schemaFile) throws SQLException, IOException {
+        StringBuilder script = new StringBuilder();
+        for (String line : Files.readAllLines(schemaFile, StandardCharsets.UTF_8)) {
+            if (line.trim().startsWith("--")) {
+                continue;
+            }
+            int comment = line.indexOf(" --");
+            script.append(comment >= 0 ? line.substring(0, comment) : line).append('\n');
+        }
+        
+        for (String statement : script.toString().split(";\\s*\n")) {
+            String sql = statement.trim();
+            String upper = sql.toUpperCase(Locale.ROOT);
+            if (sql.isEmpty() || upper.startsWith("DROP DATABASE")
+                    || upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ")) {
+                continue;
+            }
+            
+            Matcher table = CREATE_TABLE.matcher(sql);
+            if (table.find()) {
+                sql = INLINE_INDEX.matcher(sql).replaceAll("$1 " + table.group(1) + "_$2 (");
+                // H2 không có partitioning: bảng thường, cùng cột/index
+                int partitioning = sql.toUpperCase(Locale.ROOT).indexOf("PARTITION BY");
+                if (partitioning >= 0) {
+                    sql = sql.substring(0, partitioning).trim();
+                }
+            }
+            execute(sql);
+        }
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        execute("SHUTDOWN");
+        keepAlive.close();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.student.integration.benchmark;
+
+import com.student.integration.model.dto.StudentRawDTO;
+import com.student.integration.model.dto.ValidationResult;
+import com.student.integration.transport.JsonCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialize/deserialize message giữa các stage
+ * - StudentRawDTO: student.raw
+ * - ValidationResult: student.validated / student.error (có cả records lỗi)
+ *
+ * Đo đúng đường production: JsonCodec dùng chung (Serializer/Deserializer viết tay)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    
+    private JsonCodec codec;
+    
+    private StudentRawDTO[] students;
+    private ValidationResult[] results;
+    private byte[][] studentJson;
+    private byte[][] resultJson;
+    private int cursor;
+    
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkData.quietLogging();
+        
+        codec = JsonCodec.getInstance();
+        
+        List<StudentRawDTO> all = BenchmarkData.students();
+        students = all.toArray(new StudentRawDTO[0]);
+        results = BenchmarkData.validate(all).toArray(new ValidationResult[0]);
+        
+        studentJson = new byte[students.length][];
+        resultJson = new byte[results.length][];
+        for (int i = 0; i < students.length; i++) {
+            studentJson[i] = codec.encode(students[i]);
+            resultJson[i] = codec.encode(results[i]);
+        }
+    }
+    
+    private int next() {
+        int index = cursor;
+        if (++cursor == students.length) {
+            cursor = 0;
+        }
+        return index;
+    }
+    
+    @Benchmark
+    public byte[] serializeStudentRaw() throws Exception {
+        return codec.encode(students[next()]);
+    }
+    
+    @Benchmark
+    public StudentRawDTO deserializeStudentRaw() throws Exception {
+        return codec.decode(studentJson[next()], StudentRawDTO.class);
+    }
+    
+    @Benchmark
+    public byte[] serializeValidationResult() throws Exception {
+        return codec.encode(results[next()]);
+    }
+    
+    @Benchmark
+    public ValidationResult deserializeValidationResult() throws Exception {
+        return codec.decode(resultJson[next()], ValidationResult.class);
+    }
+}
\ No newline at end of file
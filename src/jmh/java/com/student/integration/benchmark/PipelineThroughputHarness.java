@@ -0,0 +1,384 @@
+package com.student.integration.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.DatabaseConfig;
+import com.student.integration.config.MessagePublisher;
+import com.student.integration.config.QueueManager;
+import com.student.integration.config.RabbitMQConfig;
+import com.student.integration.consumer.TransformerLoaderConsumer;
+import com.student.integration.consumer.ValidatorConsumer;
+import com.student.integration.generator.MessyDataGenerator;
+import com.student.integration.loader.ClassCodeSnapshot;
+import com.student.integration.loader.StudentLoader;
+import com.student.integration.metrics.LatencyHistogram;
+import com.student.integration.model.dto.StudentRawDTO;
+import com.student.integration.producer.CSVReader;
+import com.student.integration.transport.Subscription;
+import com.student.integration.transport.Transport;
+import com.student.integration.transport.TransportFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end throughput harness: CSV → Producer → Validator → Transformer/Loader → DB
+ *
+ * - Chạy toàn bộ pipeline thật (ValidatorConsumer, TransformerLoaderConsumer, MessagePublisher)
+ *   nhưng với broker AMQP và DB in-process → không cần Docker/RabbitMQ/MySQL
+ * - --transport inmemory: bỏ broker, các stage nối bằng ring buffer (InMemoryTransport)
+ * - --transport log: bỏ broker, các stage nối bằng log memory-mapped trong thư mục tạm (LogTransport)
+ * - Xác định hoàn thành bằng cách đếm records qua từng stage (không sleep cố định)
+ * - Report: records/s, p50/p99 latency theo stage, peak heap
+ *
+ * Usage:
+ *   java -cp target/benchmarks.jar com.student.integration.benchmark.PipelineThroughputHarness \
+ *       [--records 20000,200000,2000000] [--seed 20240501] [--prefetch 50] \
+ *       [--timeout-s 3600] [--sql-dir sql] [--transport amqp|inmemory|log]
+ *
+ * Lưu ý: peak heap bao gồm cả broker và DB in-memory (chạy chung JVM).
+ */
+public class PipelineThroughputHarness {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PipelineThroughputHarness.class);
+    
+    private static final long POLL_INTERVAL_MS = 20;
+    
+    private final List<Integer> datasetSizes = new ArrayList<>();
+    private long seed = BenchmarkData.SEED;
+    private int prefetch = 50;
+    private long timeoutSeconds = 3600;
+    private Path sqlDir = Paths.get("sql");
+    private String transportType = "amqp";
+    
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    
+    public static void main(String[] args) throws Exception {
+        BenchmarkData.quietLogging();
+        ((ch.qos.logback.classic.Logger) logger).setLevel(Level.INFO);
+        
+        PipelineThroughputHarness harness = new PipelineThroughputHarness();
+        harness.parseArgs(args);
+        harness.run();
+        
+        // Thread của consumers / Hikari / broker không phải daemon
+        System.exit(0);
+    }
+    
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--records":
+                    for (String size : value.split(",")) {
+                        datasetSizes.add(Integer.parseInt(size.trim()));
+                    }
+                    i++;
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    i++;
+                    break;
+                case "--prefetch":
+                    prefetch = Integer.parseInt(value);
+                    i++;
+                    break;
+                case "--timeout-s":
+                    timeoutSeconds = Long.parseLong(value);
+                    i++;
+                    break;
+                case "--sql-dir":
+                    sqlDir = Paths.get(value);
+                    i++;
+                    break;
+                case "--transport":
+                    transportType = value;
+                    i++;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        if (datasetSizes.isEmpty()) {
+            datasetSizes.add(20000);
+        }
+    }
+    
+    private void run() throws Exception {
+        ConfigLoader config = ConfigLoader.getInstance();
+        boolean amqp = "amqp".equals(transportType);
+        
+        try (EmbeddedDatabase rawDb = EmbeddedDatabase.create("student_raw_db", sqlDir.resolve("raw_schema.sql"));
+             EmbeddedDatabase cleanDb = EmbeddedDatabase.create("student_clean_db", sqlDir.resolve("clean_schema.sql"));
+             EmbeddedAmqpBroker broker = amqp
+                 ? EmbeddedAmqpBroker.start(
+                     config.getProperty("rabbitmq.username", "admin"),
+                     config.getProperty("rabbitmq.password", "admin123"))
+                 : null) {
+            
+            // Trỏ các singleton config sang stand-ins (phải set trước khi chúng khởi tạo)
+            System.setProperty("transport.type", transportType);
+            Path logDir = null;
+            if ("log".equals(transportType)) {
+                logDir = Files.createTempDirectory("pipeline-log");
+                System.setProperty("transport.log.dir", logDir.toString());
+            }
+            if (broker != null) {
+                System.setProperty("rabbitmq.host", "localhost");
+                System.setProperty("rabbitmq.port", String.valueOf(broker.getPort()));
+            }
+            System.setProperty("db.raw.url", rawDb.getUrl());
+            System.setProperty("db.raw.username", "sa");
+            System.setProperty("db.raw.password", "");
+            System.setProperty("db.clean.url", cleanDb.getUrl());
+            System.setProperty("db.clean.username", "sa");
+            System.setProperty("db.clean.password", "");
+            
+            logger.info("Transport: {}{}, H2 (MySQL mode) databases ready", transportType,
+                broker != null ? " (embedded AMQP broker on port " + broker.getPort() + ")" : "");
+            
+            QueueManager queueManager = new QueueManager();
+            queueManager.setupQueues();
+            
+            ValidatorConsumer validator = new ValidatorConsumer();
+            TransformerLoaderConsumer transformerLoader = new TransformerLoaderConsumer();
+            validator.startConsuming(queueManager.getQueueRaw(), prefetch);
+            transformerLoader.startConsuming(queueManager.getQueueValidated(), prefetch);
+            
+            // Sink cho 2 queue cuối (không ai consume trong pipeline) để broker không giữ hết trong heap
+            Transport transport = TransportFactory.getTransport();
+            AtomicLong errorSink = new AtomicLong();
+            AtomicLong transformedSink = new AtomicLong();
+            Subscription errorSubscription = transport.subscribe(queueManager.getQueueError(), prefetch,
+                message -> errorSink.incrementAndGet());
+            Subscription transformedSubscription = transport.subscribe(queueManager.getQueueTransformed(), prefetch,
+                message -> transformedSink.incrementAndGet());
+            
+            List<RunResult> results = new ArrayList<>();
+            for (int records : datasetSizes) {
+                cleanDb.execute("DELETE FROM students");
+                results.add(runOnce(records, validator, transformerLoader, errorSink, transformedSink));
+            }
+            
+            printReport(results);
+            
+            errorSubscription.cancel();
+            transformedSubscription.cancel();
+            validator.stop();
+            transformerLoader.stop();
+            transport.close();
+            ClassCodeSnapshot.getInstance().shutdown();
+            if (amqp) {
+                RabbitMQConfig.getInstance().closeConnection();
+            }
+            if (logDir != null) {
+                deleteRecursively(logDir);
+            }
+            DatabaseConfig.getInstance().close();
+        }
+    }
+    
+    private RunResult runOnce(int records, ValidatorConsumer validator, TransformerLoaderConsumer transformerLoader,
+                              AtomicLong errorSink, AtomicLong transformedSink) throws Exception {
+        
+        Path csvFile = Files.createTempFile("students_" + records + "_", ".csv");
+        csvFile.toFile().deleteOnExit();
+        MessyDataGenerator.generateMessyStudentData(csvFile.toString(), records, seed);
+        
+        // Baseline (consumers dùng lại giữa các lần chạy)
+        long validatedBase = validator.getTotalProcessed();
+        long validBase = validator.getValidCount();
+        long loadedBase = transformerLoader.getSuccessCount();
+        long errorSinkBase = errorSink.get();
+        long transformedSinkBase = transformedSink.get();
+        validator.getProcessingLatency().reset();
+        transformerLoader.getProcessingLatency().reset();
+        
+        RunResult result = new RunResult(records);
+        System.gc();
+        PeakHeapSampler heapSampler = new PeakHeapSampler();
+        heapSampler.start();
+        
+        logger.info("▶ Running {} records...", records);
+        long start = System.nanoTime();
+        
+        // 1. Publish (CSVReader streaming + MessagePublisher như StudentProducer)
+        MessagePublisher publisher = new MessagePublisher();
+        new CSVReader().readCSVStreaming(csvFile, new CSVReader.RecordCallback() {
+            @Override
+            public void onRecord(StudentRawDTO student, int recordNumber) throws Exception {
+                long publishStart = System.nanoTime();
+                publisher.publishToRaw(student);
+                result.publishLatency.record(System.nanoTime() - publishStart);
+                result.published++;
+            }
+            
+            @Override
+            public void onError(int rowNumber, Exception error) {
+                result.publishErrors++;
+            }
+            
+            @Override
+            public void onComplete(int totalProcessed, int totalErrors) {
+            }
+        });
+        result.publishNanos = System.nanoTime() - start;
+        
+        // 2. Chờ đến khi mọi record đi hết pipeline
+        long deadline = start + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (true) {
+            long now = System.nanoTime();
+            long validated = validator.getTotalProcessed() - validatedBase;
+            long valid = validator.getValidCount() - validBase;
+            long loaded = transformerLoader.getSuccessCount() - loadedBase;
+            
+            if (result.validateNanos == 0 && validated >= result.published) {
+                result.validateNanos = now - start;
+            }
+            
+            boolean done = validated >= result.published
+                && loaded >= valid
+                && errorSink.get() - errorSinkBase >= validated - valid
+                && transformedSink.get() - transformedSinkBase >= loaded;
+            
+            if (done || now > deadline) {
+                result.completed = done;
+                result.totalNanos = now - start;
+                result.validated = validated;
+                result.valid = valid;
+                result.loaded = loaded;
+                break;
+            }
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+        
+        heapSampler.stop();
+        result.peakHeapBytes = heapSampler.peak;
+        result.validateLatency = validator.getProcessingLatency().snapshot();
+        result.loadLatency = transformerLoader.getProcessingLatency().snapshot();
+        result.studentsInDb = new StudentLoader().countStudents();
+        
+        Files.deleteIfExists(csvFile);
+        
+        if (!result.completed) {
+            logger.warn("Timed out after {}s: validated {}/{}, loaded {}/{}",
+                timeoutSeconds, result.validated, result.published, result.loaded, result.valid);
+        }
+        return result;
+    }
+    
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+    
+    private void printReport(List<RunResult> results) {
+        long maxHeap = memory.getHeapMemoryUsage().getMax();
+        
+        logger.info("");
+        logger.info("╔══════════════════════════════════════════════════════════════════╗");
+        logger.info("║              END-TO-END PIPELINE THROUGHPUT                      ║");
+        logger.info("╚══════════════════════════════════════════════════════════════════╝");
+        
+        for (RunResult r : results) {
+            double seconds = r.totalNanos / 1e9;
+            logger.info(String.format("Dataset: %,d records (seed %d, prefetch %d, transport %s)%s",
+                r.records, seed, prefetch, transportType, r.completed ? "" : "  *** TIMED OUT ***"));
+            logger.info(String.format("  Published: %,d (%d parse errors) | Validated: %,d | Valid: %,d | Loaded: %,d | In DB: %,d",
+                r.published, r.publishErrors, r.validated, r.valid, r.loaded, r.studentsInDb));
+            logger.info(String.format("  End-to-end: %.2f s → %,.1f records/s",
+                seconds, r.published / seconds));
+            logger.info(String.format("  Publish done: %.2f s | Validate done: %.2f s | Load done: %.2f s",
+                r.publishNanos / 1e9, r.validateNanos / 1e9, r.totalNanos / 1e9));
+            logger.info(String.format("  %-18s %10s %10s %10s %10s", "Stage latency", "count", "p50(us)", "p99(us)", "max(us)"));
+            logStage("publish", r.publishLatency.snapshot());
+            logStage("validate", r.validateLatency);
+            logStage("transform+load", r.loadLatency);
+            logger.info(String.format("  Peak heap: %,.1f MB (max %,.1f MB)",
+                r.peakHeapBytes / 1048576.0, maxHeap / 1048576.0));
+        }
+    }
+    
+    private void logStage(String stage, LatencyHistogram.Snapshot latency) {
+        logger.info(String.format("  %-18s %10d %10.1f %10.1f %10.1f", stage, latency.getCount(),
+            latency.getValueAtPercentile(50.0, TimeUnit.MICROSECONDS),
+            latency.getValueAtPercentile(99.0, TimeUnit.MICROSECONDS),
+            latency.getMaxNanos() / 1000.0));
+    }
+    
+    /**
+     * Kết quả một lần chạy
+     */
+    private static class RunResult {
+        final int records;
+        final LatencyHistogram publishLatency = new LatencyHistogram();
+        
+        long published;
+        int publishErrors;
+        long validated;
+        long valid;
+        long loaded;
+        int studentsInDb;
+        boolean completed;
+        
+        long publishNanos;
+        long validateNanos;
+        long totalNanos;
+        long peakHeapBytes;
+        
+        LatencyHistogram.Snapshot validateLatency;
+        LatencyHistogram.Snapshot loadLatency;
+        
+        RunResult(int records) {
+            this.records = records;
+        }
+    }
+    
+    /**
+     * Lấy mẫu heap used mỗi 10ms, giữ giá trị lớn nhất
+     */
+    private class PeakHeapSampler implements Runnable {
+        
+        private volatile boolean running = true;
+        private volatile long peak;
+        private Thread thread;
+        
+        void start() {
+            thread = new Thread(this, "peak-heap-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        
+        void stop() throws InterruptedException {
+            running = false;
+            thread.join();
+        }
+        
+        @Override
+        public void run() {
+            while (running) {
+                peak = Math.max(peak, memory.getHeapMemoryUsage().getUsed());
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.student.integration.benchmark;
+
+import com.student.integration.model.dto.StudentRawDTO;
+import com.student.integration.util.LongIntHashMap;
+import com.student.integration.util.StudentIdCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup theo mã sinh viên (mã lấy từ record vừa deserialize, không cache hashCode)
+ * - HashMap<String, Integer>: cách làm hiện tại
+ * - StudentIdCodec + LongIntHashMap: key đóng gói, không boxing
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentKeyIndexBenchmark {
+    
+    private Map<String, Integer> stringIndex;
+    private LongIntHashMap packedIndex;
+    
+    private char[][] lookups;
+    private int cursor;
+    
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        
+        List<StudentRawDTO> students = BenchmarkData.students(true);
+        stringIndex = new HashMap<>();
+        packedIndex = new LongIntHashMap(students.size(), -1);
+        for (int i = 0; i < students.size(); i++) {
+            String studentId = students.get(i).getStudentId();
+            stringIndex.put(studentId, i);
+            packedIndex.put(StudentIdCodec.encode(studentId), i);
+        }
+        
+        lookups = new char[students.size()][];
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = students.get(i).getStudentId().toCharArray();
+        }
+    }
+    
+    /**
+     * String mới mỗi lần (như chuỗi từ parser, hashCode chưa được tính): cả 2 cách cùng chịu chi phí này
+     */
+    private String next() {
+        char[] studentId = lookups[cursor];
+        if (++cursor == lookups.length) {
+            cursor = 0;
+        }
+        return new String(studentId);
+    }
+    
+    @Benchmark
+    public Integer stringHashMap() {
+        return stringIndex.get(next());
+    }
+    
+    @Benchmark
+    public int packedLongIntMap() {
+        return packedIndex.get(StudentIdCodec.encode(next()));
+    }
+}
\ No newline at end of file
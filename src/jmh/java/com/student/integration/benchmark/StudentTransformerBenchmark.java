@@ -0,0 +1,59 @@
+package com.student.integration.benchmark;
+
+import com.student.integration.model.dto.ValidationResult;
+import com.student.integration.model.entity.Student;
+import com.student.integration.transformer.StudentTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StudentTransformer.transform trên các ValidationResult hợp lệ
+ * (giống input thực tế của TransformerLoaderConsumer)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentTransformerBenchmark {
+    
+    private StudentTransformer transformer;
+    private ValidationResult[] results;
+    private int cursor;
+    
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        transformer = new StudentTransformer();
+        
+        List<ValidationResult> valid = new ArrayList<>();
+        for (ValidationResult result : BenchmarkData.validate(BenchmarkData.students())) {
+            if (result.isValid()) {
+                valid.add(result);
+            }
+        }
+        results = valid.toArray(new ValidationResult[0]);
+    }
+    
+    @Benchmark
+    public Student transform() {
+        ValidationResult result = results[cursor];
+        if (++cursor == results.length) {
+            cursor = 0;
+        }
+        return transformer.transform(result, result.getParsedData().getClassId());
+    }
+}
\ No newline at end of file
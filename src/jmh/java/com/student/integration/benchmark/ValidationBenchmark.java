@@ -0,0 +1,57 @@
+package com.student.integration.benchmark;
+
+import com.student.integration.model.dto.StudentRawDTO;
+import com.student.integration.model.dto.ValidationResult;
+import com.student.integration.validator.ValidationChainBuilder;
+import com.student.integration.validator.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation chain đầy đủ (7 validators) trên records hợp lệ / không hợp lệ
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+    
+    @Param({"valid", "invalid"})
+    public String dataset;
+    
+    private Validator chain;
+    private StudentRawDTO[] students;
+    private int cursor;
+    
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        chain = ValidationChainBuilder.buildStudentValidationChain(BenchmarkData.classSnapshot());
+        students = BenchmarkData.students("valid".equals(dataset)).toArray(new StudentRawDTO[0]);
+    }
+    
+    @Benchmark
+    public ValidationResult fullChain() {
+        StudentRawDTO student = students[cursor];
+        if (++cursor == students.length) {
+            cursor = 0;
+        }
+        
+        ValidationResult result = new ValidationResult(student);
+        chain.validate(student, result);
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.student.integration.benchmark;
+
+import com.student.integration.model.dto.StudentRawDTO;
+import com.student.integration.model.dto.ValidationResult;
+import com.student.integration.validator.Validator;
+import com.student.integration.validator.impl.ClassCodeValidator;
+import com.student.integration.validator.impl.DateOfBirthValidator;
+import com.student.integration.validator.impl.EmailValidator;
+import com.student.integration.validator.impl.GPAValidator;
+import com.student.integration.validator.impl.PhoneValidator;
+import com.student.integration.validator.impl.RequiredFieldsValidator;
+import com.student.integration.validator.impl.StudentIdValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Từng validator chạy riêng (không có next)
+ * - valid: records pass toàn bộ chain
+ * - invalid: records bị chính validator này reject
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidatorBenchmark {
+    
+    @Param({"RequiredFields", "StudentId", "Email", "Phone", "DateOfBirth", "GPA", "ClassCode"})
+    public String rule;
+    
+    @Param({"valid", "invalid"})
+    public String dataset;
+    
+    private Validator validator;
+    private StudentRawDTO[] students;
+    private int cursor;
+    
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        validator = createValidator(rule);
+        
+        List<StudentRawDTO> selected;
+        if ("valid".equals(dataset)) {
+            selected = BenchmarkData.students(true);
+        } else {
+            selected = new ArrayList<>();
+            for (StudentRawDTO student : BenchmarkData.students()) {
+                ValidationResult result = new ValidationResult(student);
+                validator.validate(student, result);
+                if (!result.isValid()) {
+                    selected.add(student);
+                }
+            }
+        }
+        
+        if (selected.isEmpty()) {
+            throw new IllegalStateException("No " + dataset + " records for rule " + rule);
+        }
+        students = selected.toArray(new StudentRawDTO[0]);
+    }
+    
+    @Benchmark
+    public ValidationResult validate() {
+        StudentRawDTO student = students[cursor];
+        if (++cursor == students.length) {
+            cursor = 0;
+        }
+        
+        ValidationResult result = new ValidationResult(student);
+        validator.validate(student, result);
+        return result;
+    }
+    
+    private static Validator createValidator(String rule) {
+        switch (rule) {
+            case "RequiredFields": return new RequiredFieldsValidator();
+            case "StudentId": return new StudentIdValidator();
+            case "Email": return new EmailValidator();
+            case "Phone": return new PhoneValidator();
+            case "DateOfBirth": return new DateOfBirthValidator();
+            case "GPA": return new GPAValidator();
+            case "ClassCode": return new ClassCodeValidator(BenchmarkData.classSnapshot());
+            default: throw new IllegalArgumentException("Unknown rule: " + rule);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.student.integration.producer;
+
+import com.student.integration.benchmark.BenchmarkData;
+import com.student.integration.model.dto.StudentRawDTO;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSVReader.parseRecord: CSVRecord → StudentRawDTO (một record mỗi op)
+ * Nằm trong package producer vì parseRecord là package-private
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSVReaderBenchmark {
+    
+    private CSVReader csvReader;
+    private CSVRecord[] records;
+    private int cursor;
+    
+    @Setup
+    public void setup() {
+        BenchmarkData.quietLogging();
+        csvReader = new CSVReader();
+        List<CSVRecord> all = BenchmarkData.csvRecords();
+        records = all.toArray(new CSVRecord[0]);
+    }
+    
+    @Benchmark
+    public StudentRawDTO parseRecord() {
+        CSVRecord record = records[cursor];
+        if (++cursor == records.length) {
+            cursor = 0;
+        }
+        return csvReader.parseRecord(record, "benchmark.csv", cursor + 1);
+    }
+}
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.student.integration.config.QueueManager;
 import com.student.integration.config.RabbitMQConfig;
 import com.student.integration.consumer.TransformerLoaderConsumer;
 import com.student.integration.consumer.ValidatorConsumer;
+import com.student.integration.model.dto.BatchMarker;
 import com.student.integration.producer.StudentProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,8 +13,6 @@ import org.slf4j.LoggerFactory;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -30,7 +29,6 @@ public class FullPipelineTest {
         logger.info("║  CSV → RabbitMQ → Validate → Transform → MySQL       ║");
         logger.info("╚══════════════════════════════════════════════════════╝\n");
         
-        ExecutorService executorService = Executors.newFixedThreadPool(2);
         ValidatorConsumer validatorConsumer = null;
         TransformerLoaderConsumer transformerConsumer = null;
         
@@ -48,38 +46,16 @@ public class FullPipelineTest {
             QueueManager queueManager = new QueueManager();
             queueManager.setupQueues();
             
-            // 2. Start Consumers (in background threads)
+            // 2. Start Consumers (basicConsume chạy trên thread của RabbitMQ client)
             logger.info("\n📋 STEP 2: Starting consumers...\n");
             
             validatorConsumer = new ValidatorConsumer();
-            ValidatorConsumer finalValidatorConsumer = validatorConsumer;
-            executorService.submit(() -> {
-                try {
-                    logger.info("🔹 Validator Consumer started");
-                    finalValidatorConsumer.startConsuming(queueManager.getQueueRaw(), 50);
-                    finalValidatorConsumer.waitUntilInterrupted();
-                } catch (Exception e) {
-                    logger.error("Validator Consumer error", e);
-                }
-            });
-            
-            // Wait a bit for consumer to start
-            Thread.sleep(2000);
+            validatorConsumer.startConsuming(queueManager.getQueueRaw(), 50);
+            logger.info("🔹 Validator Consumer started");
             
             transformerConsumer = new TransformerLoaderConsumer();
-            TransformerLoaderConsumer finalTransformerConsumer = transformerConsumer;
-            executorService.submit(() -> {
-                try {
-                    logger.info("🔹 Transformer & Loader Consumer started");
-                    finalTransformerConsumer.startConsuming(queueManager.getQueueValidated(), 50);
-                    finalTransformerConsumer.waitUntilInterrupted();
-                } catch (Exception e) {
-                    logger.error("Transformer Consumer error", e);
-                }
-            });
-            
-            // Wait for consumers to be ready
-            Thread.sleep(2000);
+            transformerConsumer.startConsuming(queueManager.getQueueValidated(), 50);
+            logger.info("🔹 Transformer & Loader Consumer started");
             
             // 3. Publish CSV data
             logger.info("\n📋 STEP 3: Publishing CSV data...\n");
@@ -93,38 +69,36 @@ public class FullPipelineTest {
             long startTime = System.currentTimeMillis();
             
             logger.info("📤 Starting to publish 20,000 records (streaming mode)...");
-            producer.publishFromCSVStreaming(csvFile);
+            String batchId = producer.publishFromCSVStreaming(csvFile);
             
             long publishTime = System.currentTimeMillis() - startTime;
-            logger.info("✅ Publishing completed in {:.2f} seconds\n", publishTime / 1000.0);
+            logger.info(String.format("✅ Publishing completed in %.2f seconds\n", publishTime / 1000.0));
             
-            // 4. Wait for processing
-            logger.info("📋 STEP 4: Waiting for pipeline to process...\n");
-            logger.info("⏳ This will take 2-3 minutes for 20,000 records");
-            logger.info("   You can monitor progress in the logs above");
-            logger.info("   Press Ctrl+C to stop early\n");
+            // 4. Chờ record cuối của batch được load (END_OF_STREAM → BATCH_COMPLETED)
+            logger.info("📋 STEP 4: Waiting for batch {} to be loaded...\n", batchId);
             
-            // Wait for processing (or until interrupted)
-            Thread.sleep(180000); // 3 minutes
+            BatchMarker completed = transformerConsumer.awaitBatchCompletion(batchId, 30, TimeUnit.MINUTES);
+            long totalTime = System.currentTimeMillis() - startTime;
             
             // 5. Stop consumers
             logger.info("\n📋 STEP 5: Stopping consumers...\n");
             
-            if (finalValidatorConsumer != null) {
-                finalValidatorConsumer.stop();
-            }
-            
-            if (finalTransformerConsumer != null) {
-                finalTransformerConsumer.stop();
-            }
-            
-            executorService.shutdownNow();
-            executorService.awaitTermination(10, TimeUnit.SECONDS);
+            validatorConsumer.stop();
+            transformerConsumer.stop();
+            validatorConsumer = null;
+            transformerConsumer = null;
             
             // 6. Final summary
             logger.info("\n╔════════════════════════════════════════════════╗");
             logger.info("║           PIPELINE TEST COMPLETED             ║");
             logger.info("╚════════════════════════════════════════════════╝");
+            if (completed != null) {
+                logger.info(String.format("✅ %d rows → %d loaded, %d rejected in %.2f seconds",
+                    completed.getTotalRows(), completed.getLoadedRecords(),
+                    completed.getFailedRows(), totalTime / 1000.0));
+            } else {
+                logger.warn("⚠️  Batch {} did not complete within timeout", batchId);
+            }
             logger.info("✅ Check RabbitMQ Management UI: http://localhost:15672");
             logger.info("✅ Check MySQL Clean DB for inserted students");
             
@@ -135,7 +109,6 @@ public class FullPipelineTest {
             try {
                 if (validatorConsumer != null) validatorConsumer.stop();
                 if (transformerConsumer != null) transformerConsumer.stop();
-                executorService.shutdownNow();
                 DatabaseConfig.getInstance().close();
                 RabbitMQConfig.getInstance().closeConnection();
             } catch (Exception e) {
@@ -0,0 +1,468 @@
+package com.student.integration.analytics;
+
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.DatabaseConfig;
+import com.student.integration.metrics.Counter;
+import com.student.integration.metrics.MetricsRegistry;
+import com.student.integration.model.dto.AtRiskAlert;
+import com.student.integration.model.dto.AttendanceChange;
+import com.student.integration.model.dto.AttendanceChangeBatch;
+import com.student.integration.model.enums.AlertState;
+import com.student.integration.model.enums.AtRiskRule;
+import com.student.integration.model.enums.AttendanceStatus;
+import com.student.integration.util.CoarseClock;
+import com.student.integration.util.LongHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Phát hiện sinh viên có nguy cơ theo luồng (không chờ batch ban đêm)
+ *
+ * - Trạng thái theo sinh viên nằm trong mảng nguyên thủy index = students.id
+ *   (~21 byte / sinh viên: số buổi tính tỷ lệ, số buổi vắng, GPA × 100, cờ cảnh báo,
+ *   version + cửa sổ 64 version đã áp dụng), mảng tự nới khi gặp id lớn hơn
+ * - Mỗi AttendanceChange (status cũ → mới, AttendanceSummaryWriter tính trong transaction ghi)
+ *   là -1/+1 trên bộ đếm của học kỳ hiện tại → O(1), không đọc lại DB
+ * - Idempotent theo term_version (attendance_term_summary.version của transaction ghi):
+ *   transaction đã áp dụng (batch giao lại, thay đổi còn trong queue lúc warm-up) bị bỏ qua;
+ *   version cũ hơn cửa sổ 64 cũng bị bỏ (đếm vào atrisk_changes_replayed_total).
+ *   term_version = 0 (process ghi tắt attendance.summary.enabled) → áp dụng như cũ, không chống lặp
+ * - Tỷ lệ vắng = ABSENT / (PRESENT + LATE + ABSENT), EXCUSED không tính; chỉ xét khi đủ
+ *   atrisk.absence.min.sessions buổi
+ * - Hysteresis: RAISED khi vượt ngưỡng vào, CLEARED khi về qua ngưỡng ra (ngưỡng ra lỏng hơn)
+ *   nên giá trị dao động quanh một ngưỡng không sinh cảnh báo liên tục
+ * - Học kỳ hiện tại = học kỳ mới nhất đã thấy: thay đổi của học kỳ cũ bị bỏ qua, gặp học kỳ mới
+ *   thì bộ đếm vắng về 0 (cờ ABSENCE_RATE xóa không phát sự kiện)
+ * - Khởi động: warmUp() nạp attendance_term_summary của học kỳ hiện tại (kèm version) và students.gpa,
+ *   bật cờ cho sinh viên đang vượt ngưỡng mà không phát lại cảnh báo
+ * - Cảnh báo là at-most-once: trạng thái đổi trước khi consumer publish, publish lỗi thì lần giao lại
+ *   bị bỏ theo version nên cảnh báo đó mất (rule vẫn đúng, lần vượt/về ngưỡng sau phát bình thường)
+ * - Thread-safe (synchronized): consumer attendance và consumer GPA gọi từ 2 thread
+ */
+public class AtRiskDetector {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AtRiskDetector.class);
+    
+    private static final byte FLAG_ABSENCE = 1;
+    private static final byte FLAG_GPA = 2;
+    private static final short GPA_UNKNOWN = -1;
+    
+    private static final int MAX_STUDENT_ID = Integer.MAX_VALUE - 8;
+    private static final int VERSION_WINDOW = Long.SIZE;
+    
+    private final double absenceEnter;
+    private final double absenceExit;
+    private final int minSessions;
+    // Ngưỡng GPA × 100 (so sánh trên short, không dùng BigDecimal mỗi sự kiện)
+    private final int gpaEnterCenti;
+    private final int gpaExitCenti;
+    
+    private int term;                  // 0 = chưa biết
+    private int[] counted = new int[0];
+    private int[] absent = new int[0];
+    private short[] gpaCenti = new short[0];
+    private byte[] flags = new byte[0];
+    // version lớn nhất đã áp dụng; bit i của window = đã áp dụng version (versions - i)
+    private int[] versions = new int[0];
+    private long[] windows = new long[0];
+    
+    private int absenceFlagged;
+    private int gpaFlagged;
+    
+    private Counter ignoredChanges;
+    private Counter replayedChanges;
+    
+    private AtRiskDetector(double absenceEnter, double absenceExit, int minSessions,
+                           double gpaEnter, double gpaExit, int expectedStudents) {
+        if (absenceExit > absenceEnter || gpaExit < gpaEnter) {
+            throw new IllegalArgumentException("Exit thresholds must be looser than enter thresholds");
+        }
+        this.absenceEnter = absenceEnter;
+        this.absenceExit = absenceExit;
+        this.minSessions = Math.max(1, minSessions);
+        this.gpaEnterCenti = (int) Math.round(gpaEnter * 100);
+        this.gpaExitCenti = (int) Math.round(gpaExit * 100);
+        ensureCapacity(Math.max(0, expectedStudents - 1));
+    }
+    
+    /**
+     * Detector theo ngưỡng trong config, đăng ký metrics (chưa nạp dữ liệu, xem warmUp)
+     */
+    public static AtRiskDetector fromConfig() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        AtRiskDetector detector = new AtRiskDetector(
+            config.getDoubleProperty("atrisk.absence.rate.enter", 0.20),
+            config.getDoubleProperty("atrisk.absence.rate.exit", 0.15),
+            config.getIntProperty("atrisk.absence.min.sessions", 6),
+            config.getDoubleProperty("atrisk.gpa.enter", 2.00),
+            config.getDoubleProperty("atrisk.gpa.exit", 2.20),
+            config.getIntProperty("atrisk.expected.students", 100000));
+        detector.registerMetrics();
+        return detector;
+    }
+    
+    /**
+     * Detector không đọc config/DB, không metrics - dùng cho benchmark
+     */
+    public static AtRiskDetector of(double absenceEnter, double absenceExit, int minSessions,
+                                    double gpaEnter, double gpaExit, int expectedStudents) {
+        return new AtRiskDetector(absenceEnter, absenceExit, minSessions, gpaEnter, gpaExit, expectedStudents);
+    }
+    
+    private void registerMetrics() {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.gauge("atrisk_flagged_students", "Students currently flagged by an at-risk rule",
+            () -> getFlaggedCount(AtRiskRule.ABSENCE_RATE), "rule", AtRiskRule.ABSENCE_RATE.name());
+        registry.gauge("atrisk_flagged_students", "Students currently flagged by an at-risk rule",
+            () -> getFlaggedCount(AtRiskRule.LOW_GPA), "rule", AtRiskRule.LOW_GPA.name());
+        this.ignoredChanges = registry.counter("atrisk_changes_ignored_total",
+            "Attendance changes outside the current term");
+        this.replayedChanges = registry.counter("atrisk_changes_replayed_total",
+            "Attendance changes skipped because their term summary version was already applied");
+    }
+    
+    // ==================== Sự kiện ====================
+    
+    /**
+     * Áp dụng các thay đổi đã commit, bỏ các transaction đã áp dụng (theo term_version)
+     *
+     * @return cảnh báo phát sinh (rỗng nếu không có rule nào đổi trạng thái)
+     */
+    public synchronized List<AtRiskAlert> onAttendanceChanges(AttendanceChangeBatch batch) {
+        List<AtRiskAlert> alerts = null;
+        // Các dòng của cùng sinh viên trong một transaction có chung version: chỉ đánh dấu một lần
+        LongHashSet accepted = null;
+        for (AttendanceChange change : batch.getChanges()) {
+            if (change.getTermVersion() > 0) {
+                if (accepted == null) {
+                    accepted = new LongHashSet(batch.size());
+                }
+                if (!accept(change, accepted)) {
+                    continue;
+                }
+            }
+            AtRiskAlert alert = apply(change);
+            if (alert != null) {
+                if (alerts == null) {
+                    alerts = new ArrayList<>();
+                }
+                alerts.add(alert);
+            }
+        }
+        return alerts != null ? alerts : Collections.emptyList();
+    }
+    
+    /**
+     * Thay đổi có version chưa áp dụng (hoặc vừa được nhận trong batch này)?
+     * Thay đổi ngoài học kỳ hiện tại để apply() xử lý
+     */
+    private boolean accept(AttendanceChange change, LongHashSet accepted) {
+        long studentId = change.getStudentId();
+        if (studentId <= 0 || studentId > MAX_STUDENT_ID || change.getAttendanceDate() == null) {
+            return true;
+        }
+        int changeTerm = AttendanceTerm.of(change.getAttendanceDate());
+        if (changeTerm < term) {
+            return true;
+        }
+        if (changeTerm > term) {
+            startTerm(changeTerm);
+        }
+        
+        int id = (int) studentId;
+        int version = change.getTermVersion();
+        long key = (studentId << 32) | version;
+        if (accepted.contains(key)) {
+            return true;
+        }
+        ensureCapacity(id);
+        if (!markApplied(id, version)) {
+            if (replayedChanges != null) {
+                replayedChanges.increment();
+            }
+            return false;
+        }
+        accepted.add(key);
+        return true;
+    }
+    
+    /**
+     * Đánh dấu version đã áp dụng, false nếu đã có (hoặc cũ hơn cửa sổ)
+     */
+    private boolean markApplied(int id, int version) {
+        int latest = versions[id];
+        if (version > latest) {
+            long shift = (long) version - latest;
+            windows[id] = (shift >= VERSION_WINDOW ? 0L : windows[id] << shift) | 1L;
+            versions[id] = version;
+            return true;
+        }
+        int age = latest - version;
+        if (age >= VERSION_WINDOW) {
+            return false;
+        }
+        long bit = 1L << age;
+        if ((windows[id] & bit) != 0) {
+            return false;
+        }
+        windows[id] |= bit;
+        return true;
+    }
+    
+    private AtRiskAlert apply(AttendanceChange change) {
+        long studentId = change.getStudentId();
+        if (studentId <= 0 || studentId > MAX_STUDENT_ID || change.getAttendanceDate() == null) {
+            return null;
+        }
+        
+        int changeTerm = AttendanceTerm.of(change.getAttendanceDate());
+        if (changeTerm != term) {
+            if (changeTerm < term) {
+                if (ignoredChanges != null) {
+                    ignoredChanges.increment();
+                }
+                return null;
+            }
+            startTerm(changeTerm);
+        }
+        
+        int id = (int) studentId;
+        ensureCapacity(id);
+        AttendanceStatus before = change.getPreviousStatus();
+        AttendanceStatus after = change.getStatus();
+        if (isCounted(before)) {
+            counted[id]--;
+        }
+        if (before == AttendanceStatus.ABSENT) {
+            absent[id]--;
+        }
+        if (isCounted(after)) {
+            counted[id]++;
+        }
+        if (after == AttendanceStatus.ABSENT) {
+            absent[id]++;
+        }
+        return evaluateAbsence(id, true);
+    }
+    
+    /**
+     * GPA mới của sinh viên (student.transformed), null = chưa có GPA → bỏ qua
+     */
+    public synchronized AtRiskAlert onGpa(long studentId, BigDecimal gpa) {
+        if (studentId <= 0 || studentId > MAX_STUDENT_ID || gpa == null) {
+            return null;
+        }
+        int id = (int) studentId;
+        ensureCapacity(id);
+        gpaCenti[id] = toCenti(gpa);
+        return evaluateGpa(id, true);
+    }
+    
+    // ==================== Rule + hysteresis ====================
+    
+    private AtRiskAlert evaluateAbsence(int id, boolean emit) {
+        int sessions = counted[id];
+        double rate = sessions > 0 ? (double) absent[id] / sessions : 0.0;
+        boolean flagged = (flags[id] & FLAG_ABSENCE) != 0;
+        
+        if (!flagged && sessions >= minSessions && rate >= absenceEnter) {
+            flags[id] |= FLAG_ABSENCE;
+            absenceFlagged++;
+            return emit ? alert(id, AtRiskRule.ABSENCE_RATE, AlertState.RAISED, rate, absenceEnter) : null;
+        }
+        if (flagged && rate < absenceExit) {
+            flags[id] &= ~FLAG_ABSENCE;
+            absenceFlagged--;
+            return emit ? alert(id, AtRiskRule.ABSENCE_RATE, AlertState.CLEARED, rate, absenceExit) : null;
+        }
+        return null;
+    }
+    
+    private AtRiskAlert evaluateGpa(int id, boolean emit) {
+        int gpa = gpaCenti[id];
+        if (gpa == GPA_UNKNOWN) {
+            return null;
+        }
+        boolean flagged = (flags[id] & FLAG_GPA) != 0;
+        
+        if (!flagged && gpa < gpaEnterCenti) {
+            flags[id] |= FLAG_GPA;
+            gpaFlagged++;
+            return emit ? alert(id, AtRiskRule.LOW_GPA, AlertState.RAISED, gpa / 100.0, gpaEnterCenti / 100.0) : null;
+        }
+        if (flagged && gpa >= gpaExitCenti) {
+            flags[id] &= ~FLAG_GPA;
+            gpaFlagged--;
+            return emit ? alert(id, AtRiskRule.LOW_GPA, AlertState.CLEARED, gpa / 100.0, gpaExitCenti / 100.0) : null;
+        }
+        return null;
+    }
+    
+    private AtRiskAlert alert(int id, AtRiskRule rule, AlertState state, double value, double threshold) {
+        return new AtRiskAlert(id, rule, state, value, threshold,
+            rule == AtRiskRule.ABSENCE_RATE ? term : null,
+            CoarseClock.toLocalDateTime(CoarseClock.currentTimeMillis()).toString());
+    }
+    
+    /**
+     * Sang học kỳ mới: bộ đếm vắng của học kỳ trước không còn ý nghĩa
+     */
+    private void startTerm(int newTerm) {
+        if (term != 0) {
+            logger.info("At-risk detector moving from {} to {}: absence counters reset ({} flagged dropped)",
+                AttendanceTerm.format(term), AttendanceTerm.format(newTerm), absenceFlagged);
+        }
+        term = newTerm;
+        Arrays.fill(counted, 0);
+        Arrays.fill(absent, 0);
+        Arrays.fill(versions, 0);
+        Arrays.fill(windows, 0L);
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] &= ~FLAG_ABSENCE;
+        }
+        absenceFlagged = 0;
+    }
+    
+    private static boolean isCounted(AttendanceStatus status) {
+        return status != null && status != AttendanceStatus.EXCUSED;
+    }
+    
+    private static short toCenti(BigDecimal gpa) {
+        int centi = gpa.setScale(2, RoundingMode.HALF_UP).unscaledValue().intValue();
+        return (short) Math.max(0, Math.min(Short.MAX_VALUE, centi));
+    }
+    
+    private void ensureCapacity(int id) {
+        if (id < flags.length) {
+            return;
+        }
+        int oldLength = flags.length;
+        int newLength = (int) Math.min(MAX_STUDENT_ID + 1L, Math.max(id + 1L, oldLength * 2L));
+        counted = Arrays.copyOf(counted, newLength);
+        absent = Arrays.copyOf(absent, newLength);
+        flags = Arrays.copyOf(flags, newLength);
+        versions = Arrays.copyOf(versions, newLength);
+        windows = Arrays.copyOf(windows, newLength);
+        gpaCenti = Arrays.copyOf(gpaCenti, newLength);
+        Arrays.fill(gpaCenti, oldLength, newLength, GPA_UNKNOWN);
+    }
+    
+    // ==================== Khởi động ====================
+    
+    /**
+     * Nạp trạng thái hiện có: học kỳ = atrisk.term nếu cấu hình, không thì học kỳ mới nhất
+     * trong attendance_term_summary (bảng trống → học kỳ của thay đổi đầu tiên nhận được)
+     * Cờ được bật im lặng: cảnh báo của các sinh viên này đã phát trước khi restart
+     * version của dòng tổng hợp = mọi version <= nó đã nằm trong bộ đếm → thay đổi cũ còn trong
+     * attendance.committed bị bỏ, chỉ transaction commit sau lần đọc này được cộng
+     * DB lỗi thì detector bắt đầu rỗng và chỉ thấy thay đổi từ giờ
+     */
+    public synchronized void warmUp() {
+        long start = System.currentTimeMillis();
+        int configuredTerm = ConfigLoader.getInstance().getIntProperty("atrisk.term", 0);
+        
+        try (Connection conn = DatabaseConfig.getInstance().getCleanConnection()) {
+            int warmTerm = configuredTerm > 0 ? configuredTerm : latestTerm(conn);
+            startTerm(warmTerm);
+            
+            int attendanceRows = 0;
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT student_id, present_count, absent_count, late_count, version "
+                    + "FROM attendance_term_summary WHERE term_code = ?")) {
+                pstmt.setInt(1, warmTerm);
+                pstmt.setFetchSize(10000);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        long studentId = rs.getLong(1);
+                        if (studentId <= 0 || studentId > MAX_STUDENT_ID) {
+                            continue;
+                        }
+                        int id = (int) studentId;
+                        ensureCapacity(id);
+                        counted[id] = rs.getInt(2) + rs.getInt(3) + rs.getInt(4);
+                        absent[id] = rs.getInt(3);
+                        versions[id] = rs.getInt(5);
+                        windows[id] = -1L;
+                        evaluateAbsence(id, false);
+                        attendanceRows++;
+                    }
+                }
+            }
+            
+            int gpaRows = 0;
+            try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                // MySQL Connector/J chỉ stream từng dòng với fetch size = Integer.MIN_VALUE
+                boolean mysql = "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+                stmt.setFetchSize(mysql ? Integer.MIN_VALUE : 10000);
+                try (ResultSet rs = stmt.executeQuery("SELECT id, gpa FROM students WHERE gpa IS NOT NULL")) {
+                    while (rs.next()) {
+                        long studentId = rs.getLong(1);
+                        if (studentId <= 0 || studentId > MAX_STUDENT_ID) {
+                            continue;
+                        }
+                        int id = (int) studentId;
+                        ensureCapacity(id);
+                        gpaCenti[id] = toCenti(rs.getBigDecimal(2));
+                        evaluateGpa(id, false);
+                        gpaRows++;
+                    }
+                }
+            }
+            
+            logger.info("✅ At-risk detector warmed up for {}: {} attendance summaries, {} GPAs "
+                    + "({} absence / {} GPA flagged) in {} ms",
+                warmTerm > 0 ? AttendanceTerm.format(warmTerm) : "no term yet", attendanceRows, gpaRows, absenceFlagged, gpaFlagged,
+                System.currentTimeMillis() - start);
+            
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("At-risk detector warm-up failed, starting empty: {}", e.getMessage());
+        }
+    }
+    
+    private static int latestTerm(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(term_code) FROM attendance_term_summary")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    // ==================== Truy vấn ====================
+    
+    public synchronized int getFlaggedCount(AtRiskRule rule) {
+        return rule == AtRiskRule.ABSENCE_RATE ? absenceFlagged : gpaFlagged;
+    }
+    
+    public synchronized boolean isFlagged(long studentId, AtRiskRule rule) {
+        if (studentId <= 0 || studentId >= flags.length) {
+            return false;
+        }
+        byte flag = rule == AtRiskRule.ABSENCE_RATE ? FLAG_ABSENCE : FLAG_GPA;
+        return (flags[(int) studentId] & flag) != 0;
+    }
+    
+    /**
+     * Tỷ lệ vắng trong học kỳ hiện tại (0 nếu chưa có buổi nào)
+     */
+    public synchronized double absenceRate(long studentId) {
+        if (studentId <= 0 || studentId >= flags.length || counted[(int) studentId] == 0) {
+            return 0.0;
+        }
+        return (double) absent[(int) studentId] / counted[(int) studentId];
+    }
+    
+    public synchronized int getTerm() {
+        return term;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,198 @@
+package com.student.integration.analytics;
+
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.DatabaseConfig;
+import com.student.integration.model.entity.Attendance;
+import com.student.integration.model.enums.AttendanceStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kho bitmap điểm danh: (lớp, học kỳ) → ClassTermBitmaps (sinh viên × status × buổi)
+ *
+ * - Tỷ lệ chuyên cần, chuỗi vắng liên tiếp, "vắng N trong M buổi gần nhất" = popcount
+ *   trên vài long, không quét bảng attendance mỗi truy vấn
+ * - Ảnh chụp tại thời điểm nạp (loadTerm quét một học kỳ, partition pruning theo attendance_date):
+ *   dùng cho báo cáo / job đọc nhiều lần trên cùng dữ liệu, cần số mới thì nạp lại
+ * - Không cập nhật theo luồng ghi: nguồn đúng duy nhất là bảng attendance, không có bản sao
+ *   riêng của từng process bị lệch hay snapshot cũ sau crash
+ */
+public class AttendanceBitmapStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceBitmapStore.class);
+    
+    private static final String TERM_SQL = """
+        SELECT student_id, class_id, attendance_date, session_number, status
+        FROM attendance
+        WHERE attendance_date BETWEEN ? AND ?
+        """;
+    
+    private final Map<Long, ClassTermBitmaps> tables = new ConcurrentHashMap<>();
+    private final int expectedClassSize;
+    
+    AttendanceBitmapStore(int expectedClassSize) {
+        this.expectedClassSize = expectedClassSize;
+    }
+    
+    /**
+     * Kho rỗng không đọc config/DB - dùng cho benchmark
+     */
+    public static AttendanceBitmapStore inMemory(int expectedClassSize) {
+        return new AttendanceBitmapStore(expectedClassSize);
+    }
+    
+    /**
+     * Nạp bitmap của một học kỳ từ bảng attendance (quét streaming)
+     */
+    public static AttendanceBitmapStore loadTerm(int term) throws SQLException {
+        AttendanceBitmapStore store = new AttendanceBitmapStore(
+            ConfigLoader.getInstance().getIntProperty("attendance.bitmap.expected.class.size", 64));
+        store.load(term);
+        return store;
+    }
+    
+    // ==================== Cập nhật ====================
+    
+    /**
+     * Các dòng attendance theo thứ tự ghi: status sau ghi đè status trước
+     */
+    public void applyUpserts(Collection<Attendance> records) {
+        ClassTermBitmaps table = null;
+        long tableKey = 0;
+        for (Attendance record : records) {
+            if (record.getStudentId() == null || record.getStatus() == null) {
+                continue;
+            }
+            
+            LocalDate date = record.getAttendanceDate();
+            long key = key(record.getClassId(), AttendanceTerm.of(date));
+            // Chunk thường cùng lớp/kỳ: chỉ tra map khi đổi bảng
+            if (table == null || key != tableKey) {
+                table = table(key);
+                tableKey = key;
+            }
+            synchronized (table) {
+                table.apply(record.getStudentId(), ClassTermBitmaps.slot((int) date.toEpochDay(),
+                    record.getSessionNumber()), record.getStatus());
+            }
+        }
+    }
+    
+    // ==================== Truy vấn ====================
+    
+    public AttendanceStats stats(long studentId, int classId, int term) {
+        ClassTermBitmaps table = tables.get(key(classId, term));
+        if (table == null) {
+            return new AttendanceStats(0, 0, 0, 0, 0);
+        }
+        synchronized (table) {
+            return table.stats(studentId);
+        }
+    }
+    
+    /**
+     * Số buổi vắng (ABSENT) trong m buổi gần nhất của lớp
+     */
+    public int absentInLast(long studentId, int classId, int term, int m) {
+        ClassTermBitmaps table = tables.get(key(classId, term));
+        if (table == null) {
+            return 0;
+        }
+        synchronized (table) {
+            return table.countInLast(studentId, AttendanceStatus.ABSENT, m);
+        }
+    }
+    
+    /**
+     * Số buổi vắng liên tiếp tính tới buổi gần nhất của lớp
+     */
+    public int absentStreak(long studentId, int classId, int term) {
+        ClassTermBitmaps table = tables.get(key(classId, term));
+        if (table == null) {
+            return 0;
+        }
+        synchronized (table) {
+            return table.streak(studentId, AttendanceStatus.ABSENT);
+        }
+    }
+    
+    public int getTableCount() {
+        return tables.size();
+    }
+    
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (ClassTermBitmaps table : tables.values()) {
+            synchronized (table) {
+                bytes += table.estimatedBytes();
+            }
+        }
+        return bytes;
+    }
+    
+    private ClassTermBitmaps table(long key) {
+        return tables.computeIfAbsent(key, k -> new ClassTermBitmaps(expectedClassSize));
+    }
+    
+    private static long key(int classId, int term) {
+        return ((long) classId << 32) | term;
+    }
+    
+    // ==================== Nạp ====================
+    
+    private void load(int term) throws SQLException {
+        long start = System.nanoTime();
+        long rows = 0;
+        
+        try (Connection conn = DatabaseConfig.getInstance().getCleanConnection();
+             PreparedStatement pstmt = conn.prepareStatement(TERM_SQL,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            // MySQL Connector/J chỉ stream từng dòng với fetch size = Integer.MIN_VALUE
+            boolean mysql = "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+            pstmt.setFetchSize(mysql ? Integer.MIN_VALUE : 10000);
+            pstmt.setDate(1, Date.valueOf(AttendanceTerm.startOf(term)));
+            pstmt.setDate(2, Date.valueOf(AttendanceTerm.endOf(term)));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    LocalDate date = rs.getDate(3).toLocalDate();
+                    ClassTermBitmaps table = table(key(rs.getInt(2), term));
+                    AttendanceStatus status = AttendanceStatus.valueOf(rs.getString(5));
+                    table.apply(rs.getLong(1), ClassTermBitmaps.slot((int) date.toEpochDay(), rs.getInt(4)), status);
+                    rows++;
+                }
+            }
+        }
+        
+        logger.info("✅ Built attendance bitmaps for {} from {} rows: {} classes, ~{} KB ({} ms)",
+            AttendanceTerm.format(term), rows, tables.size(), estimatedBytes() / 1024,
+            (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    /**
+     * Ước lượng bộ nhớ bitmap của một học kỳ
+     *
+     * Usage: AttendanceBitmapStore 20241
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("Usage: AttendanceBitmapStore <term code, e.g. 20241>");
+            System.exit(1);
+        }
+        
+        AttendanceBitmapStore store = loadTerm(Integer.parseInt(args[0]));
+        System.out.println("Attendance bitmaps: " + store.getTableCount() + " classes, ~"
+            + store.estimatedBytes() / 1024 + " KB");
+    }
+}
\ No newline at end of file
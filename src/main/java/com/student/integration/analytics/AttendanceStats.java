@@ -0,0 +1,62 @@
+package com.student.integration.analytics;
+
+/**
+ * Số buổi theo status của một sinh viên trong một lớp, một học kỳ
+ */
+public final class AttendanceStats {
+    
+    private final int present;
+    private final int late;
+    private final int absent;
+    private final int excused;
+    private final int heldSessions;
+    
+    public AttendanceStats(int present, int late, int absent, int excused, int heldSessions) {
+        this.present = present;
+        this.late = late;
+        this.absent = absent;
+        this.excused = excused;
+        this.heldSessions = heldSessions;
+    }
+    
+    public int getPresent() {
+        return present;
+    }
+    
+    public int getLate() {
+        return late;
+    }
+    
+    public int getAbsent() {
+        return absent;
+    }
+    
+    public int getExcused() {
+        return excused;
+    }
+    
+    /**
+     * Số buổi lớp đã học trong kỳ (kể cả buổi sinh viên chưa có dòng điểm danh)
+     */
+    public int getHeldSessions() {
+        return heldSessions;
+    }
+    
+    public int getRecorded() {
+        return present + late + absent + excused;
+    }
+    
+    /**
+     * Tỷ lệ có mặt (PRESENT + LATE) trên số buổi đã ghi, 0 nếu chưa có buổi nào
+     */
+    public double getAttendanceRate() {
+        int recorded = getRecorded();
+        return recorded == 0 ? 0.0 : (double) (present + late) / recorded;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("AttendanceStats{present=%d, late=%d, absent=%d, excused=%d, held=%d, rate=%.1f%%}",
+            present, late, absent, excused, heldSessions, getAttendanceRate() * 100);
+    }
+}
\ No newline at end of file
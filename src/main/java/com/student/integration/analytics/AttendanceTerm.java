@@ -0,0 +1,67 @@
+package com.student.integration.analytics;
+
+import java.time.LocalDate;
+
+/**
+ * Học kỳ của một ngày điểm danh, mã dạng int (không tạo object khi tra cứu)
+ *
+ * - HK1: 01/08 → 31/01 năm sau, HK2: 01/02 → 31/07
+ * - Mã = năm bắt đầu năm học * 10 + học kỳ: 2024-09-09 → 20241, 2025-03-03 → 20242
+ */
+public final class AttendanceTerm {
+    
+    private AttendanceTerm() {}
+    
+    public static int of(LocalDate date) {
+        int year = date.getYear();
+        int month = date.getMonthValue();
+        if (month >= 8) {
+            return year * 10 + 1;
+        }
+        return month == 1 ? (year - 1) * 10 + 1 : (year - 1) * 10 + 2;
+    }
+    
+    /**
+     * Ngày đầu học kỳ: 20241 → 2024-08-01, 20242 → 2025-02-01
+     */
+    public static LocalDate startOf(int term) {
+        int year = term / 10;
+        switch (term % 10) {
+            case 1:
+                return LocalDate.of(year, 8, 1);
+            case 2:
+                return LocalDate.of(year + 1, 2, 1);
+            default:
+                throw new IllegalArgumentException("Invalid term code: " + term);
+        }
+    }
+    
+    /**
+     * Ngày cuối học kỳ (tính cả ngày này)
+     */
+    public static LocalDate endOf(int term) {
+        return term % 10 == 1 ? startOf(term + 1).minusDays(1) : startOf(term + 9).minusDays(1);
+    }
+    
+    /**
+     * Học kỳ kế tiếp: 20241 → 20242, 20242 → 20251
+     */
+    public static int next(int term) {
+        return term % 10 == 1 ? term + 1 : term + 9;
+    }
+    
+    /**
+     * Học kỳ trước: 20242 → 20241, 20241 → 20232
+     */
+    public static int previous(int term) {
+        return term % 10 == 2 ? term - 1 : term - 9;
+    }
+    
+    /**
+     * 20241 → 2024-2025 HK1
+     */
+    public static String format(int term) {
+        int year = term / 10;
+        return year + "-" + (year + 1) + " HK" + term % 10;
+    }
+}
\ No newline at end of file
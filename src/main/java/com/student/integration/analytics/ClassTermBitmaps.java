@@ -0,0 +1,231 @@
+package com.student.integration.analytics;
+
+import com.student.integration.model.enums.AttendanceStatus;
+import com.student.integration.util.LongIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Bitmap điểm danh của một lớp trong một học kỳ
+ *
+ * - Buổi học (slot = ngày * 32 + buổi) được đánh số thứ tự (ordinal) theo thời gian,
+ *   chỉ gồm các buổi lớp thực sự có → bitmap đặc, ~100 buổi/kỳ = 2 long mỗi status
+ * - Mỗi sinh viên: một long[] cho mỗi status (PRESENT/ABSENT/LATE/EXCUSED), bit i = buổi thứ i,
+ *   status chưa từng xuất hiện thì không cấp phát (null)
+ * - Buổi đến trễ (ngày cũ hơn buổi cuối) được chèn vào giữa: dịch bit của mọi sinh viên 1 vị trí
+ * Không thread-safe: AttendanceBitmapStore đồng bộ theo từng instance
+ */
+final class ClassTermBitmaps {
+    
+    private static final AttendanceStatus[] STATUSES = AttendanceStatus.values();
+    
+    private int[] slots = new int[16];
+    private int slotCount;
+    
+    private final LongIntHashMap rowIndex;
+    private long[] studentIds;
+    private long[][][] bits; // [row][status] → words
+    private int rowCount;
+    
+    ClassTermBitmaps(int expectedStudents) {
+        this.rowIndex = new LongIntHashMap(expectedStudents, -1);
+        this.studentIds = new long[Math.max(4, expectedStudents)];
+        this.bits = new long[studentIds.length][][];
+    }
+    
+    static int slot(int epochDay, int session) {
+        return epochDay * 32 + session;
+    }
+    
+    /**
+     * Ghi status của sinh viên tại buổi slot (ghi đè status cũ)
+     */
+    void apply(long studentId, int slot, AttendanceStatus status) {
+        int ordinal = ordinalFor(slot);
+        long[][] row = rowFor(studentId);
+        
+        int current = statusAt(row, ordinal);
+        if (current >= 0) {
+            row[current][ordinal >>> 6] &= ~(1L << ordinal);
+        }
+        int target = status.ordinal();
+        row[target] = ensureCapacity(row[target], ordinal + 1);
+        row[target][ordinal >>> 6] |= 1L << ordinal;
+    }
+    
+    AttendanceStats stats(long studentId) {
+        int row = rowIndex.get(studentId);
+        if (row < 0) {
+            return new AttendanceStats(0, 0, 0, 0, slotCount);
+        }
+        long[][] statusBits = bits[row];
+        return new AttendanceStats(
+            countRange(statusBits[AttendanceStatus.PRESENT.ordinal()], 0, slotCount),
+            countRange(statusBits[AttendanceStatus.LATE.ordinal()], 0, slotCount),
+            countRange(statusBits[AttendanceStatus.ABSENT.ordinal()], 0, slotCount),
+            countRange(statusBits[AttendanceStatus.EXCUSED.ordinal()], 0, slotCount),
+            slotCount);
+    }
+    
+    /**
+     * Số buổi có status trong m buổi gần nhất của lớp
+     */
+    int countInLast(long studentId, AttendanceStatus status, int m) {
+        int row = rowIndex.get(studentId);
+        if (row < 0) {
+            return 0;
+        }
+        return countRange(bits[row][status.ordinal()], Math.max(0, slotCount - m), slotCount);
+    }
+    
+    /**
+     * Số buổi liên tiếp có status, tính ngược từ buổi gần nhất của lớp
+     */
+    int streak(long studentId, AttendanceStatus status) {
+        int row = rowIndex.get(studentId);
+        if (row < 0) {
+            return 0;
+        }
+        long[] words = bits[row][status.ordinal()];
+        if (words == null) {
+            return 0;
+        }
+        
+        int run = 0;
+        int i = slotCount - 1;
+        while (i >= 0 && (i >>> 6) < words.length) {
+            int available = (i & 63) + 1;
+            // Đưa bit i lên vị trí 63 rồi đếm số bit 1 liên tiếp từ đầu
+            int ones = Long.numberOfLeadingZeros(~(words[i >>> 6] << (63 - (i & 63))));
+            if (ones < available) {
+                return run + ones;
+            }
+            run += available;
+            i -= available;
+        }
+        return run;
+    }
+    
+    int getSlotCount() {
+        return slotCount;
+    }
+    
+    int getStudentCount() {
+        return rowCount;
+    }
+    
+    /**
+     * Ước lượng bộ nhớ của bitmaps (không tính object header của map)
+     */
+    long estimatedBytes() {
+        long bytes = slots.length * 4L + studentIds.length * 8L;
+        for (int r = 0; r < rowCount; r++) {
+            for (long[] words : bits[r]) {
+                bytes += words != null ? 16 + words.length * 8L : 0;
+            }
+        }
+        return bytes;
+    }
+    
+    private int ordinalFor(int slot) {
+        int index = Arrays.binarySearch(slots, 0, slotCount, slot);
+        if (index >= 0) {
+            return index;
+        }
+        
+        int position = -index - 1;
+        if (slotCount == slots.length) {
+            slots = Arrays.copyOf(slots, slotCount * 2);
+        }
+        if (position < slotCount) {
+            // Buổi cũ đến muộn: chèn vào giữa, dịch bit các buổi sau
+            System.arraycopy(slots, position, slots, position + 1, slotCount - position);
+            for (int r = 0; r < rowCount; r++) {
+                long[][] row = bits[r];
+                for (int s = 0; s < row.length; s++) {
+                    row[s] = insertZeroBit(row[s], position, slotCount);
+                }
+            }
+        }
+        slots[position] = slot;
+        slotCount++;
+        return position;
+    }
+    
+    private long[][] rowFor(long studentId) {
+        int row = rowIndex.get(studentId);
+        if (row >= 0) {
+            return bits[row];
+        }
+        
+        if (rowCount == studentIds.length) {
+            studentIds = Arrays.copyOf(studentIds, rowCount * 2);
+            bits = Arrays.copyOf(bits, rowCount * 2);
+        }
+        row = rowCount++;
+        studentIds[row] = studentId;
+        bits[row] = new long[STATUSES.length][];
+        rowIndex.put(studentId, row);
+        return bits[row];
+    }
+    
+    private static int statusAt(long[][] row, int ordinal) {
+        for (int s = 0; s < row.length; s++) {
+            long[] words = row[s];
+            if (words != null && (ordinal >>> 6) < words.length && (words[ordinal >>> 6] & (1L << ordinal)) != 0) {
+                return s;
+            }
+        }
+        return -1;
+    }
+    
+    static int countRange(long[] words, int from, int to) {
+        if (words == null) {
+            return 0;
+        }
+        to = Math.min(to, words.length << 6);
+        if (from >= to) {
+            return 0;
+        }
+        
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            return Long.bitCount(words[firstWord] & firstMask & lastMask);
+        }
+        
+        int count = Long.bitCount(words[firstWord] & firstMask);
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count + Long.bitCount(words[lastWord] & lastMask);
+    }
+    
+    /**
+     * Chèn bit 0 tại position, dịch các bit [position, bitCount) lên 1
+     */
+    static long[] insertZeroBit(long[] words, int position, int bitCount) {
+        if (words == null || (position >>> 6) >= words.length) {
+            return words;
+        }
+        words = ensureCapacity(words, bitCount + 1);
+        
+        int word = position >>> 6;
+        for (int i = words.length - 1; i > word; i--) {
+            words[i] = (words[i] << 1) | (words[i - 1] >>> 63);
+        }
+        long low = (1L << position) - 1;
+        words[word] = (words[word] & low) | ((words[word] & ~low) << 1);
+        return words;
+    }
+    
+    private static long[] ensureCapacity(long[] words, int bitCount) {
+        int needed = (bitCount + 63) >>> 6;
+        if (words == null) {
+            return new long[needed];
+        }
+        return words.length >= needed ? words : Arrays.copyOf(words, Math.max(needed, words.length * 2));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.student.integration.checkin;
+
+import com.student.integration.loader.AttendanceLoader;
+import com.student.integration.metrics.LatencyHistogram;
+import com.student.integration.metrics.MetricsRegistry;
+import com.student.integration.model.entity.Attendance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit cho check-in realtime
+ *
+ * - HTTP threads chỉ xếp hàng (submit) và chờ future, một writer thread gom
+ *   tối đa maxBatch check-in hoặc chờ tối đa lingerMs rồi ghi cả nhóm trong
+ *   một transaction → đầu giờ học hàng nghìn lần quẹt/giây chỉ thành vài chục commit/giây
+ * - Hàng đợi bounded: đầy thì submit trả về null (HTTP 503, client gửi lại)
+ * - Future hoàn thành khi nhóm chứa check-in đã commit (hoặc exceptionally nếu ghi lỗi):
+ *   true = đã ghi, false = loader bỏ riêng check-in đó vì học kỳ đã đóng (cả nhóm vẫn commit)
+ */
+public class CheckInBatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CheckInBatcher.class);
+    
+    private static final class Pending {
+        final Attendance attendance;
+        final CompletableFuture<Boolean> committed = new CompletableFuture<>();
+        
+        Pending(Attendance attendance) {
+            this.attendance = attendance;
+        }
+    }
+    
+    private final AttendanceLoader loader;
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatch;
+    private final long lingerNanos;
+    
+    private final LatencyHistogram commitLatency;
+    
+    private volatile boolean running;
+    private Thread writer;
+    
+    public CheckInBatcher(AttendanceLoader loader, int capacity, int maxBatch, long lingerMs) {
+        this.loader = loader;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.commitLatency = MetricsRegistry.getInstance().histogram(
+            "checkin_group_commit_seconds", "Check-in group commit latency");
+    }
+    
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "checkin-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    /**
+     * Xếp hàng một check-in
+     *
+     * @return future hoàn thành khi đã commit (false nếu bị bỏ vì học kỳ đã đóng), null nếu hàng đợi đầy
+     */
+    public CompletableFuture<Boolean> submit(Attendance attendance) {
+        Pending pending = new Pending(attendance);
+        return queue.offer(pending) ? pending.committed : null;
+    }
+    
+    public int getQueued() {
+        return queue.size();
+    }
+    
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        List<Attendance> records = new ArrayList<>(maxBatch);
+        List<Attendance> rejected = new ArrayList<>();
+        
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                
+                // Gom thêm tới maxBatch hoặc hết thời gian linger tính từ check-in đầu tiên
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatch) {
+                    if (queue.drainTo(batch, maxBatch - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                
+                commit(batch, records, rejected);
+                
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+                records.clear();
+                rejected.clear();
+            }
+        }
+    }
+    
+    private void commit(List<Pending> batch, List<Attendance> records, List<Attendance> rejected) {
+        for (Pending pending : batch) {
+            records.add(pending.attendance);
+        }
+        
+        long start = System.nanoTime();
+        try {
+            loader.insertCheckIns(records, rejected);
+            commitLatency.record(System.nanoTime() - start);
+            for (Pending pending : batch) {
+                pending.committed.complete(rejected.isEmpty() || !rejected.contains(pending.attendance));
+            }
+            logger.debug("Committed {} check-ins", batch.size());
+            
+        } catch (Exception e) {
+            logger.error("Failed to commit {} check-ins: {}", batch.size(), e.getMessage());
+            for (Pending pending : batch) {
+                pending.committed.completeExceptionally(e);
+            }
+        }
+    }
+    
+    /**
+     * Dừng nhận check-in mới, ghi nốt hàng đợi rồi dừng writer
+     */
+    public void stop() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = writer;
+            writer = null;
+        }
+        if (thread != null) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+}
\ No newline at end of file
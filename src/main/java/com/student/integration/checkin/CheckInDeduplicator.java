@@ -0,0 +1,95 @@
+package com.student.integration.checkin;
+
+import com.student.integration.util.LongLongHashMap;
+
+/**
+ * Bỏ lần quẹt lặp lại của cùng sinh viên × lớp × buổi × ngày điểm danh trong cửa sổ trượt windowMs
+ *
+ * - Key đóng gói vào một long: mã SV (27 bit) | class_id (24 bit) | buổi (8 bit)
+ * - Ngày điểm danh nằm trong value cùng thời điểm quẹt (key đã dùng hết bit): cùng key nhưng khác ngày
+ *   (đầu đọc gửi bù quẹt đã buffer của thứ Hai và thứ Ba) không phải quẹt lặp
+ * - Hai thế hệ map: entry chỉ được tra khi còn trong cửa sổ (so timestamp),
+ *   thế hệ cũ bị bỏ nguyên khối mỗi windowMs → bộ nhớ giới hạn theo số lần quẹt
+ *   trong 2 cửa sổ, không cần quét để xóa entry hết hạn
+ */
+public class CheckInDeduplicator {
+    
+    private static final long NOT_SEEN = Long.MIN_VALUE;
+    
+    // Value = epoch day << SEEN_AT_BITS | epoch millis lúc quẹt (42 bit: tới năm 2109)
+    private static final int SEEN_AT_BITS = 42;
+    private static final long SEEN_AT_MASK = (1L << SEEN_AT_BITS) - 1;
+    
+    private final long windowMs;
+    
+    private LongLongHashMap current;   // guarded by this
+    private LongLongHashMap previous;  // guarded by this
+    private long generationStart;      // guarded by this
+    
+    public CheckInDeduplicator(long windowMs, int expectedPerWindow) {
+        this.windowMs = windowMs;
+        this.current = new LongLongHashMap(expectedPerWindow, NOT_SEEN);
+        this.previous = new LongLongHashMap(expectedPerWindow, NOT_SEEN);
+    }
+    
+    public static long key(long studentKey, int classId, int session) {
+        return (studentKey << 32) | ((long) (classId & 0xFFFFFF) << 8) | (session & 0xFF);
+    }
+    
+    /**
+     * Ghi nhận lần quẹt cho ngày điểm danh epochDay lúc nowMs
+     *
+     * @return true nếu là lần đầu trong cửa sổ, false nếu là quẹt lặp
+     */
+    public synchronized boolean firstSeen(long key, long epochDay, long nowMs) {
+        rotateIfNeeded(nowMs);
+        
+        long seen = current.get(key);
+        if (seen == NOT_SEEN) {
+            seen = previous.get(key);
+        }
+        if (seen != NOT_SEEN && (seen >>> SEEN_AT_BITS) == epochDay && nowMs - (seen & SEEN_AT_MASK) < windowMs) {
+            return false;
+        }
+        
+        current.put(key, (epochDay << SEEN_AT_BITS) | nowMs);
+        return true;
+    }
+    
+    /**
+     * Bỏ ghi nhận (lần quẹt không ghi được vào DB → client gửi lại không bị coi là lặp)
+     * Chỉ bỏ khi entry còn là của ngày epochDay (chưa bị quẹt của ngày khác thay thế)
+     */
+    public synchronized void forget(long key, long epochDay) {
+        forget(current, key, epochDay);
+        forget(previous, key, epochDay);
+    }
+    
+    private static void forget(LongLongHashMap generation, long key, long epochDay) {
+        long seen = generation.get(key);
+        if (seen != NOT_SEEN && (seen >>> SEEN_AT_BITS) == epochDay) {
+            generation.remove(key);
+        }
+    }
+    
+    public synchronized int size() {
+        return current.size() + previous.size();
+    }
+    
+    private void rotateIfNeeded(long nowMs) {
+        if (nowMs - generationStart < windowMs) {
+            return;
+        }
+        
+        LongLongHashMap recycled = previous;
+        recycled.clear();
+        previous = current;
+        current = recycled;
+        
+        // Cách lần rotate trước > 2 cửa sổ: thế hệ vừa chuyển sang previous cũng đã hết hạn
+        if (nowMs - generationStart >= 2 * windowMs) {
+            previous.clear();
+        }
+        generationStart = nowMs;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,221 @@
+package com.student.integration.checkin;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.metrics.MetricsHttpServer;
+import com.student.integration.model.dto.CheckInEvent;
+import com.student.integration.transport.JsonCodec;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP endpoint POST /checkins cho đầu đọc thẻ / QR scanner
+ *
+ * Body: một CheckInEvent hoặc mảng CheckInEvent (tối đa checkin.request.max.events)
+ * Response (JSON, kết quả theo thứ tự sự kiện):
+ * - 200: mọi sự kiện đã xử lý xong (COMMITTED / DUPLICATE / REJECTED)
+ * - 202: có sự kiện đã nhận nhưng chưa commit trong checkin.ack.timeout.ms (QUEUED, chưa bền:
+ *   cần chắc chắn thì gửi lại sau, sự kiện đã commit thành DUPLICATE, ghi lỗi thì được ghi lại)
+ * - 503 + Retry-After: hàng đợi ghi đầy hoặc DB lỗi → gửi lại cả request
+ *   (sự kiện đã commit sẽ thành DUPLICATE nên gửi lại an toàn)
+ * - 400 / 413 / 405: JSON sai, quá nhiều sự kiện, sai method
+ */
+public class CheckInHttpServer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CheckInHttpServer.class);
+    
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+    
+    private static CheckInHttpServer instance;
+    
+    private final CheckInService service;
+    private final int maxEvents;
+    private final int threads;
+    
+    private HttpServer server;
+    private ExecutorService executor;
+    
+    CheckInHttpServer(CheckInService service, int maxEvents, int threads) {
+        this.service = service;
+        this.maxEvents = maxEvents;
+        this.threads = threads;
+    }
+    
+    public static synchronized CheckInHttpServer getInstance() {
+        if (instance == null) {
+            ConfigLoader config = ConfigLoader.getInstance();
+            instance = new CheckInHttpServer(CheckInService.getInstance(),
+                config.getIntProperty("checkin.request.max.events", 500),
+                config.getIntProperty("checkin.http.threads", 16));
+        }
+        return instance;
+    }
+    
+    public synchronized void start(int port) throws IOException {
+        if (server != null) {
+            return;
+        }
+        
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.createContext("/checkins", this::handleCheckIns);
+        
+        // HTTP threads chỉ parse/validate rồi chờ group commit, ghi DB do checkin-writer làm
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "checkin-http-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        
+        server = httpServer;
+        logger.info("📥 Check-in endpoint: http://localhost:{}/checkins", getPort());
+    }
+    
+    private void handleCheckIns(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            
+            List<CheckInEvent> events;
+            try {
+                events = parse(exchange.getRequestBody().readAllBytes());
+            } catch (JsonProcessingException e) {
+                respond(exchange, 400, Map.of("error", "Invalid JSON: " + e.getOriginalMessage()));
+                return;
+            }
+            if (events.isEmpty()) {
+                respond(exchange, 400, Map.of("error", "No check-in events"));
+                return;
+            }
+            if (events.size() > maxEvents) {
+                respond(exchange, 413, Map.of("error", "Too many events (max " + maxEvents + ")"));
+                return;
+            }
+            
+            CheckInService.Outcome outcome;
+            try {
+                outcome = service.accept(events);
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                logger.error("Check-in request failed: {}", e.getMessage());
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 503, Map.of("error", "Check-in temporarily unavailable"));
+                return;
+            }
+            
+            int status;
+            if (outcome.needsRetry()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                status = 503;
+            } else {
+                status = outcome.count(CheckInService.Result.QUEUED) > 0 ? 202 : 200;
+            }
+            respond(exchange, status, toResponse(outcome));
+            
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    private static List<CheckInEvent> parse(byte[] body) throws IOException {
+        JsonCodec codec = JsonCodec.getInstance();
+        for (byte b : body) {
+            if (b == '[') {
+                return new ArrayList<>(Arrays.asList(
+                    codec.readerFor(CheckInEvent[].class).<CheckInEvent[]>readValue(body)));
+            }
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                break;
+            }
+        }
+        return List.of(codec.readerFor(CheckInEvent.class).<CheckInEvent>readValue(body));
+    }
+    
+    private static Map<String, Object> toResponse(CheckInService.Outcome outcome) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        for (CheckInService.Result result : CheckInService.Result.values()) {
+            response.put(result.name().toLowerCase(), outcome.count(result));
+        }
+        
+        List<Map<String, Object>> results = new ArrayList<>(outcome.size());
+        for (int i = 0; i < outcome.size(); i++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("result", outcome.getResult(i).name());
+            if (outcome.getError(i) != null) {
+                entry.put("error", outcome.getError(i).name());
+                entry.put("message", outcome.getErrorMessage(i));
+            }
+            results.add(entry);
+        }
+        response.put("results", results);
+        return response;
+    }
+    
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = JsonCodec.getInstance().encode(body);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    public synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : -1;
+    }
+    
+    public synchronized void stop() throws InterruptedException {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdown();
+            server = null;
+            service.shutdown();
+            logger.info("Check-in endpoint stopped");
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        ConfigLoader config = ConfigLoader.getInstance();
+        MetricsHttpServer.getInstance().startIfEnabled();
+        
+        CheckInHttpServer checkInServer = CheckInHttpServer.getInstance();
+        checkInServer.start(config.getIntProperty("checkin.http.port", 8088));
+        
+        // Ghi ABSENT khi đóng buổi
+        SessionCloseJob closeJob = SessionCloseJob.fromConfig(config);
+        if (config.getBooleanProperty("checkin.session.close.enabled", true)) {
+            closeJob.start();
+        }
+        
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            closeJob.stop();
+            try {
+                checkInServer.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        
+        Thread.currentThread().join();
+    }
+}
\ No newline at end of file
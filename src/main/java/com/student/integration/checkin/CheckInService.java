@@ -0,0 +1,354 @@
+package com.student.integration.checkin;
+
+import com.student.integration.analytics.AttendanceTerm;
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.loader.ArchivedTermSnapshot;
+import com.student.integration.loader.AttendanceLoader;
+import com.student.integration.loader.ClassCodeSnapshot;
+import com.student.integration.loader.StudentKeyCache;
+import com.student.integration.loader.StudentKeyResolver;
+import com.student.integration.metrics.Counter;
+import com.student.integration.metrics.MetricsRegistry;
+import com.student.integration.model.dto.CheckInEvent;
+import com.student.integration.model.entity.Attendance;
+import com.student.integration.model.enums.ValidationErrorCode;
+import com.student.integration.util.CoarseClock;
+import com.student.integration.util.IsoDates;
+import com.student.integration.util.LongHashSet;
+import com.student.integration.util.StudentIdCodec;
+import com.student.integration.validator.FieldFormats;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Xử lý check-in realtime (dùng chung cho HTTP endpoint và các kênh nhận khác)
+ *
+ * Flow mỗi request (một hoặc nhiều sự kiện):
+ * 1. Validate đồng bộ: mã SV, class (snapshot), scanned_at (không ở tương lai, không thuộc học kỳ đã archive),
+ *    buổi (ghi sẵn hoặc suy ra từ lịch)
+ * 2. Resolve students.id qua StudentKeyCache (key thiếu được query gộp cho cả request)
+ * 3. Bỏ quẹt lặp (sinh viên × lớp × buổi × ngày) trong cửa sổ checkin.dedup.window.ms
+ * 4. Tính PRESENT/LATE theo giờ bắt đầu buổi, xếp hàng vào CheckInBatcher (group commit)
+ * 5. Chờ commit tối đa checkin.ack.timeout.ms: kịp → COMMITTED, không kịp → QUEUED
+ *    (QUEUED chưa bền: group commit lỗi sau đó thì bỏ ghi nhận dedup và đếm vào
+ *    checkin_queued_lost_total, client gửi lại sự kiện QUEUED là an toàn và không bị coi là lặp)
+ */
+public class CheckInService {
+    
+    public enum Result {
+        COMMITTED,   // đã ghi vào attendance
+        QUEUED,      // đã nhận, chưa commit trong ngân sách latency (chưa bền, gửi lại an toàn)
+        DUPLICATE,   // quẹt lặp trong cửa sổ dedup
+        REJECTED,    // dữ liệu sai (errorCode)
+        OVERLOADED,  // hàng đợi ghi đầy, client gửi lại
+        FAILED       // ghi DB lỗi, client gửi lại
+    }
+    
+    /**
+     * Kết quả theo thứ tự sự kiện trong request
+     */
+    public static final class Outcome {
+        
+        private final Result[] results;
+        private final ValidationErrorCode[] errors;
+        private final String[] errorArgs;
+        
+        Outcome(int size) {
+            this.results = new Result[size];
+            this.errors = new ValidationErrorCode[size];
+            this.errorArgs = new String[size];
+        }
+        
+        public int size() {
+            return results.length;
+        }
+        
+        public Result getResult(int index) {
+            return results[index];
+        }
+        
+        public ValidationErrorCode getError(int index) {
+            return errors[index];
+        }
+        
+        public String getErrorMessage(int index) {
+            ValidationErrorCode error = errors[index];
+            if (error == null) {
+                return null;
+            }
+            return errorArgs[index] != null ? error.format(errorArgs[index]) : error.getTemplate();
+        }
+        
+        public int count(Result result) {
+            int count = 0;
+            for (Result r : results) {
+                if (r == result) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        
+        /**
+         * Có sự kiện client cần gửi lại (OVERLOADED / FAILED)
+         */
+        public boolean needsRetry() {
+            return count(Result.OVERLOADED) + count(Result.FAILED) > 0;
+        }
+        
+        private void reject(int index, ValidationErrorCode error, String arg) {
+            results[index] = Result.REJECTED;
+            errors[index] = error;
+            errorArgs[index] = arg;
+        }
+    }
+    
+    private static CheckInService instance;
+    
+    private final StudentKeyResolver students;
+    private final ClassCodeSnapshot classes;
+    private final ArchivedTermSnapshot archivedTerms;
+    private final SessionSchedule schedule;
+    private final CheckInDeduplicator deduplicator;
+    private final CheckInBatcher batcher;
+    private final long ackTimeoutMs;
+    
+    private final Map<Result, Counter> events = new EnumMap<>(Result.class);
+    private final Counter queuedLost;
+    
+    public CheckInService(StudentKeyResolver students, ClassCodeSnapshot classes, ArchivedTermSnapshot archivedTerms,
+                          SessionSchedule schedule, CheckInDeduplicator deduplicator, CheckInBatcher batcher,
+                          long ackTimeoutMs) {
+        this.students = students;
+        this.classes = classes;
+        this.archivedTerms = archivedTerms;
+        this.schedule = schedule;
+        this.deduplicator = deduplicator;
+        this.batcher = batcher;
+        this.ackTimeoutMs = ackTimeoutMs;
+        
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        for (Result result : Result.values()) {
+            events.put(result, registry.counter("checkin_events_total", "Check-in events by result",
+                "result", result.name().toLowerCase(Locale.ROOT)));
+        }
+        this.queuedLost = registry.counter("checkin_queued_lost_total",
+            "Check-in events answered QUEUED that were not written afterwards");
+    }
+    
+    public static synchronized CheckInService getInstance() {
+        if (instance == null) {
+            ConfigLoader config = ConfigLoader.getInstance();
+            CheckInBatcher batcher = new CheckInBatcher(new AttendanceLoader(),
+                config.getIntProperty("checkin.queue.capacity", 50000),
+                config.getIntProperty("checkin.batch.max", 1000),
+                config.getIntProperty("checkin.batch.linger.ms", 20));
+            batcher.start();
+            
+            instance = new CheckInService(StudentKeyCache.getInstance(), ClassCodeSnapshot.getInstance(),
+                ArchivedTermSnapshot.getInstance(), SessionSchedule.fromConfig(config),
+                new CheckInDeduplicator(config.getIntProperty("checkin.dedup.window.ms", 300000), 65536),
+                batcher,
+                config.getIntProperty("checkin.ack.timeout.ms", 250));
+        }
+        return instance;
+    }
+    
+    public Outcome accept(List<CheckInEvent> request) throws SQLException, InterruptedException {
+        int size = request.size();
+        Outcome outcome = new Outcome(size);
+        Attendance[] checkIns = new Attendance[size];
+        long[] studentKeys = new long[size];
+        
+        // 1. Validate
+        LongHashSet keys = new LongHashSet(size);
+        for (int i = 0; i < size; i++) {
+            checkIns[i] = parse(request.get(i), i, outcome);
+            if (checkIns[i] != null) {
+                studentKeys[i] = StudentIdCodec.encode(checkIns[i].getStudentCode());
+                keys.add(studentKeys[i]);
+            }
+        }
+        
+        // 2. Resolve students.id
+        students.prefetch(keys);
+        
+        // 3-4. Dedup + xếp hàng
+        long now = CoarseClock.currentTimeMillis();
+        long[] dedupKeys = new long[size];
+        long[] dedupDays = new long[size];
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Boolean>[] pending = new CompletableFuture[size];
+        
+        for (int i = 0; i < size; i++) {
+            Attendance checkIn = checkIns[i];
+            if (checkIn == null) {
+                continue;
+            }
+            
+            long studentId = students.resolve(studentKeys[i]);
+            if (studentId == StudentKeyResolver.UNKNOWN) {
+                outcome.reject(i, ValidationErrorCode.STUDENT_UNKNOWN, null);
+                continue;
+            }
+            checkIn.setStudentId(studentId);
+            
+            dedupKeys[i] = CheckInDeduplicator.key(studentKeys[i], checkIn.getClassId(), checkIn.getSessionNumber());
+            dedupDays[i] = checkIn.getAttendanceDate().toEpochDay();
+            if (!deduplicator.firstSeen(dedupKeys[i], dedupDays[i], now)) {
+                outcome.results[i] = Result.DUPLICATE;
+                continue;
+            }
+            
+            pending[i] = batcher.submit(checkIn);
+            if (pending[i] == null) {
+                deduplicator.forget(dedupKeys[i], dedupDays[i]);
+                outcome.results[i] = Result.OVERLOADED;
+            }
+        }
+        
+        // 5. Chờ group commit trong ngân sách latency
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs);
+        for (int i = 0; i < size; i++) {
+            if (pending[i] == null) {
+                continue;
+            }
+            try {
+                if (pending[i].get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    outcome.results[i] = Result.COMMITTED;
+                } else {
+                    deduplicator.forget(dedupKeys[i], dedupDays[i]);
+                    // Học kỳ vừa đóng sau lần refresh snapshot: loader bỏ riêng check-in này
+                    outcome.reject(i, ValidationErrorCode.SCANNED_AT_TERM_CLOSED,
+                        AttendanceTerm.endOf(AttendanceTerm.of(checkIns[i].getAttendanceDate())).toString());
+                }
+            } catch (TimeoutException e) {
+                outcome.results[i] = Result.QUEUED;
+                forgetIfNotWritten(pending[i], dedupKeys[i], dedupDays[i]);
+            } catch (ExecutionException e) {
+                deduplicator.forget(dedupKeys[i], dedupDays[i]);
+                outcome.results[i] = Result.FAILED;
+            }
+        }
+        
+        for (Result result : outcome.results) {
+            events.get(result).increment();
+        }
+        return outcome;
+    }
+    
+    /**
+     * Sự kiện đã trả QUEUED: group commit lỗi (hoặc bị bỏ vì học kỳ đã đóng) thì không ai còn chờ future,
+     * bỏ ghi nhận dedup để lần gửi lại được ghi thay vì thành DUPLICATE
+     */
+    private void forgetIfNotWritten(CompletableFuture<Boolean> pending, long dedupKey, long dedupDay) {
+        pending.whenComplete((written, error) -> {
+            if (error != null || !written) {
+                deduplicator.forget(dedupKey, dedupDay);
+                queuedLost.increment();
+            }
+        });
+    }
+    
+    /**
+     * Validate một sự kiện → Attendance (chưa có students.id), null nếu bị reject
+     */
+    private Attendance parse(CheckInEvent event, int index, Outcome outcome) {
+        String studentCode = event.getStudentId();
+        if (FieldFormats.isBlank(studentCode)) {
+            outcome.reject(index, ValidationErrorCode.STUDENT_ID_REQUIRED, null);
+            return null;
+        }
+        if (!FieldFormats.isStudentId(studentCode)) {
+            outcome.reject(index, ValidationErrorCode.STUDENT_ID_FORMAT, null);
+            return null;
+        }
+        
+        String classCode = event.getClassCode();
+        if (FieldFormats.isBlank(classCode)) {
+            outcome.reject(index, ValidationErrorCode.CLASS_CODE_REQUIRED, null);
+            return null;
+        }
+        if (!classes.isLoaded()) {
+            throw new IllegalStateException("Class snapshot is not loaded, cannot resolve class_id");
+        }
+        Integer classId = classes.getClassId(classCode);
+        if (classId == null) {
+            outcome.reject(index, ValidationErrorCode.CLASS_CODE_UNKNOWN, null);
+            return null;
+        }
+        
+        // scanned_at: yyyy-MM-ddTHH:mm[:ss], thiếu thì lấy giờ server
+        LocalDate date;
+        int secondOfDay;
+        String scannedAt = event.getScannedAt();
+        if (FieldFormats.isBlank(scannedAt)) {
+            LocalDateTime now = CoarseClock.toLocalDateTime(CoarseClock.currentTimeMillis());
+            date = now.toLocalDate();
+            secondOfDay = now.toLocalTime().toSecondOfDay();
+        } else {
+            int ymd = scannedAt.length() > 11 ? IsoDates.parseYmd(scannedAt.substring(0, 10)) : IsoDates.INVALID;
+            char separator = scannedAt.length() > 11 ? scannedAt.charAt(10) : 0;
+            secondOfDay = ymd == IsoDates.INVALID || (separator != 'T' && separator != ' ')
+                ? -1
+                : FieldFormats.parseSecondOfDay(scannedAt.substring(11));
+            if (secondOfDay < 0) {
+                outcome.reject(index, ValidationErrorCode.SCANNED_AT_FORMAT, null);
+                return null;
+            }
+            if (ymd > CoarseClock.todayYmd()) {
+                outcome.reject(index, ValidationErrorCode.SCANNED_AT_IN_FUTURE, null);
+                return null;
+            }
+            if (archivedTerms.isClosed(ymd)) {
+                outcome.reject(index, ValidationErrorCode.SCANNED_AT_TERM_CLOSED,
+                    archivedTerms.getClosedThrough().toString());
+                return null;
+            }
+            date = IsoDates.toLocalDate(ymd);
+        }
+        
+        // Buổi: ghi sẵn trong sự kiện hoặc suy ra từ giờ quẹt
+        int session;
+        if (event.getSessionNumber() != null) {
+            session = event.getSessionNumber();
+            if (session < 1 || session > schedule.getSessionCount()) {
+                outcome.reject(index, ValidationErrorCode.SESSION_NUMBER_OUT_OF_RANGE,
+                    Integer.toString(schedule.getSessionCount()));
+                return null;
+            }
+        } else {
+            session = schedule.sessionAt(secondOfDay);
+            if (session == SessionSchedule.NO_SESSION) {
+                outcome.reject(index, ValidationErrorCode.SESSION_NOT_OPEN,
+                    LocalTime.ofSecondOfDay(secondOfDay).toString());
+                return null;
+            }
+        }
+        
+        Attendance attendance = new Attendance();
+        attendance.setStudentCode(studentCode);
+        attendance.setClassId(classId);
+        attendance.setAttendanceDate(date);
+        attendance.setSessionNumber(session);
+        attendance.setCheckInTime(LocalTime.ofSecondOfDay(secondOfDay));
+        attendance.setStatus(schedule.statusFor(session, secondOfDay));
+        attendance.setNote(event.getDeviceId() != null ? "device:" + event.getDeviceId() : null);
+        return attendance;
+    }
+    
+    public void shutdown() throws InterruptedException {
+        batcher.stop();
+    }
+}
\ No newline at end of file
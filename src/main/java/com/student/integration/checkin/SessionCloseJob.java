@@ -0,0 +1,244 @@
+package com.student.integration.checkin;
+
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.DatabaseConfig;
+import com.student.integration.loader.AttendanceLoader;
+import com.student.integration.metrics.Counter;
+import com.student.integration.metrics.MetricsRegistry;
+import com.student.integration.util.CoarseClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đóng buổi học: ghi ABSENT cho sinh viên trong lớp không check-in
+ *
+ * - Lớp có buổi = lớp đã có ít nhất một dòng điểm danh cho (ngày, buổi) - chưa có thời khóa biểu,
+ *   buổi cả lớp vắng (không ai check-in/import) không được đóng và không có dòng ABSENT nào
+ * - Roster = students.id (ACTIVE) của lớp, sắp xếp tăng dần; index trong roster là bit trong BitSet
+ * - Dòng điểm danh đã có → binary search trong roster → set bit; bit còn 0 là vắng
+ * - Mỗi lớp ghi ABSENT bằng một batch (AttendanceLoader.insertAbsences), chạy lại không tạo trùng
+ * - Check-in đến sau khi đóng buổi vẫn chuyển ABSENT → PRESENT/LATE (AttendanceLoader.insertCheckIns)
+ *
+ * Tự chạy: buổi n được đóng lúc giờ bắt đầu + checkin.session.close.after.minutes (theo SessionSchedule)
+ * Chạy tay / bù ngày cũ: SessionCloseJob yyyy-MM-dd session
+ */
+public class SessionCloseJob {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SessionCloseJob.class);
+    
+    // Một partition (học kỳ), chỉ đọc index idx_date_session_class
+    private static final String SESSION_ROWS_SQL =
+        "SELECT class_id, student_id FROM attendance WHERE attendance_date = ? AND session_number = ?";
+    
+    private final DatabaseConfig dbConfig;
+    private final AttendanceLoader loader;
+    private final SessionSchedule schedule;
+    private final int closeAfterSeconds;
+    
+    private final Counter absentMarked;
+    
+    private ScheduledExecutorService scheduler;
+    
+    // Buổi cuối cùng đã đóng trong ngày closedDate (chỉ scheduler thread đọc/ghi)
+    private LocalDate closedDate;
+    private int closedThrough;
+    
+    public SessionCloseJob(AttendanceLoader loader, SessionSchedule schedule, int closeAfterSeconds) {
+        this.dbConfig = DatabaseConfig.getInstance();
+        this.loader = loader;
+        this.schedule = schedule;
+        this.closeAfterSeconds = closeAfterSeconds;
+        this.absentMarked = MetricsRegistry.getInstance().counter(
+            "attendance_absent_marked_total", "ABSENT rows written at session close");
+    }
+    
+    public static SessionCloseJob fromConfig(ConfigLoader config) {
+        return new SessionCloseJob(new AttendanceLoader(), SessionSchedule.fromConfig(config),
+            config.getIntProperty("checkin.session.close.after.minutes", 60) * 60);
+    }
+    
+    /**
+     * Đóng buổi session của ngày date cho mọi lớp có buổi đó
+     *
+     * @return số dòng ABSENT đã ghi
+     */
+    public int closeSession(LocalDate date, int session) throws SQLException {
+        long start = System.nanoTime();
+        
+        // 1. Lớp có buổi + sinh viên đã có dòng điểm danh
+        Map<Integer, long[]> recorded = loadSessionRows(date, session);
+        if (recorded.isEmpty()) {
+            logger.info("No attendance for {} session {}, nothing to close", date, session);
+            return 0;
+        }
+        
+        // 2. Roster các lớp đó
+        Map<Integer, long[]> rosters = loadRosters(recorded.keySet());
+        
+        // 3. Roster - đã điểm danh, ghi ABSENT theo lớp
+        int absent = 0;
+        for (Map.Entry<Integer, long[]> entry : recorded.entrySet()) {
+            long[] roster = rosters.get(entry.getKey());
+            if (roster == null) {
+                continue;
+            }
+            
+            BitSet present = new BitSet(roster.length);
+            for (long studentId : entry.getValue()) {
+                int index = Arrays.binarySearch(roster, studentId);
+                if (index >= 0) {
+                    present.set(index);
+                }
+            }
+            absent += loader.insertAbsences(entry.getKey(), date, session, roster, present);
+        }
+        
+        absentMarked.add(absent);
+        logger.info("🔒 Closed {} session {}: {} classes, {} students marked ABSENT ({} ms)",
+            date, session, recorded.size(), absent, (System.nanoTime() - start) / 1_000_000);
+        return absent;
+    }
+    
+    /**
+     * class_id → students.id đã có dòng điểm danh cho (date, session)
+     */
+    private Map<Integer, long[]> loadSessionRows(LocalDate date, int session) throws SQLException {
+        Map<Integer, LongBuffer> rows = new HashMap<>();
+        
+        try (Connection conn = dbConfig.getCleanConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SESSION_ROWS_SQL)) {
+            
+            pstmt.setDate(1, Date.valueOf(date));
+            pstmt.setInt(2, session);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.computeIfAbsent(rs.getInt(1), k -> new LongBuffer()).add(rs.getLong(2));
+                }
+            }
+        }
+        return toArrays(rows);
+    }
+    
+    /**
+     * class_id → students.id (ACTIVE) của lớp, tăng dần
+     */
+    private Map<Integer, long[]> loadRosters(Set<Integer> classIds) throws SQLException {
+        StringJoiner in = new StringJoiner(",", "(", ")");
+        for (Integer classId : classIds) {
+            in.add(classId.toString());
+        }
+        String sql = "SELECT class_id, id FROM students WHERE status = 'ACTIVE' AND class_id IN "
+            + in + " ORDER BY class_id, id";
+        
+        Map<Integer, LongBuffer> rosters = new HashMap<>();
+        try (Connection conn = dbConfig.getCleanConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            while (rs.next()) {
+                rosters.computeIfAbsent(rs.getInt(1), k -> new LongBuffer()).add(rs.getLong(2));
+            }
+        }
+        return toArrays(rosters);
+    }
+    
+    private static Map<Integer, long[]> toArrays(Map<Integer, LongBuffer> buffers) {
+        Map<Integer, long[]> arrays = new HashMap<>(buffers.size() * 2);
+        buffers.forEach((classId, buffer) -> arrays.put(classId, buffer.toArray()));
+        return arrays;
+    }
+    
+    /**
+     * Bắt đầu tự đóng buổi (kiểm tra mỗi phút, buổi đã qua giờ đóng trong ngày thì đóng)
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-close");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, 0, 60, TimeUnit.SECONDS);
+        logger.info("Session close job started ({} sessions, close {} min after start)",
+            schedule.getSessionCount(), closeAfterSeconds / 60);
+    }
+    
+    private void tick() {
+        LocalDateTime now = CoarseClock.toLocalDateTime(CoarseClock.currentTimeMillis());
+        LocalDate today = now.toLocalDate();
+        int secondOfDay = now.toLocalTime().toSecondOfDay();
+        
+        if (!today.equals(closedDate)) {
+            closedDate = today;
+            closedThrough = 0;
+        }
+        
+        while (closedThrough < schedule.getSessionCount()
+                && schedule.startOf(closedThrough + 1) + closeAfterSeconds <= secondOfDay) {
+            try {
+                closeSession(today, closedThrough + 1);
+            } catch (SQLException | RuntimeException e) {
+                // Thử lại ở lần kiểm tra sau
+                logger.error("Failed to close {} session {}: {}", today, closedThrough + 1, e.getMessage());
+                return;
+            }
+            closedThrough++;
+        }
+    }
+    
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+    
+    /**
+     * Mảng long tăng dần kích thước, tránh List<Long>
+     */
+    private static final class LongBuffer {
+        private long[] values = new long[16];
+        private int size;
+        
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Usage: SessionCloseJob <yyyy-MM-dd> <session>");
+            System.exit(1);
+        }
+        
+        SessionCloseJob job = fromConfig(ConfigLoader.getInstance());
+        int absent = job.closeSession(LocalDate.parse(args[0]), Integer.parseInt(args[1]));
+        System.out.println("Marked " + absent + " students ABSENT");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.student.integration.checkin;
+
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.model.enums.AttendanceStatus;
+import com.student.integration.validator.FieldFormats;
+
+/**
+ * Lịch bắt đầu các buổi học trong ngày (checkin.session.starts, buổi 1..n)
+ *
+ * - Check-in sau giờ bắt đầu + checkin.late.after.minutes → LATE, còn lại PRESENT
+ * - Buổi của một lần quẹt thẻ không ghi session_number: buổi muộn nhất đã mở
+ *   (giờ bắt đầu - checkin.session.open.before.minutes <= giờ quẹt)
+ * Mọi giá trị là số giây trong ngày, không tạo object khi tra cứu
+ */
+public class SessionSchedule {
+    
+    /** Không có buổi nào đang mở */
+    public static final int NO_SESSION = -1;
+    
+    private final int[] startSeconds;   // index 0 = buổi 1, tăng dần
+    private final int lateAfterSeconds;
+    private final int openBeforeSeconds;
+    
+    public SessionSchedule(int[] startSeconds, int lateAfterSeconds, int openBeforeSeconds) {
+        for (int i = 1; i < startSeconds.length; i++) {
+            if (startSeconds[i] <= startSeconds[i - 1]) {
+                throw new IllegalArgumentException("Session start times must be increasing");
+            }
+        }
+        this.startSeconds = startSeconds.clone();
+        this.lateAfterSeconds = lateAfterSeconds;
+        this.openBeforeSeconds = openBeforeSeconds;
+    }
+    
+    /**
+     * Lịch từ config: checkin.session.starts=07:00,07:50,... (HH:mm)
+     */
+    public static SessionSchedule fromConfig(ConfigLoader config) {
+        String[] starts = config.getProperty("checkin.session.starts",
+            "07:00,07:50,08:40,09:40,10:30,13:00,13:50,14:40,15:40,16:30").split(",");
+        
+        int[] seconds = new int[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            seconds[i] = FieldFormats.parseSecondOfDay(starts[i].trim());
+            if (seconds[i] < 0) {
+                throw new IllegalArgumentException("Invalid checkin.session.starts entry: " + starts[i]);
+            }
+        }
+        return new SessionSchedule(seconds,
+            config.getIntProperty("checkin.late.after.minutes", 10) * 60,
+            config.getIntProperty("checkin.session.open.before.minutes", 15) * 60);
+    }
+    
+    public int getSessionCount() {
+        return startSeconds.length;
+    }
+    
+    /**
+     * Giờ bắt đầu (giây trong ngày) của buổi 1..n
+     */
+    public int startOf(int session) {
+        if (session < 1 || session > startSeconds.length) {
+            throw new IllegalArgumentException("No session " + session);
+        }
+        return startSeconds[session - 1];
+    }
+    
+    /**
+     * Buổi đang mở lúc secondOfDay, NO_SESSION nếu trước buổi đầu tiên
+     */
+    public int sessionAt(int secondOfDay) {
+        for (int i = startSeconds.length - 1; i >= 0; i--) {
+            if (startSeconds[i] - openBeforeSeconds <= secondOfDay) {
+                return i + 1;
+            }
+        }
+        return NO_SESSION;
+    }
+    
+    /**
+     * PRESENT nếu check-in trước hạn (giờ bắt đầu + late after), ngược lại LATE
+     */
+    public AttendanceStatus statusFor(int session, int checkInSecond) {
+        return checkInSecond > startOf(session) + lateAfterSeconds
+            ? AttendanceStatus.LATE
+            : AttendanceStatus.PRESENT;
+    }
+}
\ No newline at end of file
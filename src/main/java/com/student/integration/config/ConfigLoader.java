@@ -9,6 +9,7 @@ import java.util.Properties;
 
 /**
  * Singleton class để load application.properties
+ * System property cùng tên (-Dkey=value) override giá trị trong file
  */
 public class ConfigLoader {
     
@@ -46,15 +47,17 @@ public class ConfigLoader {
     }
     
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        String override = System.getProperty(key);
+        return override != null ? override : properties.getProperty(key);
     }
     
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        String value = getProperty(key);
+        return value != null ? value : defaultValue;
     }
     
     public int getIntProperty(String key, int defaultValue) {
-        String value = properties.getProperty(key);
+        String value = getProperty(key);
         if (value != null) {
             try {
                 return Integer.parseInt(value);
@@ -65,8 +68,20 @@ public class ConfigLoader {
         return defaultValue;
     }
     
+    public double getDoubleProperty(String key, double defaultValue) {
+        String value = getProperty(key);
+        if (value != null) {
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid decimal value for {}: {}", key, value);
+            }
+        }
+        return defaultValue;
+    }
+    
     public boolean getBooleanProperty(String key, boolean defaultValue) {
-        String value = properties.getProperty(key);
+        String value = getProperty(key);
         return value != null ? Boolean.parseBoolean(value) : defaultValue;
     }
     
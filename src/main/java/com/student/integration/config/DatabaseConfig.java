@@ -1,6 +1,7 @@
 package com.student.integration.config;
 
 import com.zaxxer.hikari.HikariConfig;
+import com.student.integration.metrics.PipelineMetrics;
 import com.zaxxer.hikari.HikariDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,16 +34,18 @@ public class DatabaseConfig {
     
     /**
      * Initialize both Raw and Clean datasources
+     * db.raw.url / db.clean.url (nếu có) thay cho URL MySQL ghép từ host/port/name
      */
     private void initializeDataSources() {
         ConfigLoader config = ConfigLoader.getInstance();
         
         // Raw Database
         HikariConfig rawConfig = new HikariConfig();
-        rawConfig.setJdbcUrl(String.format("jdbc:mysql://%s:%s/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC",
+        rawConfig.setJdbcUrl(config.getProperty("db.raw.url", String.format(
+            "jdbc:mysql://%s:%s/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC",
             config.getProperty("db.raw.host", "localhost"),
             config.getProperty("db.raw.port", "3307"),
-            config.getProperty("db.raw.name", "student_raw_db")));
+            config.getProperty("db.raw.name", "student_raw_db"))));
         rawConfig.setUsername(config.getProperty("db.raw.username", "raw_user"));
         rawConfig.setPassword(config.getProperty("db.raw.password", "raw_pass"));
         rawConfig.setMaximumPoolSize(config.getIntProperty("db.pool.maximumPoolSize", 10));
@@ -51,14 +54,16 @@ public class DatabaseConfig {
         rawConfig.setPoolName("RawDB-Pool");
         
         rawDataSource = new HikariDataSource(rawConfig);
+        PipelineMetrics.getInstance().registerConnectionPoolGauges(rawDataSource);
         logger.info("✅ Raw Database connection pool initialized");
         
         // Clean Database
         HikariConfig cleanConfig = new HikariConfig();
-        cleanConfig.setJdbcUrl(String.format("jdbc:mysql://%s:%s/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC",
+        cleanConfig.setJdbcUrl(config.getProperty("db.clean.url", String.format(
+            "jdbc:mysql://%s:%s/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&rewriteBatchedStatements=true",
             config.getProperty("db.clean.host", "localhost"),
             config.getProperty("db.clean.port", "3308"),
-            config.getProperty("db.clean.name", "student_clean_db")));
+            config.getProperty("db.clean.name", "student_clean_db"))));
         cleanConfig.setUsername(config.getProperty("db.clean.username", "clean_user"));
         cleanConfig.setPassword(config.getProperty("db.clean.password", "clean_pass"));
         cleanConfig.setMaximumPoolSize(config.getIntProperty("db.pool.maximumPoolSize", 10));
@@ -67,6 +72,7 @@ public class DatabaseConfig {
         cleanConfig.setPoolName("CleanDB-Pool");
         
         cleanDataSource = new HikariDataSource(cleanConfig);
+        PipelineMetrics.getInstance().registerConnectionPoolGauges(cleanDataSource);
         logger.info("✅ Clean Database connection pool initialized");
     }
     
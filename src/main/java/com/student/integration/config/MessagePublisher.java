@@ -1,11 +1,14 @@
 package com.student.integration.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.rabbitmq.client.Channel;
-import com.rabbitmq.client.Connection;
-import com.rabbitmq.client.MessageProperties;
+import com.student.integration.metrics.PipelineMetrics;
+import com.student.integration.metrics.StageMetrics;
+import com.student.integration.model.dto.BatchMarker;
+import com.student.integration.model.dto.StudentRawDTO;
+import com.student.integration.model.enums.MessageType;
+import com.student.integration.tracing.TraceContext;
+import com.student.integration.tracing.Tracer;
+import com.student.integration.transport.Transport;
+import com.student.integration.transport.TransportFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,65 +16,76 @@ import java.io.IOException;
 import java.util.concurrent.TimeoutException;
 
 /**
- * Helper class để publish messages vào RabbitMQ
+ * Helper class để publish messages qua transport (RabbitMQ hoặc in-memory, xem TransportFactory)
+ * Stamp TraceContext theo stage rồi giao cho transport (AMQP: correlation ID + headers)
  */
 public class MessagePublisher {
     
     private static final Logger logger = LoggerFactory.getLogger(MessagePublisher.class);
     
-    private final RabbitMQConfig config;
+    private final Transport transport;
     private final QueueManager queueManager;
-    private final ObjectMapper objectMapper;
+    private final StageMetrics publishMetrics;
+    private final Tracer tracer;
     
     public MessagePublisher() {
-        this.config = RabbitMQConfig.getInstance();
+        this.transport = TransportFactory.getTransport();
         this.queueManager = new QueueManager();
         
-        // Configure ObjectMapper
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.publishMetrics = PipelineMetrics.getInstance().stage(PipelineMetrics.Stage.PUBLISH);
+        this.tracer = Tracer.getInstance();
     }
     
     /**
-     * Publish object as JSON message
+     * Publish object (AMQP: JSON message)
      */
-    public void publish(String exchange, String routingKey, Object message) 
+    public void publish(String exchange, String routingKey, Object message)
             throws IOException, TimeoutException {
+        publish(exchange, routingKey, message, null, null);
+    }
+    
+    /**
+     * Publish object, kèm trace (nếu có) và stamp publishStage ngay trước khi gửi
+     */
+    public void publish(String exchange, String routingKey, Object message,
+                        TraceContext trace, String publishStage) throws IOException, TimeoutException {
         
-        Connection connection = config.getConnection();
+        long start = System.nanoTime();
         
-        try (Channel channel = connection.createChannel()) {
-            
-            // Serialize object to JSON
-            String jsonMessage = objectMapper.writeValueAsString(message);
-            byte[] messageBytes = jsonMessage.getBytes("UTF-8");
-            
-            // Publish with persistent delivery mode
-            channel.basicPublish(
-                exchange,
-                routingKey,
-                MessageProperties.PERSISTENT_TEXT_PLAIN,
-                messageBytes
-            );
-            
-            logger.debug("Published message to {}/{}: {} bytes", 
-                exchange, routingKey, messageBytes.length);
-            
+        if (trace != null && publishStage != null) {
+            trace.stamp(publishStage);
+        }
+        
+        try {
+            transport.publish(exchange, routingKey, MessageType.RECORD, message, trace);
         } catch (IOException e) {
+            publishMetrics.recordFailure(System.nanoTime() - start);
             logger.error("Failed to publish message to {}/{}", exchange, routingKey, e);
             throw e;
         }
+        publishMetrics.recordSuccess(System.nanoTime() - start);
     }
     
     /**
      * Publish to RAW queue
+     * Trace lấy từ StudentRawDTO (CSVReader tạo lúc đọc), không có thì bắt đầu trace mới
      */
     public void publishToRaw(Object message) throws IOException, TimeoutException {
+        TraceContext trace = message instanceof StudentRawDTO
+            ? ((StudentRawDTO) message).getTrace()
+            : null;
+        if (trace == null) {
+            trace = tracer.startTrace(message instanceof StudentRawDTO
+                ? ((StudentRawDTO) message).getSourceFile()
+                : null);
+        }
+        
         publish(
             queueManager.getExchangeName(),
             queueManager.getRoutingKeyRaw(),
-            message
+            message,
+            trace,
+            TraceContext.RAW_PUBLISHED
         );
     }
     
@@ -79,10 +93,16 @@ public class MessagePublisher {
      * Publish to VALIDATED queue
      */
     public void publishToValidated(Object message) throws IOException, TimeoutException {
+        publishToValidated(message, null);
+    }
+    
+    public void publishToValidated(Object message, TraceContext trace) throws IOException, TimeoutException {
         publish(
             queueManager.getExchangeName(),
             queueManager.getRoutingKeyValidated(),
-            message
+            message,
+            trace,
+            TraceContext.VALIDATED_PUBLISHED
         );
     }
     
@@ -90,10 +110,16 @@ public class MessagePublisher {
      * Publish to TRANSFORMED queue
      */
     public void publishToTransformed(Object message) throws IOException, TimeoutException {
+        publishToTransformed(message, null);
+    }
+    
+    public void publishToTransformed(Object message, TraceContext trace) throws IOException, TimeoutException {
         publish(
             queueManager.getExchangeName(),
             queueManager.getRoutingKeyTransformed(),
-            message
+            message,
+            trace,
+            TraceContext.TRANSFORMED_PUBLISHED
         );
     }
     
@@ -101,37 +127,106 @@ public class MessagePublisher {
      * Publish to ERROR queue
      */
     public void publishToError(Object message) throws IOException, TimeoutException {
+        publishToError(message, null);
+    }
+    
+    public void publishToError(Object message, TraceContext trace) throws IOException, TimeoutException {
         publish(
             queueManager.getExchangeName(),
             queueManager.getRoutingKeyError(),
-            message
+            message,
+            trace,
+            TraceContext.ERROR_PUBLISHED
         );
     }
     
     /**
-     * Publish batch messages
+     * Marker END_OF_STREAM của batch vào RAW queue (sau record cuối của file)
+     */
+    public void publishEndOfStreamToRaw(BatchMarker marker) throws IOException, TimeoutException {
+        publishTyped(queueManager.getRoutingKeyRaw(), MessageType.END_OF_STREAM, marker);
+    }
+    
+    /**
+     * Marker END_OF_STREAM vào VALIDATED queue (validator đã xử lý hết batch)
+     */
+    public void publishEndOfStreamToValidated(BatchMarker marker) throws IOException, TimeoutException {
+        publishTyped(queueManager.getRoutingKeyValidated(), MessageType.END_OF_STREAM, marker);
+    }
+    
+    /**
+     * Sự kiện BATCH_COMPLETED vào TRANSFORMED queue (tracking)
+     */
+    public void publishBatchCompleted(BatchMarker marker) throws IOException, TimeoutException {
+        publishTyped(queueManager.getRoutingKeyTransformed(), MessageType.BATCH_COMPLETED, marker);
+    }
+    
+    /**
+     * Publish chunk điểm danh (AttendanceChunk) vào attendance.raw
+     * Message là cả chunk nên không gắn trace theo record
      */
-    public void publishBatch(String exchange, String routingKey, Iterable<?> messages) 
+    public void publishToAttendanceRaw(Object chunk) throws IOException, TimeoutException {
+        publish(queueManager.getExchangeName(), queueManager.getRoutingKeyAttendanceRaw(), chunk);
+    }
+    
+    /**
+     * Publish chunk đã validate (ValidatedAttendanceChunk) vào attendance.validated
+     */
+    public void publishToAttendanceValidated(Object chunk) throws IOException, TimeoutException {
+        publish(queueManager.getExchangeName(), queueManager.getRoutingKeyAttendanceValidated(), chunk);
+    }
+    
+    /**
+     * Publish các dòng lỗi của chunk (AttendanceErrorChunk) vào attendance.error
+     */
+    public void publishToAttendanceError(Object chunk) throws IOException, TimeoutException {
+        publish(queueManager.getExchangeName(), queueManager.getRoutingKeyAttendanceError(), chunk);
+    }
+    
+    /**
+     * Marker END_OF_STREAM vào attendance.raw (expectedRecords tính theo dòng, không theo chunk)
+     */
+    public void publishEndOfStreamToAttendanceRaw(BatchMarker marker) throws IOException, TimeoutException {
+        publishTyped(queueManager.getRoutingKeyAttendanceRaw(), MessageType.END_OF_STREAM, marker);
+    }
+    
+    /**
+     * Marker END_OF_STREAM vào attendance.validated (expectedRecords = số dòng valid)
+     */
+    public void publishEndOfStreamToAttendanceValidated(BatchMarker marker) throws IOException, TimeoutException {
+        publishTyped(queueManager.getRoutingKeyAttendanceValidated(), MessageType.END_OF_STREAM, marker);
+    }
+    
+    /**
+     * Publish các dòng attendance đổi status sau commit (AttendanceChangeBatch) vào attendance.committed
+     */
+    public void publishToAttendanceCommitted(Object batch) throws IOException, TimeoutException {
+        publish(queueManager.getExchangeName(), queueManager.getRoutingKeyAttendanceCommitted(), batch);
+    }
+    
+    /**
+     * Publish cảnh báo sinh viên có nguy cơ (AtRiskAlert) vào student.alerts
+     */
+    public void publishToAlerts(Object alert) throws IOException, TimeoutException {
+        publish(queueManager.getExchangeName(), queueManager.getRoutingKeyAlerts(), alert);
+    }
+    
+    private void publishTyped(String routingKey, MessageType type, Object message)
             throws IOException, TimeoutException {
         
-        Connection connection = config.getConnection();
+        transport.publish(queueManager.getExchangeName(), routingKey, type, message, null);
         
-        try (Channel channel = connection.createChannel()) {
-            
-            int count = 0;
-            for (Object message : messages) {
-                String jsonMessage = objectMapper.writeValueAsString(message);
-                byte[] messageBytes = jsonMessage.getBytes("UTF-8");
-                
-                channel.basicPublish(
-                    exchange,
-                    routingKey,
-                    MessageProperties.PERSISTENT_TEXT_PLAIN,
-                    messageBytes
-                );
-                
-                count++;
-            }
+        logger.debug("Published {} to {}: {}", type, routingKey, message);
+    }
+    
+    /**
+     * Publish batch messages
+     */
+    public void publishBatch(String exchange, String routingKey, Iterable<?> messages)
+            throws IOException, TimeoutException {
+        
+        try {
+            int count = transport.publishBatch(exchange, routingKey, messages);
             
             logger.info("Published {} messages to {}/{}", count, exchange, routingKey);
             
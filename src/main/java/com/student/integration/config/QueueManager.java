@@ -3,6 +3,8 @@ package com.student.integration.config;
 import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
+import com.student.integration.transport.Transport;
+import com.student.integration.transport.TransportFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,6 +15,7 @@ import java.util.concurrent.TimeoutException;
 
 /**
  * Class quản lý queues, exchanges, và bindings trong RabbitMQ
+ * Với transport in-memory: queue tự tạo khi dùng, setup/purge/delete không làm gì
  */
 public class QueueManager {
     
@@ -27,6 +30,15 @@ public class QueueManager {
     private final String queueTransformed;
     private final String queueError;
     
+    // Attendance queues (message = chunk nhiều dòng, xem AttendanceChunk)
+    private final String queueAttendanceRaw;
+    private final String queueAttendanceValidated;
+    private final String queueAttendanceError;
+    
+    // Thay đổi điểm danh đã commit (AttendanceChangeBatch) và cảnh báo sinh viên (AtRiskAlert)
+    private final String queueAttendanceCommitted;
+    private final String queueAlerts;
+    
     // Exchange
     private final String exchangeName;
     
@@ -35,6 +47,14 @@ public class QueueManager {
     private final String routingKeyValidated;
     private final String routingKeyTransformed;
     private final String routingKeyError;
+    private final String routingKeyAttendanceRaw;
+    private final String routingKeyAttendanceValidated;
+    private final String routingKeyAttendanceError;
+    private final String routingKeyAttendanceCommitted;
+    private final String routingKeyAlerts;
+    
+    // Giới hạn độ dài attendance queues (tính theo chunk)
+    private final int attendanceMaxLength;
     
     public QueueManager() {
         this.config = RabbitMQConfig.getInstance();
@@ -46,18 +66,34 @@ public class QueueManager {
         this.queueTransformed = configLoader.getProperty("queue.student.transformed", "student.transformed");
         this.queueError = configLoader.getProperty("queue.student.error", "student.error");
         
+        this.queueAttendanceRaw = configLoader.getProperty("queue.attendance.raw", "attendance.raw");
+        this.queueAttendanceValidated = configLoader.getProperty("queue.attendance.validated", "attendance.validated");
+        this.queueAttendanceError = configLoader.getProperty("queue.attendance.error", "attendance.error");
+        this.attendanceMaxLength = configLoader.getIntProperty("queue.attendance.max.length", 1000000);
+        this.queueAttendanceCommitted = configLoader.getProperty("queue.attendance.committed", "attendance.committed");
+        this.queueAlerts = configLoader.getProperty("queue.student.alerts", "student.alerts");
+        
         this.exchangeName = configLoader.getProperty("exchange.student", "student.exchange");
         
         this.routingKeyRaw = configLoader.getProperty("routing.key.raw", "student.raw");
         this.routingKeyValidated = configLoader.getProperty("routing.key.validated", "student.validated");
         this.routingKeyTransformed = configLoader.getProperty("routing.key.transformed", "student.transformed");
         this.routingKeyError = configLoader.getProperty("routing.key.error", "student.error");
+        this.routingKeyAttendanceRaw = configLoader.getProperty("routing.key.attendance.raw", "attendance.raw");
+        this.routingKeyAttendanceValidated = configLoader.getProperty("routing.key.attendance.validated", "attendance.validated");
+        this.routingKeyAttendanceError = configLoader.getProperty("routing.key.attendance.error", "attendance.error");
+        this.routingKeyAttendanceCommitted = configLoader.getProperty("routing.key.attendance.committed", "attendance.committed");
+        this.routingKeyAlerts = configLoader.getProperty("routing.key.alerts", "student.alerts");
     }
     
     /**
      * Setup tất cả queues, exchanges, và bindings
      */
     public void setupQueues() throws IOException, TimeoutException {
+        if (skipForTransport("setup")) {
+            return;
+        }
+        
         logger.info("Setting up RabbitMQ queues and exchanges...");
         
         Connection connection = config.getConnection();
@@ -107,6 +143,33 @@ public class QueueManager {
             channel.queueBind(queueError, exchangeName, routingKeyError);
             logger.info("✅ Queue declared and bound: {} → {}", queueError, routingKeyError);
             
+            // Attendance queues: lazy (message nằm trên đĩa, không giữ trong RAM của broker)
+            // vì một kỳ học có hàng triệu dòng điểm danh
+            Map<String, Object> attendanceArgs = new HashMap<>();
+            attendanceArgs.put("x-queue-mode", "lazy");
+            attendanceArgs.put("x-max-length", attendanceMaxLength);
+            
+            channel.queueDeclare(queueAttendanceRaw, true, false, false, attendanceArgs);
+            channel.queueBind(queueAttendanceRaw, exchangeName, routingKeyAttendanceRaw);
+            logger.info("✅ Queue declared and bound: {} → {}", queueAttendanceRaw, routingKeyAttendanceRaw);
+            
+            channel.queueDeclare(queueAttendanceValidated, true, false, false, attendanceArgs);
+            channel.queueBind(queueAttendanceValidated, exchangeName, routingKeyAttendanceValidated);
+            logger.info("✅ Queue declared and bound: {} → {}", queueAttendanceValidated, routingKeyAttendanceValidated);
+            
+            channel.queueDeclare(queueAttendanceError, true, false, false, errorQueueArgs);
+            channel.queueBind(queueAttendanceError, exchangeName, routingKeyAttendanceError);
+            logger.info("✅ Queue declared and bound: {} → {}", queueAttendanceError, routingKeyAttendanceError);
+            
+            channel.queueDeclare(queueAttendanceCommitted, true, false, false, attendanceArgs);
+            channel.queueBind(queueAttendanceCommitted, exchangeName, routingKeyAttendanceCommitted);
+            logger.info("✅ Queue declared and bound: {} → {}", queueAttendanceCommitted, routingKeyAttendanceCommitted);
+            
+            // Queue: student.alerts (cảnh báo giữ lâu như error queue)
+            channel.queueDeclare(queueAlerts, true, false, false, errorQueueArgs);
+            channel.queueBind(queueAlerts, exchangeName, routingKeyAlerts);
+            logger.info("✅ Queue declared and bound: {} → {}", queueAlerts, routingKeyAlerts);
+            
             logger.info("🎉 All queues and exchanges setup completed!");
             
             // Print summary
@@ -131,6 +194,11 @@ public class QueueManager {
             printQueueInfo(channel, queueValidated);
             printQueueInfo(channel, queueTransformed);
             printQueueInfo(channel, queueError);
+            printQueueInfo(channel, queueAttendanceRaw);
+            printQueueInfo(channel, queueAttendanceValidated);
+            printQueueInfo(channel, queueAttendanceError);
+            printQueueInfo(channel, queueAttendanceCommitted);
+            printQueueInfo(channel, queueAlerts);
             
             logger.info("╚════════════════════════════════════════╝\n");
         } catch (Exception e) {
@@ -140,15 +208,26 @@ public class QueueManager {
     
     private void printQueueInfo(Channel channel, String queueName) throws IOException {
         AMQP.Queue.DeclareOk declareOk = channel.queueDeclarePassive(queueName);
-        logger.info("║ {}: {} messages", 
-            String.format("%-25s", queueName), 
+        logger.info("║ {}: {} messages",
+            String.format("%-25s", queueName),
             declareOk.getMessageCount());
     }
     
+    /**
+     * Số message đang chờ trong queue
+     */
+    public long getMessageCount(String queueName) throws IOException, TimeoutException {
+        return TransportFactory.getTransport().getMessageCount(queueName);
+    }
+    
     /**
      * Purge tất cả queues (Xóa tất cả messages)
      */
     public void purgeAllQueues() throws IOException, TimeoutException {
+        if (skipForTransport("purge")) {
+            return;
+        }
+        
         logger.warn("⚠️  Purging all queues...");
         
         Connection connection = config.getConnection();
@@ -158,6 +237,11 @@ public class QueueManager {
             channel.queuePurge(queueValidated);
             channel.queuePurge(queueTransformed);
             channel.queuePurge(queueError);
+            channel.queuePurge(queueAttendanceRaw);
+            channel.queuePurge(queueAttendanceValidated);
+            channel.queuePurge(queueAttendanceError);
+            channel.queuePurge(queueAttendanceCommitted);
+            channel.queuePurge(queueAlerts);
             
             logger.info("✅ All queues purged");
         }
@@ -167,6 +251,10 @@ public class QueueManager {
      * Delete tất cả queues
      */
     public void deleteAllQueues() throws IOException, TimeoutException {
+        if (skipForTransport("delete")) {
+            return;
+        }
+        
         logger.warn("⚠️  Deleting all queues...");
         
         Connection connection = config.getConnection();
@@ -176,12 +264,29 @@ public class QueueManager {
             channel.queueDelete(queueValidated);
             channel.queueDelete(queueTransformed);
             channel.queueDelete(queueError);
+            channel.queueDelete(queueAttendanceRaw);
+            channel.queueDelete(queueAttendanceValidated);
+            channel.queueDelete(queueAttendanceError);
+            channel.queueDelete(queueAttendanceCommitted);
+            channel.queueDelete(queueAlerts);
             channel.exchangeDelete(exchangeName);
             
             logger.info("✅ All queues and exchange deleted");
         }
     }
     
+    /**
+     * Queue không nằm trên RabbitMQ (transport in-memory) thì bỏ qua thao tác quản trị
+     */
+    private boolean skipForTransport(String operation) {
+        Transport transport = TransportFactory.getTransport();
+        if (transport.isBrokered()) {
+            return false;
+        }
+        logger.info("Transport '{}': queues live in memory, skipping {}", transport.getName(), operation);
+        return true;
+    }
+    
     // Getters
     public String getQueueRaw() {
         return queueRaw;
@@ -199,6 +304,26 @@ public class QueueManager {
         return queueError;
     }
     
+    public String getQueueAttendanceRaw() {
+        return queueAttendanceRaw;
+    }
+    
+    public String getQueueAttendanceValidated() {
+        return queueAttendanceValidated;
+    }
+    
+    public String getQueueAttendanceError() {
+        return queueAttendanceError;
+    }
+    
+    public String getQueueAttendanceCommitted() {
+        return queueAttendanceCommitted;
+    }
+    
+    public String getQueueAlerts() {
+        return queueAlerts;
+    }
+    
     public String getExchangeName() {
         return exchangeName;
     }
@@ -218,4 +343,24 @@ public class QueueManager {
     public String getRoutingKeyError() {
         return routingKeyError;
     }
+    
+    public String getRoutingKeyAttendanceRaw() {
+        return routingKeyAttendanceRaw;
+    }
+    
+    public String getRoutingKeyAttendanceValidated() {
+        return routingKeyAttendanceValidated;
+    }
+    
+    public String getRoutingKeyAttendanceError() {
+        return routingKeyAttendanceError;
+    }
+    
+    public String getRoutingKeyAttendanceCommitted() {
+        return routingKeyAttendanceCommitted;
+    }
+    
+    public String getRoutingKeyAlerts() {
+        return routingKeyAlerts;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.student.integration.consumer;
+
+import com.student.integration.analytics.AtRiskDetector;
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.MessagePublisher;
+import com.student.integration.config.QueueManager;
+import com.student.integration.loader.StudentKeyCache;
+import com.student.integration.metrics.Counter;
+import com.student.integration.metrics.MetricsRegistry;
+import com.student.integration.model.dto.AtRiskAlert;
+import com.student.integration.model.dto.AttendanceChangeBatch;
+import com.student.integration.model.entity.Student;
+import com.student.integration.model.enums.AlertState;
+import com.student.integration.model.enums.AtRiskRule;
+import com.student.integration.tracing.TraceContext;
+import com.student.integration.util.LongHashSet;
+import com.student.integration.util.StudentIdCodec;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Consumer phát hiện sinh viên có nguy cơ (AtRiskDetector) → student.alerts
+ *
+ * Flow:
+ * 1. Receive AttendanceChangeBatch từ attendance.committed (AttendanceLoader publish sau commit,
+ *    cần attendance.changes.publish.enabled=true ở process ghi attendance)
+ * 2. GpaConsumer nhận Student từ student.transformed (TransformerLoaderConsumer publish sau load)
+ * 3. Detector cập nhật bộ đếm O(1) / sự kiện, rule đổi trạng thái → publish AtRiskAlert
+ *
+ * Publish alert lỗi → throw, transport giao lại message; detector bỏ các thay đổi đã áp dụng
+ * theo term_version nên bộ đếm không bị cộng hai lần, nhưng alert đó không được phát lại
+ * (at-most-once cho alert). Cùng cơ chế bỏ các thay đổi còn trong queue mà warm-up đã tính
+ */
+public class AtRiskDetectorConsumer extends BaseConsumer<AttendanceChangeBatch> {
+    
+    private final AtRiskDetector detector;
+    private final MessagePublisher messagePublisher;
+    private final GpaConsumer gpaConsumer;
+    
+    // [rule][state]
+    private final Counter[][] alertCounters;
+    
+    public AtRiskDetectorConsumer() {
+        this(AtRiskDetector.fromConfig());
+    }
+    
+    public AtRiskDetectorConsumer(AtRiskDetector detector) {
+        super(AttendanceChangeBatch.class);
+        this.detector = detector;
+        this.messagePublisher = new MessagePublisher();
+        this.gpaConsumer = new GpaConsumer();
+        
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        this.alertCounters = new Counter[AtRiskRule.values().length][AlertState.values().length];
+        for (AtRiskRule rule : AtRiskRule.values()) {
+            for (AlertState state : AlertState.values()) {
+                alertCounters[rule.ordinal()][state.ordinal()] = registry.counter("atrisk_alerts_total",
+                    "At-risk alerts published to student.alerts", "rule", rule.name(), "state", state.name());
+            }
+        }
+        
+        logger.info("✅ AtRiskDetectorConsumer initialized");
+    }
+    
+    /**
+     * Warm-up từ DB rồi consume cả attendance.committed và student.transformed
+     */
+    public void start(QueueManager queueManager, int prefetchCount) throws IOException, TimeoutException {
+        detector.warmUp();
+        startConsuming(queueManager.getQueueAttendanceCommitted(), prefetchCount);
+        gpaConsumer.startConsuming(queueManager.getQueueTransformed(), prefetchCount);
+    }
+    
+    @Override
+    protected void processMessage(AttendanceChangeBatch batch, TraceContext trace) throws Exception {
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        
+        List<AtRiskAlert> alerts = detector.onAttendanceChanges(batch);
+        for (AtRiskAlert alert : alerts) {
+            publish(alert);
+        }
+    }
+    
+    private void publish(AtRiskAlert alert) throws IOException, TimeoutException {
+        messagePublisher.publishToAlerts(alert);
+        alertCounters[alert.getRule().ordinal()][alert.getState().ordinal()].increment();
+        logger.info("🚨 {} {} for student {} (value {}, threshold {})",
+            alert.getRule(), alert.getState(), alert.getStudentId(), alert.getValue(), alert.getThreshold());
+    }
+    
+    public AtRiskDetector getDetector() {
+        return detector;
+    }
+    
+    @Override
+    public void stop() throws IOException, TimeoutException {
+        gpaConsumer.stop();
+        super.stop();
+    }
+    
+    /**
+     * GPA từ student.transformed (cùng queue có sự kiện BATCH_COMPLETED, BaseConsumer bỏ qua)
+     * Student chưa có id (upsert không trả generated key) → tra StudentKeyCache theo mã
+     */
+    private final class GpaConsumer extends BaseConsumer<Student> {
+        
+        private StudentKeyCache keyCache;
+        
+        GpaConsumer() {
+            super(Student.class);
+        }
+        
+        @Override
+        protected void processMessage(Student student, TraceContext trace) throws Exception {
+            if (student == null || student.getGpa() == null) {
+                return;
+            }
+            
+            long id = student.getId() != null ? student.getId() : resolve(student.getStudentId());
+            if (id <= 0) {
+                logger.debug("Skipping GPA of unknown student {}", student.getStudentId());
+                return;
+            }
+            
+            AtRiskAlert alert = detector.onGpa(id, student.getGpa());
+            if (alert != null) {
+                publish(alert);
+            }
+        }
+        
+        private long resolve(String studentCode) throws Exception {
+            long key = StudentIdCodec.encode(studentCode);
+            if (key == StudentIdCodec.NO_KEY) {
+                return 0;
+            }
+            if (keyCache == null) {
+                keyCache = StudentKeyCache.getInstance();
+            }
+            
+            long id = keyCache.resolve(key);
+            if (id <= 0) {
+                LongHashSet keys = new LongHashSet(1);
+                keys.add(key);
+                keyCache.prefetch(keys);
+                id = keyCache.resolve(key);
+            }
+            return id;
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int prefetch = ConfigLoader.getInstance().getIntProperty("atrisk.consumer.prefetch", 50);
+        
+        AtRiskDetectorConsumer consumer = new AtRiskDetectorConsumer();
+        consumer.start(new QueueManager(), prefetch);
+        
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                consumer.stop();
+            } catch (IOException | TimeoutException e) {
+                consumer.logger.warn("Failed to stop at-risk consumer: {}", e.getMessage());
+            }
+        }));
+        
+        consumer.waitUntilInterrupted();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,212 @@
+package com.student.integration.consumer;
+
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.DatabaseConfig;
+import com.student.integration.config.MessagePublisher;
+import com.student.integration.loader.AttendanceLoader;
+import com.student.integration.loader.ImportBatchRepository;
+import com.student.integration.metrics.Counter;
+import com.student.integration.model.dto.BatchMarker;
+import com.student.integration.model.dto.ValidatedAttendanceChunk;
+import com.student.integration.model.entity.Attendance;
+import com.student.integration.tracing.TraceContext;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Consumer load chunk điểm danh đã validate vào bảng attendance (Clean DB)
+ *
+ * Flow:
+ * 1. Receive ValidatedAttendanceChunk từ attendance.validated
+ * 2. Upsert cả chunk trong một transaction (AttendanceLoader.upsertBatch)
+ * 3. ACK sau khi commit: lỗi DB → chunk được giao lại, upsert theo
+ *    unique_attendance nên giao lại không tạo dòng trùng; dòng loader bỏ vì học kỳ
+ *    đã đóng tính là failed của batch, các dòng còn lại vẫn được ghi
+ * 4. Khi dòng cuối của một batch đã load → cập nhật import_batches
+ *    và gửi BATCH_COMPLETED như TransformerLoaderConsumer
+ *    (chunk bị bỏ sau khi hết lượt thử lại / batch quá hạn: như TransformerLoaderConsumer)
+ */
+public class AttendanceLoaderConsumer extends BaseConsumer<ValidatedAttendanceChunk> {
+    
+    private final AttendanceLoader loader;
+    private final MessagePublisher messagePublisher;
+    private final ImportBatchRepository batchRepository;
+    
+    private final BatchTracker batches = new BatchTracker();
+    private final Map<String, CompletableFuture<BatchMarker>> completions = new ConcurrentHashMap<>();
+    private final int progressUpdateEvery;
+    private final long completionTimeoutMs;
+    
+    private final Counter loadedRows;
+    
+    public AttendanceLoaderConsumer() {
+        super(ValidatedAttendanceChunk.class);
+        this.loader = new AttendanceLoader();
+        this.messagePublisher = new MessagePublisher();
+        this.batchRepository = new ImportBatchRepository();
+        ConfigLoader config = ConfigLoader.getInstance();
+        this.progressUpdateEvery = config.getIntProperty("batch.progress.update.every", 1000);
+        this.completionTimeoutMs = config.getIntProperty("batch.completion.timeout.seconds", 1800) * 1000L;
+        this.loadedRows = metrics.getAttendanceLoadedRows();
+        
+        // Test DB connection
+        if (!DatabaseConfig.getInstance().testConnections()) {
+            throw new RuntimeException("Database connection test failed");
+        }
+        
+        if (completionTimeoutMs > 0) {
+            scheduleHousekeeping(this::expireIdleBatches, Math.max(1000, Math.min(completionTimeoutMs / 4, 60_000)));
+        }
+        
+        logger.info("✅ AttendanceLoaderConsumer initialized");
+    }
+    
+    @Override
+    protected void processMessage(ValidatedAttendanceChunk chunk, TraceContext trace) throws Exception {
+        List<Attendance> rejected = new ArrayList<>(0);
+        int loaded;
+        try {
+            loaded = loader.upsertBatch(chunk.getRecords(), rejected);
+        } catch (SQLException e) {
+            logger.error("✗ Failed to load attendance chunk of {} rows ({}): {}",
+                chunk.size(), chunk.getSourceFile(), e.getMessage());
+            throw e;
+        }
+        loadedRows.add(loaded);
+        
+        if (chunk.getBatchId() != null) {
+            recordBatchProgress(chunk.getBatchId(), loaded, rejected.size());
+        }
+    }
+    
+    @Override
+    protected void processEndOfStream(BatchMarker marker) throws Exception {
+        logger.info("📨 End of attendance batch {} received: {} valid rows expected (loaded so far: {})",
+            marker.getBatchId(), marker.getExpectedRecords(), batches.getHandled(marker.getBatchId()));
+        
+        BatchTracker.Progress completed = batches.expect(marker);
+        if (completed != null) {
+            completeBatch(completed);
+        }
+    }
+    
+    /**
+     * Chunk bị bỏ sau khi hết lượt thử lại: mọi dòng của chunk tính là failed
+     */
+    @Override
+    protected void processDropped(ValidatedAttendanceChunk chunk, Exception cause) throws Exception {
+        if (chunk.getBatchId() == null) {
+            return;
+        }
+        
+        BatchTracker.Progress completed = batches.record(chunk.getBatchId(), 0, chunk.size());
+        if (completed != null) {
+            completeBatch(completed);
+        }
+    }
+    
+    private void recordBatchProgress(String batchId, int loaded, int failed) throws Exception {
+        int before = batches.getHandled(batchId);
+        BatchTracker.Progress completed = batches.record(batchId, loaded, failed);
+        if (completed != null) {
+            completeBatch(completed);
+            return;
+        }
+        
+        // Chunk vượt qua mốc progressUpdateEvery thì cập nhật import_batches
+        int after = before + loaded + failed;
+        if (progressUpdateEvery > 0 && after / progressUpdateEvery != before / progressUpdateEvery) {
+            try {
+                batchRepository.updateProgress(batchId, after, 0);
+            } catch (SQLException e) {
+                logger.warn("Failed to update progress of batch {}: {}", batchId, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Dòng cuối của batch đã load: import_batches → COMPLETED, gửi sự kiện BATCH_COMPLETED
+     */
+    private void completeBatch(BatchTracker.Progress progress) throws Exception {
+        BatchMarker event = progress.getMarker().forNextStage(0);
+        event.setLoadedRecords(progress.getSucceeded());
+        int failedRows = event.getFailedRows() + progress.getFailed();
+        
+        try {
+            batchRepository.complete(event.getBatchId(), event.getTotalRows(),
+                event.getLoadedRecords(), failedRows);
+        } catch (SQLException e) {
+            logger.warn("Failed to mark batch {} completed: {}", event.getBatchId(), e.getMessage());
+        }
+        
+        messagePublisher.publishBatchCompleted(event);
+        completions.computeIfAbsent(event.getBatchId(), id -> new CompletableFuture<>()).complete(event);
+        
+        logger.info("🎉 Attendance batch {} completed: {} rows, {} loaded, {} failed ({} parse errors, {} invalid, {} load errors)",
+            event.getBatchId(), event.getTotalRows(), event.getLoadedRecords(), failedRows,
+            event.getParseErrors(), event.getInvalidRecords(), progress.getFailed());
+    }
+    
+    /**
+     * Batch không có tiến độ quá completionTimeoutMs → import_batches FAILED
+     */
+    private void expireIdleBatches() {
+        for (BatchTracker.Progress progress : batches.expireIdle(completionTimeoutMs)) {
+            String reason = progress.describeTimeout(completionTimeoutMs);
+            logger.error("❌ Attendance batch {} failed: {}", progress.getBatchId(), reason);
+            
+            try {
+                batchRepository.updateProgress(progress.getBatchId(), progress.getSucceeded(), progress.getFailed());
+                batchRepository.fail(progress.getBatchId(), reason);
+            } catch (SQLException e) {
+                logger.warn("Failed to mark batch {} failed: {}", progress.getBatchId(), e.getMessage());
+            }
+            
+            BatchMarker event = progress.getMarker() != null
+                ? progress.getMarker().forNextStage(0)
+                : new BatchMarker(progress.getBatchId(), null, 0, 0, 0);
+            event.setLoadedRecords(progress.getSucceeded());
+            completions.computeIfAbsent(event.getBatchId(), id -> new CompletableFuture<>()).complete(event);
+        }
+    }
+    
+    /**
+     * Chờ đến khi mọi dòng valid của batch đã load
+     *
+     * @return sự kiện hoàn thành (batch hết hạn: marker với loadedRecords hiện có), null nếu hết timeout
+     */
+    public BatchMarker awaitBatchCompletion(String batchId, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        try {
+            return completions.computeIfAbsent(batchId, id -> new CompletableFuture<>()).get(timeout, unit);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    public long getLoadedCount() {
+        return loadedRows.get();
+    }
+    
+    @Override
+    public void stop() throws IOException, TimeoutException {
+        try {
+            logger.info("Attendance load: {} rows loaded, {} rows in Clean DB",
+                loadedRows.get(), loader.countAttendance());
+        } catch (SQLException e) {
+            logger.error("Error printing statistics", e);
+        }
+        super.stop();
+    }
+}
\ No newline at end of file
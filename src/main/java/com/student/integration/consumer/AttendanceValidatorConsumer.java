@@ -0,0 +1,177 @@
+package com.student.integration.consumer;
+
+import com.student.integration.config.MessagePublisher;
+import com.student.integration.loader.StudentKeyCache;
+import com.student.integration.loader.StudentKeyResolver;
+import com.student.integration.metrics.Counter;
+import com.student.integration.model.dto.AttendanceChunk;
+import com.student.integration.model.dto.AttendanceErrorChunk;
+import com.student.integration.model.dto.AttendanceRawDTO;
+import com.student.integration.model.dto.AttendanceValidationResult;
+import com.student.integration.model.dto.BatchMarker;
+import com.student.integration.model.dto.ValidatedAttendanceChunk;
+import com.student.integration.tracing.TraceContext;
+import com.student.integration.util.LongHashSet;
+import com.student.integration.util.StudentIdCodec;
+import com.student.integration.validator.ValidationChainBuilder;
+import com.student.integration.validator.attendance.AttendanceValidator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Consumer validate chunk điểm danh từ queue "attendance.raw"
+ *
+ * Flow (mỗi message là một chunk nhiều dòng):
+ * 1. Resolve student_id → students.id cho cả chunk (StudentKeyCache, chỉ query key chưa có)
+ * 2. Apply attendance validation chain cho từng dòng
+ * 3. Route:
+ *    - Dòng valid → một ValidatedAttendanceChunk vào attendance.validated
+ *    - Dòng lỗi → một AttendanceErrorChunk vào attendance.error
+ * 4. Khi đã xử lý hết dòng của một batch (file) → END_OF_STREAM
+ *    sang attendance.validated với số dòng valid
+ */
+public class AttendanceValidatorConsumer extends BaseConsumer<AttendanceChunk> {
+    
+    private final StudentKeyResolver studentResolver;
+    private final AttendanceValidator validationChain;
+    private final MessagePublisher messagePublisher;
+    
+    private final Counter validRows;
+    private final Counter invalidRows;
+    
+    // Số dòng valid/invalid theo batch
+    private final BatchTracker batches = new BatchTracker();
+    
+    // Key của chunk hiện tại (tái sử dụng giữa các message)
+    private final LongHashSet chunkKeys = new LongHashSet(1024);
+    
+    private long startTime;
+    
+    public AttendanceValidatorConsumer() {
+        this(StudentKeyCache.getInstance());
+    }
+    
+    public AttendanceValidatorConsumer(StudentKeyResolver studentResolver) {
+        super(AttendanceChunk.class);
+        this.studentResolver = studentResolver;
+        this.validationChain = ValidationChainBuilder.buildAttendanceValidationChain(studentResolver);
+        this.messagePublisher = new MessagePublisher();
+        
+        this.validRows = metrics.getAttendanceValidRows();
+        this.invalidRows = metrics.getAttendanceInvalidRows();
+        
+        logger.info("✅ AttendanceValidatorConsumer initialized");
+    }
+    
+    @Override
+    protected void processMessage(AttendanceChunk chunk, TraceContext trace) throws Exception {
+        if (startTime == 0) {
+            startTime = System.currentTimeMillis();
+        }
+        
+        List<AttendanceRawDTO> rows = chunk.getRecords();
+        
+        // 1. Key chưa có trong cache được resolve bằng query gộp
+        chunkKeys.clear();
+        for (AttendanceRawDTO row : rows) {
+            long key = StudentIdCodec.encode(row.getStudentId());
+            if (key != StudentIdCodec.NO_KEY) {
+                chunkKeys.add(key);
+            }
+        }
+        studentResolver.prefetch(chunkKeys);
+        
+        // 2. Validate từng dòng
+        ValidatedAttendanceChunk valid = new ValidatedAttendanceChunk(
+            chunk.getBatchId(), chunk.getSourceFile(), rows.size());
+        AttendanceErrorChunk invalid = new AttendanceErrorChunk(chunk.getBatchId(), chunk.getSourceFile());
+        
+        for (AttendanceRawDTO row : rows) {
+            AttendanceValidationResult result = new AttendanceValidationResult(row);
+            validationChain.validate(row, result);
+            
+            if (result.isValid()) {
+                valid.add(result.getAttendance());
+            } else {
+                invalid.add(result);
+            }
+        }
+        
+        // 3. Route
+        if (!valid.isEmpty()) {
+            messagePublisher.publishToAttendanceValidated(valid);
+        }
+        if (!invalid.isEmpty()) {
+            messagePublisher.publishToAttendanceError(invalid);
+        }
+        validRows.add(valid.size());
+        invalidRows.add(invalid.size());
+        
+        logger.debug("Chunk of {} rows: {} valid, {} invalid", rows.size(), valid.size(), invalid.size());
+        
+        // 4. Đếm theo batch, batch xong thì báo cho loader
+        if (chunk.getBatchId() != null) {
+            BatchTracker.Progress completed = batches.record(chunk.getBatchId(), valid.size(), invalid.size());
+            if (completed != null) {
+                forwardEndOfStream(completed);
+            }
+        }
+        
+        logProgress();
+    }
+    
+    @Override
+    protected void processEndOfStream(BatchMarker marker) throws Exception {
+        logger.info("📨 End of attendance batch {} received: {} rows expected (handled so far: {})",
+            marker.getBatchId(), marker.getExpectedRecords(), batches.getHandled(marker.getBatchId()));
+        
+        BatchTracker.Progress completed = batches.expect(marker);
+        if (completed != null) {
+            forwardEndOfStream(completed);
+        }
+    }
+    
+    /**
+     * Batch đã validate xong → END_OF_STREAM cho loader (chờ đúng số dòng valid)
+     */
+    private void forwardEndOfStream(BatchTracker.Progress progress) throws Exception {
+        BatchMarker next = progress.getMarker().forNextStage(progress.getSucceeded());
+        next.setInvalidRecords(progress.getFailed());
+        messagePublisher.publishEndOfStreamToAttendanceValidated(next);
+        
+        logger.info("✅ Attendance batch {} validated: {} valid, {} invalid",
+            progress.getBatchId(), progress.getSucceeded(), progress.getFailed());
+    }
+    
+    private void logProgress() {
+        long elapsed = System.currentTimeMillis() - startTime;
+        long processed = getTotalProcessed();
+        
+        logger.debug(String.format("📊 Attendance rows: %d | Valid: %d | Invalid: %d | Rate: %.1f rows/s",
+            processed, validRows.get(), invalidRows.get(), processed / Math.max(elapsed / 1000.0, 0.001)));
+    }
+    
+    /**
+     * Số dòng đã validate và route xong (valid + invalid)
+     */
+    public long getTotalProcessed() {
+        return validRows.get() + invalidRows.get();
+    }
+    
+    public long getValidCount() {
+        return validRows.get();
+    }
+    
+    public long getInvalidCount() {
+        return invalidRows.get();
+    }
+    
+    @Override
+    public void stop() throws IOException, TimeoutException {
+        logger.info("Attendance validation: {} rows, {} valid, {} invalid",
+            getTotalProcessed(), validRows.get(), invalidRows.get());
+        super.stop();
+    }
+}
\ No newline at end of file
@@ -1,44 +1,58 @@
 package com.student.integration.consumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.rabbitmq.client.Channel;
-import com.rabbitmq.client.Connection;
-import com.rabbitmq.client.DeliverCallback;
-import com.student.integration.config.RabbitMQConfig;
+import com.student.integration.config.QueueManager;
+import com.student.integration.metrics.LatencyHistogram;
+import com.student.integration.metrics.MetricsHttpServer;
+import com.student.integration.metrics.MetricsRegistry;
+import com.student.integration.metrics.PipelineMetrics;
+import com.student.integration.model.dto.BatchMarker;
+import com.student.integration.model.enums.MessageType;
+import com.student.integration.tracing.TraceContext;
+import com.student.integration.transport.Acknowledgement;
+import com.student.integration.transport.InboundMessage;
+import com.student.integration.transport.MessageHandler;
+import com.student.integration.transport.Subscription;
+import com.student.integration.transport.Transport;
+import com.student.integration.transport.TransportFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 /**
  * Base class cho tất cả consumers
- * Provide common functionality: connection, channel, JSON parsing
+ * Provide common functionality: subscribe qua transport, decode payload, routing marker của batch
+ *
+ * @param <T> kiểu payload của queue (AMQP: deserialize từ JSON, in-memory: object gốc)
  */
-public abstract class BaseConsumer {
+public abstract class BaseConsumer<T> {
     
     protected final Logger logger = LoggerFactory.getLogger(getClass());
-    protected final ObjectMapper objectMapper;
-    protected final RabbitMQConfig config;
+    protected final Transport transport;
     
-    protected Channel channel;
+    private final Class<T> payloadType;
+    private Subscription subscription;
+    private ScheduledExecutorService housekeeping;
+    
+    // Message đang trong processMessage (transport giao tuần tự trên một thread mỗi subscription)
+    private InboundMessage current;
     protected volatile boolean running = false;
     
-    protected BaseConsumer() {
-        this.config = RabbitMQConfig.getInstance();
-        this.objectMapper = new ObjectMapper();
-        
-        // Register JavaTimeModule for LocalDateTime support
-        JavaTimeModule javaTimeModule = new JavaTimeModule();
-        this.objectMapper.registerModule(javaTimeModule);
-        
-        // Configure ObjectMapper to handle timestamps properly
-        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        this.objectMapper.disable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE);
-        this.objectMapper.disable(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS);
+    // Thời gian xử lý mỗi message (processMessage, không gồm ACK của transport), label consumer = tên class
+    protected final LatencyHistogram processingLatency;
+    protected final PipelineMetrics metrics;
+    
+    protected BaseConsumer(Class<T> payloadType) {
+        this.payloadType = payloadType;
+        this.transport = TransportFactory.getTransport();
+        this.metrics = PipelineMetrics.getInstance();
+        this.processingLatency = MetricsRegistry.getInstance().histogram(
+            "pipeline_consumer_processing_seconds", "Message handling latency excluding ack",
+            "consumer", getClass().getSimpleName());
     }
     
     /**
@@ -52,55 +66,127 @@ public abstract class BaseConsumer {
      * Start consuming với custom prefetch count
      */
     public void startConsuming(String queueName, int prefetchCount) throws IOException, TimeoutException {
-        logger.info("🚀 Starting consumer for queue: {}", queueName);
+        logger.info("🚀 Starting consumer for queue: {} (transport: {})", queueName, transport.getName());
         logger.info("   Prefetch count: {}", prefetchCount);
         
-        // Get connection và create channel
-        Connection connection = config.getConnection();
-        channel = connection.createChannel();
-        
-        // Set QoS - Prefetch count
-        channel.basicQos(prefetchCount);
-        
         running = true;
         
-        // Define callback
-        DeliverCallback deliverCallback = (consumerTag, delivery) -> {
-            try {
-                // Process message
-                processMessage(delivery.getBody());
-                
-                // Manual ACK sau khi xử lý xong
-                channel.basicAck(delivery.getEnvelope().getDeliveryTag(), false);
-                
-            } catch (Exception e) {
-                logger.error("Error processing message", e);
-                
-                // NACK - requeue nếu có lỗi
-                try {
-                    channel.basicNack(delivery.getEnvelope().getDeliveryTag(), false, true);
-                } catch (IOException ex) {
-                    logger.error("Error sending NACK", ex);
-                }
-            }
-        };
+        // Metrics endpoint + gauge độ sâu queues (một lần cho cả process)
+        metrics.registerQueueDepthGauges(new QueueManager());
+        MetricsHttpServer.getInstance().startIfEnabled();
         
-        // Start consuming
-        channel.basicConsume(
-            queueName,
-            false,              // autoAck = false (manual ACK)
-            deliverCallback,
-            consumerTag -> logger.warn("Consumer cancelled: {}", consumerTag)
-        );
+        // Transport ACK khi handleMessage return, giao lại message khi throw
+        subscription = transport.subscribe(queueName, prefetchCount, new MessageHandler() {
+            @Override
+            public void handle(InboundMessage message) throws Exception {
+                handleMessage(message);
+            }
+            
+            @Override
+            public void onDropped(InboundMessage message, Exception cause) {
+                handleDropped(message, cause);
+            }
+        });
         
         logger.info("✅ Consumer started. Waiting for messages...");
         logger.info("   Press Ctrl+C to stop");
     }
     
+    private void handleMessage(InboundMessage message) throws Exception {
+        // Marker END_OF_STREAM của batch: không tính vào metrics xử lý record
+        if (message.getType() == MessageType.END_OF_STREAM) {
+            processEndOfStream(message.getPayload(BatchMarker.class));
+            return;
+        }
+        // Sự kiện BATCH_COMPLETED đi chung queue tracking với record (student.transformed)
+        if (message.getType() == MessageType.BATCH_COMPLETED) {
+            processBatchCompleted(message.getPayload(BatchMarker.class));
+            return;
+        }
+        
+        long start = System.nanoTime();
+        
+        // Process message (trace null nếu producer không gắn)
+        current = message;
+        try {
+            processMessage(message.getPayload(payloadType), message.getTrace());
+        } finally {
+            current = null;
+        }
+        
+        processingLatency.record(System.nanoTime() - start);
+    }
+    
+    private void handleDropped(InboundMessage message, Exception cause) {
+        if (message.getType() != MessageType.RECORD) {
+            return;
+        }
+        try {
+            processDropped(message.getPayload(payloadType), cause);
+        } catch (Exception e) {
+            logger.warn("Could not account for dropped message: {}", e.getMessage());
+        }
+    }
+    
     /**
      * Template method - subclass implement
+     * trace: correlation ID + timestamps các stage trước, truyền tiếp khi publish sang queue sau
+     */
+    protected abstract void processMessage(T message, TraceContext trace) throws Exception;
+    
+    /**
+     * Gọi trong processMessage khi record còn được giữ lại sau khi return (VD: gom batch):
+     * transport chỉ ACK khi gọi ack() → process chết trước đó thì message được giao lại
+     */
+    protected Acknowledgement deferAck() {
+        InboundMessage message = current;
+        if (message == null) {
+            throw new IllegalStateException("deferAck() called outside processMessage");
+        }
+        return message.defer();
+    }
+    
+    /**
+     * Nhận marker END_OF_STREAM của một batch (mặc định: bỏ qua)
+     */
+    protected void processEndOfStream(BatchMarker marker) throws Exception {
+        logger.debug("Ignoring end-of-stream marker: {}", marker);
+    }
+    
+    /**
+     * Nhận sự kiện BATCH_COMPLETED (mặc định: bỏ qua)
+     */
+    protected void processBatchCompleted(BatchMarker marker) throws Exception {
+        logger.debug("Ignoring batch-completed event: {}", marker);
+    }
+    
+    /**
+     * Record rời queue sau khi processMessage throw hết lượt thử lại (local log chuyển sang dead-letter;
+     * AMQP requeue, in-memory thử lại tới khi thành công nên không gọi). Mặc định: bỏ qua, consumer theo dõi batch ghi nhận là lỗi
      */
-    protected abstract void processMessage(byte[] messageBody) throws Exception;
+    protected void processDropped(T message, Exception cause) throws Exception {
+        logger.debug("Ignoring dropped message: {}", cause.getMessage());
+    }
+    
+    /**
+     * Chạy task định kỳ trên thread daemon riêng của consumer, dừng cùng consumer
+     */
+    protected synchronized void scheduleHousekeeping(Runnable task, long periodMs) {
+        if (housekeeping == null) {
+            housekeeping = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, getClass().getSimpleName() + "-housekeeping");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        housekeeping.scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.warn("Housekeeping task failed: {}", e.getMessage());
+            }
+        }, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
     
     /**
      * Stop consumer
@@ -109,13 +195,24 @@ public abstract class BaseConsumer {
         logger.info("⏹️  Stopping consumer...");
         running = false;
         
-        if (channel != null && channel.isOpen()) {
-            channel.close();
+        if (subscription != null) {
+            subscription.cancel();
+            subscription = null;
+        }
+        synchronized (this) {
+            if (housekeeping != null) {
+                housekeeping.shutdownNow();
+                housekeeping = null;
+            }
         }
         
         logger.info("✅ Consumer stopped");
     }
     
+    public LatencyHistogram getProcessingLatency() {
+        return processingLatency;
+    }
+    
     /**
      * Wait until interrupted (for main thread)
      */
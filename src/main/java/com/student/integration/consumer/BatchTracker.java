@@ -0,0 +1,190 @@
+package com.student.integration.consumer;
+
+import com.student.integration.model.dto.BatchMarker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Đếm số record đã xử lý theo batch (file) tại một stage
+ *
+ * Batch hoàn thành khi đã nhận marker END_OF_STREAM và số record đã xử lý
+ * đạt expectedRecords của marker. Marker có thể đến trước record cuối
+ * (record bị NACK/requeue quay lại sau marker) nên cả 2 phía đều kiểm tra.
+ *
+ * Số liệu nằm trong process → mỗi stage chỉ chạy một consumer instance.
+ *
+ * Batch không có tiến độ (record/marker) trong idleMs → expireIdle() trả về để consumer
+ * đánh dấu FAILED; record đến muộn của batch đã hết hạn bị bỏ qua.
+ *
+ * Batch đã hoàn thành / hết hạn được nhớ (MAX_FINISHED batch gần nhất): message giao lại
+ * sau khi batch xong không tạo Progress mới (sẽ hết hạn và ghi FAILED đè COMPLETED).
+ */
+class BatchTracker {
+    
+    // Mỗi file một batch: 10000 batch gần nhất đủ phủ thời gian giao lại của message
+    private static final int MAX_FINISHED = 10_000;
+    
+    /**
+     * Tiến độ của một batch tại stage này
+     */
+    static class Progress {
+        
+        private final String batchId;
+        private int succeeded;
+        private int failed;
+        private BatchMarker marker;
+        private long lastActivityAt;
+        
+        Progress(String batchId) {
+            this.batchId = batchId;
+            this.lastActivityAt = System.currentTimeMillis();
+        }
+        
+        String getBatchId() {
+            return batchId;
+        }
+        
+        int getHandled() {
+            return succeeded + failed;
+        }
+        
+        int getSucceeded() {
+            return succeeded;
+        }
+        
+        int getFailed() {
+            return failed;
+        }
+        
+        BatchMarker getMarker() {
+            return marker;
+        }
+        
+        /**
+         * Lý do batch hết hạn (ghi vào import_batches.error_message)
+         */
+        String describeTimeout(long idleMs) {
+            return String.format("No progress for %d s: %d loaded, %d failed, %s",
+                idleMs / 1000, succeeded, failed,
+                marker != null ? marker.getExpectedRecords() + " expected" : "end-of-stream marker not received");
+        }
+        
+        private boolean isComplete() {
+            return marker != null && getHandled() >= marker.getExpectedRecords();
+        }
+    }
+    
+    private final Map<String, Progress> batches = new HashMap<>();
+    // Batch đã hoàn thành hoặc hết hạn, cũ nhất bị bỏ khi vượt MAX_FINISHED
+    private final Set<String> finished = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_FINISHED;
+        }
+    });
+    
+    /**
+     * Ghi nhận một record của batch
+     *
+     * @return Progress nếu record này làm batch hoàn thành, ngược lại null
+     */
+    synchronized Progress record(String batchId, boolean success) {
+        Progress progress = active(batchId);
+        if (progress == null) {
+            return null;
+        }
+        if (success) {
+            progress.succeeded++;
+        } else {
+            progress.failed++;
+        }
+        return completeIfDone(progress);
+    }
+    
+    /**
+     * Ghi nhận nhiều record cùng lúc (message chứa cả chunk)
+     *
+     * @return Progress nếu chunk này làm batch hoàn thành, ngược lại null
+     */
+    synchronized Progress record(String batchId, int succeeded, int failed) {
+        Progress progress = active(batchId);
+        if (progress == null) {
+            return null;
+        }
+        progress.succeeded += succeeded;
+        progress.failed += failed;
+        return completeIfDone(progress);
+    }
+    
+    /**
+     * Ghi nhận marker END_OF_STREAM
+     *
+     * @return Progress nếu mọi record của batch đã được xử lý, ngược lại null
+     */
+    synchronized Progress expect(BatchMarker marker) {
+        Progress progress = active(marker.getBatchId());
+        if (progress == null) {
+            return null;
+        }
+        progress.marker = marker;
+        return completeIfDone(progress);
+    }
+    
+    /**
+     * Số record đã xử lý của batch (0 nếu chưa có hoặc đã hoàn thành)
+     */
+    synchronized int getHandled(String batchId) {
+        Progress progress = batches.get(batchId);
+        return progress != null ? progress.getHandled() : 0;
+    }
+    
+    synchronized int getActiveBatchCount() {
+        return batches.size();
+    }
+    
+    /**
+     * Lấy batch không có tiến độ trong idleMs ra khỏi tracker
+     */
+    synchronized List<Progress> expireIdle(long idleMs) {
+        long now = System.currentTimeMillis();
+        List<Progress> idle = new ArrayList<>();
+        Iterator<Progress> it = batches.values().iterator();
+        while (it.hasNext()) {
+            Progress progress = it.next();
+            if (now - progress.lastActivityAt >= idleMs) {
+                it.remove();
+                finished.add(progress.batchId);
+                idle.add(progress);
+            }
+        }
+        return idle;
+    }
+    
+    /**
+     * Progress của batch (tạo mới nếu chưa có), null nếu batch đã hoàn thành hoặc hết hạn
+     */
+    private Progress active(String batchId) {
+        if (finished.contains(batchId)) {
+            return null;
+        }
+        Progress progress = batches.computeIfAbsent(batchId, Progress::new);
+        progress.lastActivityAt = System.currentTimeMillis();
+        return progress;
+    }
+    
+    private Progress completeIfDone(Progress progress) {
+        if (!progress.isComplete()) {
+            return null;
+        }
+        batches.remove(progress.batchId);
+        finished.add(progress.batchId);
+        return progress;
+    }
+}
\ No newline at end of file
@@ -2,43 +2,76 @@ package com.student.integration.consumer;
 
 import com.student.integration.config.DatabaseConfig;
 import com.student.integration.config.MessagePublisher;
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.loader.ImportBatchRepository;
+import com.student.integration.loader.StudentKeyCache;
 import com.student.integration.loader.StudentLoader;
+import com.student.integration.metrics.PipelineMetrics;
+import com.student.integration.metrics.StageMetrics;
+import com.student.integration.model.dto.BatchMarker;
 import com.student.integration.model.dto.StudentRawDTO;
 import com.student.integration.model.dto.ValidationResult;
 import com.student.integration.model.entity.Student;
+import com.student.integration.tracing.TraceContext;
+import com.student.integration.tracing.Tracer;
 import com.student.integration.transformer.StudentTransformer;
 
 import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Consumer để transform và load students vào Clean DB
- * 
+ *
  * Flow:
  * 1. Receive from student.validated
  * 2. Transform (String → proper types)
  * 3. Load to MySQL Clean DB
  * 4. Publish to student.transformed (tracking)
+ * 5. Khi record cuối của một batch (file) đã load → cập nhật import_batches
+ *    và gửi sự kiện BATCH_COMPLETED vào student.transformed
+ *
+ * Record bị transport bỏ sau khi hết lượt thử lại được tính là failed của batch;
+ * batch không có tiến độ trong batch.completion.timeout.seconds → import_batches FAILED
  */
-public class TransformerLoaderConsumer extends BaseConsumer {
+public class TransformerLoaderConsumer extends BaseConsumer<ValidationResult> {
     
     private final StudentTransformer transformer;
     private final StudentLoader loader;
     private final MessagePublisher messagePublisher;
+    private final Tracer tracer;
+    private final ImportBatchRepository batchRepository;
     
-    // Statistics
-    private final AtomicInteger totalProcessed = new AtomicInteger(0);
-    private final AtomicInteger successCount = new AtomicInteger(0);
-    private final AtomicInteger errorCount = new AtomicInteger(0);
+    // Số record đã load theo batch + future cho code chờ batch hoàn thành
+    private final BatchTracker batches = new BatchTracker();
+    private final Map<String, CompletableFuture<BatchMarker>> completions = new ConcurrentHashMap<>();
+    private final int progressUpdateEvery;
+    private final long completionTimeoutMs;
+    
+    // Statistics (đọc từ PipelineMetrics, cùng số liệu với /metrics)
+    private final StageMetrics transformMetrics;
+    private final StageMetrics loadMetrics;
     
     private long startTime;
     
     public TransformerLoaderConsumer() {
-        super();
+        super(ValidationResult.class);
         this.transformer = new StudentTransformer();
         this.loader = new StudentLoader();
         this.messagePublisher = new MessagePublisher();
+        this.tracer = Tracer.getInstance();
+        this.batchRepository = new ImportBatchRepository();
+        ConfigLoader config = ConfigLoader.getInstance();
+        this.progressUpdateEvery = config.getIntProperty("batch.progress.update.every", 1000);
+        this.completionTimeoutMs = config.getIntProperty("batch.completion.timeout.seconds", 1800) * 1000L;
+        
+        this.transformMetrics = metrics.stage(PipelineMetrics.Stage.TRANSFORM);
+        this.loadMetrics = metrics.stage(PipelineMetrics.Stage.LOAD);
         
         // Test DB connection
         DatabaseConfig dbConfig = DatabaseConfig.getInstance();
@@ -46,67 +79,208 @@ public class TransformerLoaderConsumer extends BaseConsumer {
             throw new RuntimeException("Database connection test failed");
         }
         
+        if (completionTimeoutMs > 0) {
+            scheduleHousekeeping(this::expireIdleBatches, Math.max(1000, Math.min(completionTimeoutMs / 4, 60_000)));
+        }
+        
         logger.info("✅ TransformerLoaderConsumer initialized");
     }
     
     @Override
-    protected void processMessage(byte[] messageBody) throws Exception {
+    protected void processMessage(ValidationResult validationResult, TraceContext trace) throws Exception {
         if (startTime == 0) {
             startTime = System.currentTimeMillis();
         }
         
-        // 1. Deserialize ValidationResult
-        String jsonMessage = new String(messageBody, "UTF-8");
-        ValidationResult validationResult = objectMapper.readValue(jsonMessage, ValidationResult.class);
-        
         StudentRawDTO rawStudent = validationResult.getRawData();
         
+        long stageStart = System.nanoTime();
+        StageMetrics stage = transformMetrics;
         try {
-            // 2. Get class_id
-            Integer classId = loader.getClassId(rawStudent.getClassCode());
+            // 1. Get class_id (ưu tiên giá trị validator đã resolve)
+            Integer classId = validationResult.getParsedData() != null
+                ? validationResult.getParsedData().getClassId()
+                : null;
             if (classId == null) {
-                logger.warn("Class code not found: {} for student {}", 
+                classId = loader.getClassId(rawStudent.getClassCode());
+            }
+            if (classId == null) {
+                logger.warn("Class code not found: {} for student {}",
                     rawStudent.getClassCode(), rawStudent.getStudentId());
                 // Use default class
                 classId = 1;
             }
             
-            // 3. Transform
-            Student student = transformer.transform(rawStudent, classId);
+            // 2. Transform
+            Student student = transformer.transform(validationResult, classId);
+            long transformed = System.nanoTime();
+            transformMetrics.recordSuccess(transformed - stageStart);
             
-            // 4. Load to DB
-            loader.insertStudent(student);
+            // 3. Load to DB
+            stageStart = transformed;
+            stage = loadMetrics;
+            long studentId = loader.insertStudent(student);
+            loadMetrics.recordSuccess(System.nanoTime() - stageStart);
+            stage = null;
             
-            // 5. Publish to transformed queue (for tracking)
-            messagePublisher.publishToTransformed(student);
+            // students.id cho consumer của student.transformed (AtRiskDetectorConsumer)
+            if (studentId > 0) {
+                student.setId(studentId);
+            }
+            
+            // Attendance pipeline cùng process: cập nhật cache student_id → id ngay
+            StudentKeyCache keyCache = StudentKeyCache.peek();
+            if (keyCache != null) {
+                keyCache.onStudentLoaded(student.getStudentId(), studentId);
+            }
+            
+            // End-to-end latency (CSV read → DB load) của record được sample
+            if (trace != null) {
+                trace.stamp(TraceContext.LOADED);
+                tracer.recordCompleted(trace);
+            }
+            
+            // 4. Publish to transformed queue (for tracking, có metrics riêng ở stage publish)
+            messagePublisher.publishToTransformed(student, trace);
+            
+            // 5. Đếm theo batch
+            if (rawStudent.getBatchId() != null) {
+                recordBatchProgress(rawStudent.getBatchId());
+            }
             
-            successCount.incrementAndGet();
             logger.debug("✓ Loaded student: {}", student.getStudentId());
             
         } catch (Exception e) {
-            errorCount.incrementAndGet();
-            logger.error("✗ Failed to process student {}: {}", 
+            if (stage != null) {
+                stage.recordFailure(System.nanoTime() - stageStart);
+            }
+            logger.error("✗ Failed to process student {}: {}",
                 rawStudent.getStudentId(), e.getMessage());
             throw e;
         }
         
-        // Update statistics
-        int processed = totalProcessed.incrementAndGet();
-        
+        long processed = getTotalProcessed();
         if (processed % 100 == 0) {
             logProgress(processed);
         }
     }
     
+    @Override
+    protected void processEndOfStream(BatchMarker marker) throws Exception {
+        logger.info("📨 End of batch {} received: {} valid records expected (loaded so far: {})",
+            marker.getBatchId(), marker.getExpectedRecords(), batches.getHandled(marker.getBatchId()));
+        
+        BatchTracker.Progress completed = batches.expect(marker);
+        if (completed != null) {
+            completeBatch(completed);
+        }
+    }
+    
+    /**
+     * Record bị bỏ sau khi hết lượt thử lại: tính là failed để batch vẫn đạt số record cần chờ
+     */
+    @Override
+    protected void processDropped(ValidationResult validationResult, Exception cause) throws Exception {
+        String batchId = validationResult.getRawData() != null ? validationResult.getRawData().getBatchId() : null;
+        if (batchId == null) {
+            return;
+        }
+        
+        BatchTracker.Progress completed = batches.record(batchId, false);
+        if (completed != null) {
+            completeBatch(completed);
+        }
+    }
+    
+    private void recordBatchProgress(String batchId) throws Exception {
+        BatchTracker.Progress completed = batches.record(batchId, true);
+        if (completed != null) {
+            completeBatch(completed);
+            return;
+        }
+        
+        int loaded = batches.getHandled(batchId);
+        if (progressUpdateEvery > 0 && loaded % progressUpdateEvery == 0) {
+            try {
+                batchRepository.updateProgress(batchId, loaded, 0);
+            } catch (SQLException e) {
+                logger.warn("Failed to update progress of batch {}: {}", batchId, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Record cuối của batch đã load: import_batches → COMPLETED, gửi sự kiện BATCH_COMPLETED
+     */
+    private void completeBatch(BatchTracker.Progress progress) throws Exception {
+        BatchMarker event = progress.getMarker().forNextStage(0);
+        event.setLoadedRecords(progress.getSucceeded());
+        int failedRows = event.getFailedRows() + progress.getFailed();
+        
+        try {
+            batchRepository.complete(event.getBatchId(), event.getTotalRows(),
+                event.getLoadedRecords(), failedRows);
+        } catch (SQLException e) {
+            logger.warn("Failed to mark batch {} completed: {}", event.getBatchId(), e.getMessage());
+        }
+        
+        messagePublisher.publishBatchCompleted(event);
+        completions.computeIfAbsent(event.getBatchId(), id -> new CompletableFuture<>()).complete(event);
+        
+        logger.info("🎉 Batch {} completed: {} rows, {} loaded, {} failed ({} parse errors, {} invalid, {} load errors)",
+            event.getBatchId(), event.getTotalRows(), event.getLoadedRecords(), failedRows,
+            event.getParseErrors(), event.getInvalidRecords(), progress.getFailed());
+    }
+    
+    /**
+     * Batch không có tiến độ quá completionTimeoutMs (record bị mất, stage trước dừng giữa chừng):
+     * import_batches → FAILED để watcher chuyển file sang failed/, awaitBatchCompletion trả về
+     */
+    private void expireIdleBatches() {
+        for (BatchTracker.Progress progress : batches.expireIdle(completionTimeoutMs)) {
+            String reason = progress.describeTimeout(completionTimeoutMs);
+            logger.error("❌ Batch {} failed: {}", progress.getBatchId(), reason);
+            
+            try {
+                batchRepository.updateProgress(progress.getBatchId(), progress.getSucceeded(), progress.getFailed());
+                batchRepository.fail(progress.getBatchId(), reason);
+            } catch (SQLException e) {
+                logger.warn("Failed to mark batch {} failed: {}", progress.getBatchId(), e.getMessage());
+            }
+            
+            BatchMarker event = progress.getMarker() != null
+                ? progress.getMarker().forNextStage(0)
+                : new BatchMarker(progress.getBatchId(), null, 0, 0, 0);
+            event.setLoadedRecords(progress.getSucceeded());
+            completions.computeIfAbsent(event.getBatchId(), id -> new CompletableFuture<>()).complete(event);
+        }
+    }
+    
+    /**
+     * Chờ đến khi mọi record của batch đã load (thay cho sleep cố định)
+     *
+     * @return sự kiện hoàn thành (batch hết hạn: marker với loadedRecords hiện có), null nếu hết timeout
+     */
+    public BatchMarker awaitBatchCompletion(String batchId, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        try {
+            return completions.computeIfAbsent(batchId, id -> new CompletableFuture<>()).get(timeout, unit);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
     /**
      * Log progress
      */
-    private void logProgress(int processed) {
+    private void logProgress(long processed) {
         long elapsed = System.currentTimeMillis() - startTime;
         double rate = processed / (elapsed / 1000.0);
         
-        logger.info("📊 Processed: {} | Success: {} | Errors: {} | Rate: {:.1f} msg/s", 
-            processed, successCount.get(), errorCount.get(), rate);
+        logger.info(String.format("📊 Processed: %d | Success: %d | Errors: %d | Rate: %.1f msg/s",
+            processed, getSuccessCount(), getErrorCount(), rate));
     }
     
     /**
@@ -115,23 +289,39 @@ public class TransformerLoaderConsumer extends BaseConsumer {
     public void printStatistics() throws Exception {
         long elapsed = System.currentTimeMillis() - startTime;
         double seconds = elapsed / 1000.0;
-        double rate = totalProcessed.get() / seconds;
+        long total = getTotalProcessed();
+        double rate = total / seconds;
         
         int dbCount = loader.countStudents();
         
         logger.info("\n╔════════════════════════════════════════════════╗");
         logger.info("║     TRANSFORM & LOAD STATISTICS                ║");
         logger.info("╠════════════════════════════════════════════════╣");
-        logger.info("║ Total Processed:    {:>27} ║", totalProcessed.get());
-        logger.info("║ Successfully Loaded:{:>27} ║", successCount.get());
-        logger.info("║ Errors:             {:>27} ║", errorCount.get());
-        logger.info("║ Processing Time:    {:>24.2f}s ║", seconds);
-        logger.info("║ Throughput:         {:>21.1f} msg/s ║", rate);
+        logger.info(String.format("║ Total Processed:    %27d ║", total));
+        logger.info(String.format("║ Successfully Loaded:%27d ║", getSuccessCount()));
+        logger.info(String.format("║ Errors:             %27d ║", getErrorCount()));
+        logger.info(String.format("║ Processing Time:    %26.2fs ║", seconds));
+        logger.info(String.format("║ Throughput:         %21.1f msg/s ║", rate));
         logger.info("║                                                ║");
-        logger.info("║ Students in Clean DB: {:>24} ║", dbCount);
+        logger.info(String.format("║ Students in Clean DB: %25d ║", dbCount));
         logger.info("╚════════════════════════════════════════════════╝\n");
     }
     
+    /**
+     * Số message đã xử lý (load thành công + lỗi transform/load)
+     */
+    public long getTotalProcessed() {
+        return getSuccessCount() + getErrorCount();
+    }
+    
+    public long getSuccessCount() {
+        return loadMetrics.getProcessed();
+    }
+    
+    public long getErrorCount() {
+        return transformMetrics.getFailed() + loadMetrics.getFailed();
+    }
+    
     @Override
     public void stop() throws IOException, TimeoutException {
         try {
@@ -1,101 +1,267 @@
 package com.student.integration.consumer;
 
+import com.student.integration.config.ConfigLoader;
 import com.student.integration.config.MessagePublisher;
 import com.student.integration.config.QueueManager;
+import com.student.integration.metrics.Counter;
+import com.student.integration.metrics.PipelineMetrics;
+import com.student.integration.metrics.StageMetrics;
+import com.student.integration.metrics.ValidatorMetrics;
+import com.student.integration.model.dto.BatchMarker;
 import com.student.integration.model.dto.StudentRawDTO;
 import com.student.integration.model.dto.ValidationResult;
+import com.student.integration.tracing.TraceContext;
+import com.student.integration.transport.Acknowledgement;
 import com.student.integration.validator.ValidationChainBuilder;
 import com.student.integration.validator.Validator;
+import com.student.integration.validator.batch.BatchValidationResult;
+import com.student.integration.validator.batch.ColumnarValidationEngine;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Consumer để validate student messages từ queue "student.raw"
- * 
+ *
  * Flow:
  * 1. Receive message từ student.raw
- * 2. Deserialize JSON → StudentRawDTO
+ * 2. Nhận StudentRawDTO (transport đã decode: JSON với AMQP, object gốc với in-memory)
  * 3. Apply validation chain
  * 4. Route:
  *    - Valid → student.validated
  *    - Invalid → student.error
+ * 5. Khi đã xử lý hết record của một batch (file) → gửi END_OF_STREAM
+ *    sang student.validated với số record valid mà loader cần chờ
+ *
+ * validation.columnar.enabled=true: record được gom thành batch validation.batch.size
+ * và validate bằng ColumnarValidationEngine (cùng kết quả với chain). Batch được xử lý khi đầy,
+ * khi nhận END_OF_STREAM, hoặc sau validation.columnar.flush.ms không có record mới.
+ * Record chỉ được ACK sau khi đã route (deferAck): process chết giữa chừng thì transport giao lại
+ * (AMQP: prefetch nên >= validation.batch.size, không thì batch chỉ được xử lý theo flush.ms)
  */
-public class ValidatorConsumer extends BaseConsumer {
+public class ValidatorConsumer extends BaseConsumer<StudentRawDTO> {
     
     private final Validator validationChain;
     private final MessagePublisher messagePublisher;
     private final QueueManager queueManager;
     
-    // Statistics
-    private final AtomicInteger totalProcessed = new AtomicInteger(0);
-    private final AtomicInteger validCount = new AtomicInteger(0);
-    private final AtomicInteger invalidCount = new AtomicInteger(0);
+    // Statistics (đọc từ PipelineMetrics, cùng số liệu với /metrics)
+    private final StageMetrics validateMetrics;
+    private final Counter validCount;
+    private final Counter invalidCount;
+    
+    // Số record valid/invalid theo batch
+    private final BatchTracker batches = new BatchTracker();
+    
+    // Columnar mode (null = validate từng record bằng chain), pending* chỉ truy cập khi giữ columnarLock
+    private final ColumnarValidationEngine columnarEngine;
+    private final Object columnarLock = new Object();
+    private final List<StudentRawDTO> pendingStudents = new ArrayList<>();
+    private final List<TraceContext> pendingTraces = new ArrayList<>();
+    private final List<Acknowledgement> pendingAcks = new ArrayList<>();
+    // Kết quả của đoạn đầu pendingStudents đã validate nhưng chưa route (flush trước lỗi publish)
+    private final List<ValidationResult> pendingResults = new ArrayList<>();
     
     private long startTime;
     
     public ValidatorConsumer() {
-        super();
+        super(StudentRawDTO.class);
         this.validationChain = ValidationChainBuilder.buildStudentValidationChain();
         this.messagePublisher = new MessagePublisher();
         this.queueManager = new QueueManager();
         
-        logger.info("✅ ValidatorConsumer initialized with validation chain");
+        this.validateMetrics = metrics.stage(PipelineMetrics.Stage.VALIDATE);
+        this.validCount = metrics.getValidRecords();
+        this.invalidCount = metrics.getInvalidRecords();
+        
+        ConfigLoader config = ConfigLoader.getInstance();
+        if (config.getBooleanProperty("validation.columnar.enabled", false)) {
+            this.columnarEngine = new ColumnarValidationEngine();
+            scheduleHousekeeping(this::flushQuietly,
+                Math.max(1, config.getIntProperty("validation.columnar.flush.ms", 100)));
+            logger.info("✅ ValidatorConsumer initialized with columnar validation (batch size {})",
+                columnarEngine.getBatchSize());
+        } else {
+            this.columnarEngine = null;
+            logger.info("✅ ValidatorConsumer initialized with validation chain");
+        }
     }
     
     @Override
-    protected void processMessage(byte[] messageBody) throws Exception {
+    protected void processMessage(StudentRawDTO student, TraceContext trace) throws Exception {
         if (startTime == 0) {
             startTime = System.currentTimeMillis();
         }
         
-        // 1. Deserialize JSON
-        String jsonMessage = new String(messageBody, "UTF-8");
-        StudentRawDTO student = objectMapper.readValue(jsonMessage, StudentRawDTO.class);
-        
-        logger.debug("Processing student: {} (Row {})", 
+        logger.debug("Processing student: {} (Row {})",
             student.getStudentId(), student.getRowNum());
         
-        // 2. Validate
+        if (columnarEngine != null) {
+            synchronized (columnarLock) {
+                pendingStudents.add(student);
+                pendingTraces.add(trace);
+                pendingAcks.add(deferAck());
+                if (pendingStudents.size() >= columnarEngine.getBatchSize()) {
+                    flushQuietly();
+                }
+            }
+            return;
+        }
+        
+        // 1. Validate
+        long validateStart = System.nanoTime();
         ValidationResult result = new ValidationResult(student);
         validationChain.validate(student, result);
+        validateMetrics.recordSuccess(System.nanoTime() - validateStart);
+        if (trace != null) {
+            trace.stamp(TraceContext.VALIDATED);
+        }
+        
+        route(result, trace);
+    }
+    
+    /**
+     * Route record đã validate, đếm theo batch, log progress
+     */
+    private void route(ValidationResult result, TraceContext trace) throws Exception {
+        StudentRawDTO student = result.getRawData();
         
-        // 3. Route based on validation result
+        // 2. Route based on validation result
         if (result.isValid()) {
             // Valid → publish to validated queue
-            messagePublisher.publishToValidated(result);
-            validCount.incrementAndGet();
+            messagePublisher.publishToValidated(result, trace);
+            validCount.increment();
             
             logger.debug("✓ Valid: {}", student.getStudentId());
             
         } else {
             // Invalid → publish to error queue
-            messagePublisher.publishToError(result);
-            invalidCount.incrementAndGet();
+            messagePublisher.publishToError(result, trace);
+            invalidCount.increment();
             
-            logger.debug("✗ Invalid: {} - {} error(s)", 
+            logger.debug("✗ Invalid: {} - {} error(s)",
                 student.getStudentId(), result.getErrorCount());
         }
         
-        // 4. Update statistics
-        int processed = totalProcessed.incrementAndGet();
+        // 3. Đếm theo batch, batch xong thì báo cho stage sau
+        if (student.getBatchId() != null) {
+            BatchTracker.Progress completed = batches.record(student.getBatchId(), result.isValid());
+            if (completed != null) {
+                forwardEndOfStream(completed);
+            }
+        }
         
-        // Progress log mỗi 100 records
+        // 4. Progress log mỗi 100 records
+        long processed = getTotalProcessed();
         if (processed % 100 == 0) {
             logProgress(processed);
         }
     }
     
+    /**
+     * Columnar mode: validate các record đang chờ bằng engine rồi route theo thứ tự nhận, ACK từng record
+     * sau khi route. Lỗi publish: record đã route được bỏ khỏi danh sách chờ, phần còn lại giữ kết quả
+     * validate để lần sau chỉ route tiếp (không validate / đếm metrics lại)
+     */
+    private void flushPending() throws Exception {
+        synchronized (columnarLock) {
+            if (pendingStudents.isEmpty()) {
+                return;
+            }
+            
+            int validated = pendingResults.size();
+            if (validated < pendingStudents.size()) {
+                long validateStart = System.nanoTime();
+                BatchValidationResult batch = columnarEngine.validate(
+                    pendingStudents.subList(validated, pendingStudents.size()));
+                long nanosEach = (System.nanoTime() - validateStart) / batch.size();
+                
+                for (ValidationResult result : batch.getResults()) {
+                    validateMetrics.recordSuccess(nanosEach);
+                    TraceContext trace = pendingTraces.get(pendingResults.size());
+                    if (trace != null) {
+                        trace.stamp(TraceContext.VALIDATED);
+                    }
+                    pendingResults.add(result);
+                }
+            }
+            
+            int routed = 0;
+            try {
+                for (ValidationResult result : pendingResults) {
+                    route(result, pendingTraces.get(routed));
+                    pendingAcks.get(routed).ack();
+                    routed++;
+                }
+            } finally {
+                pendingStudents.subList(0, routed).clear();
+                pendingTraces.subList(0, routed).clear();
+                pendingAcks.subList(0, routed).clear();
+                pendingResults.subList(0, routed).clear();
+            }
+        }
+    }
+    
+    /**
+     * Flush không ném lỗi (transport đã nhận xong message, ACK trễ): thử lại ở lần flush sau
+     */
+    private void flushQuietly() {
+        synchronized (columnarLock) {
+            try {
+                flushPending();
+            } catch (Exception e) {
+                logger.warn("Columnar flush failed, {} record(s) kept for retry: {}",
+                    pendingStudents.size(), e.getMessage());
+            }
+        }
+    }
+    
+    @Override
+    protected void processEndOfStream(BatchMarker marker) throws Exception {
+        if (columnarEngine != null) {
+            // Record trước marker phải được đếm trước; giữ lock để không publish song song với lần flush định kỳ
+            synchronized (columnarLock) {
+                flushPending();
+                handleEndOfStream(marker);
+            }
+            return;
+        }
+        handleEndOfStream(marker);
+    }
+    
+    private void handleEndOfStream(BatchMarker marker) throws Exception {
+        logger.info("📨 End of batch {} received: {} records expected (handled so far: {})",
+            marker.getBatchId(), marker.getExpectedRecords(), batches.getHandled(marker.getBatchId()));
+        
+        BatchTracker.Progress completed = batches.expect(marker);
+        if (completed != null) {
+            forwardEndOfStream(completed);
+        }
+    }
+    
+    /**
+     * Batch đã validate xong → END_OF_STREAM cho loader (chờ đúng số record valid)
+     */
+    private void forwardEndOfStream(BatchTracker.Progress progress) throws Exception {
+        BatchMarker next = progress.getMarker().forNextStage(progress.getSucceeded());
+        next.setInvalidRecords(progress.getFailed());
+        messagePublisher.publishEndOfStreamToValidated(next);
+        
+        logger.info("✅ Batch {} validated: {} valid, {} invalid",
+            progress.getBatchId(), progress.getSucceeded(), progress.getFailed());
+    }
+    
     /**
      * Log progress
      */
-    private void logProgress(int processed) {
+    private void logProgress(long processed) {
         long elapsed = System.currentTimeMillis() - startTime;
         double rate = processed / (elapsed / 1000.0);
         
-        logger.info("📊 Processed: {} | Valid: {} | Invalid: {} | Rate: {:.1f} msg/s", 
-            processed, validCount.get(), invalidCount.get(), rate);
+        logger.info(String.format("📊 Processed: %d | Valid: %d | Invalid: %d | Rate: %.1f msg/s",
+            processed, validCount.get(), invalidCount.get(), rate));
     }
     
     /**
@@ -104,24 +270,51 @@ public class ValidatorConsumer extends BaseConsumer {
     public void printStatistics() {
         long elapsed = System.currentTimeMillis() - startTime;
         double seconds = elapsed / 1000.0;
-        double rate = totalProcessed.get() / seconds;
+        long total = getTotalProcessed();
+        double rate = total / seconds;
         
         logger.info("\n╔════════════════════════════════════════════════╗");
         logger.info("║        VALIDATION STATISTICS                   ║");
         logger.info("╠════════════════════════════════════════════════╣");
-        logger.info("║ Total Processed:    {:>27} ║", totalProcessed.get());
-        logger.info("║ Valid Records:      {:>27} ║", validCount.get());
-        logger.info("║ Invalid Records:    {:>27} ║", invalidCount.get());
-        logger.info("║ Validation Rate:    {:>27.2f} ║", 
-            (validCount.get() * 100.0 / totalProcessed.get()));
-        logger.info("║ Processing Time:    {:>24.2f}s ║", seconds);
-        logger.info("║ Throughput:         {:>21.1f} msg/s ║", rate);
+        logger.info(String.format("║ Total Processed:    %27d ║", total));
+        logger.info(String.format("║ Valid Records:      %27d ║", validCount.get()));
+        logger.info(String.format("║ Invalid Records:    %27d ║", invalidCount.get()));
+        logger.info(String.format("║ Validation Rate:    %26.2f%% ║",
+            total == 0 ? 0.0 : validCount.get() * 100.0 / total));
+        logger.info(String.format("║ Processing Time:    %26.2fs ║", seconds));
+        logger.info(String.format("║ Throughput:         %21.1f msg/s ║", rate));
         logger.info("╚════════════════════════════════════════════════╝\n");
+        
+        // Chi phí và tỉ lệ reject theo từng rule
+        ValidatorMetrics.getInstance().report();
+    }
+    
+    /**
+     * Số record đã validate và route xong (valid + invalid)
+     */
+    public long getTotalProcessed() {
+        return validCount.get() + invalidCount.get();
+    }
+    
+    public long getValidCount() {
+        return validCount.get();
+    }
+    
+    public long getInvalidCount() {
+        return invalidCount.get();
     }
     
     @Override
     public void stop() throws IOException, TimeoutException {
-        printStatistics();
+        if (columnarEngine != null) {
+            // Route + ACK record đang chờ khi subscription còn mở
+            flushQuietly();
+        }
         super.stop();
+        if (columnarEngine != null) {
+            // Record nhận sau lần flush trên: route nốt, ACK không còn tác dụng → có thể được giao lại
+            flushQuietly();
+        }
+        printStatistics();
     }
 }
\ No newline at end of file
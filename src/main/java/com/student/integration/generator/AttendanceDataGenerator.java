@@ -0,0 +1,519 @@
+package com.student.integration.generator;
+
+import com.student.integration.analytics.AttendanceTerm;
+import com.student.integration.checkin.SessionSchedule;
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.DatabaseConfig;
+import com.student.integration.model.enums.AttendanceStatus;
+import com.student.integration.util.CoarseClock;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generator dữ liệu điểm danh một học kỳ cho load test pipeline attendance
+ *
+ * - Roster: lớp ACTIVE trong bảng classes + sinh viên ACTIVE theo students.class_id (Clean DB);
+ *   DB không dùng được / trống → roster giả lập cùng mã SV với MessyDataGenerator (SV20210001...)
+ *   chia đều vào các mã lớp của MessyDataGenerator
+ * - Mỗi lớp có lịch tuần riêng (2-3 ngày, mỗi ngày một khối 2-3 buổi liên tiếp theo
+ *   checkin.session.starts) trong generator.attendance.weeks tuần của học kỳ
+ * - Mỗi sinh viên có xu hướng riêng: phần lớn đi học đều, một nhóm vắng nhiều (at-risk),
+ *   tỷ lệ đi muộn khác nhau; giờ check-in quanh giờ bắt đầu, đuôi muộn → LATE theo
+ *   checkin.late.after.minutes (cùng quy tắc SessionSchedule)
+ * - generator.attendance.error.rate dòng bị làm hỏng (ngày sai, sinh viên không tồn tại,
+ *   status sai, buổi ngoài khoảng, giờ sai, check-out trước check-in, dòng thiếu cột)
+ * - Ghi streaming (không giữ dòng trong bộ nhớ, chỉ roster): chục triệu dòng chỉ tốn
+ *   thời gian ghi đĩa; cùng seed + cùng roster + cùng config → cùng nội dung file
+ *
+ * Usage: AttendanceDataGenerator [term_code] [output.csv]
+ *        (mặc định: học kỳ vừa kết thúc, ./data/generated/attendance_<term>.csv)
+ */
+public class AttendanceDataGenerator {
+    
+    private static final String[] HEADERS = {
+        "student_id", "class_code", "attendance_date", "session_number",
+        "status", "check_in_time", "check_out_time", "note"
+    };
+    
+    // Xu hướng của sinh viên
+    private static final double AT_RISK_SHARE = 0.12;        // 12% sinh viên vắng nhiều
+    private static final double BASE_ABSENCE = 0.04;
+    private static final double EXCUSED_RATE = 0.02;
+    private static final double MISSING_CHECK_OUT_RATE = 0.01;
+    
+    private static final String[] EXCUSED_NOTES = {"Nghỉ ốm", "Nghỉ có phép", "Tham gia hoạt động khoa"};
+    
+    // Loại lỗi và trọng số (tổng = 100)
+    enum ErrorType {
+        INVALID_DATE(15),
+        FUTURE_DATE(5),
+        UNKNOWN_STUDENT(20),
+        INVALID_STUDENT_ID(10),
+        UNKNOWN_CLASS(5),
+        INVALID_STATUS(15),
+        INVALID_SESSION(10),
+        INVALID_TIME(8),
+        CHECK_OUT_BEFORE_CHECK_IN(7),
+        TRUNCATED_ROW(5);
+        
+        final int weight;
+        
+        ErrorType(int weight) {
+            this.weight = weight;
+        }
+    }
+    
+    private final SessionSchedule schedule;
+    private final int lateAfterSeconds;
+    private final int sessionSeconds;
+    private final int weeks;
+    
+    public AttendanceDataGenerator(SessionSchedule schedule, int lateAfterSeconds, int sessionSeconds, int weeks) {
+        this.schedule = schedule;
+        this.lateAfterSeconds = lateAfterSeconds;
+        this.sessionSeconds = sessionSeconds;
+        this.weeks = weeks;
+    }
+    
+    public static AttendanceDataGenerator fromConfig(ConfigLoader config) {
+        return new AttendanceDataGenerator(SessionSchedule.fromConfig(config),
+            config.getIntProperty("checkin.late.after.minutes", 10) * 60,
+            config.getIntProperty("generator.attendance.session.minutes", 50) * 60,
+            config.getIntProperty("generator.attendance.weeks", 15));
+    }
+    
+    /**
+     * Danh sách lớp (mã lớp → mã sinh viên, đã sắp xếp để kết quả ổn định)
+     */
+    public static final class Roster {
+        final List<String> classCodes = new ArrayList<>();
+        final List<String[]> students = new ArrayList<>();
+        
+        public void addClass(String classCode, List<String> studentCodes) {
+            if (!studentCodes.isEmpty()) {
+                classCodes.add(classCode);
+                students.add(studentCodes.toArray(new String[0]));
+            }
+        }
+        
+        public int getClassCount() {
+            return classCodes.size();
+        }
+        
+        public int getStudentCount() {
+            int total = 0;
+            for (String[] members : students) {
+                total += members.length;
+            }
+            return total;
+        }
+        
+        /**
+         * Roster từ Clean DB: sinh viên ACTIVE theo lớp ACTIVE
+         */
+        public static Roster fromDatabase() throws SQLException {
+            Map<String, List<String>> byClass = new LinkedHashMap<>();
+            try (Connection conn = DatabaseConfig.getInstance().getCleanConnection();
+                 Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                
+                // MySQL Connector/J chỉ stream từng dòng với fetch size = Integer.MIN_VALUE
+                boolean mysql = "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+                stmt.setFetchSize(mysql ? Integer.MIN_VALUE : 10000);
+                
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT c.class_code, s.student_id FROM students s JOIN classes c ON c.id = s.class_id "
+                        + "WHERE s.status = 'ACTIVE' AND c.status = 'ACTIVE' ORDER BY c.class_code, s.student_id")) {
+                    while (rs.next()) {
+                        byClass.computeIfAbsent(rs.getString(1), k -> new ArrayList<>()).add(rs.getString(2));
+                    }
+                }
+            }
+            
+            Roster roster = new Roster();
+            byClass.forEach(roster::addClass);
+            return roster;
+        }
+        
+        /**
+         * Roster giả lập: SV20210001..SV2021xxxx (như MessyDataGenerator) chia đều vào các lớp
+         */
+        public static Roster synthetic(int studentCount) {
+            String[] classCodes = MessyDataGenerator.CLASS_CODES;
+            List<List<String>> members = new ArrayList<>();
+            for (int i = 0; i < classCodes.length; i++) {
+                members.add(new ArrayList<>());
+            }
+            for (int i = 1; i <= studentCount; i++) {
+                members.get(i % classCodes.length).add(String.format("SV%08d", 20210000 + i));
+            }
+            
+            Roster roster = new Roster();
+            for (int i = 0; i < classCodes.length; i++) {
+                roster.addClass(classCodes[i], members.get(i));
+            }
+            return roster;
+        }
+    }
+    
+    /**
+     * Thống kê một lần generate
+     */
+    public static final class Stats {
+        long rows;
+        long malformed;
+        final long[] byStatus = new long[AttendanceStatus.values().length];
+        final long[] byError = new long[ErrorType.values().length];
+        
+        public long getRows() {
+            return rows;
+        }
+        
+        public long getMalformed() {
+            return malformed;
+        }
+        
+        public long getStatusCount(AttendanceStatus status) {
+            return byStatus[status.ordinal()];
+        }
+    }
+    
+    /**
+     * Lịch tuần của một lớp: ngày học (0 = thứ 2 .. 5 = thứ 7) và khối buổi liên tiếp
+     */
+    private static final class ClassSchedule {
+        final boolean[] meetsOn = new boolean[6];
+        int firstSession;
+        int sessions;
+    }
+    
+    /**
+     * Generate một học kỳ vào file CSV
+     *
+     * @param errorRate tỷ lệ dòng bị làm hỏng (0..1)
+     * @param maxRows   dừng sau maxRows dòng, <= 0 = cả học kỳ
+     */
+    public Stats generate(Path outputFile, Roster roster, int term, long seed,
+                          double errorRate, long maxRows) throws IOException {
+        
+        // 2 luồng số ngẫu nhiên độc lập: thay errorRate/maxRows không đổi lịch và xu hướng sinh viên
+        // (SplittableRandom: không đồng bộ như Random, rẻ hơn nhiều khi gọi hàng trăm triệu lần)
+        SplittableRandom setupRandom = new SplittableRandom(seed);
+        SplittableRandom rowRandom = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + 1);
+        
+        List<ClassSchedule> schedules = new ArrayList<>(roster.getClassCount());
+        List<float[]> absenceRates = new ArrayList<>(roster.getClassCount());
+        List<float[]> lateRates = new ArrayList<>(roster.getClassCount());
+        for (int c = 0; c < roster.getClassCount(); c++) {
+            schedules.add(scheduleFor(setupRandom));
+            int size = roster.students.get(c).length;
+            float[] absence = new float[size];
+            float[] late = new float[size];
+            for (int s = 0; s < size; s++) {
+                absence[s] = (float) (setupRandom.nextDouble() < AT_RISK_SHARE
+                    ? 0.15 + setupRandom.nextDouble() * 0.30
+                    : BASE_ABSENCE * 2 * setupRandom.nextDouble());
+                double spread = setupRandom.nextDouble();
+                late[s] = (float) (0.03 + 0.20 * spread * spread);
+            }
+            absenceRates.add(absence);
+            lateRates.add(late);
+        }
+        
+        Stats stats = new Stats();
+        int errorWeightTotal = 0;
+        for (ErrorType type : ErrorType.values()) {
+            errorWeightTotal += type.weight;
+        }
+        
+        Path parent = outputFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        
+        LocalDate firstMonday = teachingStart(term);
+        String[] row = new String[HEADERS.length];
+        
+        try (BufferedWriter writer = new BufferedWriter(
+                 Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8), 1 << 20);
+             CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(HEADERS))) {
+            
+            generation:
+            for (int week = 0; week < weeks; week++) {
+                for (int day = 0; day < 6; day++) {
+                    LocalDate date = firstMonday.plusDays(week * 7L + day);
+                    String dateString = date.toString();
+                    
+                    for (int c = 0; c < roster.getClassCount(); c++) {
+                        ClassSchedule classSchedule = schedules.get(c);
+                        if (!classSchedule.meetsOn[day]) {
+                            continue;
+                        }
+                        String classCode = roster.classCodes.get(c);
+                        String[] members = roster.students.get(c);
+                        float[] absence = absenceRates.get(c);
+                        float[] late = lateRates.get(c);
+                        
+                        for (int session = classSchedule.firstSession;
+                             session < classSchedule.firstSession + classSchedule.sessions; session++) {
+                            String sessionString = Integer.toString(session);
+                            int start = schedule.startOf(session);
+                            
+                            for (int s = 0; s < members.length; s++) {
+                                row[0] = members[s];
+                                row[1] = classCode;
+                                row[2] = dateString;
+                                row[3] = sessionString;
+                                AttendanceStatus status = fillStatus(row, rowRandom, start, absence[s], late[s]);
+                                
+                                if (errorRate > 0 && rowRandom.nextDouble() < errorRate) {
+                                    ErrorType error = pickError(rowRandom, errorWeightTotal);
+                                    corrupt(row, error, date, rowRandom);
+                                    stats.malformed++;
+                                    stats.byError[error.ordinal()]++;
+                                    if (error == ErrorType.TRUNCATED_ROW) {
+                                        printer.printRecord(row[0], row[1], row[2]);
+                                    } else {
+                                        printer.printRecord((Object[]) row);
+                                    }
+                                } else {
+                                    stats.byStatus[status.ordinal()]++;
+                                    printer.printRecord((Object[]) row);
+                                }
+                                
+                                if (++stats.rows == maxRows) {
+                                    break generation;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return stats;
+    }
+    
+    private ClassSchedule scheduleFor(SplittableRandom random) {
+        ClassSchedule classSchedule = new ClassSchedule();
+        int days = random.nextDouble() < 0.3 ? 3 : 2;
+        for (int placed = 0; placed < days; ) {
+            int day = random.nextInt(6);
+            if (!classSchedule.meetsOn[day]) {
+                classSchedule.meetsOn[day] = true;
+                placed++;
+            }
+        }
+        
+        int count = schedule.getSessionCount();
+        classSchedule.sessions = Math.min(count, 2 + random.nextInt(2));
+        classSchedule.firstSession = 1 + random.nextInt(count - classSchedule.sessions + 1);
+        return classSchedule;
+    }
+    
+    /**
+     * Status + giờ check-in/out của một dòng hợp lệ
+     */
+    private AttendanceStatus fillStatus(String[] row, SplittableRandom random, int start,
+                                        double absenceRate, double lateRate) {
+        double roll = random.nextDouble();
+        if (roll < absenceRate) {
+            row[4] = AttendanceStatus.ABSENT.name();
+            row[5] = null;
+            row[6] = null;
+            row[7] = null;
+            return AttendanceStatus.ABSENT;
+        }
+        if (roll < absenceRate + EXCUSED_RATE) {
+            row[4] = AttendanceStatus.EXCUSED.name();
+            row[5] = null;
+            row[6] = null;
+            row[7] = EXCUSED_NOTES[random.nextInt(EXCUSED_NOTES.length)];
+            return AttendanceStatus.EXCUSED;
+        }
+        
+        // Đúng giờ: quanh 6 phút trước giờ bắt đầu; muộn: đuôi mũ (trung bình 8 phút) sau hạn
+        int checkIn;
+        if (random.nextDouble() < lateRate) {
+            checkIn = start + lateAfterSeconds + 1 + (int) (-Math.log(1 - random.nextDouble()) * 480);
+        } else {
+            double offset = -360 + gaussian(random) * 180;
+            checkIn = start + (int) Math.max(-900, Math.min(lateAfterSeconds, offset));
+        }
+        checkIn = Math.min(checkIn, start + sessionSeconds - 60);
+        AttendanceStatus status = schedule.statusFor(Integer.parseInt(row[3]), checkIn);
+        
+        row[4] = status.name();
+        row[5] = formatTime(checkIn);
+        row[6] = random.nextDouble() < MISSING_CHECK_OUT_RATE
+            ? null
+            : formatTime(Math.max(checkIn + 60, start + sessionSeconds + random.nextInt(600) - 300));
+        row[7] = null;
+        return status;
+    }
+    
+    private static ErrorType pickError(SplittableRandom random, int weightTotal) {
+        int roll = random.nextInt(weightTotal);
+        for (ErrorType type : ErrorType.values()) {
+            roll -= type.weight;
+            if (roll < 0) {
+                return type;
+            }
+        }
+        return ErrorType.INVALID_STATUS;
+    }
+    
+    private static void corrupt(String[] row, ErrorType error, LocalDate date, SplittableRandom random) {
+        switch (error) {
+            case INVALID_DATE:
+                switch (random.nextInt(3)) {
+                    case 0:
+                        row[2] = String.format("%02d/%02d/%d", date.getDayOfMonth(), date.getMonthValue(), date.getYear());
+                        break;
+                    case 1:
+                        row[2] = date.getYear() + "-13-45";
+                        break;
+                    default:
+                        row[2] = "";
+                        break;
+                }
+                break;
+            case FUTURE_DATE:
+                row[2] = CoarseClock.today().plusYears(1 + random.nextInt(3)).toString();
+                break;
+            case UNKNOWN_STUDENT:
+                // Đúng format nhưng không có trong bảng students
+                row[0] = String.format("SV99%06d", random.nextInt(1_000_000));
+                break;
+            case INVALID_STUDENT_ID:
+                row[0] = random.nextBoolean() ? row[0].toLowerCase() : row[0].substring(0, row[0].length() - 1);
+                break;
+            case UNKNOWN_CLASS:
+                row[1] = "XX" + (10 + random.nextInt(90)) + "Z01";
+                break;
+            case INVALID_STATUS:
+                String[] statuses = {"PRESNT", "X", "", "on time"};
+                row[4] = statuses[random.nextInt(statuses.length)];
+                break;
+            case INVALID_SESSION:
+                String[] sessions = {"0", "99", "two"};
+                row[3] = sessions[random.nextInt(sessions.length)];
+                break;
+            case INVALID_TIME:
+                row[4] = AttendanceStatus.PRESENT.name();
+                row[5] = random.nextBoolean() ? "25:61" : "7h30";
+                break;
+            case CHECK_OUT_BEFORE_CHECK_IN:
+                row[4] = AttendanceStatus.PRESENT.name();
+                row[5] = "11:00:00";
+                row[6] = "07:30:00";
+                break;
+            default:
+                // TRUNCATED_ROW: caller chỉ ghi 3 cột đầu
+                break;
+        }
+    }
+    
+    /**
+     * HK1: thứ 2 đầu tiên từ 01/09, HK2: thứ 2 đầu tiên từ 15/02 (sau Tết)
+     */
+    static LocalDate teachingStart(int term) {
+        LocalDate termStart = AttendanceTerm.startOf(term);
+        LocalDate from = term % 10 == 1
+            ? termStart.withMonth(9).withDayOfMonth(1)
+            : termStart.withDayOfMonth(15);
+        return from.with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+    }
+    
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller (SplittableRandom không có nextGaussian)
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+    
+    private static String formatTime(int secondOfDay) {
+        int hour = secondOfDay / 3600;
+        int minute = secondOfDay / 60 % 60;
+        int second = secondOfDay % 60;
+        char[] chars = {
+            (char) ('0' + hour / 10), (char) ('0' + hour % 10), ':',
+            (char) ('0' + minute / 10), (char) ('0' + minute % 10), ':',
+            (char) ('0' + second / 10), (char) ('0' + second % 10)
+        };
+        return new String(chars);
+    }
+    
+    public static void main(String[] args) {
+        try {
+            ConfigLoader config = ConfigLoader.getInstance();
+            int term = args.length > 0
+                ? Integer.parseInt(args[0])
+                : AttendanceTerm.previous(AttendanceTerm.of(CoarseClock.today()));
+            Path output = args.length > 1
+                ? Paths.get(args[1])
+                : Paths.get("./data/generated/attendance_" + term + ".csv");
+            long seed = Long.parseLong(config.getProperty("generator.attendance.seed", "42"));
+            double errorRate = config.getDoubleProperty("generator.attendance.error.rate", 0.02);
+            long maxRows = Long.parseLong(config.getProperty("generator.attendance.max.rows", "0"));
+            
+            System.out.println("=== ATTENDANCE DATA GENERATOR ===");
+            System.out.println("Học kỳ: " + AttendanceTerm.format(term) + ", seed " + seed
+                + ", tỷ lệ lỗi " + (errorRate * 100) + "%");
+            
+            Roster roster = null;
+            if (!"synthetic".equals(config.getProperty("generator.attendance.roster", "db"))) {
+                try {
+                    roster = Roster.fromDatabase();
+                } catch (SQLException | RuntimeException e) {
+                    System.out.println("⚠️  Không đọc được roster từ Clean DB (" + e.getMessage() + ")");
+                }
+            }
+            if (roster == null || roster.getClassCount() == 0) {
+                roster = Roster.synthetic(config.getIntProperty("generator.attendance.synthetic.students", 20000));
+                System.out.println("Dùng roster giả lập (mã SV như MessyDataGenerator)");
+            }
+            System.out.println("Roster: " + roster.getClassCount() + " lớp, " + roster.getStudentCount() + " sinh viên");
+            
+            AttendanceDataGenerator generator = fromConfig(config);
+            long start = System.currentTimeMillis();
+            Stats stats = generator.generate(output, roster, term, seed, errorRate, maxRows);
+            double seconds = (System.currentTimeMillis() - start) / 1000.0;
+            
+            System.out.println("\n=== SUMMARY ===");
+            System.out.printf("Total: %d rows in %.1fs (%.0f rows/s)%n", stats.rows, seconds, stats.rows / seconds);
+            for (AttendanceStatus status : AttendanceStatus.values()) {
+                long count = stats.getStatusCount(status);
+                System.out.printf("  - %s: %d (%.1f%%)%n", status, count, count * 100.0 / Math.max(1, stats.rows));
+            }
+            System.out.printf("Malformed: %d (%.1f%%)%n", stats.malformed, stats.malformed * 100.0 / Math.max(1, stats.rows));
+            for (ErrorType type : ErrorType.values()) {
+                System.out.printf("  - %s: %d%n", type.name(), stats.byError[type.ordinal()]);
+            }
+            System.out.println("\n✅ Hoàn thành! File được lưu tại: " + output);
+            System.out.println("Copy file vào ./data/input để đưa vào pipeline attendance");
+            System.exit(0);
+            
+        } catch (Exception e) {
+            System.err.println("❌ Lỗi: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
\ No newline at end of file
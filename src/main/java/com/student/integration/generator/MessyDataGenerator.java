@@ -12,7 +12,6 @@ import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Generator để tạo 20,000 dữ liệu sinh viên với các lỗi thực tế
@@ -20,8 +19,9 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public class MessyDataGenerator {
 
-    private static final Faker faker = new Faker(new Locale("vi"));
-    private static final Random random = new Random();
+    // Không final: generateMessyStudentData(..., seed) thay bằng bản có seed
+    private static Faker faker = new Faker(new Locale("vi"));
+    private static Random random = new Random();
     
     // Constants
     private static final int TOTAL_RECORDS = 20000;
@@ -34,7 +34,7 @@ public class MessyDataGenerator {
                                             "Computer Science", "Information Systems", "Computer Engineering"};
     private static final String[] FACULTIES = {"Information Technology", "Business Administration", 
                                                "Engineering", "Natural Sciences"};
-    private static final String[] CLASS_CODES = {"SE01K01", "SE01K02", "AI01K01", "DS01K01", "CS01K01", "IS01K01"};
+    static final String[] CLASS_CODES = {"SE01K01", "SE01K02", "AI01K01", "DS01K01", "CS01K01", "IS01K01"};
     private static final String[] STATUSES = {"ACTIVE", "INACTIVE", "SUSPENDED"};
     
     // Error types distribution
@@ -81,6 +81,29 @@ public class MessyDataGenerator {
      * Generate CSV file với dữ liệu lộn xộn
      */
     public static void generateMessyStudentData(String outputFile) throws IOException {
+        generateMessyStudentData(outputFile, TOTAL_RECORDS);
+    }
+
+    /**
+     * Generate dataset cố định: cùng seed + cùng số records → cùng nội dung file
+     * (dùng cho benchmark / so sánh kết quả giữa các lần chạy)
+     */
+    public static synchronized void generateMessyStudentData(String outputFile, int totalRecords, long seed)
+            throws IOException {
+        Faker previousFaker = faker;
+        Random previousRandom = random;
+        
+        random = new Random(seed);
+        faker = new Faker(new Locale("vi"), random);
+        try {
+            generateMessyStudentData(outputFile, totalRecords);
+        } finally {
+            faker = previousFaker;
+            random = previousRandom;
+        }
+    }
+
+    private static void generateMessyStudentData(String outputFile, int totalRecords) throws IOException {
         
         // CSV Headers
         String[] headers = {
@@ -97,13 +120,13 @@ public class MessyDataGenerator {
             int correctCount = 0;
             
             // Tính số lượng errors cho mỗi loại
-            Map<ErrorType, Integer> errorDistribution = calculateErrorDistribution();
+            Map<ErrorType, Integer> errorDistribution = calculateErrorDistribution(totalRecords);
             Map<ErrorType, Integer> errorCounters = new HashMap<>();
             for (ErrorType type : ErrorType.values()) {
                 errorCounters.put(type, 0);
             }
             
-            for (int i = 1; i <= TOTAL_RECORDS; i++) {
+            for (int i = 1; i <= totalRecords; i++) {
                 
                 // Quyết định record này có lỗi không
                 boolean shouldHaveError = random.nextDouble() < ERROR_RATE;
@@ -140,19 +163,19 @@ public class MessyDataGenerator {
                 // Progress
                 if (i % 1000 == 0) {
                     System.out.printf("Generated %d/%d records (%.1f%% - Errors: %d, Correct: %d)\n", 
-                        i, TOTAL_RECORDS, (i * 100.0 / TOTAL_RECORDS), errorCount, correctCount);
+                        i, totalRecords, (i * 100.0 / totalRecords), errorCount, correctCount);
                 }
             }
             
             // Summary
             System.out.println("\n=== SUMMARY ===");
-            System.out.println("Total: " + TOTAL_RECORDS);
-            System.out.println("Correct: " + correctCount + String.format(" (%.1f%%)", correctCount * 100.0 / TOTAL_RECORDS));
-            System.out.println("Errors: " + errorCount + String.format(" (%.1f%%)", errorCount * 100.0 / TOTAL_RECORDS));
+            System.out.println("Total: " + totalRecords);
+            System.out.println("Correct: " + correctCount + String.format(" (%.1f%%)", correctCount * 100.0 / totalRecords));
+            System.out.println("Errors: " + errorCount + String.format(" (%.1f%%)", errorCount * 100.0 / totalRecords));
             System.out.println("\nError distribution:");
             for (ErrorType type : ErrorType.values()) {
                 int count = errorCounters.get(type);
-                System.out.printf("  - %s: %d (%.1f%%)\n", type.name(), count, count * 100.0 / TOTAL_RECORDS);
+                System.out.printf("  - %s: %d (%.1f%%)\n", type.name(), count, count * 100.0 / totalRecords);
             }
         }
     }
@@ -160,9 +183,9 @@ public class MessyDataGenerator {
     /**
      * Tính phân bổ số lượng errors cho mỗi loại
      */
-    private static Map<ErrorType, Integer> calculateErrorDistribution() {
+    private static Map<ErrorType, Integer> calculateErrorDistribution(int totalRecords) {
         Map<ErrorType, Integer> distribution = new HashMap<>();
-        int totalErrors = (int) (TOTAL_RECORDS * ERROR_RATE);
+        int totalErrors = (int) (totalRecords * ERROR_RATE);
         
         double totalPercentage = 0;
         for (ErrorType type : ErrorType.values()) {
@@ -197,8 +220,8 @@ public class MessyDataGenerator {
     private static StudentRecord generateCorrectRecord(int index) {
         StudentRecord student = new StudentRecord();
         
-        // Student ID: SV + 8 digits (2021 + 4 digits sequence)
-        student.studentId = String.format("SV%04d%04d", 2021, index);
+        // Student ID: SV + 8 digits (2021xxxx, vẫn đúng 8 digits khi index > 9999)
+        student.studentId = String.format("SV%08d", 20210000 + index);
         
         // Personal info
         student.fullName = faker.name().fullName();
@@ -206,9 +229,9 @@ public class MessyDataGenerator {
         
         // Date of birth: 17-25 tuổi (1998-2006)
         LocalDate dob = LocalDate.of(
-            ThreadLocalRandom.current().nextInt(2000, 2007),
-            ThreadLocalRandom.current().nextInt(1, 13),
-            ThreadLocalRandom.current().nextInt(1, 29)
+            nextInt(2000, 2007),
+            nextInt(1, 13),
+            nextInt(1, 29)
         );
         student.dateOfBirth = dob.format(DateTimeFormatter.ISO_LOCAL_DATE);
         
@@ -236,7 +259,7 @@ public class MessyDataGenerator {
         
         // Performance
         student.gpa = String.format("%.2f", 2.0 + random.nextDouble() * 2.0); // 2.0-4.0
-        student.totalCredits = String.valueOf(ThreadLocalRandom.current().nextInt(80, 140));
+        student.totalCredits = String.valueOf(nextInt(80, 140));
         student.status = STATUSES[random.nextInt(STATUSES.length)];
         
         return student;
@@ -353,9 +376,9 @@ public class MessyDataGenerator {
         switch (errorCase) {
             case 0: // Format sai (DD/MM/YYYY thay vì YYYY-MM-DD)
                 LocalDate date = LocalDate.of(
-                    ThreadLocalRandom.current().nextInt(2000, 2007),
-                    ThreadLocalRandom.current().nextInt(1, 13),
-                    ThreadLocalRandom.current().nextInt(1, 29)
+                    nextInt(2000, 2007),
+                    nextInt(1, 13),
+                    nextInt(1, 29)
                 );
                 return date.format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
                 
@@ -395,6 +418,13 @@ public class MessyDataGenerator {
         }
     }
 
+    /**
+     * Random int trong [origin, bound) từ random dùng chung (để seed được)
+     */
+    private static int nextInt(int origin, int bound) {
+        return origin + random.nextInt(bound - origin);
+    }
+
     /**
      * Student Record DTO
      */
@@ -0,0 +1,118 @@
+package com.student.integration.loader;
+
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.DatabaseConfig;
+import com.student.integration.util.IsoDates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ngày cuối cùng đã đóng trong attendance (MAX(to_date) của attendance_archives)
+ *
+ * - AttendanceArchiveJob ghi attendance_archives trước khi export → học kỳ đang archive cũng tính là đóng
+ * - Validator điểm danh và check-in từ chối từng dòng có ngày <= ngày này (không query DB mỗi dòng)
+ * - Refresh định kỳ: học kỳ vừa đóng sau lần refresh vẫn bị AttendanceLoader chặn (khóa attendance_archives)
+ */
+public class ArchivedTermSnapshot {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ArchivedTermSnapshot.class);
+    
+    private static final int NONE = 0;
+    
+    private static ArchivedTermSnapshot instance;
+    
+    // yyyyMMdd, NONE nếu chưa có học kỳ nào đóng
+    private volatile int closedThroughYmd = NONE;
+    
+    private final ScheduledExecutorService scheduler;
+    
+    private ArchivedTermSnapshot(long refreshIntervalMs) {
+        refresh();
+        
+        if (refreshIntervalMs > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "archived-term-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::refresh,
+                refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+    
+    private ArchivedTermSnapshot(LocalDate closedThrough) {
+        this.closedThroughYmd = closedThrough != null ? IsoDates.toYmd(closedThrough) : NONE;
+        this.scheduler = null;
+    }
+    
+    public static synchronized ArchivedTermSnapshot getInstance() {
+        if (instance == null) {
+            instance = new ArchivedTermSnapshot(ConfigLoader.getInstance()
+                .getIntProperty("attendance.archive.snapshot.refresh.ms", 60000));
+        }
+        return instance;
+    }
+    
+    /**
+     * Snapshot cố định (không đọc DB) - dùng cho test/benchmark offline, null = chưa đóng học kỳ nào
+     */
+    public static ArchivedTermSnapshot of(LocalDate closedThrough) {
+        return new ArchivedTermSnapshot(closedThrough);
+    }
+    
+    /**
+     * Đọc lại attendance_archives, DB lỗi thì giữ giá trị cũ
+     */
+    public void refresh() {
+        String sql = "SELECT MAX(to_date) FROM attendance_archives";
+        
+        try (Connection conn = DatabaseConfig.getInstance().getCleanConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            Date closedThrough = rs.next() ? rs.getDate(1) : null;
+            int fresh = closedThrough != null ? IsoDates.toYmd(closedThrough.toLocalDate()) : NONE;
+            if (fresh != closedThroughYmd) {
+                logger.info("✅ Attendance closed through {}", closedThrough);
+            }
+            closedThroughYmd = fresh;
+            
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Failed to refresh archived terms (keeping closed through {}): {}",
+                getClosedThrough(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Ngày (yyyyMMdd) thuộc học kỳ đã đóng
+     */
+    public boolean isClosed(int ymd) {
+        return ymd <= closedThroughYmd;
+    }
+    
+    /**
+     * Ngày cuối cùng đã đóng, null nếu chưa có
+     */
+    public LocalDate getClosedThrough() {
+        int ymd = closedThroughYmd;
+        return ymd != NONE ? IsoDates.toLocalDate(ymd) : null;
+    }
+    
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
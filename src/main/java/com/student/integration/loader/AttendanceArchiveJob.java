@@ -0,0 +1,503 @@
+package com.student.integration.loader;
+
+import com.student.integration.analytics.AttendanceTerm;
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.DatabaseConfig;
+import com.student.integration.metrics.Counter;
+import com.student.integration.metrics.MetricsRegistry;
+import com.student.integration.util.CoarseClock;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Quản lý partition theo học kỳ của bảng attendance và archive học kỳ cũ
+ *
+ * - extend: tách pmax thành partition cho học kỳ hiện tại + attendance.archive.future.terms học kỳ tới
+ *   (pmax trống nên REORGANIZE gần như không tốn gì)
+ * - archive: đóng học kỳ (ghi attendance_archives trước, AttendanceLoader từ chối ghi từ đây),
+ *   export ra CSV gzip (attendance.archive.dir/attendance_<term>.csv.gz, ghi file tạm rồi rename),
+ *   đếm lại ngay trước khi xóa, rồi ALTER TABLE ... DROP PARTITION
+ *   (bỏ cả file của partition, không DELETE từng dòng, không phình undo log)
+ * - Bảng chưa partition (DB cũ, H2): cùng export, xóa bằng DELETE ... LIMIT theo lô
+ * - Chỉ archive học kỳ đã kết thúc; attendance_daily_summary / attendance_term_summary được giữ
+ *
+ * Usage: AttendanceArchiveJob                (extend + archive học kỳ cũ hơn attendance.archive.keep.terms)
+ *        AttendanceArchiveJob partitions
+ *        AttendanceArchiveJob extend
+ *        AttendanceArchiveJob archive 20232
+ */
+public class AttendanceArchiveJob {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceArchiveJob.class);
+    
+    static final String MAX_PARTITION = "pmax";
+    
+    private static final String PARTITIONS_SQL = """
+        SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS
+        FROM information_schema.PARTITIONS
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'attendance' AND PARTITION_NAME IS NOT NULL
+        ORDER BY PARTITION_ORDINAL_POSITION
+        """;
+    
+    private static final String[] EXPORT_COLUMNS = {
+        "id", "student_id", "class_id", "attendance_date", "session_number", "status",
+        "check_in_time", "check_out_time", "note", "raw_data_id", "recorded_at"
+    };
+    
+    private static final String RECORD_ARCHIVE_SQL = """
+        INSERT INTO attendance_archives (term_code, partition_name, from_date, to_date, row_count, file_path)
+        VALUES (?, ?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            partition_name = VALUES(partition_name),
+            from_date = VALUES(from_date),
+            to_date = VALUES(to_date),
+            row_count = VALUES(row_count),
+            file_path = VALUES(file_path),
+            archived_at = CURRENT_TIMESTAMP
+        """;
+    
+    private final DatabaseConfig dbConfig;
+    private final Path archiveDir;
+    private final int deleteChunk;
+    
+    private final Counter archivedRows;
+    
+    public AttendanceArchiveJob(Path archiveDir, int deleteChunk) {
+        this.dbConfig = DatabaseConfig.getInstance();
+        this.archiveDir = archiveDir;
+        this.deleteChunk = deleteChunk;
+        this.archivedRows = MetricsRegistry.getInstance().counter(
+            "attendance_archived_rows_total", "Attendance rows exported and removed by the archive job");
+    }
+    
+    public static AttendanceArchiveJob fromConfig(ConfigLoader config) {
+        return new AttendanceArchiveJob(
+            Paths.get(config.getProperty("attendance.archive.dir", "./data/archive")),
+            config.getIntProperty("attendance.archive.delete.chunk", 10000));
+    }
+    
+    /**
+     * Một partition của bảng attendance (term = 0 với pmax)
+     */
+    public static final class TermPartition {
+        private final String name;
+        private final int term;
+        private final LocalDate upperBound;     // exclusive, null với pmax
+        private final long estimatedRows;       // TABLE_ROWS (ước lượng của InnoDB)
+        
+        TermPartition(String name, int term, LocalDate upperBound, long estimatedRows) {
+            this.name = name;
+            this.term = term;
+            this.upperBound = upperBound;
+            this.estimatedRows = estimatedRows;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public int getTerm() {
+            return term;
+        }
+        
+        public LocalDate getUpperBound() {
+            return upperBound;
+        }
+        
+        public long getEstimatedRows() {
+            return estimatedRows;
+        }
+        
+        @Override
+        public String toString() {
+            return name + (upperBound != null ? " < " + upperBound : " (MAXVALUE)") + " ~" + estimatedRows + " rows";
+        }
+    }
+    
+    /**
+     * Kết quả archive một học kỳ
+     */
+    public static final class ArchiveResult {
+        private final int term;
+        private final long rows;
+        private final Path file;
+        
+        ArchiveResult(int term, long rows, Path file) {
+            this.term = term;
+            this.rows = rows;
+            this.file = file;
+        }
+        
+        public int getTerm() {
+            return term;
+        }
+        
+        public long getRows() {
+            return rows;
+        }
+        
+        public Path getFile() {
+            return file;
+        }
+    }
+    
+    // ==================== Partition ====================
+    
+    /**
+     * Partition hiện có theo thứ tự, rỗng nếu bảng không partition (hoặc DB không phải MySQL)
+     */
+    public List<TermPartition> listPartitions() throws SQLException {
+        try (Connection conn = dbConfig.getCleanConnection()) {
+            return listPartitions(conn);
+        }
+    }
+    
+    private static List<TermPartition> listPartitions(Connection conn) throws SQLException {
+        List<TermPartition> partitions = new ArrayList<>();
+        if (!isMySql(conn)) {
+            return partitions;
+        }
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(PARTITIONS_SQL)) {
+            while (rs.next()) {
+                String name = rs.getString(1);
+                String description = rs.getString(2);
+                LocalDate upperBound = description == null || "MAXVALUE".equalsIgnoreCase(description)
+                    ? null
+                    : LocalDate.parse(description.replace("'", ""));
+                partitions.add(new TermPartition(name, termOf(name), upperBound, rs.getLong(3)));
+            }
+        }
+        return partitions;
+    }
+    
+    /**
+     * p20241 → 20241, tên khác (pmax, partition tạo tay) → 0
+     */
+    static int termOf(String partitionName) {
+        if (partitionName == null || partitionName.length() != 6 || partitionName.charAt(0) != 'p') {
+            return 0;
+        }
+        try {
+            int term = Integer.parseInt(partitionName.substring(1));
+            return term % 10 == 1 || term % 10 == 2 ? term : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Thêm partition cho học kỳ hiện tại và futureTerms học kỳ tiếp theo (tách từ pmax)
+     *
+     * @return số partition đã thêm
+     */
+    public int ensureFutureTerms(int futureTerms) throws SQLException {
+        try (Connection conn = dbConfig.getCleanConnection()) {
+            List<TermPartition> partitions = listPartitions(conn);
+            if (partitions.isEmpty()) {
+                logger.info("attendance is not partitioned, nothing to extend");
+                return 0;
+            }
+            
+            int lastTerm = 0;
+            boolean hasMax = false;
+            for (TermPartition partition : partitions) {
+                lastTerm = Math.max(lastTerm, partition.getTerm());
+                hasMax |= partition.getUpperBound() == null;
+            }
+            
+            int target = AttendanceTerm.of(CoarseClock.today());
+            for (int i = 0; i < futureTerms; i++) {
+                target = AttendanceTerm.next(target);
+            }
+            
+            StringJoiner added = new StringJoiner(", ");
+            int count = 0;
+            int first = lastTerm > 0 ? AttendanceTerm.next(lastTerm) : AttendanceTerm.of(CoarseClock.today());
+            for (int term = first; term <= target; term = AttendanceTerm.next(term)) {
+                added.add("PARTITION p" + term + " VALUES LESS THAN ('"
+                    + AttendanceTerm.startOf(AttendanceTerm.next(term)) + "')");
+                count++;
+            }
+            if (count == 0) {
+                return 0;
+            }
+            
+            String sql = hasMax
+                ? "ALTER TABLE attendance REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                    + added + ", PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))"
+                : "ALTER TABLE attendance ADD PARTITION (" + added + ")";
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(sql);
+            }
+            
+            logger.info("➕ Added {} attendance partitions up to {}", count, AttendanceTerm.format(target));
+            return count;
+        }
+    }
+    
+    // ==================== Archive ====================
+    
+    /**
+     * Archive mọi học kỳ cũ hơn keepTerms học kỳ gần nhất (tính cả học kỳ hiện tại)
+     */
+    public List<ArchiveResult> archiveOlderThan(int keepTerms) throws SQLException, IOException {
+        int cutoff = AttendanceTerm.of(CoarseClock.today());
+        for (int i = 1; i < Math.max(1, keepTerms); i++) {
+            cutoff = AttendanceTerm.previous(cutoff);
+        }
+        
+        List<Integer> terms = new ArrayList<>();
+        try (Connection conn = dbConfig.getCleanConnection()) {
+            List<TermPartition> partitions = listPartitions(conn);
+            if (!partitions.isEmpty()) {
+                for (TermPartition partition : partitions) {
+                    if (partition.getTerm() != 0 && partition.getTerm() < cutoff) {
+                        terms.add(partition.getTerm());
+                    }
+                }
+            } else {
+                LocalDate oldest = oldestDate(conn);
+                if (oldest != null) {
+                    for (int term = AttendanceTerm.of(oldest); term < cutoff; term = AttendanceTerm.next(term)) {
+                        terms.add(term);
+                    }
+                }
+            }
+        }
+        
+        List<ArchiveResult> results = new ArrayList<>();
+        for (int term : terms) {
+            results.add(archiveTerm(term));
+        }
+        logger.info("📦 Archived {} terms older than {}", results.size(), AttendanceTerm.format(cutoff));
+        return results;
+    }
+    
+    /**
+     * Export một học kỳ ra file rồi bỏ khỏi bảng attendance
+     * Chạy lại sau lỗi giữa chừng là an toàn: file được ghi lại, attendance_archives được cập nhật
+     * Lỗi sau khi đóng học kỳ: học kỳ vẫn đóng (không nhận ghi) cho tới khi chạy lại thành công
+     */
+    public ArchiveResult archiveTerm(int term) throws SQLException, IOException {
+        int current = AttendanceTerm.of(CoarseClock.today());
+        if (term >= current) {
+            throw new IllegalArgumentException("Term " + AttendanceTerm.format(term) + " has not ended yet");
+        }
+        
+        long start = System.currentTimeMillis();
+        try (Connection conn = dbConfig.getCleanConnection()) {
+            List<TermPartition> partitions = listPartitions(conn);
+            String partition = null;
+            if (!partitions.isEmpty()) {
+                for (TermPartition candidate : partitions) {
+                    if (candidate.getTerm() == term) {
+                        partition = candidate.getName();
+                    }
+                }
+                if (partition == null) {
+                    throw new IllegalArgumentException("No partition for term " + term + " (already archived?)");
+                }
+            }
+            
+            // Partition đầu tiên còn chứa mọi ngày cũ hơn → chọn theo partition, không theo khoảng ngày
+            String scope = partition != null
+                ? "attendance PARTITION (" + partition + ")"
+                : "attendance WHERE attendance_date BETWEEN ? AND ?";
+            LocalDate from = AttendanceTerm.startOf(term);
+            LocalDate to = AttendanceTerm.endOf(term);
+            
+            Files.createDirectories(archiveDir);
+            Path file = archiveDir.resolve("attendance_" + term + ".csv.gz");
+            
+            // 1. Đóng học kỳ (row_count = 0 cho tới khi xong): INSERT chờ các transaction đang ghi
+            //    học kỳ này commit (AttendanceLoader khóa khoảng term_code), sau đó không còn ghi mới
+            recordArchive(conn, term, partition, from, to, 0, file);
+            
+            // 2. Export dữ liệu đã cố định
+            Export export = export(conn, scope, partition == null ? from : null, to, file);
+            
+            // 3. Đếm lại ngay trước khi xóa: lệch (VD: sửa tay bằng SQL) → dừng, giữ nguyên dữ liệu
+            long expected = count(conn, scope, partition == null ? from : null, to);
+            if (expected != export.rows) {
+                throw new IllegalStateException("Term " + term + " changed during export: "
+                    + export.rows + " rows exported, " + expected + " in table");
+            }
+            
+            recordArchive(conn, term, partition, export.oldest != null && export.oldest.isBefore(from)
+                ? export.oldest : from, to, export.rows, file);
+            
+            if (partition != null) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("ALTER TABLE attendance DROP PARTITION " + partition);
+                }
+            } else {
+                deleteInChunks(conn, from, to);
+            }
+            
+            archivedRows.add(export.rows);
+            logger.info("📦 Archived {} ({} rows) to {} in {} ms",
+                partition != null ? partition : AttendanceTerm.format(term), export.rows, file,
+                System.currentTimeMillis() - start);
+            return new ArchiveResult(term, export.rows, file);
+        }
+    }
+    
+    private static final class Export {
+        long rows;
+        LocalDate oldest;
+    }
+    
+    /**
+     * Streaming SELECT → CSV gzip (file tạm, rename khi đã ghi xong)
+     */
+    private static Export export(Connection conn, String scope, LocalDate from, LocalDate to, Path file)
+            throws SQLException, IOException {
+        
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Export export = new Export();
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                 "SELECT " + String.join(", ", EXPORT_COLUMNS) + " FROM " + scope,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            // MySQL Connector/J chỉ stream từng dòng với fetch size = Integer.MIN_VALUE
+            pstmt.setFetchSize(isMySql(conn) ? Integer.MIN_VALUE : 10000);
+            bindRange(pstmt, from, to);
+            
+            try (ResultSet rs = pstmt.executeQuery();
+                 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                     new GZIPOutputStream(Files.newOutputStream(tmp), 1 << 16), StandardCharsets.UTF_8), 1 << 16);
+                 CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(EXPORT_COLUMNS))) {
+                
+                Object[] row = new Object[EXPORT_COLUMNS.length];
+                while (rs.next()) {
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = rs.getString(i + 1);
+                    }
+                    printer.printRecord(row);
+                    
+                    LocalDate date = rs.getDate(4).toLocalDate();
+                    if (export.oldest == null || date.isBefore(export.oldest)) {
+                        export.oldest = date;
+                    }
+                    export.rows++;
+                }
+            }
+        }
+        
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return export;
+    }
+    
+    private static long count(Connection conn, String scope, LocalDate from, LocalDate to) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT COUNT(*) FROM " + scope)) {
+            bindRange(pstmt, from, to);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+    
+    private static void bindRange(PreparedStatement pstmt, LocalDate from, LocalDate to) throws SQLException {
+        if (from != null) {
+            pstmt.setDate(1, Date.valueOf(from));
+            pstmt.setDate(2, Date.valueOf(to));
+        }
+    }
+    
+    private static void recordArchive(Connection conn, int term, String partition, LocalDate from, LocalDate to,
+                                      long rows, Path file) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(RECORD_ARCHIVE_SQL)) {
+            pstmt.setInt(1, term);
+            pstmt.setString(2, partition);
+            pstmt.setDate(3, Date.valueOf(from));
+            pstmt.setDate(4, Date.valueOf(to));
+            pstmt.setLong(5, rows);
+            pstmt.setString(6, file.toAbsolutePath().toString());
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Bảng không partition: xóa theo lô (mỗi lô một transaction ngắn, không khóa cả khoảng ngày)
+     */
+    private void deleteInChunks(Connection conn, LocalDate from, LocalDate to) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "DELETE FROM attendance WHERE attendance_date BETWEEN ? AND ? LIMIT " + deleteChunk)) {
+            pstmt.setDate(1, Date.valueOf(from));
+            pstmt.setDate(2, Date.valueOf(to));
+            while (pstmt.executeUpdate() > 0) {
+                // lô tiếp theo
+            }
+        }
+    }
+    
+    private static LocalDate oldestDate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(attendance_date) FROM attendance")) {
+            Date oldest = rs.next() ? rs.getDate(1) : null;
+            return oldest != null ? oldest.toLocalDate() : null;
+        }
+    }
+    
+    private static boolean isMySql(Connection conn) throws SQLException {
+        return "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+    }
+    
+    public static void main(String[] args) throws Exception {
+        ConfigLoader config = ConfigLoader.getInstance();
+        AttendanceArchiveJob job = fromConfig(config);
+        String command = args.length > 0 ? args[0] : "run";
+        
+        switch (command) {
+            case "partitions":
+                List<TermPartition> partitions = job.listPartitions();
+                if (partitions.isEmpty()) {
+                    System.out.println("attendance is not partitioned");
+                }
+                partitions.forEach(System.out::println);
+                break;
+            case "extend":
+                job.ensureFutureTerms(config.getIntProperty("attendance.archive.future.terms", 2));
+                break;
+            case "archive":
+                if (args.length < 2) {
+                    System.err.println("Usage: AttendanceArchiveJob archive <term_code>");
+                    System.exit(1);
+                }
+                job.archiveTerm(Integer.parseInt(args[1]));
+                break;
+            case "run":
+                job.ensureFutureTerms(config.getIntProperty("attendance.archive.future.terms", 2));
+                job.archiveOlderThan(config.getIntProperty("attendance.archive.keep.terms", 4));
+                break;
+            default:
+                System.err.println("Usage: AttendanceArchiveJob [run | partitions | extend | archive <term_code>]");
+                System.exit(1);
+        }
+    }
+}
\ No newline at end of file
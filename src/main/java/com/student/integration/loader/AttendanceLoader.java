@@ -0,0 +1,397 @@
+package com.student.integration.loader;
+
+import com.student.integration.analytics.AttendanceTerm;
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.DatabaseConfig;
+import com.student.integration.config.MessagePublisher;
+import com.student.integration.metrics.Counter;
+import com.student.integration.metrics.MetricsRegistry;
+import com.student.integration.model.dto.AttendanceChangeBatch;
+import com.student.integration.model.entity.Attendance;
+import com.student.integration.model.enums.AttendanceStatus;
+import com.student.integration.model.enums.AttendanceWriteMode;
+import com.student.integration.util.CoarseClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Loader cho bảng attendance (Clean Database)
+ *
+ * - Mỗi chunk = một JDBC batch trong một transaction (rewriteBatchedStatements
+ *   gộp thành vài câu INSERT nhiều dòng)
+ * - Upsert theo unique_attendance (student, class, ngày, buổi): chunk bị giao lại
+ *   (at-least-once) ghi đè đúng các dòng cũ, không tạo bản ghi trùng
+ * - Bảng tổng hợp (attendance_daily_summary, attendance_term_summary) được cộng delta
+ *   trong cùng transaction (AttendanceSummaryWriter)
+ * - attendance.changes.publish.enabled: sau commit, các dòng đổi status được publish
+ *   vào attendance.committed (AttendanceChangeBatch) cho AtRiskDetectorConsumer
+ * - Deadlock (SELECT ... FOR UPDATE của AttendanceSummaryWriter khóa cả gap khi các loader
+ *   ghi song song): InnoDB rollback cả transaction → chạy lại từ đầu, tối đa
+ *   attendance.deadlock.max.retries lần
+ * - Học kỳ đã đóng (có dòng trong attendance_archives, AttendanceArchiveJob đang/đã archive):
+ *   validator / check-in đã từ chối từng dòng theo ArchivedTermSnapshot; dòng còn lọt (học kỳ vừa
+ *   đóng sau lần refresh snapshot) bị bỏ riêng trong transaction và trả về cho caller qua rejected,
+ *   các dòng còn lại của batch vẫn được ghi
+ */
+public class AttendanceLoader {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceLoader.class);
+    
+    // InnoDB deadlock: ER_LOCK_DEADLOCK, SQLState serialization failure
+    private static final int MYSQL_DEADLOCK_ERROR = 1213;
+    private static final String DEADLOCK_SQL_STATE = "40001";
+    
+    /**
+     * Khóa khoảng term_code >= học kỳ cũ nhất của batch (kể cả gap khi chưa có dòng nào):
+     * AttendanceArchiveJob đóng học kỳ bằng INSERT vào attendance_archives nên phải chờ
+     * transaction đang ghi xong, transaction bắt đầu sau đó thấy học kỳ đã đóng
+     * (không dùng MAX(): H2 không cho FOR UPDATE với aggregate)
+     */
+    private static final String CLOSED_TERMS_SQL =
+        "SELECT to_date FROM attendance_archives WHERE term_code >= ? FOR UPDATE";
+    
+    private static final String UPSERT_SQL = """
+        INSERT INTO attendance (
+            student_id, class_id, attendance_date, session_number,
+            status, check_in_time, check_out_time, note
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            status = VALUES(status),
+            check_in_time = VALUES(check_in_time),
+            check_out_time = VALUES(check_out_time),
+            note = VALUES(note)
+        """;
+    
+    /**
+     * Check-in realtime: lần check-in đầu tiên thắng (quẹt lại sau cửa sổ dedup không đổi giờ/status),
+     * dòng đã có mà chưa check-in (VD: ABSENT do job đóng buổi) được cập nhật.
+     * MySQL gán theo thứ tự trái → phải nên status phải đứng trước check_in_time
+     */
+    private static final String CHECK_IN_SQL = """
+        INSERT INTO attendance (
+            student_id, class_id, attendance_date, session_number,
+            status, check_in_time, check_out_time, note
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            status = CASE WHEN check_in_time IS NULL THEN VALUES(status) ELSE status END,
+            check_in_time = COALESCE(check_in_time, VALUES(check_in_time))
+        """;
+    
+    /**
+     * Đóng buổi: dòng đã tồn tại (check-in đến sát giờ đóng) giữ nguyên
+     */
+    private static final String ABSENT_SQL = """
+        INSERT INTO attendance (
+            student_id, class_id, attendance_date, session_number,
+            status, check_in_time, check_out_time, note
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            status = status
+        """;
+    
+    private final DatabaseConfig dbConfig;
+    
+    // null nếu không cần đọc status cũ (tắt cả summary lẫn publish thay đổi)
+    private final AttendanceSummaryWriter summaryWriter;
+    private final boolean summaryEnabled;
+    
+    // null nếu attendance.changes.publish.enabled=false
+    private final MessagePublisher changePublisher;
+    private final Counter changesPublished;
+    private final Counter changePublishFailures;
+    
+    private final int maxDeadlockRetries;
+    private final long deadlockBackoffMs;
+    private final Counter deadlockRetries;
+    private final Counter closedTermRows;
+    
+    public AttendanceLoader() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        this.dbConfig = DatabaseConfig.getInstance();
+        this.summaryEnabled = config.getBooleanProperty("attendance.summary.enabled", true);
+        this.changePublisher = config.getBooleanProperty("attendance.changes.publish.enabled", false)
+            ? new MessagePublisher()
+            : null;
+        this.summaryWriter = summaryEnabled || changePublisher != null
+            ? new AttendanceSummaryWriter()
+            : null;
+        this.maxDeadlockRetries = Math.max(0, config.getIntProperty("attendance.deadlock.max.retries", 3));
+        this.deadlockBackoffMs = Math.max(1, config.getIntProperty("attendance.deadlock.backoff.ms", 20));
+        
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        this.changesPublished = registry.counter("attendance_changes_published_total",
+            "Attendance status changes published to attendance.committed");
+        this.changePublishFailures = registry.counter("attendance_change_publish_failures_total",
+            "Committed attendance batches whose change event could not be published");
+        this.deadlockRetries = registry.counter("attendance_deadlock_retries_total",
+            "Attendance transactions retried after a deadlock");
+        this.closedTermRows = registry.counter("attendance_closed_term_rows_total",
+            "Attendance rows dropped by the loader because their term was archived");
+    }
+    
+    /**
+     * Upsert một chunk (all-or-nothing, trừ dòng thuộc học kỳ đã đóng)
+     *
+     * @param rejected nhận các dòng bị bỏ vì học kỳ đã đóng (null nếu không cần)
+     * @return số dòng đã ghi
+     */
+    public int upsertBatch(List<Attendance> records, List<Attendance> rejected) throws SQLException {
+        return executeBatch(UPSERT_SQL, records, AttendanceWriteMode.OVERWRITE, rejected);
+    }
+    
+    /**
+     * Ghi một nhóm check-in realtime (group commit, all-or-nothing, trừ dòng thuộc học kỳ đã đóng)
+     *
+     * @param rejected nhận các dòng bị bỏ vì học kỳ đã đóng (null nếu không cần)
+     * @return số dòng đã ghi
+     */
+    public int insertCheckIns(List<Attendance> checkIns, List<Attendance> rejected) throws SQLException {
+        return executeBatch(CHECK_IN_SQL, checkIns, AttendanceWriteMode.CHECK_IN, rejected);
+    }
+    
+    /**
+     * Ghi ABSENT cho các sinh viên trong roster chưa có mặt (bit = 0 trong present)
+     * Cả lớp là một JDBC batch trong một transaction (rewriteBatchedStatements → INSERT nhiều dòng)
+     *
+     * @param roster  students.id của lớp, index = vị trí trong roster
+     * @param present bit i = sinh viên roster[i] đã có dòng điểm danh
+     * @return số dòng ABSENT đã gửi
+     */
+    public int insertAbsences(int classId, LocalDate date, int session,
+                              long[] roster, BitSet present) throws SQLException {
+        
+        List<Attendance> absences = new ArrayList<>(roster.length - present.cardinality());
+        for (int i = present.nextClearBit(0); i < roster.length; i = present.nextClearBit(i + 1)) {
+            Attendance absence = new Attendance();
+            absence.setStudentId(roster[i]);
+            absence.setClassId(classId);
+            absence.setAttendanceDate(date);
+            absence.setSessionNumber(session);
+            absence.setStatus(AttendanceStatus.ABSENT);
+            absences.add(absence);
+        }
+        
+        int written = executeBatch(ABSENT_SQL, absences, AttendanceWriteMode.IF_MISSING, null);
+        if (written > 0) {
+            logger.debug("Marked {} students ABSENT (class {}, {} session {})", written, classId, date, session);
+        }
+        return written;
+    }
+    
+    /**
+     * Ghi một batch vào attendance và cộng delta vào bảng tổng hợp, cùng một transaction
+     * Deadlock: transaction đã bị rollback toàn bộ → đọc lại status cũ và ghi lại (backoff tăng dần)
+     */
+    private int executeBatch(String sql, List<Attendance> records, AttendanceWriteMode mode,
+                             List<Attendance> rejected) throws SQLException {
+        if (records == null || records.isEmpty()) {
+            return 0;
+        }
+        
+        AttendanceSummaryWriter.Deltas deltas;
+        List<Attendance> dropped = new ArrayList<>();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                dropped.clear();
+                deltas = writeBatch(sql, records, mode, dropped);
+                break;
+            } catch (SQLException e) {
+                if (!isDeadlock(e) || attempt > maxDeadlockRetries) {
+                    throw e;
+                }
+                deadlockRetries.increment();
+                logger.warn("Deadlock writing {} attendance rows, retrying ({}/{})",
+                    records.size(), attempt, maxDeadlockRetries);
+                backoff(attempt, e);
+            }
+        }
+        
+        if (deltas != null && deltas.changes != null && !deltas.changes.isEmpty()) {
+            publishChanges(new AttendanceChangeBatch(deltas.changes));
+        }
+        
+        if (!dropped.isEmpty()) {
+            closedTermRows.add(dropped.size());
+            logger.warn("Dropped {} of {} attendance rows dated in an archived term (first {})",
+                dropped.size(), records.size(), dropped.get(0).getAttendanceDate());
+            if (rejected != null) {
+                rejected.addAll(dropped);
+            }
+        }
+        
+        int written = records.size() - dropped.size();
+        logger.debug("Upserted {} attendance rows", written);
+        return written;
+    }
+    
+    /**
+     * Một lần thử: bỏ dòng của học kỳ đã đóng, khóa + đọc status cũ, ghi attendance, cộng delta, commit
+     */
+    private AttendanceSummaryWriter.Deltas writeBatch(String sql, List<Attendance> batch, AttendanceWriteMode mode,
+                                                      List<Attendance> dropped) throws SQLException {
+        AttendanceSummaryWriter.Deltas deltas = null;
+        try (Connection conn = dbConfig.getCleanConnection()) {
+            conn.setAutoCommit(false);
+            List<Attendance> records = batch;
+            try {
+                records = openTermRecords(conn, batch, dropped);
+                if (records.isEmpty()) {
+                    conn.commit();
+                    return null;
+                }
+                
+                // Khóa + đọc status cũ trước khi ghi
+                deltas = summaryWriter != null
+                    ? summaryWriter.computeDeltas(conn, records, mode, changePublisher != null)
+                    : null;
+                
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (Attendance attendance : records) {
+                        setParameters(pstmt, attendance);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                
+                if (deltas != null && summaryEnabled) {
+                    summaryWriter.applyDeltas(conn, deltas);
+                }
+                conn.commit();
+                
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                    logger.warn("Attendance batch rolled back ({} rows)", records.size());
+                } catch (SQLException ex) {
+                    logger.error("Rollback failed", ex);
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return deltas;
+    }
+    
+    /**
+     * Chốt chặn cuối cho học kỳ đã đóng (archive xong hoặc đang export): dòng có ngày thuộc học kỳ đó
+     * được chuyển sang dropped, trả về các dòng còn lại (chính records nếu không bỏ dòng nào)
+     * Chỉ query khi batch có ngày của học kỳ trước: check-in, đóng buổi, file của học kỳ hiện tại không tốn gì thêm
+     */
+    private static List<Attendance> openTermRecords(Connection conn, List<Attendance> records,
+                                                    List<Attendance> dropped) throws SQLException {
+        LocalDate oldest = records.get(0).getAttendanceDate();
+        for (Attendance record : records) {
+            if (record.getAttendanceDate().isBefore(oldest)) {
+                oldest = record.getAttendanceDate();
+            }
+        }
+        int oldestTerm = AttendanceTerm.of(oldest);
+        if (oldestTerm >= AttendanceTerm.of(CoarseClock.today())) {
+            return records;
+        }
+        
+        // Học kỳ T đã đóng → mọi ngày <= cuối T đã/đang bị bỏ khỏi bảng (partition đầu chứa cả ngày cũ hơn)
+        LocalDate closedThrough = null;
+        try (PreparedStatement pstmt = conn.prepareStatement(CLOSED_TERMS_SQL)) {
+            pstmt.setInt(1, oldestTerm);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    LocalDate toDate = rs.getDate(1).toLocalDate();
+                    if (closedThrough == null || toDate.isAfter(closedThrough)) {
+                        closedThrough = toDate;
+                    }
+                }
+            }
+        }
+        if (closedThrough == null || closedThrough.isBefore(oldest)) {
+            return records;
+        }
+        
+        List<Attendance> open = new ArrayList<>(records.size());
+        for (Attendance record : records) {
+            if (record.getAttendanceDate().isAfter(closedThrough)) {
+                open.add(record);
+            } else {
+                dropped.add(record);
+            }
+        }
+        return open;
+    }
+    
+    /**
+     * Deadlock (MySQL 1213 / SQLState 40001), kể cả khi nằm trong BatchUpdateException hoặc cause
+     */
+    static boolean isDeadlock(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            for (SQLException next = t instanceof SQLException ? (SQLException) t : null;
+                 next != null; next = next.getNextException()) {
+                if (next.getErrorCode() == MYSQL_DEADLOCK_ERROR || DEADLOCK_SQL_STATE.equals(next.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Chờ attempt × backoff + jitter để hai transaction vừa deadlock không đụng nhau lần nữa
+     */
+    private void backoff(int attempt, SQLException cause) throws SQLException {
+        try {
+            Thread.sleep(attempt * deadlockBackoffMs + ThreadLocalRandom.current().nextLong(deadlockBackoffMs));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+    
+    /**
+     * Dữ liệu đã commit: lỗi publish chỉ làm detector trễ (warm-up lại từ
+     * attendance_term_summary), không được làm caller ghi lại batch
+     */
+    private void publishChanges(AttendanceChangeBatch batch) {
+        try {
+            changePublisher.publishToAttendanceCommitted(batch);
+            changesPublished.add(batch.size());
+        } catch (Exception e) {
+            changePublishFailures.increment();
+            logger.warn("Failed to publish {} attendance changes: {}", batch.size(), e.getMessage());
+        }
+    }
+    
+    private void setParameters(PreparedStatement pstmt, Attendance attendance) throws SQLException {
+        pstmt.setLong(1, attendance.getStudentId());
+        pstmt.setInt(2, attendance.getClassId());
+        pstmt.setDate(3, Date.valueOf(attendance.getAttendanceDate()));
+        pstmt.setInt(4, attendance.getSessionNumber());
+        pstmt.setString(5, attendance.getStatus().name());
+        pstmt.setTime(6, attendance.getCheckInTime() != null ? Time.valueOf(attendance.getCheckInTime()) : null);
+        pstmt.setTime(7, attendance.getCheckOutTime() != null ? Time.valueOf(attendance.getCheckOutTime()) : null);
+        pstmt.setString(8, attendance.getNote());
+    }
+    
+    /**
+     * Count total attendance rows in clean DB
+     */
+    public long countAttendance() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM attendance";
+        
+        try (Connection conn = dbConfig.getCleanConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        }
+        return 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,211 @@
+package com.student.integration.loader;
+
+import com.student.integration.analytics.AttendanceTerm;
+import com.student.integration.config.DatabaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Tính lại bảng tổng hợp điểm danh từ bảng attendance cho một phần dữ liệu
+ *
+ * - daily: attendance_daily_summary của các ngày trong [from, to]
+ * - term: attendance_term_summary của một học kỳ
+ * Xóa rồi INSERT ... SELECT GROUP BY trong một transaction: dashboard không thấy trạng thái dở dang
+ * Dùng khi bảng attendance bị sửa ngoài loader hoặc khi bật tổng hợp trên dữ liệu cũ
+ * term: version của các dòng mới = version lớn nhất cũ + 1 (version mỗi sinh viên chỉ tăng,
+ * AtRiskDetector không bỏ nhầm thay đổi sau repair); restart AtRiskDetectorConsumer để nạp lại bộ đếm
+ * Khoảng ngày đã archive (attendance_archives) bị từ chối: bảng attendance không còn dữ liệu để tính lại
+ *
+ * Usage: AttendanceSummaryRepair daily 2024-09-01 2024-09-30
+ *        AttendanceSummaryRepair term 20241
+ */
+public class AttendanceSummaryRepair {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceSummaryRepair.class);
+    
+    private static final String COUNTS = """
+        SUM(CASE WHEN status = 'PRESENT' THEN 1 ELSE 0 END),
+        SUM(CASE WHEN status = 'ABSENT' THEN 1 ELSE 0 END),
+        SUM(CASE WHEN status = 'LATE' THEN 1 ELSE 0 END),
+        SUM(CASE WHEN status = 'EXCUSED' THEN 1 ELSE 0 END)
+        """;
+    
+    private static final String DAILY_DELETE_SQL =
+        "DELETE FROM attendance_daily_summary WHERE attendance_date BETWEEN ? AND ?";
+    
+    private static final String DAILY_REBUILD_SQL = """
+        INSERT INTO attendance_daily_summary (
+            class_id, attendance_date, present_count, absent_count, late_count, excused_count
+        )
+        SELECT class_id, attendance_date,
+        """ + COUNTS + """
+        FROM attendance
+        WHERE attendance_date BETWEEN ? AND ?
+        GROUP BY class_id, attendance_date
+        """;
+    
+    private static final String TERM_DELETE_SQL =
+        "DELETE FROM attendance_term_summary WHERE term_code = ?";
+    
+    // Khóa các dòng sắp xóa: loader đang ghi phải chờ, version đọc được là lớn nhất
+    private static final String TERM_VERSIONS_SQL =
+        "SELECT version FROM attendance_term_summary WHERE term_code = ? FOR UPDATE";
+    
+    private static final String TERM_REBUILD_SQL = """
+        INSERT INTO attendance_term_summary (
+            student_id, term_code, version, present_count, absent_count, late_count, excused_count
+        )
+        SELECT student_id, ?, ?,
+        """ + COUNTS + """
+        FROM attendance
+        WHERE attendance_date BETWEEN ? AND ?
+        GROUP BY student_id
+        """;
+    
+    private static final String ARCHIVED_SQL =
+        "SELECT term_code FROM attendance_archives WHERE from_date <= ? AND to_date >= ?";
+    
+    private final DatabaseConfig dbConfig;
+    
+    public AttendanceSummaryRepair() {
+        this.dbConfig = DatabaseConfig.getInstance();
+    }
+    
+    /**
+     * Tính lại tổng hợp lớp × ngày cho các ngày trong [from, to]
+     *
+     * @return số dòng tổng hợp đã ghi
+     */
+    public int repairDaily(LocalDate from, LocalDate to) throws SQLException {
+        return rebuild(DAILY_DELETE_SQL, DAILY_REBUILD_SQL, "daily " + from + ".." + to, from, to,
+            conn -> 0,
+            pstmt -> {
+                pstmt.setDate(1, Date.valueOf(from));
+                pstmt.setDate(2, Date.valueOf(to));
+            },
+            (pstmt, version) -> {
+                pstmt.setDate(1, Date.valueOf(from));
+                pstmt.setDate(2, Date.valueOf(to));
+            });
+    }
+    
+    /**
+     * Tính lại tổng hợp sinh viên × học kỳ cho một học kỳ
+     *
+     * @return số dòng tổng hợp đã ghi
+     */
+    public int repairTerm(int term) throws SQLException {
+        LocalDate from = AttendanceTerm.startOf(term);
+        LocalDate to = AttendanceTerm.endOf(term);
+        return rebuild(TERM_DELETE_SQL, TERM_REBUILD_SQL, "term " + AttendanceTerm.format(term), from, to,
+            conn -> maxTermVersion(conn, term) + 1,
+            pstmt -> pstmt.setInt(1, term),
+            (pstmt, version) -> {
+                pstmt.setInt(1, term);
+                pstmt.setInt(2, version);
+                pstmt.setDate(3, Date.valueOf(from));
+                pstmt.setDate(4, Date.valueOf(to));
+            });
+    }
+    
+    private static int maxTermVersion(Connection conn, int term) throws SQLException {
+        int max = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(TERM_VERSIONS_SQL)) {
+            pstmt.setInt(1, term);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    max = Math.max(max, rs.getInt(1));
+                }
+            }
+        }
+        return max;
+    }
+    
+    private int rebuild(String deleteSql, String rebuildSql, String partition, LocalDate from, LocalDate to,
+                        VersionReader versionReader, StatementBinder deleteBinder,
+                        RebuildBinder rebuildBinder) throws SQLException {
+        long start = System.nanoTime();
+        int deleted;
+        int inserted;
+        
+        try (Connection conn = dbConfig.getCleanConnection()) {
+            checkNotArchived(conn, from, to);
+            conn.setAutoCommit(false);
+            try (PreparedStatement delete = conn.prepareStatement(deleteSql);
+                 PreparedStatement insert = conn.prepareStatement(rebuildSql)) {
+                
+                int version = versionReader.read(conn);
+                deleteBinder.bind(delete);
+                deleted = delete.executeUpdate();
+                rebuildBinder.bind(insert, version);
+                inserted = insert.executeUpdate();
+                conn.commit();
+                
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    logger.error("Rollback failed", ex);
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        
+        logger.info("🔧 Rebuilt attendance summary ({}): {} rows replaced by {} ({} ms)",
+            partition, deleted, inserted, (System.nanoTime() - start) / 1_000_000);
+        return inserted;
+    }
+    
+    private static void checkNotArchived(Connection conn, LocalDate from, LocalDate to) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(ARCHIVED_SQL)) {
+            pstmt.setDate(1, Date.valueOf(to));
+            pstmt.setDate(2, Date.valueOf(from));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    throw new IllegalStateException("Term " + AttendanceTerm.format(rs.getInt(1))
+                        + " is archived, its summaries cannot be rebuilt from attendance");
+                }
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
+    
+    @FunctionalInterface
+    private interface RebuildBinder {
+        void bind(PreparedStatement pstmt, int version) throws SQLException;
+    }
+    
+    /**
+     * Version gán cho các dòng tính lại (chạy trước DELETE, cùng transaction)
+     */
+    @FunctionalInterface
+    private interface VersionReader {
+        int read(Connection conn) throws SQLException;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        AttendanceSummaryRepair repair = new AttendanceSummaryRepair();
+        if (args.length == 3 && "daily".equals(args[0])) {
+            repair.repairDaily(LocalDate.parse(args[1]), LocalDate.parse(args[2]));
+        } else if (args.length == 2 && "term".equals(args[0])) {
+            repair.repairTerm(Integer.parseInt(args[1]));
+        } else {
+            System.err.println("Usage: AttendanceSummaryRepair daily <from yyyy-MM-dd> <to yyyy-MM-dd>");
+            System.err.println("       AttendanceSummaryRepair term <term code, e.g. 20241>");
+            System.exit(1);
+        }
+    }
+}
\ No newline at end of file
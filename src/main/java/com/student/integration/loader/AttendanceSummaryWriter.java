@@ -0,0 +1,362 @@
+package com.student.integration.loader;
+
+import com.student.integration.analytics.AttendanceTerm;
+import com.student.integration.model.dto.AttendanceChange;
+import com.student.integration.model.entity.Attendance;
+import com.student.integration.model.enums.AttendanceStatus;
+import com.student.integration.model.enums.AttendanceWriteMode;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Cập nhật delta cho attendance_daily_summary (lớp × ngày) và attendance_term_summary
+ * (sinh viên × học kỳ) trong cùng transaction với lần ghi bảng attendance
+ *
+ * 1. computeDeltas: khóa (FOR UPDATE) và đọc status hiện có của các dòng sắp ghi,
+ *    tính status sau khi ghi theo AttendanceWriteMode → -1 status cũ, +1 status mới
+ * 2. Caller ghi bảng attendance
+ * 3. applyDeltas: upsert cộng dồn (count = count + delta), key sắp xếp để các transaction
+ *    khóa dòng tổng hợp theo cùng thứ tự
+ * Lệch số liệu (VD: sửa tay bảng attendance) được sửa bằng AttendanceSummaryRepair
+ *
+ * Cùng phép so sánh before/after cho ra danh sách AttendanceChange (dòng đổi status),
+ * AttendanceLoader publish sau commit cho AtRiskDetector
+ * attendance_term_summary.version +1 mỗi transaction chạm dòng (sinh viên, học kỳ), kể cả delta 0;
+ * version sau upsert được gắn vào AttendanceChange.termVersion → detector nhận ra lần giao lại
+ */
+class AttendanceSummaryWriter {
+    
+    private static final int LOOKUP_BATCH = 250;
+    private static final int STATUSES = AttendanceStatus.values().length;
+    
+    private static final String DAILY_UPSERT_SQL = """
+        INSERT INTO attendance_daily_summary (
+            class_id, attendance_date, present_count, absent_count, late_count, excused_count
+        ) VALUES (?, ?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            present_count = present_count + VALUES(present_count),
+            absent_count = absent_count + VALUES(absent_count),
+            late_count = late_count + VALUES(late_count),
+            excused_count = excused_count + VALUES(excused_count)
+        """;
+    
+    private static final String TERM_UPSERT_SQL = """
+        INSERT INTO attendance_term_summary (
+            student_id, term_code, present_count, absent_count, late_count, excused_count, version
+        ) VALUES (?, ?, ?, ?, ?, ?, 1)
+        ON DUPLICATE KEY UPDATE
+            present_count = present_count + VALUES(present_count),
+            absent_count = absent_count + VALUES(absent_count),
+            late_count = late_count + VALUES(late_count),
+            excused_count = excused_count + VALUES(excused_count),
+            version = version + 1
+        """;
+    
+    /**
+     * Delta của một lần ghi: key → số lượng thay đổi theo AttendanceStatus.ordinal()
+     */
+    static final class Deltas {
+        // (class_id, epoch day) và (student_id, term) - TreeMap để upsert theo thứ tự key
+        final Map<Long, int[]> daily = new TreeMap<>();
+        final Map<StudentTerm, int[]> term = new TreeMap<>();
+        
+        // null nếu caller không cần (không publish attendance.committed)
+        final List<AttendanceChange> changes;
+        
+        Deltas(boolean collectChanges) {
+            this.changes = collectChanges ? new ArrayList<>() : null;
+        }
+        
+        void add(Attendance record, AttendanceStatus status, int delta) {
+            LocalDate date = record.getAttendanceDate();
+            long dailyKey = ((long) record.getClassId() << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+            daily.computeIfAbsent(dailyKey, k -> new int[STATUSES])[status.ordinal()] += delta;
+            term.computeIfAbsent(new StudentTerm(record.getStudentId(), AttendanceTerm.of(date)),
+                k -> new int[STATUSES])[status.ordinal()] += delta;
+        }
+    }
+    
+    /**
+     * Khóa và đọc các dòng sắp ghi, trả về delta của bảng tổng hợp
+     *
+     * @param collectChanges true → Deltas.changes chứa từng dòng đổi status (theo thứ tự records)
+     */
+    Deltas computeDeltas(Connection conn, List<Attendance> records, AttendanceWriteMode mode,
+                         boolean collectChanges) throws SQLException {
+        Map<RowKey, Existing> current = new HashMap<>(records.size() * 2);
+        for (int from = 0; from < records.size(); from += LOOKUP_BATCH) {
+            loadExisting(conn, records.subList(from, Math.min(records.size(), from + LOOKUP_BATCH)), current);
+        }
+        
+        Deltas deltas = new Deltas(collectChanges);
+        for (Attendance record : records) {
+            RowKey key = new RowKey(record);
+            Existing existing = current.get(key);
+            AttendanceStatus before = existing != null ? existing.status : null;
+            
+            AttendanceStatus after;
+            switch (mode) {
+                case OVERWRITE:
+                    after = record.getStatus();
+                    break;
+                case CHECK_IN:
+                    // Giống CHECK_IN_SQL: dòng đã có check_in_time giữ nguyên
+                    after = existing != null && existing.checkedIn ? before : record.getStatus();
+                    break;
+                default:
+                    after = existing != null ? before : record.getStatus();
+                    break;
+            }
+            
+            if (after != before) {
+                if (before != null) {
+                    deltas.add(record, before, -1);
+                }
+                deltas.add(record, after, 1);
+                if (deltas.changes != null) {
+                    deltas.changes.add(new AttendanceChange(record.getStudentId(), record.getClassId(),
+                        record.getAttendanceDate(), record.getSessionNumber(), before, after));
+                }
+            }
+            
+            // Cùng key xuất hiện lại trong batch: lần sau thấy kết quả của lần trước
+            boolean hadCheckIn = existing != null && existing.checkedIn;
+            boolean checkedIn;
+            switch (mode) {
+                case OVERWRITE:
+                    checkedIn = record.getCheckInTime() != null;
+                    break;
+                case CHECK_IN:
+                    checkedIn = hadCheckIn || record.getCheckInTime() != null;
+                    break;
+                default:
+                    checkedIn = existing != null ? hadCheckIn : record.getCheckInTime() != null;
+                    break;
+            }
+            current.put(key, new Existing(after, checkedIn));
+        }
+        return deltas;
+    }
+    
+    void applyDeltas(Connection conn, Deltas deltas) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(DAILY_UPSERT_SQL)) {
+            int batched = 0;
+            for (Map.Entry<Long, int[]> entry : deltas.daily.entrySet()) {
+                if (isZero(entry.getValue())) {
+                    continue;
+                }
+                long key = entry.getKey();
+                pstmt.setInt(1, (int) (key >>> 32));
+                pstmt.setDate(2, Date.valueOf(LocalDate.ofEpochDay((int) key)));
+                setCounts(pstmt, entry.getValue());
+                pstmt.addBatch();
+                batched++;
+            }
+            if (batched > 0) {
+                pstmt.executeBatch();
+            }
+        }
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(TERM_UPSERT_SQL)) {
+            int batched = 0;
+            // Không bỏ delta 0 (đổi rồi đổi lại trong batch): version vẫn phải tăng
+            for (Map.Entry<StudentTerm, int[]> entry : deltas.term.entrySet()) {
+                pstmt.setLong(1, entry.getKey().studentId);
+                pstmt.setInt(2, entry.getKey().term);
+                setCounts(pstmt, entry.getValue());
+                pstmt.addBatch();
+                batched++;
+            }
+            if (batched > 0) {
+                pstmt.executeBatch();
+            }
+        }
+        
+        if (deltas.changes != null && !deltas.changes.isEmpty()) {
+            stampVersions(conn, deltas);
+        }
+    }
+    
+    /**
+     * Đọc version vừa tăng (dòng đang bị transaction này khóa) và gắn vào từng AttendanceChange
+     */
+    private static void stampVersions(Connection conn, Deltas deltas) throws SQLException {
+        Map<StudentTerm, Integer> versions = new HashMap<>(deltas.term.size() * 2);
+        List<StudentTerm> keys = new ArrayList<>(deltas.term.keySet());
+        for (int from = 0; from < keys.size(); from += LOOKUP_BATCH) {
+            List<StudentTerm> chunk = keys.subList(from, Math.min(keys.size(), from + LOOKUP_BATCH));
+            StringBuilder sql = new StringBuilder(
+                "SELECT student_id, term_code, version FROM attendance_term_summary "
+                + "WHERE (student_id, term_code) IN (");
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+            }
+            sql.append(")");
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                int index = 1;
+                for (StudentTerm key : chunk) {
+                    pstmt.setLong(index++, key.studentId);
+                    pstmt.setInt(index++, key.term);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        versions.put(new StudentTerm(rs.getLong(1), rs.getInt(2)), rs.getInt(3));
+                    }
+                }
+            }
+        }
+        
+        for (AttendanceChange change : deltas.changes) {
+            Integer version = versions.get(new StudentTerm(change.getStudentId(),
+                AttendanceTerm.of(change.getAttendanceDate())));
+            if (version != null) {
+                change.setTermVersion(version);
+            }
+        }
+    }
+    
+    private static void loadExisting(Connection conn, List<Attendance> records,
+                                     Map<RowKey, Existing> current) throws SQLException {
+        // Khoảng ngày của lô: MySQL không prune partition theo IN (tuple), điều kiện range thì có
+        LocalDate from = records.get(0).getAttendanceDate();
+        LocalDate to = from;
+        for (Attendance record : records) {
+            LocalDate date = record.getAttendanceDate();
+            if (date.isBefore(from)) {
+                from = date;
+            } else if (date.isAfter(to)) {
+                to = date;
+            }
+        }
+        
+        StringBuilder sql = new StringBuilder(
+            "SELECT student_id, class_id, attendance_date, session_number, status, check_in_time FROM attendance "
+            + "WHERE attendance_date BETWEEN ? AND ? "
+            + "AND (student_id, class_id, attendance_date, session_number) IN (");
+        for (int i = 0; i < records.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+        }
+        sql.append(") FOR UPDATE");
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            pstmt.setDate(1, Date.valueOf(from));
+            pstmt.setDate(2, Date.valueOf(to));
+            int index = 3;
+            for (Attendance record : records) {
+                pstmt.setLong(index++, record.getStudentId());
+                pstmt.setInt(index++, record.getClassId());
+                pstmt.setDate(index++, Date.valueOf(record.getAttendanceDate()));
+                pstmt.setInt(index++, record.getSessionNumber());
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    RowKey key = new RowKey(rs.getLong(1), rs.getInt(2), rs.getDate(3).toLocalDate(), rs.getInt(4));
+                    current.put(key, new Existing(AttendanceStatus.valueOf(rs.getString(5)), rs.getTime(6) != null));
+                }
+            }
+        }
+    }
+    
+    private static void setCounts(PreparedStatement pstmt, int[] counts) throws SQLException {
+        pstmt.setInt(3, counts[AttendanceStatus.PRESENT.ordinal()]);
+        pstmt.setInt(4, counts[AttendanceStatus.ABSENT.ordinal()]);
+        pstmt.setInt(5, counts[AttendanceStatus.LATE.ordinal()]);
+        pstmt.setInt(6, counts[AttendanceStatus.EXCUSED.ordinal()]);
+    }
+    
+    private static boolean isZero(int[] counts) {
+        for (int count : counts) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static final class Existing {
+        final AttendanceStatus status;
+        final boolean checkedIn;
+        
+        Existing(AttendanceStatus status, boolean checkedIn) {
+            this.status = status;
+            this.checkedIn = checkedIn;
+        }
+    }
+    
+    /**
+     * Khóa unique_attendance
+     */
+    private static final class RowKey {
+        final long studentId;
+        final int classId;
+        final LocalDate date;
+        final int session;
+        
+        RowKey(Attendance record) {
+            this(record.getStudentId(), record.getClassId(), record.getAttendanceDate(), record.getSessionNumber());
+        }
+        
+        RowKey(long studentId, int classId, LocalDate date, int session) {
+            this.studentId = studentId;
+            this.classId = classId;
+            this.date = date;
+            this.session = session;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RowKey)) {
+                return false;
+            }
+            RowKey other = (RowKey) o;
+            return studentId == other.studentId && classId == other.classId
+                && session == other.session && date.equals(other.date);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(studentId, classId, date, session);
+        }
+    }
+    
+    static final class StudentTerm implements Comparable<StudentTerm> {
+        final long studentId;
+        final int term;
+        
+        StudentTerm(long studentId, int term) {
+            this.studentId = studentId;
+            this.term = term;
+        }
+        
+        @Override
+        public int compareTo(StudentTerm other) {
+            int byStudent = Long.compare(studentId, other.studentId);
+            return byStudent != 0 ? byStudent : Integer.compare(term, other.term);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StudentTerm && compareTo((StudentTerm) o) == 0;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Long.hashCode(studentId) * 31 + term;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.student.integration.loader;
+
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.DatabaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot bất biến của bảng classes (class_code → class_id)
+ *
+ * - Dùng chung cho tất cả validator threads và loader
+ * - Lookup O(1), không query DB cho mỗi record
+ * - Refresh định kỳ bằng cách thay cả Map (copy-on-write)
+ */
+public class ClassCodeSnapshot {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClassCodeSnapshot.class);
+    
+    private static ClassCodeSnapshot instance;
+    
+    // Map bất biến, được thay thế nguyên khối mỗi lần refresh
+    private volatile Map<String, Integer> classIds = Map.of();
+    private volatile boolean loaded = false;
+    private volatile long loadedAt = 0;
+    
+    private final ScheduledExecutorService scheduler;
+    
+    private ClassCodeSnapshot(long refreshIntervalMs) {
+        refresh();
+        
+        if (refreshIntervalMs > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "class-snapshot-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::refresh,
+                refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+    
+    private ClassCodeSnapshot(Map<String, Integer> classIds) {
+        this.classIds = Map.copyOf(classIds);
+        this.loaded = true;
+        this.loadedAt = System.currentTimeMillis();
+        this.scheduler = null;
+    }
+    
+    public static synchronized ClassCodeSnapshot getInstance() {
+        if (instance == null) {
+            ConfigLoader config = ConfigLoader.getInstance();
+            instance = new ClassCodeSnapshot(
+                config.getIntProperty("validation.class.snapshot.refresh.ms", 300000));
+        }
+        return instance;
+    }
+    
+    /**
+     * Snapshot cố định (không đọc DB) - dùng cho test/benchmark offline
+     */
+    public static ClassCodeSnapshot of(Map<String, Integer> classIds) {
+        return new ClassCodeSnapshot(classIds);
+    }
+    
+    /**
+     * Reload toàn bộ bảng classes và publish snapshot mới
+     * Nếu DB lỗi thì giữ nguyên snapshot cũ
+     */
+    public void refresh() {
+        String sql = "SELECT id, class_code FROM classes";
+        
+        try (Connection conn = DatabaseConfig.getInstance().getCleanConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            Map<String, Integer> fresh = new HashMap<>();
+            while (rs.next()) {
+                fresh.put(rs.getString("class_code"), rs.getInt("id"));
+            }
+            
+            classIds = Map.copyOf(fresh);
+            loadedAt = System.currentTimeMillis();
+            loaded = true;
+            
+            logger.info("✅ Loaded {} class codes into snapshot", fresh.size());
+            
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Failed to refresh class snapshot (keeping {} cached codes): {}",
+                classIds.size(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Snapshot đã load thành công ít nhất 1 lần chưa
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    public boolean contains(String classCode) {
+        return classCode != null && classIds.containsKey(classCode);
+    }
+    
+    /**
+     * Get class_id by class_code (null nếu không tồn tại)
+     */
+    public Integer getClassId(String classCode) {
+        return classCode != null ? classIds.get(classCode) : null;
+    }
+    
+    public int size() {
+        return classIds.size();
+    }
+    
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+    
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.student.integration.loader;
+
+import com.student.integration.config.DatabaseConfig;
+import com.student.integration.model.entity.ImportBatch;
+import com.student.integration.model.enums.ImportBatchStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Đọc/ghi bảng import_batches (Raw DB) - trạng thái import của từng file CSV
+ *
+ * - Producer: start() khi bắt đầu đọc file, updateTotalRows() khi đọc xong
+ * - Loader: updateProgress() định kỳ, complete() khi record cuối của file đã load
+ * - Watcher: findByBatchId() để biết khi nào file xử lý xong, findByStatus(PROCESSING) khi khởi động
+ * - Loader / watcher: fail() khi batch quá batch.completion.timeout.seconds không có tiến độ
+ * updateProgress() / fail() chỉ đổi batch còn PROCESSING: batch đã COMPLETED không bị ghi đè
+ */
+public class ImportBatchRepository {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ImportBatchRepository.class);
+    
+    private static final int MAX_BATCH_ID_LENGTH = 100;
+    
+    private final DatabaseConfig dbConfig;
+    
+    public ImportBatchRepository() {
+        this.dbConfig = DatabaseConfig.getInstance();
+    }
+    
+    /**
+     * Batch ID cho file: <timestamp base36>-<tên file> (tối đa 100 ký tự như cột batch_id)
+     */
+    public static String newBatchId(String fileName) {
+        String batchId = Long.toString(System.currentTimeMillis(), 36) + "-" + fileName;
+        return batchId.length() > MAX_BATCH_ID_LENGTH ? batchId.substring(0, MAX_BATCH_ID_LENGTH) : batchId;
+    }
+    
+    public void start(String batchId, String fileName, long fileSize) throws SQLException {
+        String sql = """
+            INSERT INTO import_batches (batch_id, file_name, file_size, status)
+            VALUES (?, ?, ?, 'PROCESSING')
+            """;
+        
+        try (Connection conn = dbConfig.getRawConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, batchId);
+            pstmt.setString(2, fileName);
+            pstmt.setLong(3, fileSize);
+            pstmt.executeUpdate();
+            
+            logger.debug("Started import batch {} ({})", batchId, fileName);
+        }
+    }
+    
+    public void updateTotalRows(String batchId, int totalRows) throws SQLException {
+        executeUpdate("UPDATE import_batches SET total_rows = ? WHERE batch_id = ?",
+            totalRows, batchId);
+    }
+    
+    public void updateProgress(String batchId, int successfulRows, int failedRows) throws SQLException {
+        executeUpdate("UPDATE import_batches SET successful_rows = ?, failed_rows = ? "
+            + "WHERE batch_id = ? AND status = 'PROCESSING'", successfulRows, failedRows, batchId);
+    }
+    
+    public void complete(String batchId, int totalRows, int successfulRows, int failedRows) throws SQLException {
+        String sql = """
+            UPDATE import_batches
+            SET total_rows = ?, successful_rows = ?, failed_rows = ?,
+                status = 'COMPLETED', completed_at = CURRENT_TIMESTAMP
+            WHERE batch_id = ?
+            """;
+        executeUpdate(sql, totalRows, successfulRows, failedRows, batchId);
+    }
+    
+    /**
+     * @return false nếu batch không còn PROCESSING (đã COMPLETED/FAILED) → không đổi gì
+     */
+    public boolean fail(String batchId, String errorMessage) throws SQLException {
+        String sql = """
+            UPDATE import_batches
+            SET status = 'FAILED', completed_at = CURRENT_TIMESTAMP, error_message = ?
+            WHERE batch_id = ? AND status = 'PROCESSING'
+            """;
+        return executeUpdate(sql, errorMessage, batchId) > 0;
+    }
+    
+    /**
+     * Get batch theo batch_id (null nếu không tồn tại)
+     */
+    public ImportBatch findByBatchId(String batchId) throws SQLException {
+        String sql = """
+            SELECT batch_id, file_name, file_size, total_rows, successful_rows, failed_rows,
+                   status, started_at, completed_at, error_message
+            FROM import_batches WHERE batch_id = ?
+            """;
+        
+        try (Connection conn = dbConfig.getRawConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, batchId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapBatch(rs) : null;
+            }
+        }
+    }
+    
+    /**
+     * Các batch theo trạng thái, cũ nhất trước (watcher khôi phục batch PROCESSING sau restart)
+     */
+    public List<ImportBatch> findByStatus(ImportBatchStatus status) throws SQLException {
+        String sql = """
+            SELECT batch_id, file_name, file_size, total_rows, successful_rows, failed_rows,
+                   status, started_at, completed_at, error_message
+            FROM import_batches WHERE status = ? ORDER BY started_at
+            """;
+        
+        try (Connection conn = dbConfig.getRawConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, status.name());
+            List<ImportBatch> batches = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    batches.add(mapBatch(rs));
+                }
+            }
+            return batches;
+        }
+    }
+    
+    private static ImportBatch mapBatch(ResultSet rs) throws SQLException {
+        ImportBatch batch = new ImportBatch();
+        batch.setBatchId(rs.getString("batch_id"));
+        batch.setFileName(rs.getString("file_name"));
+        batch.setFileSize(rs.getLong("file_size"));
+        batch.setTotalRows(rs.getInt("total_rows"));
+        batch.setSuccessfulRows(rs.getInt("successful_rows"));
+        batch.setFailedRows(rs.getInt("failed_rows"));
+        batch.setStatus(ImportBatchStatus.valueOf(rs.getString("status")));
+        Timestamp startedAt = rs.getTimestamp("started_at");
+        batch.setStartedAt(startedAt != null ? startedAt.toLocalDateTime() : null);
+        Timestamp completedAt = rs.getTimestamp("completed_at");
+        batch.setCompletedAt(completedAt != null ? completedAt.toLocalDateTime() : null);
+        batch.setErrorMessage(rs.getString("error_message"));
+        return batch;
+    }
+    
+    private int executeUpdate(String sql, Object... params) throws SQLException {
+        try (Connection conn = dbConfig.getRawConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            return pstmt.executeUpdate();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,244 @@
+package com.student.integration.loader;
+
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.DatabaseConfig;
+import com.student.integration.metrics.Counter;
+import com.student.integration.metrics.MetricsRegistry;
+import com.student.integration.util.LongHashSet;
+import com.student.integration.util.LongLongHashMap;
+import com.student.integration.util.StudentIdCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cache mã sinh viên → students.id cho attendance pipeline
+ *
+ * - Preload: một lần quét streaming SELECT id, student_id FROM students (không giữ ResultSet
+ *   cả bảng trong RAM), key đóng gói bằng StudentIdCodec nên ~16 byte / sinh viên
+ * - prefetch() của chunk: key đã có → không query; key thiếu → SELECT ... IN (...) theo lô
+ *   IN_BATCH mã; key không tồn tại được nhớ trong negative set tới negative TTL
+ * - TransformerLoaderConsumer báo sinh viên vừa load (onStudentLoaded) → cache cập nhật ngay,
+ *   không chờ miss (id không đổi khi upsert cập nhật dòng cũ nên entry cũ luôn đúng)
+ * - Dùng chung giữa các thread: đọc qua read lock, nạp/cập nhật qua write lock
+ */
+public class StudentKeyCache implements StudentKeyResolver {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StudentKeyCache.class);
+    
+    // Số placeholder tối đa mỗi câu IN (...)
+    static final int IN_BATCH = 500;
+    
+    private static StudentKeyCache instance;
+    
+    private final DatabaseConfig dbConfig;
+    private final long negativeTtlMs;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongLongHashMap ids;          // guarded by lock
+    private final LongHashSet unknown;          // guarded by lock
+    private long unknownSince;                  // guarded by lock
+    
+    private final Counter hits;
+    private final Counter misses;
+    
+    private StudentKeyCache(DatabaseConfig dbConfig, int expectedSize, long negativeTtlMs) {
+        this.dbConfig = dbConfig;
+        this.negativeTtlMs = negativeTtlMs;
+        this.ids = new LongLongHashMap(expectedSize, UNKNOWN);
+        this.unknown = new LongHashSet(1024);
+        
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        this.hits = registry.counter("attendance_student_cache_lookups_total",
+            "Student id lookups per chunk key", "result", "hit");
+        this.misses = registry.counter("attendance_student_cache_lookups_total",
+            "Student id lookups per chunk key", "result", "miss");
+    }
+    
+    public static synchronized StudentKeyCache getInstance() {
+        if (instance == null) {
+            ConfigLoader config = ConfigLoader.getInstance();
+            instance = new StudentKeyCache(DatabaseConfig.getInstance(),
+                config.getIntProperty("attendance.student.cache.expected", 100000),
+                config.getIntProperty("attendance.student.cache.negative.ttl.ms", 60000));
+            if (config.getBooleanProperty("attendance.student.cache.preload", true)) {
+                instance.preload();
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Instance nếu đã được tạo trong process (không preload khi chưa ai dùng), ngược lại null
+     */
+    public static synchronized StudentKeyCache peek() {
+        return instance;
+    }
+    
+    /**
+     * Nạp toàn bộ bảng students bằng một lần quét streaming
+     * DB lỗi thì cache vẫn dùng được, mọi key sẽ được resolve theo lô khi miss
+     */
+    public void preload() {
+        long start = System.currentTimeMillis();
+        int loaded = 0;
+        
+        try (Connection conn = dbConfig.getCleanConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            // MySQL Connector/J chỉ stream từng dòng với fetch size = Integer.MIN_VALUE
+            boolean mysql = "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+            stmt.setFetchSize(mysql ? Integer.MIN_VALUE : 10000);
+            
+            try (ResultSet rs = stmt.executeQuery("SELECT id, student_id FROM students")) {
+                lock.writeLock().lock();
+                try {
+                    while (rs.next()) {
+                        long key = StudentIdCodec.encode(rs.getString(2));
+                        if (key != StudentIdCodec.NO_KEY) {
+                            ids.put(key, rs.getLong(1));
+                            loaded++;
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            
+            logger.info("✅ Preloaded {} student ids in {} ms", loaded, System.currentTimeMillis() - start);
+            
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Failed to preload student ids ({} loaded), falling back to bulk lookups: {}",
+                loaded, e.getMessage());
+        }
+    }
+    
+    @Override
+    public void prefetch(LongHashSet studentKeys) throws SQLException {
+        long[] missing = new long[studentKeys.size()];
+        int[] count = {0};
+        
+        lock.readLock().lock();
+        try {
+            boolean negativeValid = System.currentTimeMillis() - unknownSince < negativeTtlMs;
+            studentKeys.forEach(key -> {
+                if (!ids.containsKey(key) && !(negativeValid && unknown.contains(key))) {
+                    missing[count[0]++] = key;
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        hits.add(studentKeys.size() - count[0]);
+        if (count[0] == 0) {
+            return;
+        }
+        misses.add(count[0]);
+        
+        // Query ngoài lock, chỉ giữ write lock lúc ghi kết quả
+        LongLongHashMap fetched = new LongLongHashMap(count[0], UNKNOWN);
+        try (Connection conn = dbConfig.getCleanConnection()) {
+            for (int from = 0; from < count[0]; from += IN_BATCH) {
+                fetch(conn, missing, from, Math.min(count[0], from + IN_BATCH), fetched);
+            }
+        }
+        
+        lock.writeLock().lock();
+        try {
+            long now = System.currentTimeMillis();
+            if (now - unknownSince >= negativeTtlMs) {
+                unknown.clear();
+                unknownSince = now;
+            }
+            for (int i = 0; i < count[0]; i++) {
+                long id = fetched.get(missing[i]);
+                if (id == UNKNOWN) {
+                    unknown.add(missing[i]);
+                } else {
+                    ids.put(missing[i], id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        logger.debug("Resolved {}/{} missing student ids", fetched.size(), count[0]);
+    }
+    
+    @Override
+    public long resolve(long studentKey) {
+        lock.readLock().lock();
+        try {
+            return ids.get(studentKey);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Sinh viên vừa được load vào Clean DB
+     *
+     * @param id students.id nếu biết (generated key), <= 0 nếu không:
+     *           khi đó chỉ bỏ negative entry để lần prefetch sau query lại
+     */
+    public void onStudentLoaded(String studentCode, long id) {
+        long key = StudentIdCodec.encode(studentCode);
+        if (key == StudentIdCodec.NO_KEY) {
+            return;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            unknown.remove(key);
+            if (id > 0) {
+                ids.put(key, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * SELECT id, student_id FROM students WHERE student_id IN (keys[from..to)) → target
+     */
+    private static void fetch(Connection conn, long[] keys, int from, int to, LongLongHashMap target)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT id, student_id FROM students WHERE student_id IN (");
+        for (int i = from; i < to; i++) {
+            sql.append(i == from ? "?" : ", ?");
+        }
+        sql.append(')');
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = from; i < to; i++) {
+                pstmt.setString(i - from + 1, StudentIdCodec.decode(keys[i]));
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    long key = StudentIdCodec.encode(rs.getString(2));
+                    if (key != StudentIdCodec.NO_KEY) {
+                        target.put(key, rs.getLong(1));
+                    }
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.student.integration.loader;
+
+import com.student.integration.util.LongHashSet;
+
+import java.sql.SQLException;
+
+/**
+ * Resolve mã sinh viên (đã đóng gói bằng StudentIdCodec) → students.id
+ *
+ * Dùng theo chunk: prefetch() một lần cho mọi key của chunk (key thiếu được query gộp),
+ * sau đó resolve() từng dòng chỉ tra bộ nhớ (xem StudentKeyCache)
+ */
+public interface StudentKeyResolver {
+    
+    /**
+     * Không có sinh viên với mã này
+     */
+    long UNKNOWN = -1L;
+    
+    /**
+     * Nạp trước id cho tập key sắp resolve
+     */
+    void prefetch(LongHashSet studentKeys) throws SQLException;
+    
+    /**
+     * students.id của key, UNKNOWN nếu không tồn tại (hoặc chưa prefetch)
+     */
+    long resolve(long studentKey);
+}
\ No newline at end of file
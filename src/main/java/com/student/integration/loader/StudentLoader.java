@@ -6,9 +6,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Loader để insert/update students vào Clean Database
@@ -18,46 +16,28 @@ public class StudentLoader {
     private static final Logger logger = LoggerFactory.getLogger(StudentLoader.class);
     private final DatabaseConfig dbConfig;
     
-    // Cache: class_code → class_id
-    private final Map<String, Integer> classIdCache = new HashMap<>();
+    // Snapshot dùng chung: class_code → class_id
+    private final ClassCodeSnapshot classSnapshot;
     
     public StudentLoader() {
         this.dbConfig = DatabaseConfig.getInstance();
-        loadClassIdCache();
-    }
-    
-    /**
-     * Load class_id cache từ database
-     */
-    private void loadClassIdCache() {
-        String sql = "SELECT id, class_code FROM classes";
-        
-        try (Connection conn = dbConfig.getCleanConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                classIdCache.put(rs.getString("class_code"), rs.getInt("id"));
-            }
-            
-            logger.info("✅ Loaded {} class codes into cache", classIdCache.size());
-            
-        } catch (SQLException e) {
-            logger.error("Failed to load class ID cache", e);
-        }
+        this.classSnapshot = ClassCodeSnapshot.getInstance();
     }
     
     /**
      * Get class_id by class_code
      */
     public Integer getClassId(String classCode) {
-        return classIdCache.get(classCode);
+        return classSnapshot.getClassId(classCode);
     }
     
     /**
      * Insert single student (with UPSERT logic)
+     *
+     * @return students.id của dòng mới insert, 0 nếu driver không trả generated key
+     *         (VD: dòng đã tồn tại và chỉ được update)
      */
-    public void insertStudent(Student student) throws SQLException {
+    public long insertStudent(Student student) throws SQLException {
         String sql = """
             INSERT INTO students (
                 student_id, full_name, date_of_birth, gender,
@@ -81,13 +61,21 @@ public class StudentLoader {
             """;
         
         try (Connection conn = dbConfig.getCleanConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             setStudentParameters(pstmt, student);
-            pstmt.executeUpdate();
+            int affected = pstmt.executeUpdate();
             
             logger.debug("Inserted/Updated student: {}", student.getStudentId());
             
+            // MySQL: 1 = insert mới, 2 = update dòng cũ (generated key khi đó không phải id của dòng)
+            if (affected != 1) {
+                return 0;
+            }
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                return keys.next() ? keys.getLong(1) : 0;
+            }
+            
         } catch (SQLException e) {
             logger.error("Failed to insert student {}", student.getStudentId(), e);
             throw e;
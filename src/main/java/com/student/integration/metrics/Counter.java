@@ -0,0 +1,27 @@
+package com.student.integration.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter tăng dần (LongAdder → không tranh chấp giữa các consumer threads)
+ */
+public class Counter {
+    
+    private final LongAdder value = new LongAdder();
+    
+    public void increment() {
+        value.increment();
+    }
+    
+    public void add(long amount) {
+        value.add(amount);
+    }
+    
+    public long get() {
+        return value.sum();
+    }
+    
+    public void reset() {
+        value.reset();
+    }
+}
\ No newline at end of file
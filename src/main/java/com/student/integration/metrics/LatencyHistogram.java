@@ -0,0 +1,147 @@
+package com.student.integration.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram latency kiểu log-linear (giống HdrHistogram, sai số tương đối ~3%)
+ *
+ * - Giá trị < 64ns: mỗi ns một bucket
+ * - Giá trị lớn hơn: mỗi khoảng [2^k, 2^(k+1)) chia thành 32 bucket đều nhau
+ * - record() lock-free, không cấp phát → để bật thường trực trong production
+ */
+public class LatencyHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    
+    // Giá trị lớn hơn bị ghi vào bucket cuối (~18 phút)
+    private static final long MAX_TRACKABLE_NANOS = (1L << 40) - 1;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(bucketIndex(MAX_TRACKABLE_NANOS) + 1);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    
+    public void record(long nanos) {
+        long value = nanos < 0 ? 0 : Math.min(nanos, MAX_TRACKABLE_NANOS);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+    
+    /**
+     * Ghi count lần cùng giá trị (VD: chi phí trung bình mỗi record của một lần quét cả batch)
+     */
+    public void record(long nanos, long count) {
+        if (count <= 0) {
+            return;
+        }
+        long value = nanos < 0 ? 0 : Math.min(nanos, MAX_TRACKABLE_NANOS);
+        counts.addAndGet(bucketIndex(value), count);
+        totalCount.add(count);
+        totalNanos.add(value * count);
+        maxNanos.accumulate(value);
+    }
+    
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+    
+    /**
+     * Chụp trạng thái hiện tại (không chặn các thread đang record)
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[counts.length()];
+        long count = 0;
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, totalNanos.sum(), maxNanos.get());
+    }
+    
+    static int bucketIndex(long value) {
+        if (value < 2 * SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+    
+    /**
+     * Giá trị lớn nhất thuộc bucket (dùng khi tính percentile)
+     */
+    static long bucketUpperBound(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long top = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((top + 1) << shift) - 1;
+    }
+    
+    /**
+     * Trạng thái bất biến của histogram tại một thời điểm
+     */
+    public static class Snapshot {
+        
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        
+        private Snapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+        
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+        
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+        
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+        
+        /**
+         * Percentile (0-100) tính bằng ns, làm tròn lên theo biên bucket
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(bucketUpperBound(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+        
+        public double getValueAtPercentile(double percentile, TimeUnit unit) {
+            return getValueAtPercentile(percentile) / (double) unit.toNanos(1);
+        }
+    }
+}
\ No newline at end of file
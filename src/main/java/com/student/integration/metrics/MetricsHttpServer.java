@@ -0,0 +1,113 @@
+package com.student.integration.metrics;
+
+import com.student.integration.config.ConfigLoader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HTTP endpoint GET /metrics (Prometheus text format) cho MetricsRegistry
+ *
+ * - Dùng com.sun.net.httpserver của JDK, không thêm dependency
+ * - Thread của server là daemon → không giữ JVM sống sau khi consumers dừng
+ * - metrics.http.enabled / metrics.http.port (mỗi process cần port riêng,
+ *   VD: -Dmetrics.http.port=9405 cho TransformerLoaderConsumer)
+ */
+public class MetricsHttpServer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MetricsHttpServer.class);
+    
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    
+    private static MetricsHttpServer instance;
+    
+    private final MetricsRegistry registry;
+    private HttpServer server;
+    
+    private MetricsHttpServer(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+    
+    public static synchronized MetricsHttpServer getInstance() {
+        if (instance == null) {
+            instance = new MetricsHttpServer(MetricsRegistry.getInstance());
+        }
+        return instance;
+    }
+    
+    /**
+     * Start server nếu được bật trong config (gọi nhiều lần chỉ start một lần)
+     * Không start được (VD: port đang dùng) thì chỉ log warning, pipeline vẫn chạy
+     */
+    public synchronized void startIfEnabled() {
+        ConfigLoader config = ConfigLoader.getInstance();
+        if (server != null || !config.getBooleanProperty("metrics.http.enabled", true)) {
+            return;
+        }
+        
+        int port = config.getIntProperty("metrics.http.port", 9404);
+        try {
+            start(port);
+        } catch (IOException e) {
+            logger.warn("Could not start metrics endpoint on port {}: {}", port, e.getMessage());
+        }
+    }
+    
+    public synchronized void start(int port) throws IOException {
+        if (server != null) {
+            return;
+        }
+        
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.createContext("/metrics", this::handleMetrics);
+        
+        // Dispatcher thread kế thừa daemon flag từ thread gọi start()
+        Thread starter = new Thread(httpServer::start, "metrics-http-start");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        server = httpServer;
+        logger.info("📈 Metrics endpoint: http://localhost:{}/metrics", getPort());
+    }
+    
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            
+            byte[] body = registry.toPrometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    public synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : -1;
+    }
+    
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+            logger.info("Metrics endpoint stopped");
+        }
+    }
+}
\ No newline at end of file
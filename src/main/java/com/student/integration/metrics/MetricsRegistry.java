@@ -0,0 +1,179 @@
+package com.student.integration.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Registry chung cho tất cả metrics của process (counters, gauges, latency histograms)
+ *
+ * - Metric được định danh bằng name + labels (cặp key/value), đăng ký lần 2 trả về instance cũ
+ * - Code trên hot path giữ reference tới Counter/LatencyHistogram, không lookup lại
+ * - writePrometheus() xuất toàn bộ theo Prometheus text format 0.0.4
+ *   (histogram xuất dạng summary: quantile 0.5/0.9/0.99 + _sum + _count, đơn vị giây)
+ */
+public class MetricsRegistry {
+    
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+    
+    private static MetricsRegistry instance;
+    
+    // Giữ thứ tự đăng ký, chỉ truy cập khi synchronized
+    private final Map<String, Family> families = new LinkedHashMap<>();
+    
+    private MetricsRegistry() {}
+    
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new MetricsRegistry();
+        }
+        return instance;
+    }
+    
+    public synchronized Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, Type.COUNTER)
+            .metrics.computeIfAbsent(formatLabels(labels), key -> new Counter());
+    }
+    
+    public synchronized LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.SUMMARY)
+            .metrics.computeIfAbsent(formatLabels(labels), key -> new LatencyHistogram());
+    }
+    
+    /**
+     * Gauge đọc giá trị lúc scrape (đăng ký lại cùng labels thì thay supplier cũ)
+     */
+    public synchronized void gauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        family(name, help, Type.GAUGE).metrics.put(formatLabels(labels), supplier);
+    }
+    
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException(
+                "Metric " + name + " already registered as " + family.type);
+        }
+        return family;
+    }
+    
+    /**
+     * Xuất tất cả metrics theo Prometheus text exposition format
+     */
+    public synchronized void writePrometheus(StringBuilder out) {
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(escapeHelp(family.help)).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type.text).append('\n');
+            
+            for (Map.Entry<String, Object> entry : family.metrics.entrySet()) {
+                String labels = entry.getKey();
+                Object metric = entry.getValue();
+                
+                switch (family.type) {
+                    case COUNTER:
+                        writeSample(out, family.name, labels, ((Counter) metric).get());
+                        break;
+                    case GAUGE:
+                        writeSample(out, family.name, labels, readGauge((DoubleSupplier) metric));
+                        break;
+                    case SUMMARY:
+                        LatencyHistogram.Snapshot snapshot = ((LatencyHistogram) metric).snapshot();
+                        for (double quantile : QUANTILES) {
+                            writeSample(out, family.name, withLabel(labels, "quantile", String.valueOf(quantile)),
+                                snapshot.getValueAtPercentile(quantile * 100, TimeUnit.SECONDS));
+                        }
+                        writeSample(out, family.name + "_sum", labels, snapshot.getTotalNanos() / 1e9);
+                        writeSample(out, family.name + "_count", labels, snapshot.getCount());
+                        break;
+                }
+            }
+        }
+    }
+    
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        writePrometheus(out);
+        return out.toString();
+    }
+    
+    private static double readGauge(DoubleSupplier supplier) {
+        try {
+            return supplier.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+    
+    private static void writeSample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        if (value == (long) value) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+    
+    /**
+     * labels dạng key1, value1, key2, value2... → key1="value1",key2="value2"
+     */
+    static String formatLabels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be key/value pairs");
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"").append(escapeLabelValue(labels[i + 1])).append('"');
+        }
+        return sb.toString();
+    }
+    
+    private static String withLabel(String labels, String key, String value) {
+        String label = key + "=\"" + value + '"';
+        return labels.isEmpty() ? label : labels + ',' + label;
+    }
+    
+    private static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+    
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+    
+    private enum Type {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        SUMMARY("summary");
+        
+        private final String text;
+        
+        Type(String text) {
+            this.text = text;
+        }
+    }
+    
+    /**
+     * Các metrics cùng name (khác labels)
+     */
+    private static class Family {
+        
+        private final String name;
+        private final String help;
+        private final Type type;
+        private final Map<String, Object> metrics = new LinkedHashMap<>();
+        
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
\ No newline at end of file
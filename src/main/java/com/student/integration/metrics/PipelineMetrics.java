@@ -0,0 +1,132 @@
+package com.student.integration.metrics;
+
+import com.student.integration.config.QueueManager;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Metrics theo stage của pipeline: publish → validate → transform → DB load → ack
+ *
+ * - Counters/histograms đăng ký trong MetricsRegistry (scrape qua MetricsHttpServer)
+ * - Consumers đọc số liệu để log progress từ đây thay vì giữ counters riêng
+ * - Số liệu tính cho cả process (nhiều consumer cùng loại trong 1 JVM dùng chung)
+ */
+public class PipelineMetrics {
+    
+    public enum Stage {
+        PUBLISH,
+        VALIDATE,
+        TRANSFORM,
+        LOAD,
+        ACK
+    }
+    
+    private static PipelineMetrics instance;
+    
+    private final MetricsRegistry registry;
+    private final Map<Stage, StageMetrics> stages = new EnumMap<>(Stage.class);
+    
+    // Kết quả validation (đếm sau khi đã route sang validated/error queue)
+    private final Counter validRecords;
+    private final Counter invalidRecords;
+    
+    // Attendance pipeline (đếm theo dòng, message là chunk)
+    private final Counter attendanceValidRows;
+    private final Counter attendanceInvalidRows;
+    private final Counter attendanceLoadedRows;
+    
+    private PipelineMetrics(MetricsRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new StageMetrics(stage.name().toLowerCase(Locale.ROOT), registry));
+        }
+        this.validRecords = registry.counter("pipeline_validation_results_total",
+            "Validated records by result", "result", "valid");
+        this.invalidRecords = registry.counter("pipeline_validation_results_total",
+            "Validated records by result", "result", "invalid");
+        this.attendanceValidRows = registry.counter("pipeline_attendance_rows_total",
+            "Attendance rows by result", "result", "valid");
+        this.attendanceInvalidRows = registry.counter("pipeline_attendance_rows_total",
+            "Attendance rows by result", "result", "invalid");
+        this.attendanceLoadedRows = registry.counter("pipeline_attendance_rows_total",
+            "Attendance rows by result", "result", "loaded");
+    }
+    
+    public static synchronized PipelineMetrics getInstance() {
+        if (instance == null) {
+            instance = new PipelineMetrics(MetricsRegistry.getInstance());
+        }
+        return instance;
+    }
+    
+    public StageMetrics stage(Stage stage) {
+        return stages.get(stage);
+    }
+    
+    public Counter getValidRecords() {
+        return validRecords;
+    }
+    
+    public Counter getInvalidRecords() {
+        return invalidRecords;
+    }
+    
+    public Counter getAttendanceValidRows() {
+        return attendanceValidRows;
+    }
+    
+    public Counter getAttendanceInvalidRows() {
+        return attendanceInvalidRows;
+    }
+    
+    public Counter getAttendanceLoadedRows() {
+        return attendanceLoadedRows;
+    }
+    
+    /**
+     * Gauge số message đang chờ trong mỗi queue (queueDeclarePassive lúc scrape)
+     */
+    public void registerQueueDepthGauges(QueueManager queueManager) {
+        for (String queue : new String[] {
+                queueManager.getQueueRaw(), queueManager.getQueueValidated(),
+                queueManager.getQueueTransformed(), queueManager.getQueueError(),
+                queueManager.getQueueAttendanceRaw(), queueManager.getQueueAttendanceValidated(),
+                queueManager.getQueueAttendanceError(), queueManager.getQueueAttendanceCommitted(),
+                queueManager.getQueueAlerts()}) {
+            registry.gauge("pipeline_queue_depth", "Messages ready in queue",
+                () -> {
+                    try {
+                        return queueManager.getMessageCount(queue);
+                    } catch (IOException | TimeoutException e) {
+                        return Double.NaN;
+                    }
+                }, "queue", queue);
+        }
+    }
+    
+    /**
+     * Gauge trạng thái HikariCP pool (active/idle/total/pending connections)
+     */
+    public void registerConnectionPoolGauges(HikariDataSource dataSource) {
+        String pool = dataSource.getPoolName();
+        HikariPoolMXBean mxBean = dataSource.getHikariPoolMXBean();
+        if (mxBean == null) {
+            return;
+        }
+        
+        registry.gauge("db_pool_active_connections", "Connections in use",
+            mxBean::getActiveConnections, "pool", pool);
+        registry.gauge("db_pool_idle_connections", "Idle connections",
+            mxBean::getIdleConnections, "pool", pool);
+        registry.gauge("db_pool_total_connections", "Total connections",
+            mxBean::getTotalConnections, "pool", pool);
+        registry.gauge("db_pool_pending_threads", "Threads waiting for a connection",
+            mxBean::getThreadsAwaitingConnection, "pool", pool);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.student.integration.metrics;
+
+import com.student.integration.model.dto.ValidationError;
+import com.student.integration.model.enums.ErrorType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters + latency histogram cho một validator trong chain
+ * runs/failures/latency nằm trong MetricsRegistry (label rule) → có trên /metrics
+ */
+public class RuleMetrics {
+    
+    private final String rule;
+    
+    private final Counter runs;
+    private final LongAdder passes = new LongAdder();
+    private final Counter failures;
+    
+    // Số ValidationError theo ErrorType (một lần chạy có thể sinh nhiều error)
+    private final EnumMap<ErrorType, LongAdder> errorsByType = new EnumMap<>(ErrorType.class);
+    
+    private final LatencyHistogram latency;
+    
+    RuleMetrics(String rule, MetricsRegistry registry) {
+        this.rule = rule;
+        this.runs = registry.counter("validator_rule_runs_total",
+            "Validator rule executions", "rule", rule);
+        this.failures = registry.counter("validator_rule_failures_total",
+            "Validator rule executions that added errors", "rule", rule);
+        this.latency = registry.histogram("validator_rule_latency_seconds",
+            "Validator rule latency", "rule", rule);
+        for (ErrorType type : ErrorType.values()) {
+            errorsByType.put(type, new LongAdder());
+        }
+    }
+    
+    /**
+     * Ghi nhận một lần chạy rule
+     *
+     * @param nanos       thời gian chạy doValidate
+     * @param errors      danh sách errors của ValidationResult sau khi chạy
+     * @param errorsBefore số errors trước khi rule chạy (errors mới = phần còn lại)
+     */
+    public void record(long nanos, List<ValidationError> errors, int errorsBefore) {
+        runs.increment();
+        latency.record(nanos);
+        
+        int errorsAfter = errors.size();
+        if (errorsAfter == errorsBefore) {
+            passes.increment();
+            return;
+        }
+        
+        failures.increment();
+        for (int i = errorsBefore; i < errorsAfter; i++) {
+            ErrorType type = errors.get(i).getErrorType();
+            if (type != null) {
+                errorsByType.get(type).increment();
+            }
+        }
+    }
+    
+    /**
+     * Ghi nhận count lần chạy pass cùng lúc (columnar engine: một lần quét cột cho cả batch)
+     *
+     * @param nanosEach thời gian quét chia đều cho mỗi record
+     */
+    public void recordPasses(long count, long nanosEach) {
+        if (count <= 0) {
+            return;
+        }
+        runs.add(count);
+        passes.add(count);
+        latency.record(nanosEach, count);
+    }
+    
+    public String getRule() {
+        return rule;
+    }
+    
+    public long getRuns() {
+        return runs.get();
+    }
+    
+    public void reset() {
+        runs.reset();
+        passes.reset();
+        failures.reset();
+        errorsByType.values().forEach(LongAdder::reset);
+        latency.reset();
+    }
+    
+    public Snapshot snapshot() {
+        Map<ErrorType, Long> byType = new EnumMap<>(ErrorType.class);
+        errorsByType.forEach((type, count) -> {
+            long value = count.sum();
+            if (value > 0) {
+                byType.put(type, value);
+            }
+        });
+        return new Snapshot(rule, runs.get(), passes.sum(), failures.get(),
+            Collections.unmodifiableMap(byType), latency.snapshot());
+    }
+    
+    /**
+     * Số liệu của một rule tại một thời điểm
+     */
+    public static class Snapshot {
+        
+        private final String rule;
+        private final long runs;
+        private final long passes;
+        private final long failures;
+        private final Map<ErrorType, Long> errorsByType;
+        private final LatencyHistogram.Snapshot latency;
+        
+        Snapshot(String rule, long runs, long passes, long failures,
+                 Map<ErrorType, Long> errorsByType, LatencyHistogram.Snapshot latency) {
+            this.rule = rule;
+            this.runs = runs;
+            this.passes = passes;
+            this.failures = failures;
+            this.errorsByType = errorsByType;
+            this.latency = latency;
+        }
+        
+        public String getRule() {
+            return rule;
+        }
+        
+        public long getRuns() {
+            return runs;
+        }
+        
+        public long getPasses() {
+            return passes;
+        }
+        
+        public long getFailures() {
+            return failures;
+        }
+        
+        /**
+         * Tỉ lệ record bị rule này reject (%)
+         */
+        public double getFailureRate() {
+            return runs == 0 ? 0 : failures * 100.0 / runs;
+        }
+        
+        public Map<ErrorType, Long> getErrorsByType() {
+            return errorsByType;
+        }
+        
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+    }
+}
\ No newline at end of file
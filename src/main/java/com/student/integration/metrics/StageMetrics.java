@@ -0,0 +1,48 @@
+package com.student.integration.metrics;
+
+/**
+ * Counters + latency histogram của một stage trong pipeline
+ */
+public class StageMetrics {
+    
+    private final String stage;
+    private final Counter processed;
+    private final Counter failed;
+    private final LatencyHistogram latency;
+    
+    StageMetrics(String stage, MetricsRegistry registry) {
+        this.stage = stage;
+        this.processed = registry.counter("pipeline_stage_processed_total",
+            "Messages processed successfully by pipeline stage", "stage", stage);
+        this.failed = registry.counter("pipeline_stage_failed_total",
+            "Messages that failed in pipeline stage", "stage", stage);
+        this.latency = registry.histogram("pipeline_stage_latency_seconds",
+            "Processing latency by pipeline stage", "stage", stage);
+    }
+    
+    public void recordSuccess(long nanos) {
+        processed.increment();
+        latency.record(nanos);
+    }
+    
+    public void recordFailure(long nanos) {
+        failed.increment();
+        latency.record(nanos);
+    }
+    
+    public String getStage() {
+        return stage;
+    }
+    
+    public long getProcessed() {
+        return processed.get();
+    }
+    
+    public long getFailed() {
+        return failed.get();
+    }
+    
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.student.integration.metrics;
+
+import com.student.integration.config.ConfigLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry metrics của validator chain (một RuleMetrics cho mỗi validator)
+ *
+ * - AbstractValidator lấy RuleMetrics một lần khi khởi tạo, sau đó chỉ
+ *   cập nhật LongAdder/histogram → overhead vài chục ns mỗi rule
+ * - snapshot() cho code khác đọc số liệu
+ * - Report định kỳ ra log (metrics.validator.report.interval.ms, 0 = tắt)
+ */
+public class ValidatorMetrics {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ValidatorMetrics.class);
+    
+    private static ValidatorMetrics instance;
+    
+    private final boolean enabled;
+    // Giữ thứ tự đăng ký (= thứ tự trong chain), chỉ truy cập khi synchronized
+    private final Map<String, RuleMetrics> rules = new LinkedHashMap<>();
+    private final ScheduledExecutorService reporter;
+    
+    // Tổng số lần chạy ở lần report trước (không log nếu không có gì mới)
+    private long lastReportedRuns = -1;
+    
+    private ValidatorMetrics(boolean enabled, long reportIntervalMs) {
+        this.enabled = enabled;
+        
+        if (enabled && reportIntervalMs > 0) {
+            this.reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "validator-metrics-report");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.reporter.scheduleAtFixedRate(this::reportIfChanged,
+                reportIntervalMs, reportIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.reporter = null;
+        }
+    }
+    
+    public static synchronized ValidatorMetrics getInstance() {
+        if (instance == null) {
+            ConfigLoader config = ConfigLoader.getInstance();
+            instance = new ValidatorMetrics(
+                config.getBooleanProperty("metrics.validator.enabled", true),
+                config.getIntProperty("metrics.validator.report.interval.ms", 60000));
+        }
+        return instance;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * RuleMetrics cho rule (tạo nếu chưa có), null nếu metrics bị tắt
+     */
+    public synchronized RuleMetrics forRule(String rule) {
+        if (!enabled) {
+            return null;
+        }
+        return rules.computeIfAbsent(rule, name -> new RuleMetrics(name, MetricsRegistry.getInstance()));
+    }
+    
+    /**
+     * Số liệu của tất cả rules, theo thứ tự đăng ký vào registry
+     */
+    public synchronized List<RuleMetrics.Snapshot> snapshot() {
+        List<RuleMetrics.Snapshot> snapshots = new ArrayList<>(rules.size());
+        for (RuleMetrics metrics : rules.values()) {
+            snapshots.add(metrics.snapshot());
+        }
+        return snapshots;
+    }
+    
+    public synchronized void reset() {
+        rules.values().forEach(RuleMetrics::reset);
+    }
+    
+    /**
+     * Log bảng metrics theo rule
+     */
+    public void report() {
+        List<RuleMetrics.Snapshot> snapshots = snapshot();
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        
+        logger.info("📊 Validator metrics:");
+        logger.info(String.format("  %-24s %10s %10s %8s %9s %9s %9s %9s",
+            "Rule", "Runs", "Failures", "Fail%", "Mean(us)", "p50(us)", "p99(us)", "Max(us)"));
+        
+        for (RuleMetrics.Snapshot s : snapshots) {
+            LatencyHistogram.Snapshot latency = s.getLatency();
+            logger.info(String.format("  %-24s %10d %10d %7.2f%% %9.2f %9.2f %9.2f %9.2f  %s",
+                s.getRule(), s.getRuns(), s.getFailures(), s.getFailureRate(),
+                latency.getMeanNanos() / 1000.0,
+                latency.getValueAtPercentile(50.0, TimeUnit.MICROSECONDS),
+                latency.getValueAtPercentile(99.0, TimeUnit.MICROSECONDS),
+                latency.getMaxNanos() / 1000.0,
+                s.getErrorsByType().isEmpty() ? "" : s.getErrorsByType()));
+        }
+    }
+    
+    private void reportIfChanged() {
+        try {
+            long totalRuns = 0;
+            synchronized (this) {
+                for (RuleMetrics metrics : rules.values()) {
+                    totalRuns += metrics.getRuns();
+                }
+            }
+            if (totalRuns != lastReportedRuns) {
+                lastReportedRuns = totalRuns;
+                report();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to report validator metrics: {}", e.getMessage());
+        }
+    }
+    
+    public void shutdown() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.student.integration.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.student.integration.model.enums.AlertState;
+import com.student.integration.model.enums.AtRiskRule;
+
+import java.io.Serializable;
+
+/**
+ * Sự kiện cảnh báo trên student.alerts (AtRiskDetector)
+ *
+ * - RAISED khi value vượt ngưỡng vào, CLEARED khi về qua ngưỡng ra
+ * - ABSENCE_RATE: value = tỷ lệ vắng trong học kỳ term_code, LOW_GPA: value = GPA
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AtRiskAlert implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @JsonProperty("student_id")
+    private long studentId;          // students.id
+    
+    @JsonProperty("rule")
+    private AtRiskRule rule;
+    
+    @JsonProperty("state")
+    private AlertState state;
+    
+    @JsonProperty("value")
+    private double value;
+    
+    @JsonProperty("threshold")
+    private double threshold;
+    
+    @JsonProperty("term_code")
+    private Integer termCode;
+    
+    @JsonProperty("detected_at")
+    private String detectedAt;       // ISO local date-time
+    
+    public AtRiskAlert() {}
+    
+    public AtRiskAlert(long studentId, AtRiskRule rule, AlertState state, double value, double threshold,
+                       Integer termCode, String detectedAt) {
+        this.studentId = studentId;
+        this.rule = rule;
+        this.state = state;
+        this.value = value;
+        this.threshold = threshold;
+        this.termCode = termCode;
+        this.detectedAt = detectedAt;
+    }
+    
+    // Getters and Setters
+    public long getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(long studentId) {
+        this.studentId = studentId;
+    }
+    
+    public AtRiskRule getRule() {
+        return rule;
+    }
+    
+    public void setRule(AtRiskRule rule) {
+        this.rule = rule;
+    }
+    
+    public AlertState getState() {
+        return state;
+    }
+    
+    public void setState(AlertState state) {
+        this.state = state;
+    }
+    
+    public double getValue() {
+        return value;
+    }
+    
+    public void setValue(double value) {
+        this.value = value;
+    }
+    
+    public double getThreshold() {
+        return threshold;
+    }
+    
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+    
+    public Integer getTermCode() {
+        return termCode;
+    }
+    
+    public void setTermCode(Integer termCode) {
+        this.termCode = termCode;
+    }
+    
+    public String getDetectedAt() {
+        return detectedAt;
+    }
+    
+    public void setDetectedAt(String detectedAt) {
+        this.detectedAt = detectedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "AtRiskAlert{" +
+                "studentId=" + studentId +
+                ", rule=" + rule +
+                ", state=" + state +
+                ", value=" + value +
+                ", threshold=" + threshold +
+                ", term=" + termCode +
+                '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.student.integration.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.student.integration.model.enums.AttendanceStatus;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Status của một dòng attendance đã đổi sau commit (previous_status null = dòng mới)
+ * term_version: attendance_term_summary.version sau transaction ghi dòng này (0 = không có bảng tổng hợp)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AttendanceChange implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @JsonProperty("student_id")
+    private long studentId;          // students.id
+    
+    @JsonProperty("class_id")
+    private int classId;
+    
+    @JsonProperty("attendance_date")
+    private LocalDate attendanceDate;
+    
+    @JsonProperty("session_number")
+    private int sessionNumber;
+    
+    @JsonProperty("previous_status")
+    private AttendanceStatus previousStatus;
+    
+    @JsonProperty("status")
+    private AttendanceStatus status;
+    
+    @JsonProperty("term_version")
+    private int termVersion;
+    
+    public AttendanceChange() {}
+    
+    public AttendanceChange(long studentId, int classId, LocalDate attendanceDate, int sessionNumber,
+                            AttendanceStatus previousStatus, AttendanceStatus status) {
+        this.studentId = studentId;
+        this.classId = classId;
+        this.attendanceDate = attendanceDate;
+        this.sessionNumber = sessionNumber;
+        this.previousStatus = previousStatus;
+        this.status = status;
+    }
+    
+    // Getters and Setters
+    public long getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(long studentId) {
+        this.studentId = studentId;
+    }
+    
+    public int getClassId() {
+        return classId;
+    }
+    
+    public void setClassId(int classId) {
+        this.classId = classId;
+    }
+    
+    public LocalDate getAttendanceDate() {
+        return attendanceDate;
+    }
+    
+    public void setAttendanceDate(LocalDate attendanceDate) {
+        this.attendanceDate = attendanceDate;
+    }
+    
+    public int getSessionNumber() {
+        return sessionNumber;
+    }
+    
+    public void setSessionNumber(int sessionNumber) {
+        this.sessionNumber = sessionNumber;
+    }
+    
+    public AttendanceStatus getPreviousStatus() {
+        return previousStatus;
+    }
+    
+    public void setPreviousStatus(AttendanceStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+    
+    public AttendanceStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(AttendanceStatus status) {
+        this.status = status;
+    }
+    
+    public int getTermVersion() {
+        return termVersion;
+    }
+    
+    public void setTermVersion(int termVersion) {
+        this.termVersion = termVersion;
+    }
+    
+    @Override
+    public String toString() {
+        return "AttendanceChange{" +
+                "studentId=" + studentId +
+                ", classId=" + classId +
+                ", date=" + attendanceDate +
+                ", session=" + sessionNumber +
+                ", " + previousStatus + " → " + status +
+                ", termVersion=" + termVersion +
+                '}';
+    }
+}
\ No newline at end of file
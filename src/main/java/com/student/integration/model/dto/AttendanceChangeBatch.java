@@ -0,0 +1,46 @@
+package com.student.integration.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Một message trên attendance.committed: các thay đổi status của một transaction ghi attendance
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AttendanceChangeBatch implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @JsonProperty("changes")
+    private List<AttendanceChange> changes;
+    
+    public AttendanceChangeBatch() {
+        this.changes = new ArrayList<>();
+    }
+    
+    public AttendanceChangeBatch(List<AttendanceChange> changes) {
+        this.changes = changes;
+    }
+    
+    public int size() {
+        return changes.size();
+    }
+    
+    @JsonIgnore
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+    
+    public List<AttendanceChange> getChanges() {
+        return changes;
+    }
+    
+    public void setChanges(List<AttendanceChange> changes) {
+        this.changes = changes;
+    }
+}
\ No newline at end of file
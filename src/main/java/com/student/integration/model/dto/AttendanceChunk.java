@@ -0,0 +1,82 @@
+package com.student.integration.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Một message trên attendance.raw: nhiều dòng điểm danh liên tiếp của cùng một file
+ *
+ * Điểm danh là dữ liệu lớn nhất (mỗi sinh viên × mỗi buổi × mỗi ngày) nên không gửi
+ * một message mỗi dòng: chunk giảm overhead broker/ACK và cho loader upsert cả chunk
+ * trong một JDBC batch trước khi ACK (at-least-once, upsert idempotent theo unique_attendance)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AttendanceChunk implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @JsonProperty("batch_id")
+    private String batchId;
+    
+    @JsonProperty("source_file")
+    private String sourceFile;
+    
+    @JsonProperty("records")
+    private List<AttendanceRawDTO> records;
+    
+    public AttendanceChunk() {
+        this.records = new ArrayList<>();
+    }
+    
+    public AttendanceChunk(String batchId, String sourceFile, int capacity) {
+        this.batchId = batchId;
+        this.sourceFile = sourceFile;
+        this.records = new ArrayList<>(capacity);
+    }
+    
+    public void add(AttendanceRawDTO record) {
+        records.add(record);
+    }
+    
+    public int size() {
+        return records.size();
+    }
+    
+    // Getters and Setters
+    public String getBatchId() {
+        return batchId;
+    }
+    
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+    
+    public String getSourceFile() {
+        return sourceFile;
+    }
+    
+    public void setSourceFile(String sourceFile) {
+        this.sourceFile = sourceFile;
+    }
+    
+    public List<AttendanceRawDTO> getRecords() {
+        return records;
+    }
+    
+    public void setRecords(List<AttendanceRawDTO> records) {
+        this.records = records;
+    }
+    
+    @Override
+    public String toString() {
+        return "AttendanceChunk{" +
+                "batchId='" + batchId + '\'' +
+                ", sourceFile='" + sourceFile + '\'' +
+                ", records=" + records.size() +
+                '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.student.integration.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Một message trên attendance.error: các dòng không qua validation của một AttendanceChunk
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AttendanceErrorChunk implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @JsonProperty("batch_id")
+    private String batchId;
+    
+    @JsonProperty("source_file")
+    private String sourceFile;
+    
+    @JsonProperty("results")
+    private List<AttendanceValidationResult> results;
+    
+    public AttendanceErrorChunk() {
+        this.results = new ArrayList<>();
+    }
+    
+    public AttendanceErrorChunk(String batchId, String sourceFile) {
+        this();
+        this.batchId = batchId;
+        this.sourceFile = sourceFile;
+    }
+    
+    public void add(AttendanceValidationResult result) {
+        results.add(result);
+    }
+    
+    public int size() {
+        return results.size();
+    }
+    
+    @JsonIgnore
+    public boolean isEmpty() {
+        return results.isEmpty();
+    }
+    
+    // Getters and Setters
+    public String getBatchId() {
+        return batchId;
+    }
+    
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+    
+    public String getSourceFile() {
+        return sourceFile;
+    }
+    
+    public void setSourceFile(String sourceFile) {
+        this.sourceFile = sourceFile;
+    }
+    
+    public List<AttendanceValidationResult> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<AttendanceValidationResult> results) {
+        this.results = results;
+    }
+    
+    @Override
+    public String toString() {
+        return "AttendanceErrorChunk{" +
+                "batchId='" + batchId + '\'' +
+                ", sourceFile='" + sourceFile + '\'' +
+                ", results=" + results.size() +
+                '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,200 @@
+package com.student.integration.model.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.student.integration.util.JsonStreams;
+import com.student.integration.util.StringInterner;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * DTO cho một dòng điểm danh RAW từ CSV (cột giống bảng raw_attendance)
+ * TẤT CẢ fields đều là String để nhận mọi dạng dữ liệu (kể cả sai)
+ *
+ * Đi trên queue theo AttendanceChunk (nhiều dòng mỗi message), JSON do codec viết tay như StudentRawDTO.
+ */
+@JsonSerialize(using = AttendanceRawDTO.Serializer.class)
+@JsonDeserialize(using = AttendanceRawDTO.Deserializer.class)
+public class AttendanceRawDTO implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final SerializedString ROW_NUM = new SerializedString("row_num");
+    private static final SerializedString STUDENT_ID = new SerializedString("student_id");
+    private static final SerializedString CLASS_CODE = new SerializedString("class_code");
+    private static final SerializedString ATTENDANCE_DATE = new SerializedString("attendance_date");
+    private static final SerializedString SESSION_NUMBER = new SerializedString("session_number");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString CHECK_IN_TIME = new SerializedString("check_in_time");
+    private static final SerializedString CHECK_OUT_TIME = new SerializedString("check_out_time");
+    private static final SerializedString NOTE = new SerializedString("note");
+    
+    private String studentId;      // SV20210001
+    private String classCode;
+    private String attendanceDate; // yyyy-MM-dd
+    private String sessionNumber;  // Buổi học thứ mấy
+    private String status;         // PRESENT, ABSENT, LATE, EXCUSED
+    private String checkInTime;    // HH:mm[:ss]
+    private String checkOutTime;
+    private String note;
+    
+    // Metadata (sourceFile nằm ở AttendanceChunk)
+    private Integer rowNum;
+    
+    public AttendanceRawDTO() {}
+    
+    // Getters and Setters
+    public String getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+    
+    public String getClassCode() {
+        return classCode;
+    }
+    
+    public void setClassCode(String classCode) {
+        this.classCode = classCode;
+    }
+    
+    public String getAttendanceDate() {
+        return attendanceDate;
+    }
+    
+    public void setAttendanceDate(String attendanceDate) {
+        this.attendanceDate = attendanceDate;
+    }
+    
+    public String getSessionNumber() {
+        return sessionNumber;
+    }
+    
+    public void setSessionNumber(String sessionNumber) {
+        this.sessionNumber = sessionNumber;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getCheckInTime() {
+        return checkInTime;
+    }
+    
+    public void setCheckInTime(String checkInTime) {
+        this.checkInTime = checkInTime;
+    }
+    
+    public String getCheckOutTime() {
+        return checkOutTime;
+    }
+    
+    public void setCheckOutTime(String checkOutTime) {
+        this.checkOutTime = checkOutTime;
+    }
+    
+    public String getNote() {
+        return note;
+    }
+    
+    public void setNote(String note) {
+        this.note = note;
+    }
+    
+    public Integer getRowNum() {
+        return rowNum;
+    }
+    
+    public void setRowNum(Integer rowNum) {
+        this.rowNum = rowNum;
+    }
+    
+    @Override
+    public String toString() {
+        return "AttendanceRawDTO{" +
+                "studentId='" + studentId + '\'' +
+                ", classCode='" + classCode + '\'' +
+                ", attendanceDate='" + attendanceDate + '\'' +
+                ", sessionNumber='" + sessionNumber + '\'' +
+                ", status='" + status + '\'' +
+                ", rowNum=" + rowNum +
+                '}';
+    }
+    
+    public static class Serializer extends StdSerializer<AttendanceRawDTO> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        public Serializer() {
+            super(AttendanceRawDTO.class);
+        }
+        
+        @Override
+        public void serialize(AttendanceRawDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            JsonStreams.writeNumber(gen, ROW_NUM, value.rowNum);
+            JsonStreams.writeString(gen, STUDENT_ID, value.studentId);
+            JsonStreams.writeString(gen, CLASS_CODE, value.classCode);
+            JsonStreams.writeString(gen, ATTENDANCE_DATE, value.attendanceDate);
+            JsonStreams.writeString(gen, SESSION_NUMBER, value.sessionNumber);
+            JsonStreams.writeString(gen, STATUS, value.status);
+            JsonStreams.writeString(gen, CHECK_IN_TIME, value.checkInTime);
+            JsonStreams.writeString(gen, CHECK_OUT_TIME, value.checkOutTime);
+            JsonStreams.writeString(gen, NOTE, value.note);
+            gen.writeEndObject();
+        }
+    }
+    
+    public static class Deserializer extends StdDeserializer<AttendanceRawDTO> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        // class_code, ngày, buổi, status: vài trăm giá trị cho cả học kỳ
+        private static final StringInterner INTERNER = StringInterner.getInstance();
+        
+        public Deserializer() {
+            super(AttendanceRawDTO.class);
+        }
+        
+        @Override
+        public AttendanceRawDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            AttendanceRawDTO dto = new AttendanceRawDTO();
+            
+            for (JsonToken token = JsonStreams.enterObject(p, ctxt, AttendanceRawDTO.class);
+                 token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String field = p.currentName();
+                p.nextToken();
+                
+                switch (field) {
+                    case "student_id": dto.studentId = JsonStreams.readString(p, ctxt); break;
+                    case "class_code": dto.classCode = JsonStreams.readInterned(p, ctxt, INTERNER); break;
+                    case "attendance_date": dto.attendanceDate = JsonStreams.readInterned(p, ctxt, INTERNER); break;
+                    case "session_number": dto.sessionNumber = JsonStreams.readInterned(p, ctxt, INTERNER); break;
+                    case "status": dto.status = JsonStreams.readInterned(p, ctxt, INTERNER); break;
+                    case "check_in_time": dto.checkInTime = JsonStreams.readString(p, ctxt); break;
+                    case "check_out_time": dto.checkOutTime = JsonStreams.readString(p, ctxt); break;
+                    case "note": dto.note = JsonStreams.readString(p, ctxt); break;
+                    case "row_num": dto.rowNum = JsonStreams.readInteger(p, ctxt); break;
+                    default: p.skipChildren(); break;
+                }
+            }
+            return dto;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.student.integration.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.student.integration.model.entity.Attendance;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kết quả validate một dòng điểm danh
+ *
+ * Validators parse dần từng cột vào attendance (kiểu đích), dòng valid được gửi
+ * sang loader dưới dạng Attendance; dòng lỗi đi vào attendance.error kèm raw + errors
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY,
+                getterVisibility = JsonAutoDetect.Visibility.NONE,
+                isGetterVisibility = JsonAutoDetect.Visibility.NONE,
+                setterVisibility = JsonAutoDetect.Visibility.NONE)
+public class AttendanceValidationResult implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @JsonProperty("raw_data")
+    private AttendanceRawDTO rawData;
+    
+    @JsonProperty("is_valid")
+    private boolean isValid;
+    
+    @JsonProperty("errors")
+    private List<ValidationError> errors;
+    
+    // Giá trị đã parse (chỉ dùng trong validator, không serialize)
+    private transient Attendance attendance;
+    
+    public AttendanceValidationResult() {
+        this.errors = new ArrayList<>(2);
+        this.isValid = true;
+        this.attendance = new Attendance();
+    }
+    
+    public AttendanceValidationResult(AttendanceRawDTO rawData) {
+        this();
+        this.rawData = rawData;
+        this.attendance.setRowNum(rawData.getRowNum());
+    }
+    
+    // Getters
+    public AttendanceRawDTO getRawData() {
+        return rawData;
+    }
+    
+    public boolean isValid() {
+        return isValid;
+    }
+    
+    public List<ValidationError> getErrors() {
+        return errors;
+    }
+    
+    public Attendance getAttendance() {
+        return attendance;
+    }
+    
+    // Helper methods
+    public void addError(ValidationError error) {
+        this.errors.add(error);
+        this.isValid = false;
+    }
+    
+    public int getErrorCount() {
+        return errors.size();
+    }
+    
+    @Override
+    public String toString() {
+        return "AttendanceValidationResult{" +
+                "isValid=" + isValid +
+                ", errorCount=" + errors.size() +
+                ", rawData=" + rawData +
+                '}';
+    }
+}
\ No newline at end of file
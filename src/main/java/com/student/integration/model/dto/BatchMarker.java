@@ -0,0 +1,139 @@
+package com.student.integration.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+
+/**
+ * Marker end-of-stream của một batch (một file CSV)
+ *
+ * - Producer gửi vào student.raw sau record cuối: expectedRecords = số record đã publish
+ * - Validator gửi tiếp vào student.validated khi đã xử lý đủ: expectedRecords = số record valid
+ * - Loader gửi sự kiện BATCH_COMPLETED vào student.transformed khi đã load đủ
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchMarker implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @JsonProperty("batch_id")
+    private String batchId;
+    
+    @JsonProperty("source_file")
+    private String sourceFile;
+    
+    // Số dòng dữ liệu trong file (kể cả dòng parse lỗi)
+    @JsonProperty("total_rows")
+    private int totalRows;
+    
+    // Số record của batch mà stage nhận marker sẽ nhận được
+    @JsonProperty("expected_records")
+    private int expectedRecords;
+    
+    @JsonProperty("parse_errors")
+    private int parseErrors;
+    
+    @JsonProperty("invalid_records")
+    private int invalidRecords;
+    
+    @JsonProperty("loaded_records")
+    private int loadedRecords;
+    
+    public BatchMarker() {}
+    
+    public BatchMarker(String batchId, String sourceFile, int totalRows, int expectedRecords, int parseErrors) {
+        this.batchId = batchId;
+        this.sourceFile = sourceFile;
+        this.totalRows = totalRows;
+        this.expectedRecords = expectedRecords;
+        this.parseErrors = parseErrors;
+    }
+    
+    /**
+     * Marker cho stage tiếp theo (giữ thông tin batch, đổi số record cần chờ)
+     */
+    public BatchMarker forNextStage(int expectedRecords) {
+        BatchMarker next = new BatchMarker(batchId, sourceFile, totalRows, expectedRecords, parseErrors);
+        next.invalidRecords = invalidRecords;
+        next.loadedRecords = loadedRecords;
+        return next;
+    }
+    
+    /**
+     * Số dòng không vào được Clean DB (parse lỗi + validate fail)
+     */
+    public int getFailedRows() {
+        return parseErrors + invalidRecords;
+    }
+    
+    // Getters and Setters
+    public String getBatchId() {
+        return batchId;
+    }
+    
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+    
+    public String getSourceFile() {
+        return sourceFile;
+    }
+    
+    public void setSourceFile(String sourceFile) {
+        this.sourceFile = sourceFile;
+    }
+    
+    public int getTotalRows() {
+        return totalRows;
+    }
+    
+    public void setTotalRows(int totalRows) {
+        this.totalRows = totalRows;
+    }
+    
+    public int getExpectedRecords() {
+        return expectedRecords;
+    }
+    
+    public void setExpectedRecords(int expectedRecords) {
+        this.expectedRecords = expectedRecords;
+    }
+    
+    public int getParseErrors() {
+        return parseErrors;
+    }
+    
+    public void setParseErrors(int parseErrors) {
+        this.parseErrors = parseErrors;
+    }
+    
+    public int getInvalidRecords() {
+        return invalidRecords;
+    }
+    
+    public void setInvalidRecords(int invalidRecords) {
+        this.invalidRecords = invalidRecords;
+    }
+    
+    public int getLoadedRecords() {
+        return loadedRecords;
+    }
+    
+    public void setLoadedRecords(int loadedRecords) {
+        this.loadedRecords = loadedRecords;
+    }
+    
+    @Override
+    public String toString() {
+        return "BatchMarker{" +
+                "batchId='" + batchId + '\'' +
+                ", sourceFile='" + sourceFile + '\'' +
+                ", totalRows=" + totalRows +
+                ", expectedRecords=" + expectedRecords +
+                ", parseErrors=" + parseErrors +
+                ", invalidRecords=" + invalidRecords +
+                ", loadedRecords=" + loadedRecords +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+package com.student.integration.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+
+/**
+ * Sự kiện check-in từ đầu đọc thẻ / QR scanner (POST /checkins)
+ *
+ * - scanned_at: giờ quẹt thẻ theo giờ địa phương (yyyy-MM-ddTHH:mm[:ss]), thiếu thì lấy giờ server
+ * - session_number: thiếu thì suy ra từ scanned_at theo lịch buổi học (SessionSchedule)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CheckInEvent implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @JsonProperty("student_id")
+    private String studentId;
+    
+    @JsonProperty("class_code")
+    private String classCode;
+    
+    @JsonProperty("session_number")
+    private Integer sessionNumber;
+    
+    @JsonProperty("scanned_at")
+    private String scannedAt;
+    
+    @JsonProperty("device_id")
+    private String deviceId;
+    
+    public CheckInEvent() {}
+    
+    public CheckInEvent(String studentId, String classCode, Integer sessionNumber, String scannedAt) {
+        this.studentId = studentId;
+        this.classCode = classCode;
+        this.sessionNumber = sessionNumber;
+        this.scannedAt = scannedAt;
+    }
+    
+    // Getters and Setters
+    public String getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+    
+    public String getClassCode() {
+        return classCode;
+    }
+    
+    public void setClassCode(String classCode) {
+        this.classCode = classCode;
+    }
+    
+    public Integer getSessionNumber() {
+        return sessionNumber;
+    }
+    
+    public void setSessionNumber(Integer sessionNumber) {
+        this.sessionNumber = sessionNumber;
+    }
+    
+    public String getScannedAt() {
+        return scannedAt;
+    }
+    
+    public void setScannedAt(String scannedAt) {
+        this.scannedAt = scannedAt;
+    }
+    
+    public String getDeviceId() {
+        return deviceId;
+    }
+    
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+    
+    @Override
+    public String toString() {
+        return "CheckInEvent{" +
+                "studentId='" + studentId + '\'' +
+                ", classCode='" + classCode + '\'' +
+                ", sessionNumber=" + sessionNumber +
+                ", scannedAt='" + scannedAt + '\'' +
+                ", deviceId='" + deviceId + '\'' +
+                '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.student.integration.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Giá trị đã parse (typed) do validators gắn vào ValidationResult
+ * Transformer dùng trực tiếp thay vì parse lại String
+ * Field = null nghĩa là validator chưa parse được giá trị đó
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ParsedStudentData implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    // Trên wire: epoch day (số nguyên) thay vì chuỗi yyyy-MM-dd
+    @JsonProperty("date_of_birth")
+    @JsonFormat(shape = JsonFormat.Shape.NUMBER_INT)
+    private LocalDate dateOfBirth;
+    
+    @JsonProperty("gpa")
+    private BigDecimal gpa;
+    
+    @JsonProperty("class_id")
+    private Integer classId;
+    
+    public ParsedStudentData() {}
+    
+    // Getters and Setters
+    public LocalDate getDateOfBirth() {
+        return dateOfBirth;
+    }
+    
+    public void setDateOfBirth(LocalDate dateOfBirth) {
+        this.dateOfBirth = dateOfBirth;
+    }
+    
+    public BigDecimal getGpa() {
+        return gpa;
+    }
+    
+    public void setGpa(BigDecimal gpa) {
+        this.gpa = gpa;
+    }
+    
+    public Integer getClassId() {
+        return classId;
+    }
+    
+    public void setClassId(Integer classId) {
+        this.classId = classId;
+    }
+    
+    @Override
+    public String toString() {
+        return "ParsedStudentData{" +
+                "dateOfBirth=" + dateOfBirth +
+                ", gpa=" + gpa +
+                ", classId=" + classId +
+                '}';
+    }
+}
\ No newline at end of file
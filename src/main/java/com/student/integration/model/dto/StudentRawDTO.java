@@ -1,80 +1,105 @@
 package com.student.integration.model.dto;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.student.integration.tracing.TraceContext;
+import com.student.integration.util.JsonStreams;
+import com.student.integration.util.StringInterner;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 /**
  * DTO cho dữ liệu sinh viên RAW từ CSV
  * TẤT CẢ fields đều là String để nhận mọi dạng dữ liệu (kể cả sai)
+ *
+ * JSON do Serializer/Deserializer viết tay (streaming, không reflection):
+ * field snake_case như trước, metadata sourceFile/rowNum/batchId, field null không ghi.
  */
-@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonSerialize(using = StudentRawDTO.Serializer.class)
+@JsonDeserialize(using = StudentRawDTO.Deserializer.class)
 public class StudentRawDTO implements Serializable {
     
     private static final long serialVersionUID = 1L;
     
+    // Tên field trên wire (encode sẵn)
+    private static final SerializedString SOURCE_FILE = new SerializedString("sourceFile");
+    private static final SerializedString ROW_NUM = new SerializedString("rowNum");
+    private static final SerializedString BATCH_ID = new SerializedString("batchId");
+    private static final SerializedString STUDENT_ID = new SerializedString("student_id");
+    private static final SerializedString FULL_NAME = new SerializedString("full_name");
+    private static final SerializedString DATE_OF_BIRTH = new SerializedString("date_of_birth");
+    private static final SerializedString GENDER = new SerializedString("gender");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString PHONE = new SerializedString("phone");
+    private static final SerializedString ADDRESS = new SerializedString("address");
+    private static final SerializedString CITY = new SerializedString("city");
+    private static final SerializedString PROVINCE = new SerializedString("province");
+    private static final SerializedString POSTAL_CODE = new SerializedString("postal_code");
+    private static final SerializedString CLASS_CODE = new SerializedString("class_code");
+    private static final SerializedString MAJOR = new SerializedString("major");
+    private static final SerializedString FACULTY = new SerializedString("faculty");
+    private static final SerializedString ACADEMIC_YEAR = new SerializedString("academic_year");
+    private static final SerializedString ENROLLMENT_DATE = new SerializedString("enrollment_date");
+    private static final SerializedString GPA = new SerializedString("gpa");
+    private static final SerializedString TOTAL_CREDITS = new SerializedString("total_credits");
+    private static final SerializedString STATUS = new SerializedString("status");
+    
     // Basic Information
-    @JsonProperty("student_id")
     private String studentId;
     
-    @JsonProperty("full_name")
     private String fullName;
     
-    @JsonProperty("date_of_birth")
     private String dateOfBirth;
     
-    @JsonProperty("gender")
     private String gender;
     
     // Contact Information
-    @JsonProperty("email")
     private String email;
     
-    @JsonProperty("phone")
     private String phone;
     
-    @JsonProperty("address")
     private String address;
     
-    @JsonProperty("city")
     private String city;
     
-    @JsonProperty("province")
     private String province;
     
-    @JsonProperty("postal_code")
     private String postalCode;
     
     // Academic Information
-    @JsonProperty("class_code")
     private String classCode;
     
-    @JsonProperty("major")
     private String major;
     
-    @JsonProperty("faculty")
     private String faculty;
     
-    @JsonProperty("academic_year")
     private String academicYear;
     
-    @JsonProperty("enrollment_date")
     private String enrollmentDate;
     
     // Performance
-    @JsonProperty("gpa")
     private String gpa;
     
-    @JsonProperty("total_credits")
     private String totalCredits;
     
-    @JsonProperty("status")
     private String status;
     
     // Metadata
     private String sourceFile;
     private Integer rowNum;
+    private String batchId;
+    
+    // Trace từ lúc đọc CSV (không serialize, đi qua AMQP headers)
+    private transient TraceContext trace;
     
     // Constructors
     public StudentRawDTO() {}
@@ -240,6 +265,22 @@ public class StudentRawDTO implements Serializable {
         this.rowNum = rowNum;
     }
     
+    public String getBatchId() {
+        return batchId;
+    }
+    
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+    
+    public TraceContext getTrace() {
+        return trace;
+    }
+    
+    public void setTrace(TraceContext trace) {
+        this.trace = trace;
+    }
+    
     @Override
     public String toString() {
         return "StudentRawDTO{" +
@@ -250,4 +291,103 @@ public class StudentRawDTO implements Serializable {
                 ", rowNumber=" + rowNum +
                 '}';
     }
+    
+    public static class Serializer extends StdSerializer<StudentRawDTO> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        public Serializer() {
+            super(StudentRawDTO.class);
+        }
+        
+        @Override
+        public void serialize(StudentRawDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            write(value, gen);
+        }
+        
+        /**
+         * Ghi cả object (dùng lại khi DTO nằm trong ValidationResult)
+         */
+        public static void write(StudentRawDTO value, JsonGenerator gen) throws IOException {
+            gen.writeStartObject(value);
+            JsonStreams.writeString(gen, SOURCE_FILE, value.sourceFile);
+            JsonStreams.writeNumber(gen, ROW_NUM, value.rowNum);
+            JsonStreams.writeString(gen, BATCH_ID, value.batchId);
+            JsonStreams.writeString(gen, STUDENT_ID, value.studentId);
+            JsonStreams.writeString(gen, FULL_NAME, value.fullName);
+            JsonStreams.writeString(gen, DATE_OF_BIRTH, value.dateOfBirth);
+            JsonStreams.writeString(gen, GENDER, value.gender);
+            JsonStreams.writeString(gen, EMAIL, value.email);
+            JsonStreams.writeString(gen, PHONE, value.phone);
+            JsonStreams.writeString(gen, ADDRESS, value.address);
+            JsonStreams.writeString(gen, CITY, value.city);
+            JsonStreams.writeString(gen, PROVINCE, value.province);
+            JsonStreams.writeString(gen, POSTAL_CODE, value.postalCode);
+            JsonStreams.writeString(gen, CLASS_CODE, value.classCode);
+            JsonStreams.writeString(gen, MAJOR, value.major);
+            JsonStreams.writeString(gen, FACULTY, value.faculty);
+            JsonStreams.writeString(gen, ACADEMIC_YEAR, value.academicYear);
+            JsonStreams.writeString(gen, ENROLLMENT_DATE, value.enrollmentDate);
+            JsonStreams.writeString(gen, GPA, value.gpa);
+            JsonStreams.writeString(gen, TOTAL_CREDITS, value.totalCredits);
+            JsonStreams.writeString(gen, STATUS, value.status);
+            gen.writeEndObject();
+        }
+    }
+    
+    public static class Deserializer extends StdDeserializer<StudentRawDTO> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        // Cột ít giá trị dùng chung String với CSVReader
+        private static final StringInterner INTERNER = StringInterner.getInstance();
+        
+        public Deserializer() {
+            super(StudentRawDTO.class);
+        }
+        
+        @Override
+        public StudentRawDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return read(p, ctxt);
+        }
+        
+        /**
+         * Đọc object tại vị trí hiện tại của parser, field lạ được bỏ qua
+         */
+        public static StudentRawDTO read(JsonParser p, DeserializationContext ctxt) throws IOException {
+            StudentRawDTO dto = new StudentRawDTO();
+            
+            for (JsonToken token = JsonStreams.enterObject(p, ctxt, StudentRawDTO.class);
+                 token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String field = p.currentName();
+                p.nextToken();
+                
+                switch (field) {
+                    case "student_id": dto.studentId = JsonStreams.readString(p, ctxt); break;
+                    case "full_name": dto.fullName = JsonStreams.readString(p, ctxt); break;
+                    case "date_of_birth": dto.dateOfBirth = JsonStreams.readString(p, ctxt); break;
+                    case "gender": dto.gender = JsonStreams.readInterned(p, ctxt, INTERNER); break;
+                    case "email": dto.email = JsonStreams.readString(p, ctxt); break;
+                    case "phone": dto.phone = JsonStreams.readString(p, ctxt); break;
+                    case "address": dto.address = JsonStreams.readString(p, ctxt); break;
+                    case "city": dto.city = JsonStreams.readInterned(p, ctxt, INTERNER); break;
+                    case "province": dto.province = JsonStreams.readInterned(p, ctxt, INTERNER); break;
+                    case "postal_code": dto.postalCode = JsonStreams.readString(p, ctxt); break;
+                    case "class_code": dto.classCode = JsonStreams.readInterned(p, ctxt, INTERNER); break;
+                    case "major": dto.major = JsonStreams.readInterned(p, ctxt, INTERNER); break;
+                    case "faculty": dto.faculty = JsonStreams.readInterned(p, ctxt, INTERNER); break;
+                    case "academic_year": dto.academicYear = JsonStreams.readInterned(p, ctxt, INTERNER); break;
+                    case "enrollment_date": dto.enrollmentDate = JsonStreams.readString(p, ctxt); break;
+                    case "gpa": dto.gpa = JsonStreams.readString(p, ctxt); break;
+                    case "total_credits": dto.totalCredits = JsonStreams.readString(p, ctxt); break;
+                    case "status": dto.status = JsonStreams.readInterned(p, ctxt, INTERNER); break;
+                    case "sourceFile": dto.sourceFile = JsonStreams.readString(p, ctxt); break;
+                    case "rowNum": dto.rowNum = JsonStreams.readInteger(p, ctxt); break;
+                    case "batchId": dto.batchId = JsonStreams.readString(p, ctxt); break;
+                    default: p.skipChildren(); break;
+                }
+            }
+            return dto;
+        }
+    }
 }
\ No newline at end of file
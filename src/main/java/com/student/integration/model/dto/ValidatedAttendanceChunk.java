@@ -0,0 +1,86 @@
+package com.student.integration.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.student.integration.model.entity.Attendance;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Một message trên attendance.validated: các dòng valid của một AttendanceChunk,
+ * đã parse sang kiểu đích và resolve student_id/class_id (loader chỉ việc upsert)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ValidatedAttendanceChunk implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @JsonProperty("batch_id")
+    private String batchId;
+    
+    @JsonProperty("source_file")
+    private String sourceFile;
+    
+    @JsonProperty("records")
+    private List<Attendance> records;
+    
+    public ValidatedAttendanceChunk() {
+        this.records = new ArrayList<>();
+    }
+    
+    public ValidatedAttendanceChunk(String batchId, String sourceFile, int capacity) {
+        this.batchId = batchId;
+        this.sourceFile = sourceFile;
+        this.records = new ArrayList<>(capacity);
+    }
+    
+    public void add(Attendance record) {
+        records.add(record);
+    }
+    
+    public int size() {
+        return records.size();
+    }
+    
+    @JsonIgnore
+    public boolean isEmpty() {
+        return records.isEmpty();
+    }
+    
+    // Getters and Setters
+    public String getBatchId() {
+        return batchId;
+    }
+    
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+    
+    public String getSourceFile() {
+        return sourceFile;
+    }
+    
+    public void setSourceFile(String sourceFile) {
+        this.sourceFile = sourceFile;
+    }
+    
+    public List<Attendance> getRecords() {
+        return records;
+    }
+    
+    public void setRecords(List<Attendance> records) {
+        this.records = records;
+    }
+    
+    @Override
+    public String toString() {
+        return "ValidatedAttendanceChunk{" +
+                "batchId='" + batchId + '\'' +
+                ", sourceFile='" + sourceFile + '\'' +
+                ", records=" + records.size() +
+                '}';
+    }
+}
\ No newline at end of file
@@ -1,43 +1,80 @@
 package com.student.integration.model.dto;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.student.integration.model.enums.ErrorType;
 import com.student.integration.model.enums.Severity;
+import com.student.integration.model.enums.ValidationErrorCode;
+import com.student.integration.util.CoarseClock;
+import com.student.integration.util.JsonStreams;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 
 /**
  * DTO cho một lỗi validation
+ *
+ * Lỗi có code: chỉ lưu code + args, type/field/rule/severity/message
+ * được suy ra từ ValidationErrorCode (message resolve lazily).
+ * Trên wire: {"code", "args", "invalid_value", "timestamp"} - không gửi chuỗi message đầy đủ.
+ * Lỗi không có code (ad-hoc) vẫn serialize đầy đủ các field như trước.
+ * Serializer/Deserializer viết tay đọc/ghi thẳng các field gốc (getter suy ra từ code).
  */
+@JsonSerialize(using = ValidationError.Serializer.class)
+@JsonDeserialize(using = ValidationError.Deserializer.class)
 public class ValidationError implements Serializable {
     
     private static final long serialVersionUID = 1L;
     
-    @JsonProperty("error_type")
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString ARGS = new SerializedString("args");
+    private static final SerializedString ERROR_TYPE = new SerializedString("error_type");
+    private static final SerializedString ERROR_FIELD = new SerializedString("error_field");
+    private static final SerializedString ERROR_MESSAGE = new SerializedString("error_message");
+    private static final SerializedString INVALID_VALUE = new SerializedString("invalid_value");
+    private static final SerializedString VALIDATION_RULE = new SerializedString("validation_rule");
+    private static final SerializedString SEVERITY = new SerializedString("severity");
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    
+    private ValidationErrorCode code;
+    
+    private String[] args;
+    
     private ErrorType errorType;
     
-    @JsonProperty("error_field")
     private String errorField;
     
-    @JsonProperty("error_message")
     private String errorMessage;
     
-    @JsonProperty("invalid_value")
     private String invalidValue;
     
-    @JsonProperty("validation_rule")
     private String validationRule;
     
-    @JsonProperty("severity")
     private Severity severity;
     
-    @JsonProperty("timestamp")
-    private LocalDateTime timestamp;
+    // Epoch millis từ CoarseClock
+    private long timestamp;
     
     // Constructor
     public ValidationError() {
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = CoarseClock.currentTimeMillis();
+    }
+    
+    public ValidationError(ValidationErrorCode code, String invalidValue, String... args) {
+        this();
+        this.code = code;
+        this.invalidValue = invalidValue;
+        this.args = args != null && args.length > 0 ? args : null;
     }
     
     public ValidationError(ErrorType errorType, String errorField, String errorMessage) {
@@ -48,7 +85,7 @@ public class ValidationError implements Serializable {
         this.severity = Severity.MEDIUM; // Default
     }
     
-    public ValidationError(ErrorType errorType, String errorField, String errorMessage, 
+    public ValidationError(ErrorType errorType, String errorField, String errorMessage,
                           String invalidValue, String validationRule, Severity severity) {
         this();
         this.errorType = errorType;
@@ -60,8 +97,24 @@ public class ValidationError implements Serializable {
     }
     
     // Getters and Setters
+    public ValidationErrorCode getCode() {
+        return code;
+    }
+    
+    public void setCode(ValidationErrorCode code) {
+        this.code = code;
+    }
+    
+    public String[] getArgs() {
+        return args;
+    }
+    
+    public void setArgs(String[] args) {
+        this.args = args;
+    }
+    
     public ErrorType getErrorType() {
-        return errorType;
+        return errorType == null && code != null ? code.getErrorType() : errorType;
     }
     
     public void setErrorType(ErrorType errorType) {
@@ -69,7 +122,7 @@ public class ValidationError implements Serializable {
     }
     
     public String getErrorField() {
-        return errorField;
+        return errorField == null && code != null ? code.getField() : errorField;
     }
     
     public void setErrorField(String errorField) {
@@ -77,6 +130,9 @@ public class ValidationError implements Serializable {
     }
     
     public String getErrorMessage() {
+        if (errorMessage == null && code != null) {
+            return code.format(args);
+        }
         return errorMessage;
     }
     
@@ -93,7 +149,7 @@ public class ValidationError implements Serializable {
     }
     
     public String getValidationRule() {
-        return validationRule;
+        return validationRule == null && code != null ? code.getRule() : validationRule;
     }
     
     public void setValidationRule(String validationRule) {
@@ -101,7 +157,7 @@ public class ValidationError implements Serializable {
     }
     
     public Severity getSeverity() {
-        return severity;
+        return severity == null && code != null ? code.getSeverity() : severity;
     }
     
     public void setSeverity(Severity severity) {
@@ -109,16 +165,119 @@ public class ValidationError implements Serializable {
     }
     
     public LocalDateTime getTimestamp() {
-        return timestamp;
+        return CoarseClock.toLocalDateTime(timestamp);
     }
     
     public void setTimestamp(LocalDateTime timestamp) {
-        this.timestamp = timestamp;
+        this.timestamp = CoarseClock.toEpochMillis(timestamp);
+    }
+    
+    public long getTimestampMillis() {
+        return timestamp;
     }
     
     @Override
     public String toString() {
-        return String.format("[%s] %s: %s (Field: %s, Value: %s)", 
-            severity, errorType, errorMessage, errorField, invalidValue);
+        return String.format("[%s] %s: %s (Field: %s, Value: %s)",
+            getSeverity(), getErrorType(), getErrorMessage(), getErrorField(), invalidValue);
+    }
+    
+    public static class Serializer extends StdSerializer<ValidationError> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        public Serializer() {
+            super(ValidationError.class);
+        }
+        
+        @Override
+        public void serialize(ValidationError value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            write(value, gen);
+        }
+        
+        public static void write(ValidationError value, JsonGenerator gen) throws IOException {
+            gen.writeStartObject(value);
+            JsonStreams.writeEnum(gen, CODE, value.code);
+            if (value.args != null) {
+                gen.writeFieldName(ARGS);
+                gen.writeStartArray(value.args, value.args.length);
+                for (String arg : value.args) {
+                    gen.writeString(arg);
+                }
+                gen.writeEndArray();
+            }
+            JsonStreams.writeEnum(gen, ERROR_TYPE, value.errorType);
+            JsonStreams.writeString(gen, ERROR_FIELD, value.errorField);
+            JsonStreams.writeString(gen, ERROR_MESSAGE, value.errorMessage);
+            JsonStreams.writeString(gen, INVALID_VALUE, value.invalidValue);
+            JsonStreams.writeString(gen, VALIDATION_RULE, value.validationRule);
+            JsonStreams.writeEnum(gen, SEVERITY, value.severity);
+            gen.writeFieldName(TIMESTAMP);
+            gen.writeNumber(value.timestamp);
+            gen.writeEndObject();
+        }
+    }
+    
+    public static class Deserializer extends StdDeserializer<ValidationError> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        public Deserializer() {
+            super(ValidationError.class);
+        }
+        
+        @Override
+        public ValidationError deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return read(p, ctxt);
+        }
+        
+        public static ValidationError read(JsonParser p, DeserializationContext ctxt) throws IOException {
+            ValidationError error = new ValidationError();
+            
+            for (JsonToken token = JsonStreams.enterObject(p, ctxt, ValidationError.class);
+                 token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String field = p.currentName();
+                p.nextToken();
+                
+                switch (field) {
+                    case "code": error.code = JsonStreams.readEnum(p, ctxt, ValidationErrorCode.class); break;
+                    case "args": error.args = readArgs(p, ctxt); break;
+                    case "error_type": error.errorType = JsonStreams.readEnum(p, ctxt, ErrorType.class); break;
+                    case "error_field": error.errorField = JsonStreams.readString(p, ctxt); break;
+                    case "error_message": error.errorMessage = JsonStreams.readString(p, ctxt); break;
+                    case "invalid_value": error.invalidValue = JsonStreams.readString(p, ctxt); break;
+                    case "validation_rule": error.validationRule = JsonStreams.readString(p, ctxt); break;
+                    case "severity": error.severity = JsonStreams.readEnum(p, ctxt, Severity.class); break;
+                    case "timestamp": {
+                        Long timestamp = JsonStreams.readLong(p, ctxt);
+                        if (timestamp != null) {
+                            error.timestamp = timestamp;
+                        }
+                        break;
+                    }
+                    default: p.skipChildren(); break;
+                }
+            }
+            return error;
+        }
+        
+        private static String[] readArgs(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                return (String[]) ctxt.handleUnexpectedToken(String[].class, p);
+            }
+            
+            String[] args = new String[4];
+            int count = 0;
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                if (count == args.length) {
+                    args = Arrays.copyOf(args, count * 2);
+                }
+                args[count++] = JsonStreams.readString(p, ctxt);
+            }
+            return Arrays.copyOf(args, count);
+        }
     }
 }
\ No newline at end of file
@@ -1,37 +1,64 @@
 package com.student.integration.model.dto;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.student.integration.util.CoarseClock;
+import com.student.integration.util.JsonStreams;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Kết quả validation
+ * JSON chỉ lấy từ fields (không serialize errorSummary/errorCount dẫn xuất)
+ * Serializer viết tay gọi thẳng codec của StudentRawDTO/ValidationError,
+ * parsed_data ghi inline (date_of_birth = epoch day)
  */
-@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonSerialize(using = ValidationResult.Serializer.class)
+@JsonDeserialize(using = ValidationResult.Deserializer.class)
 public class ValidationResult implements Serializable {
     
     private static final long serialVersionUID = 1L;
     
-    @JsonProperty("raw_data")
+    private static final SerializedString RAW_DATA = new SerializedString("raw_data");
+    private static final SerializedString IS_VALID = new SerializedString("is_valid");
+    private static final SerializedString ERRORS = new SerializedString("errors");
+    private static final SerializedString VALIDATION_TIMESTAMP = new SerializedString("validation_timestamp");
+    private static final SerializedString PARSED_DATA = new SerializedString("parsed_data");
+    private static final SerializedString DATE_OF_BIRTH = new SerializedString("date_of_birth");
+    private static final SerializedString GPA = new SerializedString("gpa");
+    private static final SerializedString CLASS_ID = new SerializedString("class_id");
+    
     private StudentRawDTO rawData;
     
-    @JsonProperty("is_valid")
     private boolean isValid;
     
-    @JsonProperty("errors")
     private List<ValidationError> errors;
     
-    @JsonProperty("validation_timestamp")
-    private LocalDateTime validationTimestamp;
+    // Epoch millis từ CoarseClock
+    private long validationTimestamp;
+    
+    // Giá trị typed do validators parse (dùng lại ở Transformer)
+    private ParsedStudentData parsedData;
     
     public ValidationResult() {
         this.errors = new ArrayList<>();
         this.isValid = true;
-        this.validationTimestamp = LocalDateTime.now();
+        this.parsedData = new ParsedStudentData();
+        this.validationTimestamp = CoarseClock.currentTimeMillis();
     }
     
     public ValidationResult(StudentRawDTO rawData) {
@@ -65,11 +92,23 @@ public class ValidationResult implements Serializable {
     }
     
     public LocalDateTime getValidationTimestamp() {
-        return validationTimestamp;
+        return CoarseClock.toLocalDateTime(validationTimestamp);
     }
     
     public void setValidationTimestamp(LocalDateTime validationTimestamp) {
-        this.validationTimestamp = validationTimestamp;
+        this.validationTimestamp = CoarseClock.toEpochMillis(validationTimestamp);
+    }
+    
+    public long getValidationTimestampMillis() {
+        return validationTimestamp;
+    }
+    
+    public ParsedStudentData getParsedData() {
+        return parsedData;
+    }
+    
+    public void setParsedData(ParsedStudentData parsedData) {
+        this.parsedData = parsedData;
     }
     
     // Helper methods
@@ -106,7 +145,164 @@ public class ValidationResult implements Serializable {
         return "ValidationResult{" +
                 "isValid=" + isValid +
                 ", errorCount=" + errors.size() +
-                ", timestamp=" + validationTimestamp +
+                ", timestamp=" + getValidationTimestamp() +
                 '}';
     }
+    
+    public static class Serializer extends StdSerializer<ValidationResult> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        public Serializer() {
+            super(ValidationResult.class);
+        }
+        
+        @Override
+        public void serialize(ValidationResult value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            
+            if (value.rawData != null) {
+                gen.writeFieldName(RAW_DATA);
+                StudentRawDTO.Serializer.write(value.rawData, gen);
+            }
+            
+            gen.writeFieldName(IS_VALID);
+            gen.writeBoolean(value.isValid);
+            
+            if (value.errors != null) {
+                gen.writeFieldName(ERRORS);
+                gen.writeStartArray(value.errors, value.errors.size());
+                for (ValidationError error : value.errors) {
+                    ValidationError.Serializer.write(error, gen);
+                }
+                gen.writeEndArray();
+            }
+            
+            gen.writeFieldName(VALIDATION_TIMESTAMP);
+            gen.writeNumber(value.validationTimestamp);
+            
+            ParsedStudentData parsed = value.parsedData;
+            if (parsed != null) {
+                gen.writeFieldName(PARSED_DATA);
+                gen.writeStartObject(parsed);
+                if (parsed.getDateOfBirth() != null) {
+                    gen.writeFieldName(DATE_OF_BIRTH);
+                    gen.writeNumber(parsed.getDateOfBirth().toEpochDay());
+                }
+                JsonStreams.writeNumber(gen, GPA, parsed.getGpa());
+                JsonStreams.writeNumber(gen, CLASS_ID, parsed.getClassId());
+                gen.writeEndObject();
+            }
+            
+            gen.writeEndObject();
+        }
+    }
+    
+    public static class Deserializer extends StdDeserializer<ValidationResult> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        public Deserializer() {
+            super(ValidationResult.class);
+        }
+        
+        @Override
+        public ValidationResult deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            ValidationResult result = new ValidationResult();
+            
+            for (JsonToken token = JsonStreams.enterObject(p, ctxt, ValidationResult.class);
+                 token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String field = p.currentName();
+                p.nextToken();
+                
+                switch (field) {
+                    case "raw_data":
+                        result.rawData = p.currentToken() == JsonToken.VALUE_NULL
+                            ? null : StudentRawDTO.Deserializer.read(p, ctxt);
+                        break;
+                    case "is_valid":
+                        result.isValid = readBoolean(p, ctxt);
+                        break;
+                    case "errors":
+                        readErrors(p, ctxt, result.errors);
+                        break;
+                    case "validation_timestamp": {
+                        Long timestamp = JsonStreams.readLong(p, ctxt);
+                        if (timestamp != null) {
+                            result.validationTimestamp = timestamp;
+                        }
+                        break;
+                    }
+                    case "parsed_data":
+                        result.parsedData = p.currentToken() == JsonToken.VALUE_NULL
+                            ? null : readParsedData(p, ctxt);
+                        break;
+                    default:
+                        p.skipChildren();
+                        break;
+                }
+            }
+            return result;
+        }
+        
+        private static boolean readBoolean(JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (p.currentToken()) {
+                case VALUE_TRUE: return true;
+                case VALUE_FALSE: return false;
+                case VALUE_STRING: return Boolean.parseBoolean(p.getText().trim());
+                default: return (Boolean) ctxt.handleUnexpectedToken(Boolean.TYPE, p);
+            }
+        }
+        
+        private static void readErrors(JsonParser p, DeserializationContext ctxt, List<ValidationError> errors)
+                throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NULL) {
+                return;
+            }
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                ctxt.handleUnexpectedToken(List.class, p);
+                return;
+            }
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                errors.add(ValidationError.Deserializer.read(p, ctxt));
+            }
+        }
+        
+        private static ParsedStudentData readParsedData(JsonParser p, DeserializationContext ctxt) throws IOException {
+            ParsedStudentData parsed = new ParsedStudentData();
+            
+            for (JsonToken token = JsonStreams.enterObject(p, ctxt, ParsedStudentData.class);
+                 token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String field = p.currentName();
+                p.nextToken();
+                
+                switch (field) {
+                    case "date_of_birth": parsed.setDateOfBirth(readEpochDay(p, ctxt)); break;
+                    case "gpa": parsed.setGpa(JsonStreams.readDecimal(p, ctxt)); break;
+                    case "class_id": parsed.setClassId(JsonStreams.readInteger(p, ctxt)); break;
+                    default: p.skipChildren(); break;
+                }
+            }
+            return parsed;
+        }
+        
+        /**
+         * Epoch day (format hiện tại) hoặc chuỗi yyyy-MM-dd
+         */
+        private static LocalDate readEpochDay(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                String text = p.getText().trim();
+                if (text.isEmpty()) {
+                    return null;
+                }
+                try {
+                    return LocalDate.parse(text);
+                } catch (DateTimeParseException e) {
+                    return (LocalDate) ctxt.handleWeirdStringValue(LocalDate.class, text, "expected yyyy-MM-dd");
+                }
+            }
+            Long epochDay = JsonStreams.readLong(p, ctxt);
+            return epochDay != null ? LocalDate.ofEpochDay(epochDay) : null;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,253 @@
+package com.student.integration.model.entity;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.student.integration.model.enums.AttendanceStatus;
+import com.student.integration.util.JsonStreams;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Entity class cho Attendance (bảng attendance trong clean database)
+ * Một dòng = một sinh viên × một lớp × một ngày × một buổi (unique_attendance)
+ *
+ * JSON (camelCase, ngày/giờ ISO-8601) do Serializer/Deserializer viết tay, field null không ghi
+ */
+@JsonSerialize(using = Attendance.Serializer.class)
+@JsonDeserialize(using = Attendance.Deserializer.class)
+public class Attendance implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString STUDENT_ID = new SerializedString("studentId");
+    private static final SerializedString STUDENT_CODE = new SerializedString("studentCode");
+    private static final SerializedString CLASS_ID = new SerializedString("classId");
+    private static final SerializedString ATTENDANCE_DATE = new SerializedString("attendanceDate");
+    private static final SerializedString SESSION_NUMBER = new SerializedString("sessionNumber");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString CHECK_IN_TIME = new SerializedString("checkInTime");
+    private static final SerializedString CHECK_OUT_TIME = new SerializedString("checkOutTime");
+    private static final SerializedString NOTE = new SerializedString("note");
+    private static final SerializedString ROW_NUM = new SerializedString("rowNum");
+    
+    private Long id;
+    private Long studentId;   // FK students.id (đã resolve từ studentCode)
+    private String studentCode; // SV20210001
+    private Integer classId;
+    private LocalDate attendanceDate;
+    private Integer sessionNumber;
+    private AttendanceStatus status;
+    private LocalTime checkInTime;
+    private LocalTime checkOutTime;
+    private String note;
+    private Integer rowNum;   // Dòng trong file nguồn (để log lỗi load)
+    
+    // Constructors
+    public Attendance() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+    
+    public String getStudentCode() {
+        return studentCode;
+    }
+    
+    public void setStudentCode(String studentCode) {
+        this.studentCode = studentCode;
+    }
+    
+    public Integer getClassId() {
+        return classId;
+    }
+    
+    public void setClassId(Integer classId) {
+        this.classId = classId;
+    }
+    
+    public LocalDate getAttendanceDate() {
+        return attendanceDate;
+    }
+    
+    public void setAttendanceDate(LocalDate attendanceDate) {
+        this.attendanceDate = attendanceDate;
+    }
+    
+    public Integer getSessionNumber() {
+        return sessionNumber;
+    }
+    
+    public void setSessionNumber(Integer sessionNumber) {
+        this.sessionNumber = sessionNumber;
+    }
+    
+    public AttendanceStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(AttendanceStatus status) {
+        this.status = status;
+    }
+    
+    public LocalTime getCheckInTime() {
+        return checkInTime;
+    }
+    
+    public void setCheckInTime(LocalTime checkInTime) {
+        this.checkInTime = checkInTime;
+    }
+    
+    public LocalTime getCheckOutTime() {
+        return checkOutTime;
+    }
+    
+    public void setCheckOutTime(LocalTime checkOutTime) {
+        this.checkOutTime = checkOutTime;
+    }
+    
+    public String getNote() {
+        return note;
+    }
+    
+    public void setNote(String note) {
+        this.note = note;
+    }
+    
+    public Integer getRowNum() {
+        return rowNum;
+    }
+    
+    public void setRowNum(Integer rowNum) {
+        this.rowNum = rowNum;
+    }
+    
+    @Override
+    public String toString() {
+        return "Attendance{" +
+                "studentCode='" + studentCode + '\'' +
+                ", classId=" + classId +
+                ", attendanceDate=" + attendanceDate +
+                ", sessionNumber=" + sessionNumber +
+                ", status=" + status +
+                '}';
+    }
+    
+    public static class Serializer extends StdSerializer<Attendance> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        public Serializer() {
+            super(Attendance.class);
+        }
+        
+        @Override
+        public void serialize(Attendance value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            JsonStreams.writeNumber(gen, ID, value.id);
+            JsonStreams.writeNumber(gen, STUDENT_ID, value.studentId);
+            JsonStreams.writeString(gen, STUDENT_CODE, value.studentCode);
+            JsonStreams.writeNumber(gen, CLASS_ID, value.classId);
+            writeTemporal(gen, ATTENDANCE_DATE, value.attendanceDate);
+            JsonStreams.writeNumber(gen, SESSION_NUMBER, value.sessionNumber);
+            JsonStreams.writeEnum(gen, STATUS, value.status);
+            writeTemporal(gen, CHECK_IN_TIME, value.checkInTime);
+            writeTemporal(gen, CHECK_OUT_TIME, value.checkOutTime);
+            JsonStreams.writeString(gen, NOTE, value.note);
+            JsonStreams.writeNumber(gen, ROW_NUM, value.rowNum);
+            gen.writeEndObject();
+        }
+        
+        private static void writeTemporal(JsonGenerator gen, SerializedString name, Object value) throws IOException {
+            if (value != null) {
+                gen.writeFieldName(name);
+                gen.writeString(value.toString());
+            }
+        }
+    }
+    
+    public static class Deserializer extends StdDeserializer<Attendance> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        public Deserializer() {
+            super(Attendance.class);
+        }
+        
+        @Override
+        public Attendance deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            Attendance attendance = new Attendance();
+            
+            for (JsonToken token = JsonStreams.enterObject(p, ctxt, Attendance.class);
+                 token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String field = p.currentName();
+                p.nextToken();
+                
+                switch (field) {
+                    case "id": attendance.id = JsonStreams.readLong(p, ctxt); break;
+                    case "studentId": attendance.studentId = JsonStreams.readLong(p, ctxt); break;
+                    case "studentCode": attendance.studentCode = JsonStreams.readString(p, ctxt); break;
+                    case "classId": attendance.classId = JsonStreams.readInteger(p, ctxt); break;
+                    case "attendanceDate": attendance.attendanceDate = readDate(p, ctxt); break;
+                    case "sessionNumber": attendance.sessionNumber = JsonStreams.readInteger(p, ctxt); break;
+                    case "status": attendance.status = JsonStreams.readEnum(p, ctxt, AttendanceStatus.class); break;
+                    case "checkInTime": attendance.checkInTime = readTime(p, ctxt); break;
+                    case "checkOutTime": attendance.checkOutTime = readTime(p, ctxt); break;
+                    case "note": attendance.note = JsonStreams.readString(p, ctxt); break;
+                    case "rowNum": attendance.rowNum = JsonStreams.readInteger(p, ctxt); break;
+                    default: p.skipChildren(); break;
+                }
+            }
+            return attendance;
+        }
+        
+        private static LocalDate readDate(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String text = JsonStreams.readString(p, ctxt);
+            if (text == null || text.isBlank()) {
+                return null;
+            }
+            try {
+                return LocalDate.parse(text.trim());
+            } catch (DateTimeParseException e) {
+                return (LocalDate) ctxt.handleWeirdStringValue(LocalDate.class, text, "expected yyyy-MM-dd");
+            }
+        }
+        
+        private static LocalTime readTime(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String text = JsonStreams.readString(p, ctxt);
+            if (text == null || text.isBlank()) {
+                return null;
+            }
+            try {
+                return LocalTime.parse(text.trim());
+            } catch (DateTimeParseException e) {
+                return (LocalTime) ctxt.handleWeirdStringValue(LocalTime.class, text, "expected HH:mm[:ss]");
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.student.integration.model.entity;
+
+import com.student.integration.model.enums.ImportBatchStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity class cho ImportBatch (bảng import_batches trong Raw DB)
+ * Một batch = một file CSV được import
+ */
+public class ImportBatch {
+    
+    private String batchId;
+    private String fileName;
+    private Long fileSize;
+    private int totalRows;
+    private int successfulRows;
+    private int failedRows;
+    private ImportBatchStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private String errorMessage;
+    
+    public ImportBatch() {}
+    
+    /**
+     * Số dòng đã xử lý xong (load thành công hoặc bị loại)
+     */
+    public int getProcessedRows() {
+        return successfulRows + failedRows;
+    }
+    
+    // Getters and Setters
+    public String getBatchId() {
+        return batchId;
+    }
+    
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+    
+    public String getFileName() {
+        return fileName;
+    }
+    
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+    
+    public Long getFileSize() {
+        return fileSize;
+    }
+    
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+    
+    public int getTotalRows() {
+        return totalRows;
+    }
+    
+    public void setTotalRows(int totalRows) {
+        this.totalRows = totalRows;
+    }
+    
+    public int getSuccessfulRows() {
+        return successfulRows;
+    }
+    
+    public void setSuccessfulRows(int successfulRows) {
+        this.successfulRows = successfulRows;
+    }
+    
+    public int getFailedRows() {
+        return failedRows;
+    }
+    
+    public void setFailedRows(int failedRows) {
+        this.failedRows = failedRows;
+    }
+    
+    public ImportBatchStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ImportBatchStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    @Override
+    public String toString() {
+        return "ImportBatch{" +
+                "batchId='" + batchId + '\'' +
+                ", fileName='" + fileName + '\'' +
+                ", totalRows=" + totalRows +
+                ", successfulRows=" + successfulRows +
+                ", failedRows=" + failedRows +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -1,18 +1,55 @@
 package com.student.integration.model.entity;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.student.integration.model.enums.Gender;
 import com.student.integration.model.enums.StudentStatus;
+import com.student.integration.util.JsonStreams;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalQuery;
 import java.math.BigDecimal;
 
 /**
  * Entity class cho Student (Clean data)
  * Đại diện cho dữ liệu trong clean database
+ * JSON (camelCase, ngày ISO-8601) do Serializer/Deserializer viết tay, field null không ghi
  */
+@JsonSerialize(using = Student.Serializer.class)
+@JsonDeserialize(using = Student.Deserializer.class)
 public class Student {
     
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString STUDENT_ID = new SerializedString("studentId");
+    private static final SerializedString FULL_NAME = new SerializedString("fullName");
+    private static final SerializedString DATE_OF_BIRTH = new SerializedString("dateOfBirth");
+    private static final SerializedString GENDER = new SerializedString("gender");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString PHONE = new SerializedString("phone");
+    private static final SerializedString ADDRESS = new SerializedString("address");
+    private static final SerializedString CITY = new SerializedString("city");
+    private static final SerializedString PROVINCE = new SerializedString("province");
+    private static final SerializedString POSTAL_CODE = new SerializedString("postalCode");
+    private static final SerializedString CLASS_ID = new SerializedString("classId");
+    private static final SerializedString ENROLLMENT_DATE = new SerializedString("enrollmentDate");
+    private static final SerializedString GPA = new SerializedString("gpa");
+    private static final SerializedString TOTAL_CREDITS = new SerializedString("totalCredits");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    
     private Long id;
     
     // Basic Information
@@ -203,4 +240,114 @@ public class Student {
                 ", status=" + status +
                 '}';
     }
+    
+    public static class Serializer extends StdSerializer<Student> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        public Serializer() {
+            super(Student.class);
+        }
+        
+        @Override
+        public void serialize(Student value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            JsonStreams.writeNumber(gen, ID, value.id);
+            JsonStreams.writeString(gen, STUDENT_ID, value.studentId);
+            JsonStreams.writeString(gen, FULL_NAME, value.fullName);
+            writeDate(gen, DATE_OF_BIRTH, value.dateOfBirth);
+            JsonStreams.writeEnum(gen, GENDER, value.gender);
+            JsonStreams.writeString(gen, EMAIL, value.email);
+            JsonStreams.writeString(gen, PHONE, value.phone);
+            JsonStreams.writeString(gen, ADDRESS, value.address);
+            JsonStreams.writeString(gen, CITY, value.city);
+            JsonStreams.writeString(gen, PROVINCE, value.province);
+            JsonStreams.writeString(gen, POSTAL_CODE, value.postalCode);
+            JsonStreams.writeNumber(gen, CLASS_ID, value.classId);
+            writeDate(gen, ENROLLMENT_DATE, value.enrollmentDate);
+            JsonStreams.writeNumber(gen, GPA, value.gpa);
+            JsonStreams.writeNumber(gen, TOTAL_CREDITS, value.totalCredits);
+            JsonStreams.writeEnum(gen, STATUS, value.status);
+            writeDateTime(gen, CREATED_AT, value.createdAt);
+            writeDateTime(gen, UPDATED_AT, value.updatedAt);
+            gen.writeEndObject();
+        }
+        
+        private static void writeDate(JsonGenerator gen, SerializedString name, LocalDate value) throws IOException {
+            if (value != null) {
+                gen.writeFieldName(name);
+                gen.writeString(value.toString());
+            }
+        }
+        
+        private static void writeDateTime(JsonGenerator gen, SerializedString name, LocalDateTime value)
+                throws IOException {
+            if (value != null) {
+                gen.writeFieldName(name);
+                gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            }
+        }
+    }
+    
+    public static class Deserializer extends StdDeserializer<Student> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        public Deserializer() {
+            super(Student.class);
+        }
+        
+        @Override
+        public Student deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            Student student = new Student();
+            
+            for (JsonToken token = JsonStreams.enterObject(p, ctxt, Student.class);
+                 token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String field = p.currentName();
+                p.nextToken();
+                
+                switch (field) {
+                    case "id": student.id = JsonStreams.readLong(p, ctxt); break;
+                    case "studentId": student.studentId = JsonStreams.readString(p, ctxt); break;
+                    case "fullName": student.fullName = JsonStreams.readString(p, ctxt); break;
+                    case "dateOfBirth": student.dateOfBirth = readTemporal(p, ctxt, LocalDate.class, LocalDate::from); break;
+                    case "gender": student.gender = JsonStreams.readEnum(p, ctxt, Gender.class); break;
+                    case "email": student.email = JsonStreams.readString(p, ctxt); break;
+                    case "phone": student.phone = JsonStreams.readString(p, ctxt); break;
+                    case "address": student.address = JsonStreams.readString(p, ctxt); break;
+                    case "city": student.city = JsonStreams.readString(p, ctxt); break;
+                    case "province": student.province = JsonStreams.readString(p, ctxt); break;
+                    case "postalCode": student.postalCode = JsonStreams.readString(p, ctxt); break;
+                    case "classId": student.classId = JsonStreams.readInteger(p, ctxt); break;
+                    case "enrollmentDate": student.enrollmentDate = readTemporal(p, ctxt, LocalDate.class, LocalDate::from); break;
+                    case "gpa": student.gpa = JsonStreams.readDecimal(p, ctxt); break;
+                    case "totalCredits": student.totalCredits = JsonStreams.readInteger(p, ctxt); break;
+                    case "status": student.status = JsonStreams.readEnum(p, ctxt, StudentStatus.class); break;
+                    case "createdAt": student.createdAt = readTemporal(p, ctxt, LocalDateTime.class, LocalDateTime::from); break;
+                    case "updatedAt": student.updatedAt = readTemporal(p, ctxt, LocalDateTime.class, LocalDateTime::from); break;
+                    default: p.skipChildren(); break;
+                }
+            }
+            return student;
+        }
+        
+        /**
+         * Chuỗi ISO-8601 (yyyy-MM-dd hoặc yyyy-MM-ddTHH:mm:ss[.SSS])
+         */
+        private static <T> T readTemporal(JsonParser p, DeserializationContext ctxt, Class<T> type,
+                                          TemporalQuery<T> query) throws IOException {
+            String text = JsonStreams.readString(p, ctxt);
+            if (text == null || text.isBlank()) {
+                return null;
+            }
+            DateTimeFormatter format = type == LocalDate.class
+                ? DateTimeFormatter.ISO_LOCAL_DATE
+                : DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+            try {
+                return format.parse(text.trim(), query);
+            } catch (DateTimeParseException e) {
+                return type.cast(ctxt.handleWeirdStringValue(type, text, "expected ISO-8601 value"));
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.student.integration.model.enums;
+
+/**
+ * Trạng thái cảnh báo: bật khi vượt ngưỡng vào, tắt khi về dưới ngưỡng ra (hysteresis)
+ */
+public enum AlertState {
+    RAISED,
+    CLEARED
+}
\ No newline at end of file
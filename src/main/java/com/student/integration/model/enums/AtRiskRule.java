@@ -0,0 +1,25 @@
+package com.student.integration.model.enums;
+
+/**
+ * Quy tắc cảnh báo sinh viên có nguy cơ (AtRiskDetector)
+ */
+public enum AtRiskRule {
+    ABSENCE_RATE("Absence rate too high", "Tỷ lệ vắng vượt ngưỡng"),
+    LOW_GPA("GPA below cutoff", "GPA dưới ngưỡng");
+    
+    private final String displayName;
+    private final String vietnameseName;
+    
+    AtRiskRule(String displayName, String vietnameseName) {
+        this.displayName = displayName;
+        this.vietnameseName = vietnameseName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    public String getVietnameseName() {
+        return vietnameseName;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.student.integration.model.enums;
+
+/**
+ * Cách một lần ghi điểm danh đối xử với dòng (sinh viên, lớp, ngày, buổi) đã tồn tại
+ * Dùng chung cho câu SQL trong AttendanceLoader và bảng tổng hợp
+ */
+public enum AttendanceWriteMode {
+    
+    /** Upsert từ CSV: status mới ghi đè */
+    OVERWRITE,
+    
+    /** Check-in realtime: chỉ thay status của dòng chưa có check_in_time (lần check-in đầu tiên thắng) */
+    CHECK_IN,
+    
+    /** ABSENT khi đóng buổi: chỉ ghi khi chưa có dòng */
+    IF_MISSING
+}
\ No newline at end of file
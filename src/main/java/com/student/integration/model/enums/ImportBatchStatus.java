@@ -0,0 +1,10 @@
+package com.student.integration.model.enums;
+
+/**
+ * Trạng thái của một batch import (cột import_batches.status)
+ */
+public enum ImportBatchStatus {
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
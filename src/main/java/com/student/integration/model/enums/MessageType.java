@@ -0,0 +1,13 @@
+package com.student.integration.model.enums;
+
+/**
+ * Loại message trong queue (AMQP header x-message-type)
+ * Không có header = RECORD
+ */
+public enum MessageType {
+    RECORD,             // Một record dữ liệu
+    END_OF_STREAM,      // Marker cuối batch: số record stage sau cần chờ
+    BATCH_COMPLETED;    // Sự kiện batch đã load xong (queue tracking)
+    
+    public static final String HEADER = "x-message-type";
+}
@@ -0,0 +1,193 @@
+package com.student.integration.model.enums;
+
+/**
+ * Mã lỗi validation
+ *
+ * Mỗi code gói sẵn error type, field, rule, severity và message template.
+ * Trên wire chỉ gửi code + args, message được resolve lazily khi cần hiển thị.
+ * Template dùng placeholder {0}, {1}, ... theo thứ tự args.
+ */
+public enum ValidationErrorCode {
+    
+    // RequiredFieldsRule
+    FULL_NAME_REQUIRED(ErrorType.MISSING_FIELD, "full_name", "RequiredFieldsRule", Severity.CRITICAL,
+        "Full name is required"),
+    GENDER_REQUIRED(ErrorType.MISSING_FIELD, "gender", "RequiredFieldsRule", Severity.HIGH,
+        "Gender is required"),
+    MAJOR_REQUIRED(ErrorType.MISSING_FIELD, "major", "RequiredFieldsRule", Severity.MEDIUM,
+        "Major is required"),
+    FACULTY_REQUIRED(ErrorType.MISSING_FIELD, "faculty", "RequiredFieldsRule", Severity.MEDIUM,
+        "Faculty is required"),
+    STATUS_REQUIRED(ErrorType.MISSING_FIELD, "status", "RequiredFieldsRule", Severity.MEDIUM,
+        "Status is required"),
+    
+    // StudentIdFormatRule
+    STUDENT_ID_REQUIRED(ErrorType.MISSING_FIELD, "student_id", "StudentIdFormatRule", Severity.CRITICAL,
+        "Student ID is required"),
+    STUDENT_ID_FORMAT(ErrorType.INVALID_FORMAT, "student_id", "StudentIdFormatRule", Severity.HIGH,
+        "Student ID must match format SV + 8 digits (e.g., SV20210001)"),
+    
+    // EmailFormatRule
+    EMAIL_REQUIRED(ErrorType.MISSING_FIELD, "email", "EmailFormatRule", Severity.CRITICAL,
+        "Email is required"),
+    EMAIL_FORMAT(ErrorType.INVALID_FORMAT, "email", "EmailFormatRule", Severity.HIGH,
+        "Email format is invalid (e.g., user@domain.com)"),
+    EMAIL_TOO_LONG(ErrorType.OUT_OF_RANGE, "email", "EmailFormatRule", Severity.MEDIUM,
+        "Email is too long (max 255 characters)"),
+    
+    // PhoneFormatRule
+    PHONE_REQUIRED(ErrorType.MISSING_FIELD, "phone", "PhoneFormatRule", Severity.HIGH,
+        "Phone number is required"),
+    PHONE_FORMAT(ErrorType.INVALID_FORMAT, "phone", "PhoneFormatRule", Severity.HIGH,
+        "Phone number must be 10 digits starting with 0 or +84 (e.g., 0901234567)"),
+    
+    // DateOfBirthRule
+    DOB_REQUIRED(ErrorType.MISSING_FIELD, "date_of_birth", "DateOfBirthRule", Severity.CRITICAL,
+        "Date of birth is required"),
+    DOB_FORMAT(ErrorType.INVALID_FORMAT, "date_of_birth", "DateOfBirthRule", Severity.HIGH,
+        "Date of birth must be in format yyyy-MM-dd (e.g., 2003-05-15)"),
+    DOB_IN_FUTURE(ErrorType.BUSINESS_RULE_VIOLATION, "date_of_birth", "DateOfBirthRule", Severity.HIGH,
+        "Date of birth cannot be in the future"),
+    DOB_TOO_YOUNG(ErrorType.OUT_OF_RANGE, "date_of_birth", "DateOfBirthRule", Severity.HIGH,
+        "Student is too young (age: {0}, minimum: {1})"),
+    DOB_TOO_OLD(ErrorType.OUT_OF_RANGE, "date_of_birth", "DateOfBirthRule", Severity.MEDIUM,
+        "Student is too old (age: {0}, maximum: {1})"),
+    
+    // GPARangeRule
+    GPA_REQUIRED(ErrorType.MISSING_FIELD, "gpa", "GPARangeRule", Severity.HIGH,
+        "GPA is required"),
+    GPA_FORMAT(ErrorType.INVALID_FORMAT, "gpa", "GPARangeRule", Severity.HIGH,
+        "GPA must be a number (e.g., 3.45)"),
+    GPA_BELOW_MIN(ErrorType.OUT_OF_RANGE, "gpa", "GPARangeRule", Severity.HIGH,
+        "GPA cannot be less than {0}"),
+    GPA_ABOVE_MAX(ErrorType.OUT_OF_RANGE, "gpa", "GPARangeRule", Severity.HIGH,
+        "GPA cannot be greater than {0}"),
+    
+    // ClassCodeFormatRule / ClassCodeReferenceRule
+    CLASS_CODE_REQUIRED(ErrorType.MISSING_FIELD, "class_code", "ClassCodeFormatRule", Severity.HIGH,
+        "Class code is required"),
+    CLASS_CODE_FORMAT(ErrorType.INVALID_FORMAT, "class_code", "ClassCodeFormatRule", Severity.HIGH,
+        "Class code must match format: 2 letters + 2 digits + 1 letter + 2 digits (e.g., SE01K01)"),
+    CLASS_CODE_UNKNOWN(ErrorType.INVALID_REFERENCE, "class_code", "ClassCodeReferenceRule", Severity.HIGH,
+        "Class code does not exist in classes table"),
+    
+    // Attendance: StudentReferenceRule
+    STUDENT_UNKNOWN(ErrorType.INVALID_REFERENCE, "student_id", "StudentReferenceRule", Severity.HIGH,
+        "Student ID does not exist in students table"),
+    
+    // Attendance: AttendanceDateRule
+    ATTENDANCE_DATE_REQUIRED(ErrorType.MISSING_FIELD, "attendance_date", "AttendanceDateRule", Severity.CRITICAL,
+        "Attendance date is required"),
+    ATTENDANCE_DATE_FORMAT(ErrorType.INVALID_FORMAT, "attendance_date", "AttendanceDateRule", Severity.HIGH,
+        "Attendance date must be in format yyyy-MM-dd (e.g., 2024-09-05)"),
+    ATTENDANCE_DATE_IN_FUTURE(ErrorType.BUSINESS_RULE_VIOLATION, "attendance_date", "AttendanceDateRule", Severity.HIGH,
+        "Attendance date cannot be in the future"),
+    ATTENDANCE_DATE_TERM_CLOSED(ErrorType.BUSINESS_RULE_VIOLATION, "attendance_date", "AttendanceDateRule", Severity.HIGH,
+        "Attendance date is in an archived term (closed through {0})"),
+    
+    // Attendance: SessionNumberRule
+    SESSION_NUMBER_REQUIRED(ErrorType.MISSING_FIELD, "session_number", "SessionNumberRule", Severity.CRITICAL,
+        "Session number is required"),
+    SESSION_NUMBER_FORMAT(ErrorType.INVALID_FORMAT, "session_number", "SessionNumberRule", Severity.HIGH,
+        "Session number must be an integer"),
+    SESSION_NUMBER_OUT_OF_RANGE(ErrorType.OUT_OF_RANGE, "session_number", "SessionNumberRule", Severity.HIGH,
+        "Session number must be between 1 and {0}"),
+    
+    // Attendance: AttendanceStatusRule
+    ATTENDANCE_STATUS_REQUIRED(ErrorType.MISSING_FIELD, "status", "AttendanceStatusRule", Severity.CRITICAL,
+        "Attendance status is required"),
+    ATTENDANCE_STATUS_INVALID(ErrorType.INVALID_FORMAT, "status", "AttendanceStatusRule", Severity.HIGH,
+        "Attendance status must be one of PRESENT, ABSENT, LATE, EXCUSED"),
+    
+    // Attendance: CheckTimeRule
+    CHECK_IN_TIME_FORMAT(ErrorType.INVALID_FORMAT, "check_in_time", "CheckTimeRule", Severity.MEDIUM,
+        "Check-in time must be in format HH:mm or HH:mm:ss (e.g., 07:05)"),
+    CHECK_OUT_TIME_FORMAT(ErrorType.INVALID_FORMAT, "check_out_time", "CheckTimeRule", Severity.MEDIUM,
+        "Check-out time must be in format HH:mm or HH:mm:ss (e.g., 09:30)"),
+    CHECK_OUT_BEFORE_CHECK_IN(ErrorType.DATA_INCONSISTENCY, "check_out_time", "CheckTimeRule", Severity.MEDIUM,
+        "Check-out time cannot be before check-in time"),
+    
+    // Check-in realtime: CheckInRule
+    SCANNED_AT_FORMAT(ErrorType.INVALID_FORMAT, "scanned_at", "CheckInRule", Severity.HIGH,
+        "scanned_at must be in format yyyy-MM-ddTHH:mm or yyyy-MM-ddTHH:mm:ss"),
+    SCANNED_AT_IN_FUTURE(ErrorType.BUSINESS_RULE_VIOLATION, "scanned_at", "CheckInRule", Severity.HIGH,
+        "scanned_at cannot be in the future"),
+    SCANNED_AT_TERM_CLOSED(ErrorType.BUSINESS_RULE_VIOLATION, "scanned_at", "CheckInRule", Severity.HIGH,
+        "scanned_at is in an archived term (closed through {0})"),
+    SESSION_NOT_OPEN(ErrorType.BUSINESS_RULE_VIOLATION, "session_number", "CheckInRule", Severity.HIGH,
+        "No session is open at {0}");
+    
+    private final ErrorType errorType;
+    private final String field;
+    private final String rule;
+    private final Severity severity;
+    private final String template;
+    
+    ValidationErrorCode(ErrorType errorType, String field, String rule, Severity severity, String template) {
+        this.errorType = errorType;
+        this.field = field;
+        this.rule = rule;
+        this.severity = severity;
+        this.template = template;
+    }
+    
+    public ErrorType getErrorType() {
+        return errorType;
+    }
+    
+    public String getField() {
+        return field;
+    }
+    
+    public String getRule() {
+        return rule;
+    }
+    
+    public Severity getSeverity() {
+        return severity;
+    }
+    
+    public String getTemplate() {
+        return template;
+    }
+    
+    /**
+     * Resolve template với args ({0} → args[0], ...)
+     */
+    public String format(String... args) {
+        if (args == null || args.length == 0 || template.indexOf('{') < 0) {
+            return template;
+        }
+        
+        StringBuilder sb = new StringBuilder(template.length() + 16);
+        int i = 0;
+        while (i < template.length()) {
+            char c = template.charAt(i);
+            int close = c == '{' ? template.indexOf('}', i) : -1;
+            
+            if (close > i + 1) {
+                int index = parseIndex(template, i + 1, close);
+                if (index >= 0 && index < args.length) {
+                    sb.append(args[index]);
+                    i = close + 1;
+                    continue;
+                }
+            }
+            sb.append(c);
+            i++;
+        }
+        return sb.toString();
+    }
+    
+    private static int parseIndex(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
\ No newline at end of file
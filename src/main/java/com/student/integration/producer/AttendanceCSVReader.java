@@ -0,0 +1,128 @@
+package com.student.integration.producer;
+
+import com.student.integration.model.dto.AttendanceRawDTO;
+import com.student.integration.util.StringInterner;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * CSV Reader cho file điểm danh
+ *
+ * Chỉ có chế độ streaming: file điểm danh một kỳ có hàng triệu dòng,
+ * không đọc cả file vào List như CSVReader.readCSV
+ */
+public class AttendanceCSVReader {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceCSVReader.class);
+    
+    // Cột ít giá trị (class_code, ngày, buổi, status): mọi dòng dùng chung một String
+    private final StringInterner interner = StringInterner.getInstance();
+    
+    /**
+     * Đọc CSV file với callback, mỗi dòng được giao ngay khi đọc
+     */
+    public void readCSVStreaming(Path filePath, RowCallback callback) throws IOException, TimeoutException {
+        
+        logger.info("Reading attendance CSV file (streaming mode): {}", filePath.getFileName());
+        
+        String sourceFile = filePath.getFileName().toString();
+        
+        try (Reader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8);
+             CSVParser csvParser = new CSVParser(reader,
+                 CSVFormat.DEFAULT
+                     .builder()
+                     .setHeader()
+                     .setSkipHeaderRecord(true)
+                     .setIgnoreEmptyLines(true)
+                     .setTrim(true)
+                     .build())) {
+            
+            int rowNumber = 1; // Header is row 0
+            int processedCount = 0;
+            int errorCount = 0;
+            
+            for (CSVRecord record : csvParser) {
+                rowNumber++;
+                
+                AttendanceRawDTO row;
+                try {
+                    row = parseRecord(record, rowNumber);
+                } catch (RuntimeException e) {
+                    errorCount++;
+                    logger.warn("Error parsing row {}: {}", rowNumber, e.getMessage());
+                    callback.onError(rowNumber, e);
+                    continue;
+                }
+                
+                // Lỗi của callback (publish) không phải lỗi dòng: dừng đọc, caller xử lý
+                callback.onRow(row, processedCount + 1);
+                processedCount++;
+                
+                if (processedCount % 100000 == 0) {
+                    logger.info("📤 Read {} attendance rows from {} (Errors: {})",
+                        processedCount, sourceFile, errorCount);
+                }
+            }
+            
+            logger.info("✅ Streaming completed: {} attendance rows, {} errors", processedCount, errorCount);
+            
+            callback.onComplete(processedCount, errorCount);
+            
+        } catch (IOException e) {
+            logger.error("❌ Failed to read attendance CSV file: {}", filePath, e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Parse CSVRecord thành AttendanceRawDTO
+     */
+    AttendanceRawDTO parseRecord(CSVRecord record, int rowNumber) {
+        AttendanceRawDTO row = new AttendanceRawDTO();
+        
+        row.setStudentId(getFieldValue(record, "student_id"));
+        row.setClassCode(getInternedValue(record, "class_code"));
+        row.setAttendanceDate(getInternedValue(record, "attendance_date"));
+        row.setSessionNumber(getInternedValue(record, "session_number"));
+        row.setStatus(getInternedValue(record, "status"));
+        row.setCheckInTime(getFieldValue(record, "check_in_time"));
+        row.setCheckOutTime(getFieldValue(record, "check_out_time"));
+        row.setNote(getFieldValue(record, "note"));
+        row.setRowNum(rowNumber);
+        
+        return row;
+    }
+    
+    /**
+     * Helper: Get field value từ CSV record (handle missing columns)
+     */
+    private String getFieldValue(CSVRecord record, String fieldName) {
+        if (record.isMapped(fieldName) && record.isSet(fieldName)) {
+            return record.get(fieldName);
+        }
+        return null;
+    }
+    
+    private String getInternedValue(CSVRecord record, String fieldName) {
+        return interner.intern(getFieldValue(record, fieldName));
+    }
+    
+    /**
+     * Callback interface cho streaming mode
+     */
+    public interface RowCallback {
+        void onRow(AttendanceRawDTO row, int rowCount) throws IOException, TimeoutException;
+        void onError(int rowNumber, Exception error);
+        void onComplete(int totalProcessed, int totalErrors);
+    }
+}
\ No newline at end of file
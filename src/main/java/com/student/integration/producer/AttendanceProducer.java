@@ -0,0 +1,132 @@
+package com.student.integration.producer;
+
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.MessagePublisher;
+import com.student.integration.loader.ImportBatchRepository;
+import com.student.integration.model.dto.AttendanceChunk;
+import com.student.integration.model.dto.AttendanceRawDTO;
+import com.student.integration.model.dto.BatchMarker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Producer cho file điểm danh
+ *
+ * - Gom attendance.chunk.size dòng thành một message AttendanceChunk
+ *   (hàng triệu dòng mỗi kỳ: 1 message / dòng thì broker và ACK là bottleneck)
+ * - Mỗi file là một batch trong import_batches như StudentProducer;
+ *   marker END_OF_STREAM đếm theo dòng để stage sau so với tổng dòng đã xử lý
+ */
+public class AttendanceProducer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceProducer.class);
+    
+    private final AttendanceCSVReader csvReader;
+    private final MessagePublisher messagePublisher;
+    private final ImportBatchRepository batchRepository;
+    private final int chunkSize;
+    
+    public AttendanceProducer() {
+        this.csvReader = new AttendanceCSVReader();
+        this.messagePublisher = new MessagePublisher();
+        this.batchRepository = new ImportBatchRepository();
+        this.chunkSize = Math.max(1, ConfigLoader.getInstance().getIntProperty("attendance.chunk.size", 500));
+    }
+    
+    /**
+     * Đọc file điểm danh (streaming) và publish theo chunk
+     *
+     * @return batch ID của file
+     */
+    public String publishFromCSV(Path csvFile) throws IOException, TimeoutException {
+        String fileName = csvFile.getFileName().toString();
+        logger.info("📂 Reading attendance file: {} (chunk size {})", fileName, chunkSize);
+        
+        String batchId = startBatch(csvFile);
+        
+        int[] published = {0};
+        int[] chunks = {0};
+        int[] parseErrors = {0};
+        AttendanceChunk[] current = {new AttendanceChunk(batchId, fileName, chunkSize)};
+        
+        csvReader.readCSVStreaming(csvFile, new AttendanceCSVReader.RowCallback() {
+            
+            @Override
+            public void onRow(AttendanceRawDTO row, int rowCount) throws IOException, TimeoutException {
+                current[0].add(row);
+                if (current[0].size() >= chunkSize) {
+                    flush();
+                }
+            }
+            
+            @Override
+            public void onError(int rowNumber, Exception error) {
+                parseErrors[0]++;
+            }
+            
+            @Override
+            public void onComplete(int totalProcessed, int totalErrors) {
+                // Chunk cuối được flush sau khi reader return (flush có thể throw)
+            }
+            
+            private void flush() throws IOException, TimeoutException {
+                messagePublisher.publishToAttendanceRaw(current[0]);
+                published[0] += current[0].size();
+                chunks[0]++;
+                current[0] = new AttendanceChunk(batchId, fileName, chunkSize);
+            }
+        });
+        
+        if (current[0].size() > 0) {
+            messagePublisher.publishToAttendanceRaw(current[0]);
+            published[0] += current[0].size();
+            chunks[0]++;
+        }
+        
+        logger.info("✅ Attendance publish completed: {} rows in {} chunks, {} parse errors",
+            published[0], chunks[0], parseErrors[0]);
+        
+        finishBatch(new BatchMarker(batchId, fileName,
+            published[0] + parseErrors[0], published[0], parseErrors[0]));
+        return batchId;
+    }
+    
+    /**
+     * Tạo batch ID và ghi import_batches (PROCESSING)
+     * DB lỗi thì vẫn publish, chỉ mất phần tracking trong import_batches
+     */
+    private String startBatch(Path csvFile) throws IOException {
+        String fileName = csvFile.getFileName().toString();
+        String batchId = ImportBatchRepository.newBatchId(fileName);
+        
+        try {
+            batchRepository.start(batchId, fileName, Files.size(csvFile));
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Could not record import batch {}: {}", batchId, e.getMessage());
+        }
+        
+        logger.info("🆔 Batch ID: {}", batchId);
+        return batchId;
+    }
+    
+    /**
+     * Ghi tổng số dòng và gửi END_OF_STREAM sau chunk cuối của batch
+     */
+    private void finishBatch(BatchMarker marker) throws IOException, TimeoutException {
+        try {
+            batchRepository.updateTotalRows(marker.getBatchId(), marker.getTotalRows());
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Could not update import batch {}: {}", marker.getBatchId(), e.getMessage());
+        }
+        
+        messagePublisher.publishEndOfStreamToAttendanceRaw(marker);
+        logger.info("📨 End of batch {}: {} rows published, {} failed",
+            marker.getBatchId(), marker.getExpectedRecords(), marker.getParseErrors());
+    }
+}
\ No newline at end of file
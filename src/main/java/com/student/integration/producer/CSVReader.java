@@ -1,6 +1,8 @@
 package com.student.integration.producer;
 
 import com.student.integration.model.dto.StudentRawDTO;
+import com.student.integration.tracing.Tracer;
+import com.student.integration.util.StringInterner;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
@@ -23,9 +25,14 @@ public class CSVReader {
     
     private static final Logger logger = LoggerFactory.getLogger(CSVReader.class);
     
+    private final Tracer tracer = Tracer.getInstance();
+    
+    // Cột ít giá trị (city, major, status...): mọi record dùng chung một String
+    private final StringInterner interner = StringInterner.getInstance();
+    
     /**
      * Đọc CSV file và convert thành list StudentRawDTO
-     * 
+     *
      * @param filePath Path to CSV file
      * @return List of StudentRawDTO
      */
@@ -35,7 +42,7 @@ public class CSVReader {
         logger.info("Reading CSV file: {}", filePath.getFileName());
         
         try (Reader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8);
-             CSVParser csvParser = new CSVParser(reader, 
+             CSVParser csvParser = new CSVParser(reader,
                  CSVFormat.DEFAULT
                      .builder()
                      .setHeader()
@@ -78,7 +85,7 @@ public class CSVReader {
     /**
      * Đọc CSV file với callback (streaming)
      * Cho phép process từng record ngay khi đọc
-     * 
+     *
      * @param filePath Path to CSV file
      * @param callback Callback để xử lý mỗi record
      */
@@ -87,7 +94,7 @@ public class CSVReader {
         logger.info("Reading CSV file (streaming mode): {}", filePath.getFileName());
         
         try (Reader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8);
-             CSVParser csvParser = new CSVParser(reader, 
+             CSVParser csvParser = new CSVParser(reader,
                  CSVFormat.DEFAULT
                      .builder()
                      .setHeader()
@@ -122,7 +129,7 @@ public class CSVReader {
                 }
             }
             
-            logger.info("✅ Streaming completed: {} records processed, {} errors", 
+            logger.info("✅ Streaming completed: {} records processed, {} errors",
                 processedCount, errorCount);
             
             // Final callback
@@ -136,40 +143,44 @@ public class CSVReader {
     
     /**
      * Parse CSVRecord thành StudentRawDTO
+     * (package-private để benchmark gọi trực tiếp)
      */
-    private StudentRawDTO parseRecord(CSVRecord record, String sourceFile, int rowNumber) {
+    StudentRawDTO parseRecord(CSVRecord record, String sourceFile, int rowNumber) {
         StudentRawDTO student = new StudentRawDTO();
         
         // Basic Information
         student.setStudentId(getFieldValue(record, "student_id"));
         student.setFullName(getFieldValue(record, "full_name"));
         student.setDateOfBirth(getFieldValue(record, "date_of_birth"));
-        student.setGender(getFieldValue(record, "gender"));
+        student.setGender(getInternedValue(record, "gender"));
         
         // Contact Information
         student.setEmail(getFieldValue(record, "email"));
         student.setPhone(getFieldValue(record, "phone"));
         student.setAddress(getFieldValue(record, "address"));
-        student.setCity(getFieldValue(record, "city"));
-        student.setProvince(getFieldValue(record, "province"));
+        student.setCity(getInternedValue(record, "city"));
+        student.setProvince(getInternedValue(record, "province"));
         student.setPostalCode(getFieldValue(record, "postal_code"));
         
         // Academic Information
-        student.setClassCode(getFieldValue(record, "class_code"));
-        student.setMajor(getFieldValue(record, "major"));
-        student.setFaculty(getFieldValue(record, "faculty"));
-        student.setAcademicYear(getFieldValue(record, "academic_year"));
+        student.setClassCode(getInternedValue(record, "class_code"));
+        student.setMajor(getInternedValue(record, "major"));
+        student.setFaculty(getInternedValue(record, "faculty"));
+        student.setAcademicYear(getInternedValue(record, "academic_year"));
         student.setEnrollmentDate(getFieldValue(record, "enrollment_date"));
         
         // Performance
         student.setGpa(getFieldValue(record, "gpa"));
         student.setTotalCredits(getFieldValue(record, "total_credits"));
-        student.setStatus(getFieldValue(record, "status"));
+        student.setStatus(getInternedValue(record, "status"));
         
         // Metadata
         student.setSourceFile(sourceFile);
         student.setRowNum(rowNumber);
         
+        // Correlation ID + timestamp READ (nếu được sample), MessagePublisher gắn vào message
+        student.setTrace(tracer.startTrace(sourceFile));
+        
         return student;
     }
     
@@ -187,6 +198,13 @@ public class CSVReader {
         return null;
     }
     
+    /**
+     * Helper: như getFieldValue, lấy bản canonical từ dictionary
+     */
+    private String getInternedValue(CSVRecord record, String fieldName) {
+        return interner.intern(getFieldValue(record, fieldName));
+    }
+    
     /**
      * Callback interface cho streaming mode
      */
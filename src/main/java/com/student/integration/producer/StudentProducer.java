@@ -1,18 +1,25 @@
 package com.student.integration.producer;
 
 import com.student.integration.config.MessagePublisher;
+import com.student.integration.loader.ImportBatchRepository;
+import com.student.integration.model.dto.BatchMarker;
 import com.student.integration.model.dto.StudentRawDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Producer để gửi student records vào RabbitMQ
+ *
+ * Mỗi file CSV là một batch: record mang batch_id, sau record cuối gửi marker
+ * END_OF_STREAM với số record đã publish để các stage sau biết khi nào file xong
  */
 public class StudentProducer {
     
@@ -20,18 +27,24 @@ public class StudentProducer {
     
     private final CSVReader csvReader;
     private final MessagePublisher messagePublisher;
+    private final ImportBatchRepository batchRepository;
     
     public StudentProducer() {
         this.csvReader = new CSVReader();
         this.messagePublisher = new MessagePublisher();
+        this.batchRepository = new ImportBatchRepository();
     }
     
     /**
      * Đọc CSV file và publish tất cả records vào queue (Batch mode)
+     *
+     * @return batch ID của file
      */
-    public void publishFromCSVBatch(Path csvFile) throws IOException, TimeoutException {
+    public String publishFromCSVBatch(Path csvFile) throws IOException, TimeoutException {
         logger.info("📂 Reading CSV file (batch mode): {}", csvFile.getFileName());
         
+        String batchId = startBatch(csvFile);
+        
         // Read all records
         List<StudentRawDTO> students = csvReader.readCSV(csvFile);
         
@@ -43,6 +56,7 @@ public class StudentProducer {
         
         for (StudentRawDTO student : students) {
             try {
+                student.setBatchId(batchId);
                 messagePublisher.publishToRaw(student);
                 successCount++;
                 
@@ -59,16 +73,24 @@ public class StudentProducer {
         
         logger.info("✅ Batch publish completed: {} success, {} errors", 
             successCount, errorCount);
+        
+        finishBatch(new BatchMarker(batchId, csvFile.getFileName().toString(),
+            students.size(), successCount, errorCount));
+        return batchId;
     }
     
     /**
      * Đọc CSV file và publish realtime (Streaming mode)
      * Mỗi record được publish NGAY KHI ĐỌC
+     *
+     * @return batch ID của file
      */
-    public void publishFromCSVStreaming(Path csvFile) throws IOException {
+    public String publishFromCSVStreaming(Path csvFile) throws IOException, TimeoutException {
         logger.info("📂 Reading CSV file (streaming mode): {}", csvFile.getFileName());
         logger.info("🚀 Realtime processing: records will be published immediately");
         
+        String batchId = startBatch(csvFile);
+        
         AtomicInteger successCount = new AtomicInteger(0);
         AtomicInteger errorCount = new AtomicInteger(0);
         
@@ -78,6 +100,7 @@ public class StudentProducer {
             @Override
             public void onRecord(StudentRawDTO student, int recordNumber) throws Exception {
                 // Publish ngay khi đọc được record
+                student.setBatchId(batchId);
                 messagePublisher.publishToRaw(student);
                 successCount.incrementAndGet();
             }
@@ -93,12 +116,49 @@ public class StudentProducer {
                 logger.info("╔════════════════════════════════════════╗");
                 logger.info("║     STREAMING PUBLISH COMPLETED        ║");
                 logger.info("╠════════════════════════════════════════╣");
-                logger.info("║ Total Records:    {:>20} ║", totalProcessed);
-                logger.info("║ Successfully Published: {:>14} ║", successCount.get());
-                logger.info("║ Failed:           {:>20} ║", errorCount.get());
+                logger.info(String.format("║ Total Records:    %20d ║", totalProcessed + totalErrors));
+                logger.info(String.format("║ Successfully Published: %14d ║", successCount.get()));
+                logger.info(String.format("║ Failed:           %20d ║", errorCount.get()));
                 logger.info("╚════════════════════════════════════════╝");
             }
         });
+        
+        finishBatch(new BatchMarker(batchId, csvFile.getFileName().toString(),
+            successCount.get() + errorCount.get(), successCount.get(), errorCount.get()));
+        return batchId;
+    }
+    
+    /**
+     * Tạo batch ID và ghi import_batches (PROCESSING)
+     * DB lỗi thì vẫn publish, chỉ mất phần tracking trong import_batches
+     */
+    private String startBatch(Path csvFile) throws IOException {
+        String fileName = csvFile.getFileName().toString();
+        String batchId = ImportBatchRepository.newBatchId(fileName);
+        
+        try {
+            batchRepository.start(batchId, fileName, Files.size(csvFile));
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Could not record import batch {}: {}", batchId, e.getMessage());
+        }
+        
+        logger.info("🆔 Batch ID: {}", batchId);
+        return batchId;
+    }
+    
+    /**
+     * Ghi tổng số dòng và gửi END_OF_STREAM sau record cuối của batch
+     */
+    private void finishBatch(BatchMarker marker) throws IOException, TimeoutException {
+        try {
+            batchRepository.updateTotalRows(marker.getBatchId(), marker.getTotalRows());
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Could not update import batch {}: {}", marker.getBatchId(), e.getMessage());
+        }
+        
+        messagePublisher.publishEndOfStreamToRaw(marker);
+        logger.info("📨 End of batch {}: {} records published, {} failed",
+            marker.getBatchId(), marker.getExpectedRecords(), marker.getParseErrors());
     }
     
     /**
@@ -0,0 +1,188 @@
+package com.student.integration.tracing;
+
+import com.rabbitmq.client.AMQP;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Correlation ID + timestamps theo stage của một record, đi kèm message qua AMQP properties/headers
+ *
+ * - correlationId: có trên mọi message (AMQP property correlation_id)
+ * - Record được sample: thêm headers x-trace-source và x-trace-ts-<stage> (epoch micros)
+ * - Record không sample: không có headers → consumer gần như không tốn thêm gì
+ *
+ * Timestamp là wall clock của từng process, nên các stage chạy trên máy khác nhau
+ * phụ thuộc vào độ lệch đồng hồ (NTP).
+ */
+public class TraceContext {
+    
+    public static final String HEADER_SOURCE = "x-trace-source";
+    public static final String HEADER_TIMESTAMP_PREFIX = "x-trace-ts-";
+    
+    // Các stage (theo thứ tự trong pipeline)
+    public static final String READ = "read";
+    public static final String RAW_PUBLISHED = "raw_published";
+    public static final String VALIDATED = "validated";
+    public static final String VALIDATED_PUBLISHED = "validated_published";
+    public static final String ERROR_PUBLISHED = "error_published";
+    public static final String LOADED = "loaded";
+    public static final String TRANSFORMED_PUBLISHED = "transformed_published";
+    
+    private final String correlationId;
+    private final String sourceFile;
+    
+    // stage → epoch micros, giữ thứ tự stamp; null nếu không sample
+    private final Map<String, Long> timestamps;
+    
+    TraceContext(String correlationId, String sourceFile, boolean sampled) {
+        this.correlationId = correlationId;
+        this.sourceFile = sourceFile;
+        this.timestamps = sampled ? new LinkedHashMap<>() : null;
+    }
+    
+    /**
+     * Đọc trace từ message nhận được (null nếu message không có correlation ID)
+     */
+    public static TraceContext fromProperties(AMQP.BasicProperties properties) {
+        if (properties == null || properties.getCorrelationId() == null) {
+            return null;
+        }
+        
+        Map<String, Object> headers = properties.getHeaders();
+        Object source = headers != null ? headers.get(HEADER_SOURCE) : null;
+        if (source == null) {
+            return new TraceContext(properties.getCorrelationId(), null, false);
+        }
+        
+        // Headers không giữ thứ tự → sắp xếp lại stages theo timestamp
+        List<Map.Entry<String, Long>> stamped = new ArrayList<>();
+        for (Map.Entry<String, Object> header : headers.entrySet()) {
+            if (header.getKey().startsWith(HEADER_TIMESTAMP_PREFIX) && header.getValue() instanceof Number) {
+                stamped.add(Map.entry(header.getKey().substring(HEADER_TIMESTAMP_PREFIX.length()),
+                    ((Number) header.getValue()).longValue()));
+            }
+        }
+        stamped.sort(Map.Entry.comparingByValue());
+        
+        TraceContext trace = new TraceContext(properties.getCorrelationId(), source.toString(), true);
+        for (Map.Entry<String, Long> entry : stamped) {
+            trace.timestamps.put(entry.getKey(), entry.getValue());
+        }
+        return trace;
+    }
+    
+    /**
+     * Ghi thời điểm hiện tại cho stage (no-op nếu không sample)
+     */
+    public void stamp(String stage) {
+        if (timestamps != null) {
+            timestamps.put(stage, nowMicros());
+        }
+    }
+    
+    /**
+     * Properties cho message publish tiếp theo: base + correlation ID (+ headers nếu sample)
+     */
+    public AMQP.BasicProperties toProperties(AMQP.BasicProperties base) {
+        AMQP.BasicProperties.Builder builder = base.builder().correlationId(correlationId);
+        
+        if (timestamps != null) {
+            Map<String, Object> headers = new HashMap<>();
+            if (base.getHeaders() != null) {
+                headers.putAll(base.getHeaders());
+            }
+            headers.put(HEADER_SOURCE, sourceFile != null ? sourceFile : "");
+            for (Map.Entry<String, Long> entry : timestamps.entrySet()) {
+                headers.put(HEADER_TIMESTAMP_PREFIX + entry.getKey(), entry.getValue());
+            }
+            builder.headers(headers);
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Dạng nhị phân gọn cho transport không có headers (local log):
+     * correlationId, sampled, [sourceFile, số stage, (stage, micros)...]
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(correlationId);
+            out.writeBoolean(timestamps != null);
+            if (timestamps != null) {
+                out.writeUTF(sourceFile != null ? sourceFile : "");
+                out.writeByte(timestamps.size());
+                for (Map.Entry<String, Long> entry : timestamps.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Đọc lại trace đã ghi bằng toBytes()
+     */
+    public static TraceContext fromBytes(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            String correlationId = in.readUTF();
+            if (!in.readBoolean()) {
+                return new TraceContext(correlationId, null, false);
+            }
+            
+            TraceContext trace = new TraceContext(correlationId, in.readUTF(), true);
+            int stages = in.readUnsignedByte();
+            for (int i = 0; i < stages; i++) {
+                trace.timestamps.put(in.readUTF(), in.readLong());
+            }
+            return trace;
+        }
+    }
+    
+    public String getCorrelationId() {
+        return correlationId;
+    }
+    
+    public String getSourceFile() {
+        return sourceFile;
+    }
+    
+    public boolean isSampled() {
+        return timestamps != null;
+    }
+    
+    /**
+     * Timestamps (epoch micros) theo thứ tự stamp, rỗng nếu không sample
+     */
+    public Map<String, Long> getTimestamps() {
+        return timestamps != null ? timestamps : Map.of();
+    }
+    
+    static long nowMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000;
+    }
+    
+    @Override
+    public String toString() {
+        return "TraceContext{" +
+                "correlationId='" + correlationId + '\'' +
+                ", sourceFile='" + sourceFile + '\'' +
+                ", timestamps=" + timestamps +
+                '}';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.student.integration.tracing;
+
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.metrics.LatencyHistogram;
+import com.student.integration.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tạo TraceContext cho record mới và ghi nhận latency end-to-end của record được sample
+ *
+ * - tracing.enabled: tắt thì không gắn correlation ID / headers
+ * - tracing.sample.rate: tỉ lệ record được stamp timestamps (0.01 = 1 trên 100)
+ * - Correlation ID = prefix ngẫu nhiên của process + số thứ tự (không dùng UUID/SecureRandom)
+ */
+public class Tracer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(Tracer.class);
+    
+    private static Tracer instance;
+    
+    private final boolean enabled;
+    // Sample 1 trên sampleEvery record (0 = không sample)
+    private final long sampleEvery;
+    
+    private final String idPrefix;
+    private final AtomicLong sequence = new AtomicLong();
+    
+    private final MetricsRegistry registry;
+    
+    private Tracer(boolean enabled, double sampleRate, MetricsRegistry registry) {
+        this.enabled = enabled;
+        this.sampleEvery = sampleRate <= 0 ? 0 : Math.max(1, Math.round(1.0 / Math.min(sampleRate, 1.0)));
+        this.idPrefix = Long.toHexString(ThreadLocalRandom.current().nextLong() & 0xFFFFFFFFL) + "-";
+        this.registry = registry;
+    }
+    
+    public static synchronized Tracer getInstance() {
+        if (instance == null) {
+            ConfigLoader config = ConfigLoader.getInstance();
+            instance = new Tracer(
+                config.getBooleanProperty("tracing.enabled", true),
+                Double.parseDouble(config.getProperty("tracing.sample.rate", "0.01")),
+                MetricsRegistry.getInstance());
+        }
+        return instance;
+    }
+    
+    /**
+     * Trace cho record vừa đọc từ source (stamp READ nếu được sample), null nếu tracing tắt
+     */
+    public TraceContext startTrace(String sourceFile) {
+        if (!enabled) {
+            return null;
+        }
+        
+        long id = sequence.incrementAndGet();
+        boolean sampled = sampleEvery > 0 && id % sampleEvery == 0;
+        
+        TraceContext trace = new TraceContext(idPrefix + Long.toHexString(id), sourceFile, sampled);
+        trace.stamp(TraceContext.READ);
+        return trace;
+    }
+    
+    /**
+     * Ghi latency của record đã load xong (chỉ với record được sample):
+     * - pipeline_end_to_end_latency_seconds{source_file}: READ → stage cuối
+     * - pipeline_trace_hop_seconds{stage}: từ stage trước → stage này (gồm thời gian chờ trong queue)
+     */
+    public void recordCompleted(TraceContext trace) {
+        if (trace == null || !trace.isSampled()) {
+            return;
+        }
+        
+        Map<String, Long> timestamps = trace.getTimestamps();
+        Iterator<Map.Entry<String, Long>> it = timestamps.entrySet().iterator();
+        if (!it.hasNext()) {
+            return;
+        }
+        
+        Map.Entry<String, Long> first = it.next();
+        long previous = first.getValue();
+        long last = previous;
+        while (it.hasNext()) {
+            Map.Entry<String, Long> entry = it.next();
+            last = entry.getValue();
+            registry.histogram("pipeline_trace_hop_seconds",
+                "Latency from previous traced stage, sampled records", "stage", entry.getKey())
+                .record(TimeUnit.MICROSECONDS.toNanos(last - previous));
+            previous = last;
+        }
+        
+        String source = trace.getSourceFile() != null && !trace.getSourceFile().isEmpty()
+            ? trace.getSourceFile() : "unknown";
+        LatencyHistogram endToEnd = registry.histogram("pipeline_end_to_end_latency_seconds",
+            "Latency from CSV read to DB load, sampled records", "source_file", source);
+        endToEnd.record(TimeUnit.MICROSECONDS.toNanos(last - first.getValue()));
+        
+        logger.debug("Trace {} ({}): {}", trace.getCorrelationId(), source, timestamps);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
\ No newline at end of file
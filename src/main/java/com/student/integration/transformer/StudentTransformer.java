@@ -1,15 +1,17 @@
 package com.student.integration.transformer;
 
+import com.student.integration.model.dto.ParsedStudentData;
 import com.student.integration.model.dto.StudentRawDTO;
+import com.student.integration.model.dto.ValidationResult;
 import com.student.integration.model.entity.Student;
 import com.student.integration.model.enums.Gender;
 import com.student.integration.model.enums.StudentStatus;
+import com.student.integration.util.IsoDates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Transformer để convert StudentRawDTO (String) → Student Entity (proper types)
@@ -17,7 +19,6 @@ import java.time.format.DateTimeFormatter;
 public class StudentTransformer {
     
     private static final Logger logger = LoggerFactory.getLogger(StudentTransformer.class);
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
     
     /**
      * Transform StudentRawDTO to Student Entity
@@ -27,6 +28,22 @@ public class StudentTransformer {
      * @return Student entity với proper types
      */
     public Student transform(StudentRawDTO rawDTO, Integer classId) {
+        return transform(rawDTO, null, classId);
+    }
+    
+    /**
+     * Transform từ ValidationResult - dùng lại giá trị typed mà validators đã parse
+     * (date_of_birth, gpa) thay vì parse lại String
+     * 
+     * @param validationResult Kết quả validation (raw data + parsed data)
+     * @param classId Class ID từ database lookup
+     * @return Student entity với proper types
+     */
+    public Student transform(ValidationResult validationResult, Integer classId) {
+        return transform(validationResult.getRawData(), validationResult.getParsedData(), classId);
+    }
+    
+    private Student transform(StudentRawDTO rawDTO, ParsedStudentData parsed, Integer classId) {
         Student student = new Student();
         
         try {
@@ -35,8 +52,10 @@ public class StudentTransformer {
             student.setFullName(rawDTO.getFullName());
             
             // Date of Birth (String → LocalDate)
-            if (rawDTO.getDateOfBirth() != null) {
-                student.setDateOfBirth(LocalDate.parse(rawDTO.getDateOfBirth(), DATE_FORMATTER));
+            if (parsed != null && parsed.getDateOfBirth() != null) {
+                student.setDateOfBirth(parsed.getDateOfBirth());
+            } else if (rawDTO.getDateOfBirth() != null) {
+                student.setDateOfBirth(parseDate("date_of_birth", rawDTO.getDateOfBirth()));
             }
             
             // Gender (String → Enum)
@@ -56,11 +75,13 @@ public class StudentTransformer {
             student.setClassId(classId);
             
             if (rawDTO.getEnrollmentDate() != null) {
-                student.setEnrollmentDate(LocalDate.parse(rawDTO.getEnrollmentDate(), DATE_FORMATTER));
+                student.setEnrollmentDate(parseDate("enrollment_date", rawDTO.getEnrollmentDate()));
             }
             
             // Performance (String → BigDecimal, Integer)
-            if (rawDTO.getGpa() != null) {
+            if (parsed != null && parsed.getGpa() != null) {
+                student.setGpa(parsed.getGpa());
+            } else if (rawDTO.getGpa() != null) {
                 student.setGpa(new BigDecimal(rawDTO.getGpa()));
             }
             
@@ -81,4 +102,15 @@ public class StudentTransformer {
             throw new RuntimeException("Transform failed for student " + rawDTO.getStudentId(), e);
         }
     }
+    
+    /**
+     * Parse yyyy-MM-dd bằng IsoDates (không dùng DateTimeParseException cho mỗi lỗi)
+     */
+    private LocalDate parseDate(String field, String value) {
+        int ymd = IsoDates.parseYmd(value);
+        if (ymd == IsoDates.INVALID) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+        return IsoDates.toLocalDate(ymd);
+    }
 }
\ No newline at end of file
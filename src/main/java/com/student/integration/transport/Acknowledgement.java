@@ -0,0 +1,11 @@
+package com.student.integration.transport;
+
+/**
+ * ACK trễ của một message đã giao (InboundMessage.defer)
+ * Gọi được từ thread khác, gọi nhiều lần chỉ có tác dụng lần đầu
+ */
+@FunctionalInterface
+public interface Acknowledgement {
+    
+    void ack();
+}
\ No newline at end of file
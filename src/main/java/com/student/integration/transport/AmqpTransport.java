@@ -0,0 +1,222 @@
+package com.student.integration.transport;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.DeliverCallback;
+import com.rabbitmq.client.Delivery;
+import com.rabbitmq.client.MessageProperties;
+import com.student.integration.config.RabbitMQConfig;
+import com.student.integration.metrics.PipelineMetrics;
+import com.student.integration.metrics.StageMetrics;
+import com.student.integration.model.enums.MessageType;
+import com.student.integration.tracing.TraceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transport qua RabbitMQ
+ *
+ * - Payload serialize JSON, delivery mode persistent
+ * - Trace đi trong correlationId + headers, loại message trong header x-message-type
+ * - Manual ACK sau khi handler xong, NACK + requeue nếu handler throw
+ * - Handler gọi defer(): ACK khi handler gọi ack() (từ thread bất kỳ); message chưa ack
+ *   tính vào prefetch và được requeue khi channel đóng
+ */
+public class AmqpTransport implements Transport {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AmqpTransport.class);
+    
+    private final RabbitMQConfig config;
+    private final JsonCodec codec;
+    private final StageMetrics ackMetrics;
+    
+    public AmqpTransport(RabbitMQConfig config) {
+        this.config = config;
+        this.codec = JsonCodec.getInstance();
+        this.ackMetrics = PipelineMetrics.getInstance().stage(PipelineMetrics.Stage.ACK);
+    }
+    
+    @Override
+    public void publish(String exchange, String routingKey, MessageType type,
+                        Object payload, TraceContext trace) throws IOException, TimeoutException {
+        
+        try (Channel channel = config.getConnection().createChannel()) {
+            byte[] messageBytes = codec.encode(payload);
+            
+            channel.basicPublish(exchange, routingKey, properties(type, trace), messageBytes);
+            
+            logger.debug("Published {} to {}/{}: {} bytes",
+                type, exchange, routingKey, messageBytes.length);
+        }
+    }
+    
+    @Override
+    public int publishBatch(String exchange, String routingKey, Iterable<?> payloads)
+            throws IOException, TimeoutException {
+        
+        // Một channel cho cả batch
+        try (Channel channel = config.getConnection().createChannel()) {
+            int count = 0;
+            for (Object payload : payloads) {
+                channel.basicPublish(exchange, routingKey,
+                    MessageProperties.PERSISTENT_TEXT_PLAIN, codec.encode(payload));
+                count++;
+            }
+            return count;
+        }
+    }
+    
+    private static AMQP.BasicProperties properties(MessageType type, TraceContext trace) {
+        AMQP.BasicProperties properties = MessageProperties.PERSISTENT_TEXT_PLAIN;
+        if (type != MessageType.RECORD) {
+            properties = properties.builder()
+                .headers(Map.of(MessageType.HEADER, type.name()))
+                .build();
+        }
+        if (trace != null) {
+            properties = trace.toProperties(properties);
+        }
+        return properties;
+    }
+    
+    @Override
+    public Subscription subscribe(String queue, int prefetch, MessageHandler handler)
+            throws IOException, TimeoutException {
+        
+        Channel channel = config.getConnection().createChannel();
+        
+        // Set QoS - Prefetch count
+        channel.basicQos(prefetch);
+        
+        DeliverCallback deliverCallback = (consumerTag, delivery) -> {
+            long deliveryTag = delivery.getEnvelope().getDeliveryTag();
+            AmqpMessage message = new AmqpMessage(channel, delivery);
+            try {
+                handler.handle(message);
+                
+                // Manual ACK sau khi xử lý xong (handler đã defer thì tự ack sau)
+                if (message.deferred == null) {
+                    message.ack();
+                }
+                
+            } catch (Exception e) {
+                logger.error("Error processing message from {}", queue, e);
+                if (message.deferred != null && !message.deferred.compareAndSet(false, true)) {
+                    // Handler đã ack trước khi throw
+                    return;
+                }
+                
+                // NACK - requeue nếu có lỗi
+                long nackStart = System.nanoTime();
+                try {
+                    channel.basicNack(deliveryTag, false, true);
+                    ackMetrics.recordFailure(System.nanoTime() - nackStart);
+                } catch (IOException ex) {
+                    logger.error("Error sending NACK", ex);
+                }
+            }
+        };
+        
+        channel.basicConsume(
+            queue,
+            false,              // autoAck = false (manual ACK)
+            deliverCallback,
+            consumerTag -> logger.warn("Consumer cancelled: {}", consumerTag)
+        );
+        
+        return () -> {
+            if (channel.isOpen()) {
+                channel.close();
+            }
+        };
+    }
+    
+    @Override
+    public long getMessageCount(String queue) throws IOException, TimeoutException {
+        try (Channel channel = config.getConnection().createChannel()) {
+            return channel.queueDeclarePassive(queue).getMessageCount();
+        }
+    }
+    
+    @Override
+    public boolean isBrokered() {
+        return true;
+    }
+    
+    @Override
+    public String getName() {
+        return "amqp";
+    }
+    
+    /**
+     * Connection dùng chung (RabbitMQConfig) do application đóng
+     */
+    @Override
+    public void close() {
+    }
+    
+    /**
+     * Delivery của RabbitMQ, body chỉ được deserialize khi handler gọi getPayload()
+     */
+    private class AmqpMessage implements InboundMessage {
+        
+        private final Channel channel;
+        private final Delivery delivery;
+        
+        // != null sau defer(): true khi đã ack/nack
+        private volatile AtomicBoolean deferred;
+        
+        AmqpMessage(Channel channel, Delivery delivery) {
+            this.channel = channel;
+            this.delivery = delivery;
+        }
+        
+        @Override
+        public Acknowledgement defer() {
+            if (deferred == null) {
+                deferred = new AtomicBoolean();
+            }
+            return () -> {
+                if (deferred.compareAndSet(false, true)) {
+                    ack();
+                }
+            };
+        }
+        
+        private void ack() {
+            long ackStart = System.nanoTime();
+            try {
+                channel.basicAck(delivery.getEnvelope().getDeliveryTag(), false);
+                ackMetrics.recordSuccess(System.nanoTime() - ackStart);
+            } catch (IOException | RuntimeException e) {
+                // Channel đã đóng: broker requeue message chưa ack
+                ackMetrics.recordFailure(System.nanoTime() - ackStart);
+                logger.warn("Could not ack message: {}", e.getMessage());
+            }
+        }
+        
+        @Override
+        public MessageType getType() {
+            Map<String, Object> headers = delivery.getProperties() != null
+                ? delivery.getProperties().getHeaders()
+                : null;
+            Object type = headers != null ? headers.get(MessageType.HEADER) : null;
+            return type != null ? MessageType.valueOf(type.toString()) : MessageType.RECORD;
+        }
+        
+        @Override
+        public TraceContext getTrace() {
+            return TraceContext.fromProperties(delivery.getProperties());
+        }
+        
+        @Override
+        public <T> T getPayload(Class<T> type) throws IOException {
+            return codec.decode(delivery.getBody(), type);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.student.integration.transport;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Chờ khi consumer chưa có message mới: spin → yield → park
+ * Độ trễ nhận message tối đa ~parkNanos khi queue đã trống một lúc
+ */
+final class IdleStrategy {
+    
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    
+    private final long parkNanos;
+    private int count;
+    
+    IdleStrategy(long parkNanos) {
+        this.parkNanos = parkNanos;
+    }
+    
+    void idle() {
+        if (count < SPIN_TRIES) {
+            Thread.onSpinWait();
+            count++;
+        } else if (count < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+            count++;
+        } else {
+            LockSupport.parkNanos(parkNanos);
+        }
+    }
+    
+    /**
+     * Vừa nhận được message: lần chờ sau bắt đầu lại từ spin
+     */
+    void reset() {
+        count = 0;
+    }
+}
\ No newline at end of file
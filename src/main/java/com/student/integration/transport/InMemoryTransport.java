@@ -0,0 +1,165 @@
+package com.student.integration.transport;
+
+import com.student.integration.model.enums.MessageType;
+import com.student.integration.tracing.TraceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Transport trong bộ nhớ cho deployment một node (mọi role trong cùng JVM)
+ *
+ * - Mỗi queue là một RingBuffer bounded, routing key → queue theo bindings
+ * - Object truyền theo reference: không serialize, không broker, không TCP
+ * - Mỗi queue một consumer thread, prefetch không có tác dụng
+ * - Message publish trước khi consumer subscribe được giữ (tối đa capacity message gần nhất)
+ * - Handler throw: thử lại tại chỗ (backoff tối đa 5 giây) tới khi thành công hoặc consumer dừng, không bỏ
+ *   message; message luôn lỗi chặn queue (producer chờ khi ring đầy) - cần dead-letter thì dùng LogTransport
+ * - Không persistent: message còn trong ring mất khi JVM dừng
+ */
+public class InMemoryTransport implements Transport {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryTransport.class);
+    
+    // Consumer rảnh: spin → yield → park (độ trễ tối đa ~100µs khi queue trống)
+    private static final long IDLE_PARK_NANOS = 100_000;
+    
+    private final Map<String, String> bindings;
+    private final int capacity;
+    
+    private final Map<String, RingBuffer> rings = new ConcurrentHashMap<>();
+    private final List<Poller> pollers = new CopyOnWriteArrayList<>();
+    
+    /**
+     * @param bindings routing key → queue name
+     * @param capacity số slot mỗi queue (làm tròn lên lũy thừa của 2)
+     */
+    public InMemoryTransport(Map<String, String> bindings, int capacity) {
+        this.bindings = Map.copyOf(bindings);
+        this.capacity = capacity;
+        
+        logger.info("In-memory transport initialized - {} queues, capacity {} per queue",
+            this.bindings.size(), capacity);
+    }
+    
+    private RingBuffer ring(String queue) {
+        return rings.computeIfAbsent(queue, q -> new RingBuffer(capacity));
+    }
+    
+    @Override
+    public void publish(String exchange, String routingKey, MessageType type,
+                        Object payload, TraceContext trace) {
+        String queue = bindings.get(routingKey);
+        if (queue == null) {
+            // Giống direct exchange: routing key không bind queue nào thì message bị bỏ
+            logger.debug("No queue bound to routing key {}, dropping {}", routingKey, type);
+            return;
+        }
+        ring(queue).publish(type, payload, trace);
+    }
+    
+    @Override
+    public Subscription subscribe(String queue, int prefetch, MessageHandler handler) {
+        RingBuffer ring = ring(queue);
+        long firstSequence = ring.attach();
+        if (ring.getOverwritten() > 0) {
+            logger.warn("{} message(s) published to {} without a consumer were overwritten (capacity {})",
+                ring.getOverwritten(), queue, ring.getCapacity());
+        }
+        Poller poller = new Poller(queue, ring, handler, firstSequence);
+        pollers.add(poller);
+        poller.thread.start();
+        return poller::stop;
+    }
+    
+    @Override
+    public long getMessageCount(String queue) {
+        RingBuffer ring = rings.get(queue);
+        return ring != null ? ring.size() : 0;
+    }
+    
+    @Override
+    public boolean isBrokered() {
+        return false;
+    }
+    
+    @Override
+    public String getName() {
+        return "inmemory";
+    }
+    
+    @Override
+    public void close() {
+        for (Poller poller : pollers) {
+            poller.stop();
+        }
+    }
+    
+    /**
+     * Consumer thread của một queue: đọc tuần tự từng sequence, gọi handler rồi trả slot
+     */
+    private class Poller implements Runnable {
+        
+        private final RingBuffer ring;
+        private final RetryingHandler handler;
+        private final Thread thread;
+        
+        private volatile boolean running = true;
+        private long next;
+        
+        Poller(String queue, RingBuffer ring, MessageHandler handler, long firstSequence) {
+            this.ring = ring;
+            this.handler = new RetryingHandler(queue, handler);
+            this.next = firstSequence;
+            this.thread = new Thread(this, "inmemory-" + queue);
+            this.thread.setDaemon(true);
+        }
+        
+        @Override
+        public void run() {
+            IdleStrategy idle = new IdleStrategy(IDLE_PARK_NANOS);
+            try {
+                while (running) {
+                    RingBuffer.Slot slot = ring.peek(next);
+                    if (slot == null) {
+                        idle.idle();
+                        continue;
+                    }
+                    idle.reset();
+                    
+                    // Lỗi do consumer đang dừng: không release, consumer subscribe sau nhận lại message
+                    if (!handler.deliver(slot, this::isRunning) && !running) {
+                        break;
+                    }
+                    ring.release(next, slot);
+                    next++;
+                }
+            } finally {
+                ring.detach();
+            }
+        }
+        
+        private boolean isRunning() {
+            return running;
+        }
+        
+        void stop() {
+            running = false;
+            pollers.remove(this);
+            LockSupport.unpark(thread);
+            
+            if (Thread.currentThread() != thread) {
+                try {
+                    thread.join(5000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
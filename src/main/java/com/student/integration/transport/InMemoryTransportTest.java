@@ -0,0 +1,205 @@
+package com.student.integration.transport;
+
+import com.student.integration.model.enums.MessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test in-memory transport (không cần broker/DB)
+ *
+ * 1. Producer publish trước, consumer subscribe sau: nhận đủ message theo thứ tự
+ * 2. Publish vượt capacity khi chưa có consumer: nhận capacity message gần nhất
+ * 3. Đã có consumer chậm: producer chờ (backpressure), không mất message
+ * 4. Handler lỗi trong lúc consumer dừng: consumer subscribe sau nhận lại message
+ * 5. Handler lỗi nhiều lần liên tiếp (lỗi tạm thời): message không bị bỏ, thứ tự giữ nguyên
+ */
+public class InMemoryTransportTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryTransportTest.class);
+    
+    private static final int CAPACITY = 1024;
+    
+    public static void main(String[] args) {
+        logger.info("╔══════════════════════════════════════════════╗");
+        logger.info("║   IN-MEMORY TRANSPORT TEST                   ║");
+        logger.info("╚══════════════════════════════════════════════╝\n");
+        
+        try {
+            logger.info("1️⃣  Publish before subscribe...");
+            InMemoryTransport transport = newTransport();
+            publish(transport, 0, 100);
+            List<Integer> received = consume(transport, 100);
+            check(received.equals(range(0, 100)), "received " + received.size() + " messages out of order or missing");
+            transport.close();
+            logger.info("   ✓ 100 messages published before subscribe delivered in order");
+            
+            logger.info("\n2️⃣  Publish beyond capacity before subscribe...");
+            transport = newTransport();
+            publish(transport, 0, 3000);
+            check(transport.getMessageCount("q") == CAPACITY, "queue size " + transport.getMessageCount("q"));
+            received = consume(transport, CAPACITY);
+            check(received.equals(range(3000 - CAPACITY, 3000)), "expected the newest " + CAPACITY + " messages");
+            transport.close();
+            logger.info("   ✓ newest {} messages delivered, oldest {} overwritten", CAPACITY, 3000 - CAPACITY);
+            
+            logger.info("\n3️⃣  Backpressure with a slow consumer...");
+            testBackpressure();
+            
+            logger.info("\n4️⃣  Message failed during shutdown is redelivered...");
+            testFailedDuringShutdownIsRedelivered();
+            
+            logger.info("\n5️⃣  Repeated handler failures do not drop the message...");
+            testTransientFailureIsRetried();
+            
+            logger.info("\n✅ All tests passed!");
+            
+        } catch (Exception | AssertionError e) {
+            logger.error("❌ Test failed", e);
+            System.exit(1);
+        }
+    }
+    
+    private static void testBackpressure() throws Exception {
+        InMemoryTransport transport = newTransport();
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(10 * CAPACITY);
+        Subscription subscription = transport.subscribe("q", 1, message -> {
+            if (received.size() % 1000 == 0) {
+                Thread.sleep(5);
+            }
+            received.add(message.getPayload(Integer.class));
+            done.countDown();
+        });
+        
+        // 2 producer song song, mỗi producer 5 * capacity message
+        Thread[] producers = new Thread[2];
+        for (int p = 0; p < producers.length; p++) {
+            int from = p * 5 * CAPACITY;
+            producers[p] = new Thread(() -> publish(transport, from, 5 * CAPACITY));
+            producers[p].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        check(done.await(30, TimeUnit.SECONDS), "received only " + received.size() + " messages");
+        subscription.cancel();
+        transport.close();
+        
+        List<Integer> sorted = new ArrayList<>(received);
+        sorted.sort(null);
+        check(sorted.equals(range(0, 10 * CAPACITY)), "messages lost or duplicated under backpressure");
+        logger.info("   ✓ {} messages through a {}-slot ring without loss", received.size(), CAPACITY);
+    }
+    
+    private static void testFailedDuringShutdownIsRedelivered() throws Exception {
+        InMemoryTransport transport = newTransport();
+        publish(transport, 0, 10);
+        
+        // Message 5: handler chờ tới lúc consumer dừng rồi throw
+        List<Integer> firstRun = new CopyOnWriteArrayList<>();
+        CountDownLatch reached = new CountDownLatch(1);
+        AtomicBoolean stopping = new AtomicBoolean();
+        Subscription subscription = transport.subscribe("q", 1, message -> {
+            int value = message.getPayload(Integer.class);
+            if (value == 5) {
+                reached.countDown();
+                while (!stopping.get()) {
+                    Thread.sleep(1);
+                }
+                throw new IllegalStateException("handler interrupted by shutdown");
+            }
+            firstRun.add(value);
+        });
+        check(reached.await(10, TimeUnit.SECONDS), "message 5 never delivered");
+        stopping.set(true);
+        subscription.cancel();
+        check(firstRun.equals(range(0, 5)), "first run received " + firstRun);
+        
+        List<Integer> secondRun = consume(transport, 5);
+        transport.close();
+        check(secondRun.equals(range(5, 10)), "second subscriber received " + secondRun);
+        logger.info("   ✓ second subscriber received {}", secondRun);
+    }
+    
+    private static void testTransientFailureIsRetried() throws Exception {
+        InMemoryTransport transport = newTransport();
+        publish(transport, 0, 10);
+        
+        // Message 3 lỗi 6 lần liên tiếp (VD: DB mất kết nối vài giây) rồi thành công
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicBoolean dropped = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(10);
+        Subscription subscription = transport.subscribe("q", 1, new MessageHandler() {
+            @Override
+            public void handle(InboundMessage message) throws Exception {
+                int value = message.getPayload(Integer.class);
+                if (value == 3 && failures.incrementAndGet() <= 6) {
+                    throw new IllegalStateException("transient failure " + failures.get());
+                }
+                received.add(value);
+                done.countDown();
+            }
+            
+            @Override
+            public void onDropped(InboundMessage message, Exception cause) {
+                dropped.set(true);
+            }
+        });
+        check(done.await(30, TimeUnit.SECONDS), "received only " + received);
+        subscription.cancel();
+        transport.close();
+        
+        check(!dropped.get(), "message dropped");
+        check(received.equals(range(0, 10)), "received " + received);
+        logger.info("   ✓ message 3 delivered after {} failures, order kept", failures.get() - 1);
+    }
+    
+    private static InMemoryTransport newTransport() {
+        return new InMemoryTransport(Map.of("rk", "q"), CAPACITY);
+    }
+    
+    private static void publish(InMemoryTransport transport, int from, int count) {
+        for (int value = from; value < from + count; value++) {
+            transport.publish("", "rk", MessageType.RECORD, value, null);
+        }
+    }
+    
+    /**
+     * Subscribe, chờ nhận đủ count message rồi cancel
+     */
+    private static List<Integer> consume(InMemoryTransport transport, int count) throws Exception {
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(count);
+        Subscription subscription = transport.subscribe("q", 1, message -> {
+            received.add(message.getPayload(Integer.class));
+            done.countDown();
+        });
+        check(done.await(10, TimeUnit.SECONDS), "received only " + received.size() + " of " + count);
+        subscription.cancel();
+        return new ArrayList<>(received);
+    }
+    
+    private static List<Integer> range(int from, int to) {
+        List<Integer> values = new ArrayList<>();
+        for (int value = from; value < to; value++) {
+            values.add(value);
+        }
+        return values;
+    }
+    
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
\ No newline at end of file
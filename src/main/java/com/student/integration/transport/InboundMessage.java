@@ -0,0 +1,35 @@
+package com.student.integration.transport;
+
+import com.student.integration.model.enums.MessageType;
+import com.student.integration.tracing.TraceContext;
+
+import java.io.IOException;
+
+/**
+ * Message nhận được từ transport
+ * Chỉ hợp lệ trong lúc MessageHandler.handle() đang chạy (in-memory transport tái sử dụng slot)
+ */
+public interface InboundMessage {
+    
+    MessageType getType();
+    
+    /**
+     * Trace của message, null nếu producer không gắn
+     */
+    TraceContext getTrace();
+    
+    /**
+     * Payload dưới dạng type (AMQP: deserialize JSON, in-memory: cast object gốc)
+     */
+    <T> T getPayload(Class<T> type) throws IOException;
+    
+    /**
+     * Handler giữ message sau khi return (VD: gom batch): transport không ACK khi handle() return,
+     * handler gọi ack() sau khi xử lý xong. Chưa ack lúc consumer dừng → message được giao lại
+     * (AMQP: requeue khi channel đóng, local log: offset chưa commit)
+     * Mặc định (in-memory, không giao lại được): ack không làm gì
+     */
+    default Acknowledgement defer() {
+        return () -> { };
+    }
+}
\ No newline at end of file
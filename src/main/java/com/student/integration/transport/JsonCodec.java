@@ -0,0 +1,66 @@
+package com.student.integration.transport;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON encode/decode cho message trên AMQP và log transport
+ *
+ * Một instance dùng chung cho cả process: ObjectWriter và ObjectReader (theo type)
+ * được cấu hình một lần rồi cache, thread-safe và không tạo lại cho mỗi message.
+ * Các model chính (StudentRawDTO, ValidationResult, ValidationError, Student)
+ * có Serializer/Deserializer viết tay, được Jackson chọn qua @JsonSerialize/@JsonDeserialize.
+ */
+public class JsonCodec {
+    
+    private static JsonCodec instance;
+    
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    
+    private JsonCodec() {
+        this.objectMapper = new ObjectMapper();
+        
+        // Register JavaTimeModule for LocalDateTime support
+        this.objectMapper.registerModule(new JavaTimeModule());
+        
+        // Configure ObjectMapper to handle timestamps properly
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.objectMapper.disable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE);
+        this.objectMapper.disable(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS);
+        
+        this.writer = objectMapper.writer();
+    }
+    
+    public static synchronized JsonCodec getInstance() {
+        if (instance == null) {
+            instance = new JsonCodec();
+        }
+        return instance;
+    }
+    
+    public byte[] encode(Object payload) throws IOException {
+        return writer.writeValueAsBytes(payload);
+    }
+    
+    public <T> T decode(byte[] body, Class<T> type) throws IOException {
+        return readerFor(type).readValue(body);
+    }
+    
+    public ObjectWriter writer() {
+        return writer;
+    }
+    
+    public ObjectReader readerFor(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,205 @@
+package com.student.integration.transport;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Một file segment của local log, memory-mapped với kích thước cố định
+ *
+ * Record (căn theo 8 bytes):
+ *   int   length   - số byte từ đầu header đến hết payload, ghi SAU CÙNG (store-release)
+ *   int   crc32    - của type + traceLength + trace + payload
+ *   byte  type     - MessageType.ordinal() (thứ tự enum là một phần của format)
+ *   byte  reserved
+ *   short traceLength
+ *   bytes trace, payload
+ *
+ * length = 0: chưa có record (file mới được zero-fill), length = ROLLED: writer đã chuyển sang segment sau
+ * Tên file = offset của record đầu tiên (20 chữ số) + ".log"
+ */
+final class LogSegment {
+    
+    static final int HEADER_BYTES = 12;
+    static final int ROLLED = -1;
+    static final String SUFFIX = ".log";
+    
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    
+    private final Path file;
+    private final long baseOffset;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    
+    private LogSegment(Path file, long baseOffset, FileChannel channel, MappedByteBuffer buffer) {
+        this.file = file;
+        this.baseOffset = baseOffset;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = buffer.capacity() & ~7;
+    }
+    
+    /**
+     * Mở segment (tạo mới nếu chưa có), map toàn bộ size bytes
+     */
+    static LogSegment open(Path dir, long baseOffset, int size) throws IOException {
+        Path file = dir.resolve(String.format("%020d", baseOffset) + SUFFIX);
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        
+        // File cũ có thể lớn hơn nếu segment size đã đổi
+        long mapSize = Math.max(size, channel.size());
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mapSize);
+        return new LogSegment(file, baseOffset, channel, buffer);
+    }
+    
+    static long parseBaseOffset(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+    
+    static int recordSize(int traceLength, int payloadLength) {
+        return align(HEADER_BYTES + traceLength + payloadLength);
+    }
+    
+    static int align(int length) {
+        return (length + 7) & ~7;
+    }
+    
+    /**
+     * Ghi record tại position (caller đảm bảo còn chỗ và chỉ có một writer)
+     * Reader chỉ thấy record sau khi length được publish
+     */
+    void write(int position, byte type, byte[] trace, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(trace.length >>> 8);
+        crc.update(trace.length);
+        crc.update(trace);
+        crc.update(payload);
+        
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.put(position + 8, type);
+        buffer.put(position + 9, (byte) 0);
+        buffer.putShort(position + 10, (short) trace.length);
+        buffer.put(position + HEADER_BYTES, trace);
+        buffer.put(position + HEADER_BYTES + trace.length, payload);
+        
+        INT.setRelease(buffer, position, HEADER_BYTES + trace.length + payload.length);
+    }
+    
+    void markRolled(int position) {
+        INT.setRelease(buffer, position, ROLLED);
+    }
+    
+    /**
+     * length của record tại position: 0 = chưa có, ROLLED = sang segment sau (kể cả khi hết chỗ)
+     */
+    int lengthAt(int position) {
+        if (position + HEADER_BYTES > capacity) {
+            return ROLLED;
+        }
+        return (int) INT.getAcquire(buffer, position);
+    }
+    
+    /**
+     * Đọc record đã publish, null nếu CRC sai (record ghi dở khi crash)
+     */
+    Record read(int position, int length) {
+        if (length < HEADER_BYTES || position + length > capacity) {
+            return null;
+        }
+        
+        byte type = buffer.get(position + 8);
+        int traceLength = buffer.getShort(position + 10) & 0xFFFF;
+        if (HEADER_BYTES + traceLength > length) {
+            return null;
+        }
+        
+        byte[] trace = new byte[traceLength];
+        byte[] payload = new byte[length - HEADER_BYTES - traceLength];
+        buffer.get(position + HEADER_BYTES, trace);
+        buffer.get(position + HEADER_BYTES + traceLength, payload);
+        
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(traceLength >>> 8);
+        crc.update(traceLength);
+        crc.update(trace);
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            return null;
+        }
+        return new Record(type, trace, payload, align(length));
+    }
+    
+    /**
+     * Xóa trắng từ position đến hết segment (bỏ record ghi dở sau crash)
+     */
+    void truncate(int position) {
+        for (int i = position; i < capacity; i += 8) {
+            buffer.putLong(i, 0L);
+        }
+        buffer.force();
+    }
+    
+    /**
+     * fsync vùng [from, to) xuống đĩa
+     */
+    void force(int from, int to) {
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+    }
+    
+    void force() {
+        buffer.force();
+    }
+    
+    void close() throws IOException {
+        channel.close();
+    }
+    
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+    
+    long getBaseOffset() {
+        return baseOffset;
+    }
+    
+    int getCapacity() {
+        return capacity;
+    }
+    
+    Path getFile() {
+        return file;
+    }
+    
+    /**
+     * Record đã đọc ra khỏi segment (copy, dùng được sau khi segment bị xóa)
+     */
+    static final class Record {
+        
+        final byte type;
+        final byte[] trace;
+        final byte[] payload;
+        final int size;
+        
+        Record(byte type, byte[] trace, byte[] payload, int size) {
+            this.type = type;
+            this.trace = trace;
+            this.payload = payload;
+            this.size = size;
+        }
+    }
+}
\ No newline at end of file
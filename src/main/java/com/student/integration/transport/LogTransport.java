@@ -0,0 +1,421 @@
+package com.student.integration.transport;
+
+import com.student.integration.model.enums.MessageType;
+import com.student.integration.tracing.TraceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Transport bền vững không cần broker: mỗi queue là một SegmentedLog (file memory-mapped) trên đĩa
+ *
+ * - Publish = append tuần tự vào segment đang ghi (JSON như AMQP, trace dạng nhị phân)
+ * - fsync theo lô: sau mỗi flushMessages record và mỗi flushIntervalMs (mất tối đa một lô khi mất điện)
+ * - Consumer đọc tuần tự từ offset đã commit, offset lưu cùng lúc flush → at-least-once sau restart
+ * - Replay: subscribeFrom(queue, offset) đọc lại từ offset bất kỳ còn trong retention
+ * - Handler throw: thử lại tại chỗ tối đa maxRetries lần rồi chuyển record sang dead-letter log
+ *   "<queue>.dead" (fsync ngay), replayDeadLetters(queue) đưa lại vào queue;
+ *   throw trong lúc consumer dừng thì không commit, message được giao lại lần subscribe sau
+ * - Handler gọi defer(): offset chỉ commit tới record đầu tiên chưa ack, consumer vẫn đọc tiếp
+ * - Một process ghi một thư mục log, mỗi queue một consumer
+ */
+public class LogTransport implements Transport {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LogTransport.class);
+    
+    // Consumer rảnh: spin → yield → park (độ trễ tối đa ~1ms khi log đã đọc hết)
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    
+    private static final String DEAD_LETTER_SUFFIX = ".dead";
+    
+    private final Map<String, String> bindings;
+    private final Path baseDir;
+    private final int segmentBytes;
+    private final int flushMessages;
+    private final long retentionMs;
+    private final long retentionBytes;
+    private final int maxRetries;
+    private final JsonCodec codec;
+    
+    private final Map<String, SegmentedLog> logs = new ConcurrentHashMap<>();
+    private final List<Poller> pollers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService flusher;
+    
+    /**
+     * @param bindings        routing key → queue name
+     * @param baseDir         thư mục gốc, mỗi queue một thư mục con
+     * @param segmentBytes    kích thước mỗi segment
+     * @param flushMessages   fsync sau mỗi N record (0 = chỉ flush định kỳ)
+     * @param flushIntervalMs chu kỳ fsync + kiểm tra retention
+     * @param retentionMs     tuổi tối đa của segment đã đóng (0 = không giới hạn)
+     * @param retentionBytes  dung lượng tối đa mỗi queue (0 = không giới hạn)
+     * @param maxRetries      số lần thử lại khi handler throw
+     */
+    public LogTransport(Map<String, String> bindings, Path baseDir, int segmentBytes, int flushMessages,
+                        long flushIntervalMs, long retentionMs, long retentionBytes, int maxRetries) {
+        this.bindings = Map.copyOf(bindings);
+        this.baseDir = baseDir;
+        this.segmentBytes = segmentBytes;
+        this.flushMessages = flushMessages;
+        this.retentionMs = retentionMs;
+        this.retentionBytes = retentionBytes;
+        this.maxRetries = maxRetries;
+        this.codec = JsonCodec.getInstance();
+        
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "log-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        
+        logger.info("Local log transport initialized - dir {}, segment {} bytes, fsync every {} messages / {} ms",
+            baseDir.toAbsolutePath(), segmentBytes, flushMessages, flushIntervalMs);
+    }
+    
+    private SegmentedLog log(String queue) {
+        return logs.computeIfAbsent(queue, q -> {
+            try {
+                return new SegmentedLog(q, baseDir.resolve(q), segmentBytes, flushMessages,
+                    retentionMs, retentionBytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open log for queue " + q, e);
+            }
+        });
+    }
+    
+    @Override
+    public void publish(String exchange, String routingKey, MessageType type,
+                        Object payload, TraceContext trace) throws IOException {
+        String queue = bindings.get(routingKey);
+        if (queue == null) {
+            // Giống direct exchange: routing key không bind queue nào thì message bị bỏ
+            logger.debug("No queue bound to routing key {}, dropping {}", routingKey, type);
+            return;
+        }
+        
+        byte[] traceBytes = trace != null ? trace.toBytes() : new byte[0];
+        log(queue).append((byte) type.ordinal(), traceBytes, codec.encode(payload));
+    }
+    
+    @Override
+    public Subscription subscribe(String queue, int prefetch, MessageHandler handler) {
+        SegmentedLog log = log(queue);
+        return start(queue, log, log.attach(), handler);
+    }
+    
+    /**
+     * Đọc lại queue từ offset bất kỳ (offset đã bị retention xóa → từ record cũ nhất còn lại)
+     */
+    public Subscription subscribeFrom(String queue, long offset, MessageHandler handler) {
+        SegmentedLog log = log(queue);
+        return start(queue, log, log.attachAt(offset), handler);
+    }
+    
+    private Subscription start(String queue, SegmentedLog log, SegmentedLog.Cursor cursor,
+                               MessageHandler handler) {
+        logger.info("Consuming log {} from offset {} (end offset {})", queue, cursor.getOffset(), log.getEndOffset());
+        
+        Poller poller = new Poller(queue, log, cursor, handler);
+        pollers.add(poller);
+        poller.thread.start();
+        return poller::stop;
+    }
+    
+    /**
+     * Đưa mọi record trong dead-letter log của queue trở lại cuối queue (đọc từ offset đã phát lại lần trước)
+     * Queue đang có consumer thì record được xử lý lại ngay
+     * @return số record đã phát lại
+     */
+    public int replayDeadLetters(String queue) throws IOException {
+        SegmentedLog deadLetters = log(queue + DEAD_LETTER_SUFFIX);
+        SegmentedLog target = log(queue);
+        SegmentedLog.Cursor cursor = deadLetters.attach();
+        int replayed = 0;
+        try {
+            LogSegment.Record record;
+            while ((record = cursor.poll()) != null) {
+                target.append(record.type, record.trace, record.payload);
+                cursor.advance(record);
+                deadLetters.commit(cursor);
+                replayed++;
+            }
+            // Record đã nằm trên đĩa của queue trước khi offset dead-letter được lưu
+            target.flush();
+            deadLetters.flush();
+        } finally {
+            deadLetters.detach(cursor);
+        }
+        
+        logger.info("Replayed {} dead-lettered message(s) into {}", replayed, queue);
+        return replayed;
+    }
+    
+    /**
+     * Số record trong dead-letter log của queue chưa được phát lại
+     */
+    public long getDeadLetterCount(String queue) {
+        return log(queue + DEAD_LETTER_SUFFIX).getLag();
+    }
+    
+    private void deadLetter(String queue, InboundMessage message) throws IOException {
+        LogSegment.Record record = ((LogMessage) message).record;
+        SegmentedLog deadLetters = log(queue + DEAD_LETTER_SUFFIX);
+        deadLetters.append(record.type, record.trace, record.payload);
+        // Hiếm khi xảy ra: fsync ngay, offset của queue gốc có thể được lưu trước lần flush định kỳ
+        deadLetters.flush();
+    }
+    
+    /**
+     * Offset của record cũ nhất còn giữ / offset record tiếp theo sẽ được ghi
+     */
+    public long getStartOffset(String queue) {
+        return log(queue).getStartOffset();
+    }
+    
+    public long getEndOffset(String queue) {
+        return log(queue).getEndOffset();
+    }
+    
+    @Override
+    public long getMessageCount(String queue) {
+        SegmentedLog log = logs.get(queue);
+        return log != null ? log.getLag() : 0;
+    }
+    
+    private void flushAll() {
+        for (SegmentedLog log : logs.values()) {
+            try {
+                log.flush();
+                log.applyRetention();
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to flush log: {}", e.getMessage());
+            }
+        }
+    }
+    
+    @Override
+    public boolean isBrokered() {
+        return false;
+    }
+    
+    @Override
+    public String getName() {
+        return "log";
+    }
+    
+    @Override
+    public void close() {
+        for (Poller poller : pollers) {
+            poller.stop();
+        }
+        // Không interrupt flusher: FileChannel bị interrupt giữa lúc force() sẽ tự đóng
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        for (SegmentedLog log : logs.values()) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close log: {}", e.getMessage());
+            }
+        }
+        logs.clear();
+    }
+    
+    /**
+     * Consumer thread của một queue: đọc record, gọi handler, commit offset
+     */
+    private class Poller implements Runnable {
+        
+        private final SegmentedLog log;
+        private final SegmentedLog.Cursor cursor;
+        private final RetryingHandler handler;
+        private final Thread thread;
+        
+        // Record đã đọc mà chưa commit được vì có record defer chưa ack đứng trước (chỉ poller thread)
+        private final ArrayDeque<Checkpoint> inFlight = new ArrayDeque<>();
+        
+        private volatile boolean running = true;
+        
+        Poller(String queue, SegmentedLog log, SegmentedLog.Cursor cursor, MessageHandler handler) {
+            this.log = log;
+            this.cursor = cursor;
+            this.handler = new RetryingHandler(queue, handler, maxRetries, message -> deadLetter(queue, message));
+            this.thread = new Thread(this, "log-" + queue);
+            this.thread.setDaemon(true);
+        }
+        
+        @Override
+        public void run() {
+            IdleStrategy idle = new IdleStrategy(IDLE_PARK_NANOS);
+            try {
+                while (running) {
+                    LogSegment.Record record = cursor.poll();
+                    if (record == null) {
+                        commitAcked();
+                        idle.idle();
+                        continue;
+                    }
+                    idle.reset();
+                    
+                    // Chỉ commit khi đã xử lý xong hoặc đã vào dead-letter; lỗi do consumer đang dừng
+                    // thì giữ offset để message được giao lại sau restart (at-least-once)
+                    LogMessage message = new LogMessage(record);
+                    boolean handled = handler.deliver(message, this::isRunning);
+                    if (!handled && !running) {
+                        break;
+                    }
+                    cursor.advance(record);
+                    
+                    Checkpoint checkpoint = message.checkpoint;
+                    if (checkpoint == null && inFlight.isEmpty()) {
+                        log.commit(cursor);
+                        continue;
+                    }
+                    if (checkpoint == null || !handled) {
+                        // Không defer, hoặc đã vào dead-letter: coi như đã ack
+                        checkpoint = new Checkpoint();
+                        checkpoint.acked = true;
+                    }
+                    checkpoint.position = cursor.snapshot();
+                    inFlight.add(checkpoint);
+                    commitAcked();
+                }
+            } catch (RuntimeException e) {
+                logger.error("Log consumer stopped at offset {}", cursor.getOffset(), e);
+            } finally {
+                log.detach(cursor);
+            }
+        }
+        
+        /**
+         * Commit tới record cuối của đoạn đầu đã ack liên tiếp
+         */
+        private void commitAcked() {
+            Checkpoint last = null;
+            while (!inFlight.isEmpty() && inFlight.peek().acked) {
+                last = inFlight.poll();
+            }
+            if (last != null) {
+                log.commit(last.position);
+            }
+        }
+        
+        private boolean isRunning() {
+            return running;
+        }
+        
+        void stop() {
+            running = false;
+            pollers.remove(this);
+            LockSupport.unpark(thread);
+            
+            if (Thread.currentThread() != thread) {
+                try {
+                    thread.join(5000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Vị trí sau một record đã đọc, commit được khi acked và mọi record trước đó cũng acked
+     */
+    private static final class Checkpoint implements Acknowledgement {
+        
+        SegmentedLog.Cursor position;
+        volatile boolean acked;
+        
+        @Override
+        public void ack() {
+            acked = true;
+        }
+    }
+    
+    /**
+     * Record đọc từ log: payload JSON chỉ được deserialize khi handler gọi getPayload()
+     */
+    private class LogMessage implements InboundMessage {
+        
+        private final LogSegment.Record record;
+        
+        // != null sau defer()
+        private Checkpoint checkpoint;
+        
+        LogMessage(LogSegment.Record record) {
+            this.record = record;
+        }
+        
+        @Override
+        public MessageType getType() {
+            return MessageType.values()[record.type];
+        }
+        
+        @Override
+        public TraceContext getTrace() {
+            if (record.trace.length == 0) {
+                return null;
+            }
+            try {
+                return TraceContext.fromBytes(record.trace);
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable trace: {}", e.getMessage());
+                return null;
+            }
+        }
+        
+        @Override
+        public <T> T getPayload(Class<T> type) throws IOException {
+            return codec.decode(record.payload, type);
+        }
+        
+        @Override
+        public Acknowledgement defer() {
+            if (checkpoint == null) {
+                checkpoint = new Checkpoint();
+            }
+            return checkpoint;
+        }
+    }
+    
+    /**
+     * Phát lại dead-letter của một queue theo cấu hình transport.log.*
+     * Chạy khi pipeline đang dừng (mỗi thư mục log chỉ một process ghi), consumer xử lý lại ở lần chạy sau
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: LogTransport <queue>   (replay <queue>.dead into <queue>)");
+            System.exit(1);
+        }
+        
+        Transport transport = TransportFactory.getTransport();
+        if (!(transport instanceof LogTransport)) {
+            System.err.println("transport.type is " + transport.getName() + ", expected log");
+            System.exit(1);
+        }
+        try {
+            ((LogTransport) transport).replayDeadLetters(args[0]);
+        } finally {
+            transport.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,330 @@
+package com.student.integration.transport;
+
+import com.student.integration.model.enums.MessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Test local log transport (không cần broker/DB), segment nhỏ để roll + retention chạy nhiều lần
+ *
+ * 1. Consumer dừng giữa chừng, retention theo dung lượng không được xóa record chưa đọc
+ * 2. Segment đã bị xóa trước đó (phiên bản cũ / xóa tay): cursor nhảy tới record cũ nhất còn giữ
+ * 3. Handler lỗi trong lúc consumer dừng: offset không được commit, message giao lại sau restart
+ * 4. ACK trễ (defer): offset chỉ commit tới record đầu tiên chưa ack, phần sau giao lại sau restart
+ * 5. Hết lượt thử lại: record vào dead-letter log (còn sau restart), replay đưa lại vào queue
+ */
+public class LogTransportTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LogTransportTest.class);
+    
+    private static final int SEGMENT_BYTES = 4096;
+    private static final byte[] NO_TRACE = new byte[0];
+    
+    public static void main(String[] args) {
+        logger.info("╔══════════════════════════════════════════════╗");
+        logger.info("║   LOCAL LOG TRANSPORT TEST                   ║");
+        logger.info("╚══════════════════════════════════════════════╝\n");
+        
+        Path baseDir = null;
+        try {
+            baseDir = Files.createTempDirectory("log-transport-test");
+            
+            logger.info("1️⃣  Lagging consumer vs size retention...");
+            testLaggingConsumerKeepsRecords(baseDir.resolve("lagging"));
+            
+            logger.info("\n2️⃣  Cursor skips segments removed before restart...");
+            testCursorSkipsRemovedSegments(baseDir.resolve("removed"));
+            
+            logger.info("\n3️⃣  Message failed during shutdown is redelivered after restart...");
+            testFailedDuringShutdownIsRedelivered(baseDir.resolve("shutdown"));
+            
+            logger.info("\n4️⃣  Deferred acks commit only the acknowledged prefix...");
+            testDeferredAckCommitsAcknowledgedPrefix(baseDir.resolve("deferred"));
+            
+            logger.info("\n5️⃣  Exhausted retries go to the dead-letter log and can be replayed...");
+            testDeadLetterReplay(baseDir.resolve("dead"));
+            
+            logger.info("\n✅ All tests passed!");
+            
+        } catch (Exception | AssertionError e) {
+            logger.error("❌ Test failed", e);
+            System.exit(1);
+        } finally {
+            deleteRecursively(baseDir);
+        }
+    }
+    
+    private static void testLaggingConsumerKeepsRecords(Path dir) throws IOException {
+        // Retention 2 segment: không có consumer offset thì chỉ còn ~2 segment cuối
+        SegmentedLog log = new SegmentedLog("lagging", dir, SEGMENT_BYTES, 0, 0, 2L * SEGMENT_BYTES);
+        append(log, 0, 10);
+        
+        SegmentedLog.Cursor cursor = log.attach();
+        List<Long> firstRun = readAll(log, cursor);
+        check(firstRun.size() == 10, "first run read " + firstRun.size() + " records, expected 10");
+        log.detach(cursor);
+        
+        // Consumer dừng, producer ghi tiếp nhiều segment
+        append(log, 10, 500);
+        log.applyRetention();
+        logger.info("   log offsets [{}, {}) after 500 appends", log.getStartOffset(), log.getEndOffset());
+        check(log.getStartOffset() <= 10, "segment holding committed offset 10 was deleted");
+        check(log.getLag() == 500, "lag " + log.getLag() + ", expected 500");
+        
+        cursor = log.attach();
+        List<Long> secondRun = readAll(log, cursor);
+        check(secondRun.size() == 500, "second run read " + secondRun.size() + " records, expected 500");
+        for (int i = 0; i < secondRun.size(); i++) {
+            check(secondRun.get(i) == 10 + i, "record " + i + " has value " + secondRun.get(i));
+        }
+        
+        // Consumer đã đọc hết: retention xóa lại được segment cũ
+        log.applyRetention();
+        logger.info("   log offsets [{}, {}) after consumer caught up", log.getStartOffset(), log.getEndOffset());
+        check(log.getStartOffset() > 10, "retention did not resume after consumer caught up");
+        log.detach(cursor);
+        log.close();
+        logger.info("   ✓ 510 records delivered, retention resumed after catch-up");
+    }
+    
+    private static void testCursorSkipsRemovedSegments(Path dir) throws IOException {
+        SegmentedLog log = new SegmentedLog("removed", dir, SEGMENT_BYTES, 0, 0, 0);
+        append(log, 0, 200);
+        SegmentedLog.Cursor cursor = log.attach();
+        for (int i = 0; i < 5; i++) {
+            cursor.advance(cursor.poll());
+        }
+        log.commit(cursor);
+        log.detach(cursor);
+        long endOffset = log.getEndOffset();
+        log.close();
+        
+        // Xóa segment thứ 2, 3 (consumer.offset vẫn trỏ vào segment đầu)
+        List<Path> files = segmentFiles(dir);
+        check(files.size() >= 4, "expected at least 4 segments, got " + files.size());
+        Files.delete(files.get(1));
+        Files.delete(files.get(2));
+        long firstRetained = Long.parseLong(files.get(3).getFileName().toString().replace(LogSegment.SUFFIX, ""));
+        long secondSegment = Long.parseLong(files.get(1).getFileName().toString().replace(LogSegment.SUFFIX, ""));
+        
+        log = new SegmentedLog("removed", dir, SEGMENT_BYTES, 0, 0, 0);
+        cursor = log.attach();
+        List<Long> values = readAll(log, cursor);
+        long expected = (secondSegment - 5) + (endOffset - firstRetained);
+        check(values.size() == expected, "read " + values.size() + " records, expected " + expected);
+        check(values.get(values.size() - 1) == endOffset - 1, "did not reach end of log");
+        check(cursor.getOffset() == endOffset, "cursor at " + cursor.getOffset() + ", expected " + endOffset);
+        log.detach(cursor);
+        log.close();
+        logger.info("   ✓ skipped offsets [{}, {}), read {} records to end of log", secondSegment, firstRetained, values.size());
+    }
+    
+    private static void testFailedDuringShutdownIsRedelivered(Path dir) throws Exception {
+        Map<String, String> bindings = Map.of("rk", "q");
+        LogTransport transport = new LogTransport(bindings, dir, SEGMENT_BYTES, 1, 50, 0, 0, 3);
+        for (int value = 0; value < 10; value++) {
+            transport.publish("", "rk", MessageType.RECORD, value, null);
+        }
+        
+        // Message 5: handler chờ tới lúc consumer dừng rồi throw
+        List<Integer> firstRun = new CopyOnWriteArrayList<>();
+        CountDownLatch reached = new CountDownLatch(1);
+        AtomicBoolean stopping = new AtomicBoolean();
+        Subscription subscription = transport.subscribe("q", 1, message -> {
+            int value = message.getPayload(Integer.class);
+            if (value == 5) {
+                reached.countDown();
+                while (!stopping.get()) {
+                    Thread.sleep(1);
+                }
+                throw new IllegalStateException("handler interrupted by shutdown");
+            }
+            firstRun.add(value);
+        });
+        check(reached.await(10, TimeUnit.SECONDS), "message 5 never delivered");
+        stopping.set(true);
+        subscription.cancel();
+        transport.close();
+        check(firstRun.equals(List.of(0, 1, 2, 3, 4)), "first run received " + firstRun);
+        
+        transport = new LogTransport(bindings, dir, SEGMENT_BYTES, 1, 50, 0, 0, 3);
+        List<Integer> secondRun = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(5);
+        subscription = transport.subscribe("q", 1, message -> {
+            secondRun.add(message.getPayload(Integer.class));
+            done.countDown();
+        });
+        check(done.await(10, TimeUnit.SECONDS), "restart received only " + secondRun);
+        subscription.cancel();
+        transport.close();
+        check(secondRun.equals(List.of(5, 6, 7, 8, 9)), "restart received " + secondRun);
+        logger.info("   ✓ message 5 redelivered after restart, received {}", secondRun);
+    }
+    
+    private static void testDeferredAckCommitsAcknowledgedPrefix(Path dir) throws Exception {
+        Map<String, String> bindings = Map.of("rk", "q");
+        LogTransport transport = new LogTransport(bindings, dir, SEGMENT_BYTES, 1, 50, 0, 0, 3);
+        for (int value = 0; value < 10; value++) {
+            transport.publish("", "rk", MessageType.RECORD, value, null);
+        }
+        
+        // 0-2 ack ngay, 3-4 không bao giờ ack, 5-9 ack từ thread khác (như lần flush batch)
+        List<Acknowledgement> later = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(10);
+        Subscription subscription = transport.subscribe("q", 1, message -> {
+            int value = message.getPayload(Integer.class);
+            Acknowledgement ack = message.defer();
+            if (value < 3) {
+                ack.ack();
+            } else if (value >= 5) {
+                later.add(ack);
+            }
+            delivered.countDown();
+        });
+        check(delivered.await(10, TimeUnit.SECONDS), "not every message delivered");
+        Thread flusher = new Thread(() -> later.forEach(Acknowledgement::ack));
+        flusher.start();
+        flusher.join();
+        Thread.sleep(100);
+        subscription.cancel();
+        transport.close();
+        
+        transport = new LogTransport(bindings, dir, SEGMENT_BYTES, 1, 50, 0, 0, 3);
+        List<Integer> secondRun = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(7);
+        subscription = transport.subscribe("q", 1, message -> {
+            secondRun.add(message.getPayload(Integer.class));
+            done.countDown();
+        });
+        check(done.await(10, TimeUnit.SECONDS), "restart received only " + secondRun);
+        Thread.sleep(100);
+        subscription.cancel();
+        transport.close();
+        check(secondRun.equals(List.of(3, 4, 5, 6, 7, 8, 9)), "restart received " + secondRun);
+        logger.info("   ✓ unacknowledged message 3 held the offset, restart received {}", secondRun);
+    }
+    
+    private static void testDeadLetterReplay(Path dir) throws Exception {
+        Map<String, String> bindings = Map.of("rk", "q");
+        LogTransport transport = new LogTransport(bindings, dir, SEGMENT_BYTES, 1, 50, 0, 0, 1);
+        for (int value = 0; value < 5; value++) {
+            transport.publish("", "rk", MessageType.RECORD, value, null);
+        }
+        
+        // Message 2 luôn lỗi: sau 1 lần thử lại thì vào dead-letter, queue đọc tiếp
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        List<Integer> dropped = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(4);
+        Subscription subscription = transport.subscribe("q", 1, new MessageHandler() {
+            @Override
+            public void handle(InboundMessage message) throws Exception {
+                int value = message.getPayload(Integer.class);
+                if (value == 2) {
+                    throw new IllegalStateException("poison " + value);
+                }
+                received.add(value);
+                done.countDown();
+            }
+            
+            @Override
+            public void onDropped(InboundMessage message, Exception cause) {
+                try {
+                    dropped.add(message.getPayload(Integer.class));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        check(done.await(10, TimeUnit.SECONDS), "first run received only " + received);
+        Thread.sleep(100);
+        subscription.cancel();
+        transport.close();
+        check(received.equals(List.of(0, 1, 3, 4)), "first run received " + received);
+        check(dropped.equals(List.of(2)), "drop callback got " + dropped);
+        
+        // Dead-letter còn sau restart, replay đưa message 2 về cuối queue
+        transport = new LogTransport(bindings, dir, SEGMENT_BYTES, 1, 50, 0, 0, 1);
+        check(transport.getDeadLetterCount("q") == 1, "dead letters after restart: " + transport.getDeadLetterCount("q"));
+        check(transport.replayDeadLetters("q") == 1, "replay count");
+        check(transport.getDeadLetterCount("q") == 0, "dead letters after replay: " + transport.getDeadLetterCount("q"));
+        check(transport.replayDeadLetters("q") == 0, "second replay is not empty");
+        
+        List<Integer> replayed = new CopyOnWriteArrayList<>();
+        CountDownLatch replayDone = new CountDownLatch(1);
+        subscription = transport.subscribe("q", 1, message -> {
+            replayed.add(message.getPayload(Integer.class));
+            replayDone.countDown();
+        });
+        check(replayDone.await(10, TimeUnit.SECONDS), "replayed message not delivered");
+        Thread.sleep(100);
+        subscription.cancel();
+        transport.close();
+        check(replayed.equals(List.of(2)), "after replay received " + replayed);
+        logger.info("   ✓ message 2 dead-lettered, kept across restart and redelivered after replay");
+    }
+    
+    private static void append(SegmentedLog log, long from, int count) throws IOException {
+        for (long value = from; value < from + count; value++) {
+            // ~100 bytes mỗi record → ~40 record mỗi segment
+            String payload = String.format("{\"value\":%d,\"padding\":\"%080d\"}", value, 0);
+            log.append((byte) 0, NO_TRACE, payload.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+    
+    /**
+     * Đọc đến hết log, commit sau mỗi record như Poller
+     */
+    private static List<Long> readAll(SegmentedLog log, SegmentedLog.Cursor cursor) {
+        List<Long> values = new ArrayList<>();
+        LogSegment.Record record;
+        while ((record = cursor.poll()) != null) {
+            String json = new String(record.payload, StandardCharsets.UTF_8);
+            values.add(Long.parseLong(json.substring(json.indexOf(':') + 1, json.indexOf(','))));
+            cursor.advance(record);
+            log.commit(cursor);
+        }
+        return values;
+    }
+    
+    private static List<Path> segmentFiles(Path dir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + LogSegment.SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(Comparator.comparing(Path::getFileName));
+        return files;
+    }
+    
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+    
+    private static void deleteRecursively(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            logger.warn("Could not delete {}: {}", dir, e.getMessage());
+        }
+    }
+}
\ No newline at end of file
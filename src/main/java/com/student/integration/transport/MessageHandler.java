@@ -0,0 +1,18 @@
+package com.student.integration.transport;
+
+/**
+ * Callback xử lý một message nhận từ transport
+ */
+@FunctionalInterface
+public interface MessageHandler {
+    
+    void handle(InboundMessage message) throws Exception;
+    
+    /**
+     * Message rời queue sau khi hết lượt thử lại (local log): nằm trong dead-letter log,
+     * chỉ được giao lại khi phát lại dead-letter
+     * Mặc định: không làm gì (RetryingHandler đã log ERROR)
+     */
+    default void onDropped(InboundMessage message, Exception cause) {
+    }
+}
\ No newline at end of file
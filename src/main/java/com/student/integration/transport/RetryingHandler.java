@@ -0,0 +1,97 @@
+package com.student.integration.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Gọi handler cho transport không có broker (in-memory, local log)
+ * Handler throw: thử lại tại chỗ (backoff tăng dần, tối đa MAX_BACKOFF_MS), sau maxRetries lần thì chuyển
+ * message vào dead-letter; không có dead-letter hoặc ghi dead-letter lỗi thì thử lại tiếp, không bỏ message
+ * Consumer đang dừng: không thử lại, caller không được đánh dấu message là đã xử lý
+ */
+final class RetryingHandler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RetryingHandler.class);
+    
+    private static final long RETRY_BACKOFF_MS = 100;
+    private static final long MAX_BACKOFF_MS = 5000;
+    
+    private final String queue;
+    private final MessageHandler handler;
+    private final int maxRetries;
+    private final DeadLetter deadLetter;
+    
+    /**
+     * Thử lại tới khi handler thành công hoặc consumer dừng (transport không có chỗ giữ dead-letter)
+     */
+    RetryingHandler(String queue, MessageHandler handler) {
+        this(queue, handler, Integer.MAX_VALUE, null);
+    }
+    
+    RetryingHandler(String queue, MessageHandler handler, int maxRetries, DeadLetter deadLetter) {
+        this.queue = queue;
+        this.handler = handler;
+        this.maxRetries = maxRetries;
+        this.deadLetter = deadLetter;
+    }
+    
+    /**
+     * @param running false thì không thử lại nữa (consumer đang dừng)
+     * @return true nếu handler xử lý thành công, false nếu consumer dừng hoặc message đã rời queue (dead-letter/bỏ)
+     */
+    boolean deliver(InboundMessage message, BooleanSupplier running) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                handler.handle(message);
+                return true;
+            } catch (Exception e) {
+                if (!running.getAsBoolean()) {
+                    logger.warn("Consumer of {} stopping, message not processed: {}", queue, e.getMessage());
+                    return false;
+                }
+                if (deadLetter != null && attempt >= maxRetries && giveUp(message, attempt, e)) {
+                    return false;
+                }
+                logger.warn("Error processing message from {} (attempt {}), retrying: {}",
+                    queue, attempt + 1, e.getMessage());
+                LockSupport.parkNanos(Math.min(RETRY_BACKOFF_MS * (attempt + 1), MAX_BACKOFF_MS) * 1_000_000L);
+            }
+        }
+    }
+    
+    /**
+     * @return false nếu chưa ghi được dead-letter (message vẫn ở lại queue, thử lại handler)
+     */
+    private boolean giveUp(InboundMessage message, int attempt, Exception cause) {
+        try {
+            deadLetter.write(message);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Cannot dead-letter message from {}, still retrying: {}", queue, e.getMessage());
+            return false;
+        }
+        logger.error("Dead-lettered message from {} after {} attempt(s)", queue, attempt + 1, cause);
+        notifyDropped(message, cause);
+        return true;
+    }
+    
+    private void notifyDropped(InboundMessage message, Exception cause) {
+        try {
+            handler.onDropped(message, cause);
+        } catch (RuntimeException e) {
+            logger.warn("Drop callback failed for message from {}: {}", queue, e.getMessage());
+        }
+    }
+    
+    /**
+     * Nơi giữ message đã hết lượt thử lại để phát lại sau
+     */
+    @FunctionalInterface
+    interface DeadLetter {
+        
+        void write(InboundMessage message) throws IOException;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package com.student.integration.transport;
+
+import com.student.integration.model.enums.MessageType;
+import com.student.integration.tracing.TraceContext;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ring buffer bounded kiểu Disruptor cho một queue: nhiều producer, một consumer
+ *
+ * - Slot cấp phát sẵn, producer ghi thẳng reference vào slot (không copy, không serialize)
+ * - Producer claim sequence bằng CAS trên cursor, đánh dấu slot đã publish bằng
+ *   available[index] = round (sequence >>> shift) - không lock
+ * - Có consumer: producer chờ khi ring đầy (backpressure)
+ *   Chưa có consumer: ghi đè message cũ nhất (giống x-max-length của RabbitMQ), ring giữ
+ *   capacity message gần nhất; consumer gắn vào sau đọc từ message cũ nhất còn giữ
+ *   (producer chạy trước khi validator/loader subscribe không mất message)
+ * - Consumer dừng: message chưa release được giao lại cho consumer gắn vào sau
+ *   (không chờ producer khi không có consumer: queue không ai đọc như student.error không được chặn pipeline)
+ */
+final class RingBuffer {
+    
+    private static final long FULL_PARK_NANOS = 1_000;
+    
+    private final Slot[] slots;
+    private final AtomicIntegerArray available;
+    private final int capacity;
+    private final int mask;
+    private final int shift;
+    
+    // Sequence lớn nhất đã được producer claim
+    private final Sequence cursor = new Sequence(-1);
+    // Sequence lớn nhất consumer đã xử lý xong (slot <= giá trị này được ghi lại)
+    private final Sequence consumed = new Sequence(-1);
+    // Giá trị consumed gần nhất producer đọc được, tránh đọc cache line của consumer mỗi lần publish
+    private final Sequence gatingCache = new Sequence(-1);
+    
+    private volatile boolean gated = false;
+    // Producer đang ghi ở chế độ không gate: attach chờ về 0 rồi mới chọn sequence bắt đầu
+    private final AtomicInteger ungatedWriters = new AtomicInteger();
+    private final AtomicLong overwritten = new AtomicLong();
+    
+    RingBuffer(int requestedCapacity) {
+        this.capacity = requestedCapacity <= 1 ? 2 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfTrailingZeros(capacity);
+        
+        this.slots = new Slot[capacity];
+        this.available = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            available.set(i, -1);
+        }
+    }
+    
+    /**
+     * Claim slot tiếp theo và ghi message vào (block khi ring đầy và có consumer)
+     */
+    void publish(MessageType type, Object payload, TraceContext trace) {
+        long next;
+        while (true) {
+            long current = cursor.get();
+            next = current + 1;
+            
+            if (!gated) {
+                if (publishUngated(current, type, payload, trace)) {
+                    return;
+                }
+                continue;
+            }
+            
+            long wrapPoint = next - capacity;
+            if (wrapPoint > gatingCache.get()) {
+                long gating = consumed.get();
+                if (wrapPoint > gating) {
+                    // Ring đầy: chờ consumer giải phóng slot
+                    LockSupport.parkNanos(FULL_PARK_NANOS);
+                    continue;
+                }
+                gatingCache.setRelease(gating);
+            }
+            
+            if (cursor.compareAndSet(current, next)) {
+                break;
+            }
+        }
+        
+        write(next, type, payload, trace);
+    }
+    
+    /**
+     * Chưa có consumer: ghi đè slot cũ nhất
+     * Đăng ký vào ungatedWriters trước khi kiểm tra lại gated, attach chờ các producer này ghi xong
+     * nên không có producer nào ghi đè slot consumer đang đọc
+     */
+    private boolean publishUngated(long current, MessageType type, Object payload, TraceContext trace) {
+        ungatedWriters.incrementAndGet();
+        try {
+            if (gated || !cursor.compareAndSet(current, current + 1)) {
+                return false;
+            }
+            long next = current + 1;
+            if (next - capacity > consumed.get()) {
+                overwritten.incrementAndGet();
+            }
+            write(next, type, payload, trace);
+            return true;
+        } finally {
+            ungatedWriters.decrementAndGet();
+        }
+    }
+    
+    private void write(long next, MessageType type, Object payload, TraceContext trace) {
+        int index = (int) (next & mask);
+        Slot slot = slots[index];
+        slot.type = type;
+        slot.payload = payload;
+        slot.trace = trace;
+        available.lazySet(index, (int) (next >>> shift));
+    }
+    
+    /**
+     * Slot của sequence nếu producer đã publish xong, null nếu chưa
+     */
+    Slot peek(long sequence) {
+        int index = (int) (sequence & mask);
+        return available.get(index) == (int) (sequence >>> shift) ? slots[index] : null;
+    }
+    
+    /**
+     * Consumer xử lý xong sequence: bỏ reference để GC thu hồi và trả slot cho producer
+     */
+    void release(long sequence, Slot slot) {
+        slot.type = null;
+        slot.payload = null;
+        slot.trace = null;
+        consumed.setRelease(sequence);
+    }
+    
+    /**
+     * Gắn consumer duy nhất, bắt đầu từ message cũ nhất chưa xử lý còn trong ring
+     * Trả về sequence đầu tiên consumer cần đọc
+     */
+    synchronized long attach() {
+        if (gated) {
+            throw new IllegalStateException("In-memory queue already has a consumer");
+        }
+        gated = true;
+        while (ungatedWriters.get() != 0) {
+            Thread.onSpinWait();
+        }
+        
+        long start = Math.max(consumed.get() + 1, cursor.get() - capacity + 1);
+        consumed.setRelease(start - 1);
+        gatingCache.setRelease(start - 1);
+        return start;
+    }
+    
+    synchronized void detach() {
+        gated = false;
+    }
+    
+    /**
+     * Số message chưa được xử lý
+     */
+    long size() {
+        long pending = cursor.get() - consumed.get();
+        return gated ? pending : Math.min(pending, capacity);
+    }
+    
+    /**
+     * Số message bị ghi đè trước khi được đọc (publish lúc chưa có consumer và ring đầy)
+     */
+    long getOverwritten() {
+        return overwritten.get();
+    }
+    
+    int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Slot cấp phát sẵn, đồng thời là InboundMessage giao cho handler
+     * Field ghi bởi producer trước lazySet(available), đọc bởi consumer sau get(available)
+     */
+    static final class Slot implements InboundMessage {
+        
+        private MessageType type;
+        private Object payload;
+        private TraceContext trace;
+        
+        @Override
+        public MessageType getType() {
+            return type;
+        }
+        
+        @Override
+        public TraceContext getTrace() {
+            return trace;
+        }
+        
+        @Override
+        public <T> T getPayload(Class<T> expectedType) {
+            return expectedType.cast(payload);
+        }
+    }
+}
\ No newline at end of file
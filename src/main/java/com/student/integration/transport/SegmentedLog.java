@@ -0,0 +1,454 @@
+package com.student.integration.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Append-only log của một queue: chuỗi LogSegment + offset của consumer
+ *
+ * - Offset = số thứ tự record trong log (0, 1, 2...), không đổi khi segment bị xóa
+ * - Một writer (append synchronized), consumer đọc không lock qua Cursor
+ * - Segment đầy → tạo segment mới rồi ghi marker ROLLED vào segment cũ
+ * - fsync theo lô: flush() sau mỗi flushMessages record hoặc định kỳ từ LogTransport
+ * - Retention: xóa segment đã đóng cũ hơn retentionMs hoặc khi tổng dung lượng vượt retentionBytes,
+ *   nhưng không bao giờ xóa segment chứa hoặc nằm sau offset consumer đã commit (consumer chậm/dừng
+ *   không mất record chưa xử lý; chưa có consumer nào commit thì giữ toàn bộ)
+ * - Offset consumer lưu trong file consumer.offset (segment, position, offset), ghi khi flush
+ */
+final class SegmentedLog {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedLog.class);
+    
+    private static final String OFFSET_FILE = "consumer.offset";
+    private static final int OFFSET_RECORD_BYTES = 20;
+    
+    private final String name;
+    private final Path dir;
+    private final int segmentBytes;
+    private final int flushMessages;
+    private final long retentionMs;
+    private final long retentionBytes;
+    
+    private final ConcurrentNavigableMap<Long, LogSegment> segments = new ConcurrentSkipListMap<>();
+    private final FileChannel offsetChannel;
+    
+    // Trạng thái writer (guarded by this)
+    private LogSegment active;
+    private int writePosition;
+    private volatile long nextOffset;
+    private int unflushed;
+    private int flushedPosition;
+    
+    // Consumer (một consumer mỗi log)
+    private volatile Cursor consumer;
+    private volatile Committed committed;
+    private long persistedOffset = -1;
+    
+    SegmentedLog(String name, Path dir, int segmentBytes, int flushMessages,
+                 long retentionMs, long retentionBytes) throws IOException {
+        this.name = name;
+        this.dir = dir;
+        this.segmentBytes = LogSegment.align(segmentBytes);
+        this.flushMessages = flushMessages;
+        this.retentionMs = retentionMs;
+        this.retentionBytes = retentionBytes;
+        
+        Files.createDirectories(dir);
+        
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + LogSegment.SUFFIX)) {
+            for (Path file : files) {
+                long base = LogSegment.parseBaseOffset(file);
+                segments.put(base, LogSegment.open(dir, base, this.segmentBytes));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, LogSegment.open(dir, 0, this.segmentBytes));
+        }
+        
+        recover();
+        
+        this.offsetChannel = FileChannel.open(dir.resolve(OFFSET_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        loadCommittedOffset();
+        
+        logger.info("Log {} opened: {} segment(s), offsets [{}, {}), consumer at {}",
+            name, segments.size(), getStartOffset(), nextOffset,
+            committed != null ? committed.offset : "none");
+    }
+    
+    /**
+     * Tìm vị trí ghi tiếp theo trong segment cuối, bỏ record ghi dở (CRC sai) sau crash
+     */
+    private void recover() throws IOException {
+        active = segments.lastEntry().getValue();
+        
+        int position = 0;
+        long offset = active.getBaseOffset();
+        while (true) {
+            int length = active.lengthAt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length == LogSegment.ROLLED) {
+                // Crash sau khi ghi marker nhưng trước khi segment mới kịp tạo
+                active = LogSegment.open(dir, offset, segmentBytes);
+                segments.put(offset, active);
+                position = 0;
+                continue;
+            }
+            
+            LogSegment.Record record = active.read(position, length);
+            if (record == null) {
+                logger.warn("Log {}: truncating torn record at {}:{}", name, active.getFile(), position);
+                active.truncate(position);
+                break;
+            }
+            position += record.size;
+            offset++;
+        }
+        
+        writePosition = position;
+        flushedPosition = position;
+        nextOffset = offset;
+    }
+    
+    /**
+     * Ghi record vào cuối log
+     * @return offset của record
+     */
+    long append(byte type, byte[] trace, byte[] payload) throws IOException {
+        boolean flush;
+        long offset;
+        
+        synchronized (this) {
+            int size = LogSegment.recordSize(trace.length, payload.length);
+            if (size > segmentBytes) {
+                throw new IOException("Message of " + size + " bytes does not fit in a "
+                    + segmentBytes + "-byte segment of log " + name);
+            }
+            if (writePosition + size > active.getCapacity()) {
+                roll();
+            }
+            
+            active.write(writePosition, type, trace, payload);
+            writePosition += size;
+            offset = nextOffset;
+            nextOffset = offset + 1;
+            
+            flush = flushMessages > 0 && ++unflushed >= flushMessages;
+        }
+        
+        if (flush) {
+            flush();
+        }
+        return offset;
+    }
+    
+    /**
+     * Segment mới phải tồn tại trước khi reader thấy marker ROLLED
+     */
+    private void roll() throws IOException {
+        LogSegment next = LogSegment.open(dir, nextOffset, segmentBytes);
+        segments.put(nextOffset, next);
+        
+        if (writePosition + LogSegment.HEADER_BYTES <= active.getCapacity()) {
+            active.markRolled(writePosition);
+        }
+        active.force(flushedPosition, active.getCapacity());
+        
+        active = next;
+        writePosition = 0;
+        flushedPosition = 0;
+        
+        applyRetention();
+    }
+    
+    /**
+     * fsync phần đã ghi từ lần flush trước + lưu offset consumer
+     * force() chạy ngoài lock nên producer không bị chặn trong lúc chờ đĩa
+     */
+    void flush() throws IOException {
+        LogSegment segment;
+        int from;
+        int to;
+        synchronized (this) {
+            segment = active;
+            from = flushedPosition;
+            to = writePosition;
+            flushedPosition = to;
+            unflushed = 0;
+        }
+        segment.force(from, to);
+        
+        persistCommittedOffset();
+    }
+    
+    /**
+     * Xóa segment đã đóng (không phải segment đang ghi) theo tuổi và tổng dung lượng
+     * Chỉ xóa segment mà mọi record đều trước offset đã commit: offset kết thúc của segment
+     * (= base offset của segment sau) <= committed.offset
+     */
+    synchronized void applyRetention() {
+        Committed last = committed;
+        if (last == null) {
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        long totalBytes = 0;
+        for (LogSegment segment : segments.values()) {
+            totalBytes += segment.getCapacity();
+        }
+        
+        List<LogSegment> expired = new ArrayList<>();
+        for (LogSegment segment : segments.headMap(active.getBaseOffset()).values()) {
+            boolean tooOld = retentionMs > 0 && now - lastModified(segment) > retentionMs;
+            boolean tooBig = retentionBytes > 0 && totalBytes > retentionBytes;
+            if (!tooOld && !tooBig) {
+                break;
+            }
+            if (segments.higherKey(segment.getBaseOffset()) > last.offset) {
+                logger.debug("Log {}: keeping segment {} for consumer at offset {}",
+                    name, segment.getFile().getFileName(), last.offset);
+                break;
+            }
+            expired.add(segment);
+            totalBytes -= segment.getCapacity();
+        }
+        
+        for (LogSegment segment : expired) {
+            segments.remove(segment.getBaseOffset());
+            try {
+                segment.delete();
+                logger.info("Log {}: deleted segment {} (retention)", name, segment.getFile().getFileName());
+            } catch (IOException e) {
+                logger.warn("Log {}: could not delete segment {}: {}", name, segment.getFile(), e.getMessage());
+            }
+        }
+    }
+    
+    private static long lastModified(LogSegment segment) {
+        try {
+            return Files.getLastModifiedTime(segment.getFile()).toMillis();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+    
+    /**
+     * Gắn consumer duy nhất, đọc từ offset đã commit (hoặc từ đầu log nếu chưa có)
+     */
+    synchronized Cursor attach() {
+        Committed last = committed;
+        if (last == null) {
+            return attach(seek(0));
+        }
+        
+        LogSegment segment = segments.get(last.segment);
+        return attach(segment != null
+            ? new Cursor(segment, last.position, last.offset)
+            : seek(last.offset));
+    }
+    
+    /**
+     * Gắn consumer đọc lại từ offset bất kỳ (replay)
+     */
+    synchronized Cursor attachAt(long offset) {
+        return attach(seek(offset));
+    }
+    
+    private Cursor attach(Cursor cursor) {
+        if (consumer != null) {
+            throw new IllegalStateException("Log " + name + " already has a consumer");
+        }
+        consumer = cursor;
+        commit(cursor);
+        return cursor;
+    }
+    
+    synchronized void detach(Cursor cursor) {
+        if (consumer == cursor) {
+            consumer = null;
+        }
+    }
+    
+    /**
+     * Cursor tại offset: tìm segment chứa offset rồi đọc tuần tự đến đúng record
+     * Offset đã bị xóa bởi retention → bắt đầu từ record cũ nhất còn lại
+     */
+    private Cursor seek(long offset) {
+        Map.Entry<Long, LogSegment> entry = segments.floorEntry(offset);
+        if (entry == null) {
+            entry = segments.firstEntry();
+            logger.warn("Log {}: offset {} no longer retained, starting from {}", name, offset, entry.getKey());
+        }
+        
+        Cursor cursor = new Cursor(entry.getValue(), 0, entry.getKey());
+        while (cursor.offset < offset) {
+            LogSegment.Record record = cursor.poll();
+            if (record == null) {
+                break;
+            }
+            cursor.advance(record);
+        }
+        return cursor;
+    }
+    
+    /**
+     * Consumer đã xử lý xong đến (không gồm) vị trí hiện tại của cursor
+     */
+    void commit(Cursor cursor) {
+        committed = new Committed(cursor.segment.getBaseOffset(), cursor.position, cursor.offset);
+    }
+    
+    private void loadCommittedOffset() throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(OFFSET_RECORD_BYTES);
+        if (offsetChannel.read(data, 0) == OFFSET_RECORD_BYTES) {
+            data.flip();
+            committed = new Committed(data.getLong(), data.getInt(), data.getLong());
+            persistedOffset = committed.offset;
+        }
+    }
+    
+    /**
+     * Lock riêng trên file offset để không chặn append trong lúc fsync
+     */
+    private void persistCommittedOffset() throws IOException {
+        synchronized (offsetChannel) {
+            Committed last = committed;
+            if (last == null || last.offset == persistedOffset) {
+                return;
+            }
+            
+            ByteBuffer data = ByteBuffer.allocate(OFFSET_RECORD_BYTES);
+            data.putLong(last.segment).putInt(last.position).putLong(last.offset).flip();
+            offsetChannel.write(data, 0);
+            offsetChannel.force(false);
+            persistedOffset = last.offset;
+        }
+    }
+    
+    long getStartOffset() {
+        return segments.firstKey();
+    }
+    
+    long getEndOffset() {
+        return nextOffset;
+    }
+    
+    /**
+     * Số record consumer chưa xử lý (chưa có consumer: tính từ offset đã commit hoặc đầu log)
+     */
+    long getLag() {
+        Committed last = committed;
+        long from = last != null ? Math.max(last.offset, getStartOffset()) : getStartOffset();
+        return Math.max(0, nextOffset - from);
+    }
+    
+    void close() throws IOException {
+        flush();
+        synchronized (this) {
+            for (LogSegment segment : segments.values()) {
+                segment.close();
+            }
+            offsetChannel.close();
+        }
+    }
+    
+    /**
+     * Vị trí consumer đã xử lý xong (bất biến để flusher đọc nhất quán cả 3 giá trị)
+     */
+    private static final class Committed {
+        
+        final long segment;
+        final int position;
+        final long offset;
+        
+        Committed(long segment, int position, long offset) {
+            this.segment = segment;
+            this.position = position;
+            this.offset = offset;
+        }
+    }
+    
+    /**
+     * Vị trí đọc của consumer: segment + byte position + offset logic
+     */
+    final class Cursor {
+        
+        private LogSegment segment;
+        private int position;
+        private long offset;
+        
+        private Cursor(LogSegment segment, int position, long offset) {
+            this.segment = segment;
+            this.position = position;
+            this.offset = offset;
+        }
+        
+        /**
+         * Record tại vị trí hiện tại, null nếu writer chưa ghi tới
+         */
+        LogSegment.Record poll() {
+            while (true) {
+                int length = segment.lengthAt(position);
+                if (length == 0) {
+                    return null;
+                }
+                if (length == LogSegment.ROLLED) {
+                    LogSegment next = segments.get(offset);
+                    if (next == null) {
+                        // Segment kế tiếp đã bị xóa (retention của phiên bản cũ / xóa tay):
+                        // nhảy tới record cũ nhất còn giữ thay vì đứng mãi ở marker
+                        Map.Entry<Long, LogSegment> retained = segments.higherEntry(offset);
+                        if (retained == null) {
+                            return null;
+                        }
+                        logger.warn("Log {}: offsets [{}, {}) no longer retained, skipping to {}",
+                            name, offset, retained.getKey(), retained.getKey());
+                        next = retained.getValue();
+                        offset = retained.getKey();
+                    }
+                    segment = next;
+                    position = 0;
+                    continue;
+                }
+                
+                LogSegment.Record record = segment.read(position, length);
+                if (record == null) {
+                    throw new IllegalStateException("Corrupt record in " + segment.getFile() + " at " + position);
+                }
+                return record;
+            }
+        }
+        
+        void advance(LogSegment.Record record) {
+            position += record.size;
+            offset++;
+        }
+        
+        long getOffset() {
+            return offset;
+        }
+        
+        /**
+         * Bản sao vị trí hiện tại (commit sau, khi các record trước đó đã được ack)
+         */
+        Cursor snapshot() {
+            return new Cursor(segment, position, offset);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.student.integration.transport;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Số thứ tự 64-bit của ring buffer (cursor của producer / vị trí của consumer)
+ * Padding 2 bên để cursor và sequence của consumer không nằm chung cache line
+ */
+final class Sequence extends SequenceRhsPadding {
+    
+    private static final VarHandle VALUE;
+    
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    Sequence(long initialValue) {
+        this.value = initialValue;
+    }
+    
+    long get() {
+        return value;
+    }
+    
+    /**
+     * Ghi không kèm full fence (store-release), đủ cho một writer duy nhất
+     */
+    void setRelease(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+    
+    boolean compareAndSet(long expected, long newValue) {
+        return VALUE.compareAndSet(this, expected, newValue);
+    }
+}
+
+abstract class SequenceLhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class SequenceValue extends SequenceLhsPadding {
+    protected volatile long value;
+}
+
+abstract class SequenceRhsPadding extends SequenceValue {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.student.integration.transport;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Handle của một consumer đã đăng ký, cancel() để ngừng nhận message
+ */
+@FunctionalInterface
+public interface Subscription {
+    
+    void cancel() throws IOException, TimeoutException;
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.student.integration.transport;
+
+import com.student.integration.model.enums.MessageType;
+import com.student.integration.tracing.TraceContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lớp vận chuyển message giữa các stage (nằm dưới MessagePublisher và BaseConsumer)
+ *
+ * - amqp:     RabbitMQ (JSON, persistent, mỗi role chạy process riêng được)
+ * - inmemory: ring buffer trong cùng JVM, truyền object theo reference
+ *
+ * Chọn bằng transport.type trong application.properties (xem TransportFactory)
+ */
+public interface Transport {
+    
+    /**
+     * Publish một message tới routing key (exchange chỉ có ý nghĩa với AMQP)
+     * trace: null nếu message không thuộc trace nào (VD: marker của batch)
+     */
+    void publish(String exchange, String routingKey, MessageType type,
+                 Object payload, TraceContext trace) throws IOException, TimeoutException;
+    
+    /**
+     * Publish nhiều RECORD message liền nhau (mặc định: gọi publish từng cái)
+     */
+    default int publishBatch(String exchange, String routingKey, Iterable<?> payloads)
+            throws IOException, TimeoutException {
+        int count = 0;
+        for (Object payload : payloads) {
+            publish(exchange, routingKey, MessageType.RECORD, payload, null);
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Đăng ký handler cho queue
+     * Handler return bình thường = ACK, throw = message được giao lại
+     * prefetch: số message chưa ACK tối đa (chỉ AMQP dùng)
+     */
+    Subscription subscribe(String queue, int prefetch, MessageHandler handler)
+            throws IOException, TimeoutException;
+    
+    /**
+     * Số message đang chờ trong queue
+     */
+    long getMessageCount(String queue) throws IOException, TimeoutException;
+    
+    /**
+     * Queue có nằm trên RabbitMQ không (setup/purge/delete chỉ áp dụng khi true)
+     */
+    boolean isBrokered();
+    
+    String getName();
+    
+    void close();
+}
\ No newline at end of file
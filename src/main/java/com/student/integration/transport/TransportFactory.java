@@ -0,0 +1,70 @@
+package com.student.integration.transport;
+
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.config.QueueManager;
+import com.student.integration.config.RabbitMQConfig;
+
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * Tạo transport dùng chung cho cả process theo transport.type
+ *
+ * - amqp (mặc định): RabbitMQ
+ * - inmemory:        ring buffer trong JVM (mọi role chạy chung một process)
+ * - log:             log memory-mapped trên đĩa, bền vững mà không cần broker
+ */
+public final class TransportFactory {
+    
+    private static Transport instance;
+    
+    private TransportFactory() {}
+    
+    public static synchronized Transport getTransport() {
+        if (instance == null) {
+            instance = create(ConfigLoader.getInstance());
+        }
+        return instance;
+    }
+    
+    private static Transport create(ConfigLoader config) {
+        String type = config.getProperty("transport.type", "amqp").trim().toLowerCase();
+        
+        switch (type) {
+            case "amqp":
+                return new AmqpTransport(RabbitMQConfig.getInstance());
+            case "inmemory":
+                return new InMemoryTransport(bindings(),
+                    config.getIntProperty("transport.inmemory.capacity", 65536));
+            case "log":
+                return new LogTransport(bindings(),
+                    Paths.get(config.getProperty("transport.log.dir", "./data/log")),
+                    config.getIntProperty("transport.log.segment.mb", 64) * 1024 * 1024,
+                    config.getIntProperty("transport.log.flush.messages", 1000),
+                    config.getIntProperty("transport.log.flush.interval.ms", 200),
+                    config.getIntProperty("transport.log.retention.hours", 168) * 3_600_000L,
+                    config.getIntProperty("transport.log.retention.mb", 1024) * 1024L * 1024L,
+                    config.getIntProperty("transport.log.max.retries", 3));
+            default:
+                throw new IllegalArgumentException("Unknown transport.type: " + type
+                    + " (expected amqp, inmemory or log)");
+        }
+    }
+    
+    /**
+     * Routing key → queue (thay cho bindings của direct exchange với transport không có broker)
+     */
+    private static Map<String, String> bindings() {
+        QueueManager queueManager = new QueueManager();
+        return Map.of(
+            queueManager.getRoutingKeyRaw(), queueManager.getQueueRaw(),
+            queueManager.getRoutingKeyValidated(), queueManager.getQueueValidated(),
+            queueManager.getRoutingKeyTransformed(), queueManager.getQueueTransformed(),
+            queueManager.getRoutingKeyError(), queueManager.getQueueError(),
+            queueManager.getRoutingKeyAttendanceRaw(), queueManager.getQueueAttendanceRaw(),
+            queueManager.getRoutingKeyAttendanceValidated(), queueManager.getQueueAttendanceValidated(),
+            queueManager.getRoutingKeyAttendanceError(), queueManager.getQueueAttendanceError(),
+            queueManager.getRoutingKeyAttendanceCommitted(), queueManager.getQueueAttendanceCommitted(),
+            queueManager.getRoutingKeyAlerts(), queueManager.getQueueAlerts());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.student.integration.util;
+
+import com.student.integration.config.ConfigLoader;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đồng hồ "thô" dùng chung: 1 daemon thread cập nhật thời gian mỗi vài ms
+ * Hot path chỉ đọc 1 biến volatile thay vì gọi LocalDateTime.now() cho mỗi object
+ * Độ chính xác = clock.coarse.tick.ms (mặc định 5ms)
+ * 
+ * Kèm "today" cache theo ngày (dùng cho tính tuổi), chỉ tính lại khi qua nửa đêm
+ */
+public final class CoarseClock {
+    
+    private static final long TICK_MS =
+        Math.max(1, ConfigLoader.getInstance().getIntProperty("clock.coarse.tick.ms", 5));
+    
+    private static volatile long currentMillis = System.currentTimeMillis();
+    private static volatile Today today = computeToday(currentMillis);
+    
+    static {
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> currentMillis = System.currentTimeMillis(),
+            TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+    
+    private CoarseClock() {}
+    
+    /**
+     * Epoch millis (sai số tối đa 1 tick)
+     */
+    public static long currentTimeMillis() {
+        return currentMillis;
+    }
+    
+    /**
+     * Ngày hiện tại (system zone), cache tới nửa đêm
+     */
+    public static LocalDate today() {
+        return currentToday().date;
+    }
+    
+    /**
+     * Ngày hiện tại dạng yyyyMMdd (xem IsoDates)
+     */
+    public static int todayYmd() {
+        return currentToday().ymd;
+    }
+    
+    private static Today currentToday() {
+        Today cached = today;
+        long now = currentMillis;
+        if (now >= cached.nextMidnightMillis || now < cached.midnightMillis) {
+            cached = computeToday(now);
+            today = cached;
+        }
+        return cached;
+    }
+    
+    private static Today computeToday(long epochMillis) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate date = Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate();
+        long midnight = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        long nextMidnight = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new Today(date, IsoDates.toYmd(date), midnight, nextMidnight);
+    }
+    
+    /**
+     * Convert epoch millis → LocalDateTime (system zone)
+     * Chỉ gọi khi thực sự cần hiển thị, không gọi trong hot path
+     */
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+    
+    public static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private static final class Today {
+        final LocalDate date;
+        final int ymd;
+        final long midnightMillis;
+        final long nextMidnightMillis;
+        
+        Today(LocalDate date, int ymd, long midnightMillis, long nextMidnightMillis) {
+            this.date = date;
+            this.ymd = ymd;
+            this.midnightMillis = midnightMillis;
+            this.nextMidnightMillis = nextMidnightMillis;
+        }
+    }
+}
\ No newline at end of file
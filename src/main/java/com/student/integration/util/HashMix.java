@@ -0,0 +1,33 @@
+package com.student.integration.util;
+
+/**
+ * Hàm băm + tính kích thước bảng dùng chung cho các map/set primitive
+ */
+final class HashMix {
+    
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    
+    private static final int MAX_CAPACITY = 1 << 30;
+    
+    private HashMix() {}
+    
+    /**
+     * Trộn bit của key (key liên tiếp như mã sinh viên không dồn vào cùng vùng bảng)
+     */
+    static int mix(long key) {
+        long h = key * GOLDEN;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+    
+    /**
+     * Lũy thừa của 2 nhỏ nhất chứa được expectedSize phần tử mà không resize
+     */
+    static int tableSize(int expectedSize, float loadFactor) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 2) / (double) loadFactor) + 1;
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Too many elements: " + expectedSize);
+        }
+        return Math.max(4, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+}
\ No newline at end of file
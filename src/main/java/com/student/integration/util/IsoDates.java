@@ -0,0 +1,87 @@
+package com.student.integration.util;
+
+import java.time.LocalDate;
+
+/**
+ * Parser nhanh cho date ISO cố định 10 ký tự: yyyy-MM-dd
+ *
+ * - Không throw exception (trả về INVALID khi sai format / ngày không tồn tại)
+ * - Kết quả là int dạng yyyyMMdd (VD: 2003-05-15 → 20030515),
+ *   so sánh được trực tiếp và tính tuổi bằng phép chia
+ * - Kiểm tra lịch như ResolverStyle.STRICT (tháng 1-12, ngày theo tháng, năm nhuận)
+ */
+public final class IsoDates {
+    
+    /** Sentinel khi parse thất bại */
+    public static final int INVALID = -1;
+    
+    private static final int[] DAYS_IN_MONTH = {0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    
+    private IsoDates() {}
+    
+    /**
+     * Parse "yyyy-MM-dd" → yyyyMMdd, hoặc INVALID
+     */
+    public static int parseYmd(CharSequence value) {
+        if (value == null || value.length() != 10
+                || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return INVALID;
+        }
+        
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 7);
+        int day = digits(value, 8, 10);
+        
+        if (year < 0 || month < 1 || month > 12 || day < 1) {
+            return INVALID;
+        }
+        
+        int maxDay = (month == 2 && isLeapYear(year)) ? 29 : DAYS_IN_MONTH[month];
+        if (day > maxDay) {
+            return INVALID;
+        }
+        
+        return year * 10000 + month * 100 + day;
+    }
+    
+    /**
+     * Ngày hợp lệ theo format yyyy-MM-dd hay không
+     */
+    public static boolean isValid(CharSequence value) {
+        return parseYmd(value) != INVALID;
+    }
+    
+    public static LocalDate toLocalDate(int ymd) {
+        return LocalDate.of(ymd / 10000, (ymd / 100) % 100, ymd % 100);
+    }
+    
+    public static int toYmd(LocalDate date) {
+        return date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+    
+    /**
+     * Số năm tròn giữa 2 ngày yyyyMMdd (giống Period.between(...).getYears())
+     */
+    public static int yearsBetween(int fromYmd, int toYmd) {
+        return (toYmd - fromYmd) / 10000;
+    }
+    
+    public static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+    
+    /**
+     * Parse các ký tự số ASCII trong [from, to), -1 nếu có ký tự không phải số
+     */
+    private static int digits(CharSequence value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            int d = value.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            result = result * 10 + d;
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,158 @@
+package com.student.integration.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Helpers cho serializer/deserializer viết tay (streaming API của Jackson)
+ *
+ * - Ghi: tên field encode sẵn (SerializedString), bỏ qua field null
+ * - Đọc: lenient giống databind (số ↔ chuỗi được coerce, null → null)
+ */
+public final class JsonStreams {
+    
+    private JsonStreams() {}
+    
+    public static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        }
+    }
+    
+    public static void writeNumber(JsonGenerator gen, SerializableString name, Integer value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeNumber(value);
+        }
+    }
+    
+    public static void writeNumber(JsonGenerator gen, SerializableString name, Long value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeNumber(value);
+        }
+    }
+    
+    public static void writeNumber(JsonGenerator gen, SerializableString name, BigDecimal value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeNumber(value);
+        }
+    }
+    
+    public static void writeEnum(JsonGenerator gen, SerializableString name, Enum<?> value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value.name());
+        }
+    }
+    
+    /**
+     * Đưa parser tới field đầu tiên của object (hoặc END_OBJECT nếu object rỗng)
+     * Deserializer được gọi khi current token là START_OBJECT hoặc FIELD_NAME
+     */
+    public static JsonToken enterObject(JsonParser p, DeserializationContext ctxt, Class<?> type) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+        if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            ctxt.handleUnexpectedToken(type, p);
+        }
+        return token;
+    }
+    
+    /**
+     * Giá trị hiện tại dạng String (scalar khác được chuyển thành chuỗi)
+     */
+    public static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return p.getValueAsString();
+        }
+        return (String) ctxt.handleUnexpectedToken(String.class, p);
+    }
+    
+    /**
+     * Như readString nhưng lấy bản canonical từ dictionary (cột ít giá trị),
+     * không tạo String mới khi giá trị đã có
+     */
+    public static String readInterned(JsonParser p, DeserializationContext ctxt, StringInterner interner)
+            throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_STRING) {
+            return interner.intern(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        }
+        return interner.intern(readString(p, ctxt));
+    }
+    
+    public static Integer readInteger(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getIntValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = p.getText().trim();
+            return text.isEmpty() ? null : Integer.valueOf(text);
+        }
+        return (Integer) ctxt.handleUnexpectedToken(Integer.class, p);
+    }
+    
+    public static Long readLong(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = p.getText().trim();
+            return text.isEmpty() ? null : Long.valueOf(text);
+        }
+        return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+    }
+    
+    public static BigDecimal readDecimal(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getDecimalValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = p.getText().trim();
+            return text.isEmpty() ? null : new BigDecimal(text);
+        }
+        return (BigDecimal) ctxt.handleUnexpectedToken(BigDecimal.class, p);
+    }
+    
+    public static <E extends Enum<E>> E readEnum(JsonParser p, DeserializationContext ctxt, Class<E> type)
+            throws IOException {
+        String name = readString(p, ctxt);
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return type.cast(ctxt.handleWeirdStringValue(type, name, "not one of the values accepted for Enum class"));
+        }
+    }
+}
\ No newline at end of file
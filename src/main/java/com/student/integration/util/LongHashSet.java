@@ -0,0 +1,78 @@
+package com.student.integration.util;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Hash set long không boxing (open addressing, linear probing - LongKeyTable)
+ * Dùng cho phát hiện trùng theo mã sinh viên đã đóng gói (StudentIdCodec)
+ * Không thread-safe
+ */
+public class LongHashSet extends LongKeyTable {
+    
+    public LongHashSet(int expectedSize) {
+        super(expectedSize);
+    }
+    
+    public boolean contains(long key) {
+        return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+    }
+    
+    /**
+     * @return true nếu key mới được thêm (false = đã có, tức là trùng)
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (hasZeroKey) {
+                return false;
+            }
+            hasZeroKey = true;
+            size++;
+            return true;
+        }
+        
+        int i = slot(key);
+        if (keys[i] == key) {
+            return false;
+        }
+        keys[i] = key;
+        added();
+        return true;
+    }
+    
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return false;
+            }
+            hasZeroKey = false;
+            size--;
+            return true;
+        }
+        
+        int i = indexOf(key);
+        if (i < 0) {
+            return false;
+        }
+        removeAt(i);
+        return true;
+    }
+    
+    public void forEach(LongConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0);
+        }
+        for (long key : keys) {
+            if (key != 0) {
+                consumer.accept(key);
+            }
+        }
+    }
+    
+    @Override
+    void moveValue(int from, int to) {
+    }
+    
+    @Override
+    void rehashValues(int[] moved, int capacity) {
+    }
+}
\ No newline at end of file
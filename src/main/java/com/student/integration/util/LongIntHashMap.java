@@ -0,0 +1,168 @@
+package com.student.integration.util;
+
+/**
+ * Hash map long → int không boxing (open addressing, linear probing - LongKeyTable)
+ *
+ * - Key thường là mã sinh viên đã đóng gói (StudentIdCodec): 8 byte key + value,
+ *   không có Entry/Long/Integer object cho mỗi phần tử
+ * - get trả về missingValue (truyền vào constructor) khi không có key
+ * - Không thread-safe: caller tự đồng bộ hoặc dùng theo kiểu copy-on-write
+ */
+public class LongIntHashMap extends LongKeyTable {
+    
+    private int[] values;
+    private int zeroValue;
+    
+    private final int missingValue;
+    
+    public LongIntHashMap(int expectedSize, int missingValue) {
+        super(expectedSize);
+        this.missingValue = missingValue;
+        this.values = new int[keys.length];
+    }
+    
+    public int get(long key) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : missingValue;
+        }
+        int i = indexOf(key);
+        return i >= 0 ? values[i] : missingValue;
+    }
+    
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+    }
+    
+    /**
+     * @return giá trị cũ, missingValue nếu key mới
+     */
+    public int put(long key, int value) {
+        if (key == 0) {
+            int previous = hasZeroKey ? zeroValue : missingValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        
+        int i = slot(key);
+        if (keys[i] == key) {
+            int previous = values[i];
+            values[i] = value;
+            return previous;
+        }
+        insertAt(i, key, value);
+        return missingValue;
+    }
+    
+    /**
+     * Chỉ thêm khi chưa có key
+     * @return giá trị hiện có, missingValue nếu vừa thêm
+     */
+    public int putIfAbsent(long key, int value) {
+        if (key == 0) {
+            if (hasZeroKey) {
+                return zeroValue;
+            }
+            hasZeroKey = true;
+            zeroValue = value;
+            size++;
+            return missingValue;
+        }
+        
+        int i = slot(key);
+        if (keys[i] == key) {
+            return values[i];
+        }
+        insertAt(i, key, value);
+        return missingValue;
+    }
+    
+    /**
+     * Cộng delta vào value (key chưa có thì bắt đầu từ 0)
+     * @return giá trị sau khi cộng
+     */
+    public int addTo(long key, int delta) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                zeroValue = 0;
+                size++;
+            }
+            return zeroValue += delta;
+        }
+        
+        int i = slot(key);
+        if (keys[i] == key) {
+            return values[i] += delta;
+        }
+        insertAt(i, key, delta);
+        return delta;
+    }
+    
+    /**
+     * @return giá trị đã xóa, missingValue nếu không có key
+     */
+    public int remove(long key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return missingValue;
+            }
+            hasZeroKey = false;
+            size--;
+            return zeroValue;
+        }
+        
+        int i = indexOf(key);
+        if (i < 0) {
+            return missingValue;
+        }
+        int previous = values[i];
+        removeAt(i);
+        return previous;
+    }
+    
+    public int getMissingValue() {
+        return missingValue;
+    }
+    
+    public void forEach(EntryVisitor visitor) {
+        if (hasZeroKey) {
+            visitor.visit(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(long key, int value);
+    }
+    
+    private void insertAt(int i, long key, int value) {
+        keys[i] = key;
+        values[i] = value;
+        added();
+    }
+    
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+    
+    @Override
+    void rehashValues(int[] moved, int capacity) {
+        int[] rehashed = new int[capacity];
+        for (int j = 0; j < moved.length; j++) {
+            if (moved[j] >= 0) {
+                rehashed[moved[j]] = values[j];
+            }
+        }
+        values = rehashed;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,129 @@
+package com.student.integration.util;
+
+import java.util.Arrays;
+
+/**
+ * Phần dùng chung của LongIntHashMap/LongLongHashMap/LongHashSet: bảng key long (open addressing,
+ * linear probing), xóa bằng dồn phần tử (không tombstone), resize gấp đôi
+ *
+ * - Key 0 nằm ngoài bảng (hasZeroKey) vì 0 đánh dấu slot trống, subclass tự giữ value của key 0
+ * - Subclass giữ mảng value song song với keys, được báo khi phần tử đổi slot
+ */
+abstract class LongKeyTable {
+    
+    private static final float LOAD_FACTOR = 0.75f;
+    
+    long[] keys;
+    boolean hasZeroKey;
+    int size;
+    
+    private int mask;
+    private int resizeAt;
+    
+    LongKeyTable(int expectedSize) {
+        allocate(HashMix.tableSize(expectedSize, LOAD_FACTOR));
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZeroKey = false;
+        size = 0;
+    }
+    
+    /**
+     * Slot của key (khác 0), -1 nếu không có
+     */
+    final int indexOf(long key) {
+        for (int i = HashMix.mix(key) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == 0) {
+                return -1;
+            }
+        }
+    }
+    
+    /**
+     * Slot chứa key, hoặc slot trống đầu tiên trên đường probe
+     */
+    final int slot(long key) {
+        int i = HashMix.mix(key) & mask;
+        while (keys[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+    
+    /**
+     * Gọi sau khi subclass đã ghi key + value vào slot trống: resize khi vượt tải
+     */
+    final void added() {
+        if (++size > resizeAt) {
+            grow();
+        }
+    }
+    
+    /**
+     * Xóa phần tử ở slot i bằng cách dồn các phần tử phía sau lên
+     */
+    final void removeAt(int hole) {
+        for (int i = (hole + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            int home = HashMix.mix(keys[i]) & mask;
+            // Phần tử ở i có thể lấp vào hole nếu home không nằm trong (hole, i]
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                moveValue(i, hole);
+                hole = i;
+            }
+        }
+        keys[hole] = 0;
+        size--;
+    }
+    
+    /**
+     * Value ở slot from chuyển sang slot to (cùng bảng, khi xóa)
+     */
+    abstract void moveValue(int from, int to);
+    
+    /**
+     * Bảng mới capacity slot: phần tử ở slot cũ j chuyển sang slot moved[j] (-1 = slot trống)
+     */
+    abstract void rehashValues(int[] moved, int capacity);
+    
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] moved = new int[oldKeys.length];
+        allocate(oldKeys.length * 2);
+        
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key == 0) {
+                moved[j] = -1;
+                continue;
+            }
+            int i = HashMix.mix(key) & mask;
+            while (keys[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            moved[j] = i;
+        }
+        rehashValues(moved, keys.length);
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.student.integration.util;
+
+/**
+ * Hash map long → long không boxing (open addressing, linear probing - LongKeyTable)
+ *
+ * - Key thường là mã sinh viên đã đóng gói (StudentIdCodec): 8 byte key + value,
+ *   không có Entry/Long/Integer object cho mỗi phần tử
+ * - get trả về missingValue (truyền vào constructor) khi không có key
+ * - Không thread-safe: caller tự đồng bộ hoặc dùng theo kiểu copy-on-write
+ */
+public class LongLongHashMap extends LongKeyTable {
+    
+    private long[] values;
+    private long zeroValue;
+    
+    private final long missingValue;
+    
+    public LongLongHashMap(int expectedSize, long missingValue) {
+        super(expectedSize);
+        this.missingValue = missingValue;
+        this.values = new long[keys.length];
+    }
+    
+    public long get(long key) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : missingValue;
+        }
+        int i = indexOf(key);
+        return i >= 0 ? values[i] : missingValue;
+    }
+    
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+    }
+    
+    /**
+     * @return giá trị cũ, missingValue nếu key mới
+     */
+    public long put(long key, long value) {
+        if (key == 0) {
+            long previous = hasZeroKey ? zeroValue : missingValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        
+        int i = slot(key);
+        if (keys[i] == key) {
+            long previous = values[i];
+            values[i] = value;
+            return previous;
+        }
+        insertAt(i, key, value);
+        return missingValue;
+    }
+    
+    /**
+     * Chỉ thêm khi chưa có key
+     * @return giá trị hiện có, missingValue nếu vừa thêm
+     */
+    public long putIfAbsent(long key, long value) {
+        if (key == 0) {
+            if (hasZeroKey) {
+                return zeroValue;
+            }
+            hasZeroKey = true;
+            zeroValue = value;
+            size++;
+            return missingValue;
+        }
+        
+        int i = slot(key);
+        if (keys[i] == key) {
+            return values[i];
+        }
+        insertAt(i, key, value);
+        return missingValue;
+    }
+    
+    /**
+     * Cộng delta vào value (key chưa có thì bắt đầu từ 0)
+     * @return giá trị sau khi cộng
+     */
+    public long addTo(long key, long delta) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                zeroValue = 0;
+                size++;
+            }
+            return zeroValue += delta;
+        }
+        
+        int i = slot(key);
+        if (keys[i] == key) {
+            return values[i] += delta;
+        }
+        insertAt(i, key, delta);
+        return delta;
+    }
+    
+    /**
+     * @return giá trị đã xóa, missingValue nếu không có key
+     */
+    public long remove(long key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return missingValue;
+            }
+            hasZeroKey = false;
+            size--;
+            return zeroValue;
+        }
+        
+        int i = indexOf(key);
+        if (i < 0) {
+            return missingValue;
+        }
+        long previous = values[i];
+        removeAt(i);
+        return previous;
+    }
+    
+    public long getMissingValue() {
+        return missingValue;
+    }
+    
+    public void forEach(EntryVisitor visitor) {
+        if (hasZeroKey) {
+            visitor.visit(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(long key, long value);
+    }
+    
+    private void insertAt(int i, long key, long value) {
+        keys[i] = key;
+        values[i] = value;
+        added();
+    }
+    
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+    
+    @Override
+    void rehashValues(int[] moved, int capacity) {
+        long[] rehashed = new long[capacity];
+        for (int j = 0; j < moved.length; j++) {
+            if (moved[j] >= 0) {
+                rehashed[moved[j]] = values[j];
+            }
+        }
+        values = rehashed;
+    }
+}
\ No newline at end of file
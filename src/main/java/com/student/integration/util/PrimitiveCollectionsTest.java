@@ -0,0 +1,208 @@
+package com.student.integration.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Test LongIntHashMap / LongLongHashMap / LongHashSet và StudentIdCodec (không cần DB)
+ *
+ * 1. Key 0 (nằm ngoài bảng): put/get/remove/forEach, key thiếu trả missingValue
+ * 2. Resize từ bảng nhỏ nhất: mọi key còn đọc được sau nhiều lần gấp đôi
+ * 3. Remove dồn phần tử (back-shift): thao tác ngẫu nhiên trên dải key hẹp, so với HashMap/HashSet
+ * 4. StudentIdCodec: encode/decode round-trip, thứ tự key = thứ tự mã, mã sai format → NO_KEY
+ */
+public class PrimitiveCollectionsTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PrimitiveCollectionsTest.class);
+    
+    private static final int MISSING = -1;
+    
+    public static void main(String[] args) {
+        logger.info("╔══════════════════════════════════════════════╗");
+        logger.info("║   PRIMITIVE COLLECTIONS TEST                 ║");
+        logger.info("╚══════════════════════════════════════════════╝\n");
+        
+        try {
+            logger.info("1️⃣  Zero key sentinel...");
+            testZeroKey();
+            
+            logger.info("\n2️⃣  Resize from the smallest table...");
+            testResize();
+            
+            logger.info("\n3️⃣  Remove with back-shift against java.util collections...");
+            testRandomOperations(42);
+            testRandomOperations(7);
+            
+            logger.info("\n4️⃣  StudentIdCodec round-trip...");
+            testStudentIdCodec();
+            
+            logger.info("\n✅ All tests passed!");
+            
+        } catch (Exception | AssertionError e) {
+            logger.error("❌ Test failed", e);
+            System.exit(1);
+        }
+    }
+    
+    private static void testZeroKey() {
+        LongIntHashMap ints = new LongIntHashMap(4, MISSING);
+        check(ints.get(0) == MISSING && !ints.containsKey(0), "empty int map has key 0");
+        check(ints.put(0, 5) == MISSING && ints.get(0) == 5 && ints.size() == 1, "int map put 0");
+        check(ints.putIfAbsent(0, 9) == 5 && ints.addTo(0, 2) == 7, "int map putIfAbsent/addTo on 0");
+        ints.put(3, 30);
+        int[] visited = new int[1];
+        ints.forEach((key, value) -> visited[0] += key == 0 ? value : 0);
+        check(visited[0] == 7, "int map forEach missed key 0");
+        check(ints.remove(0) == 7 && ints.remove(0) == MISSING && ints.size() == 1, "int map remove 0");
+        check(ints.get(3) == 30, "int map lost key 3");
+        
+        LongLongHashMap longs = new LongLongHashMap(4, MISSING);
+        check(longs.addTo(0, Long.MAX_VALUE - 1) == Long.MAX_VALUE - 1 && longs.size() == 1, "long map addTo 0");
+        check(longs.put(0, 1) == Long.MAX_VALUE - 1 && longs.remove(0) == 1 && longs.isEmpty(), "long map put/remove 0");
+        check(longs.get(0) == MISSING && longs.getMissingValue() == MISSING, "long map missing value");
+        
+        LongHashSet set = new LongHashSet(4);
+        check(set.add(0) && !set.add(0) && set.contains(0) && set.size() == 1, "set add 0");
+        check(set.remove(0) && !set.remove(0) && !set.contains(0) && set.isEmpty(), "set remove 0");
+        logger.info("   ✓ key 0 kept outside the table in all three collections");
+    }
+    
+    private static void testResize() {
+        int count = 100_000;
+        LongIntHashMap ints = new LongIntHashMap(1, MISSING);
+        LongLongHashMap longs = new LongLongHashMap(1, MISSING);
+        LongHashSet set = new LongHashSet(1);
+        
+        // Mã sinh viên liên tiếp: dạng key thực tế, HashMix phải trải đều
+        for (int i = 0; i < count; i++) {
+            long key = 20210000L + i;
+            ints.put(key, i);
+            longs.put(key, key * 3);
+            set.add(key);
+        }
+        check(ints.size() == count && longs.size() == count && set.size() == count, "size after resize");
+        for (int i = 0; i < count; i++) {
+            long key = 20210000L + i;
+            check(ints.get(key) == i, "int map lost " + key);
+            check(longs.get(key) == key * 3, "long map lost " + key);
+            check(set.contains(key), "set lost " + key);
+        }
+        check(ints.get(20210000L + count) == MISSING && !set.contains(20210000L - 1), "key never added found");
+        
+        ints.clear();
+        set.clear();
+        check(ints.isEmpty() && ints.get(20210000L) == MISSING && !set.contains(20210000L), "clear");
+        logger.info("   ✓ {} keys retrievable after growing from the smallest table", count);
+    }
+    
+    /**
+     * Dải key hẹp + bảng nhỏ → cluster dài, remove phải dồn đúng các phần tử phía sau
+     */
+    private static void testRandomOperations(long seed) {
+        Random random = new Random(seed);
+        LongIntHashMap ints = new LongIntHashMap(8, MISSING);
+        LongLongHashMap longs = new LongLongHashMap(8, MISSING);
+        LongHashSet set = new LongHashSet(8);
+        Map<Long, Integer> expectedInts = new HashMap<>();
+        Map<Long, Long> expectedLongs = new HashMap<>();
+        Set<Long> expectedSet = new HashSet<>();
+        
+        int operations = 200_000;
+        for (int op = 0; op < operations; op++) {
+            long key = random.nextInt(512);
+            int value = random.nextInt(1000);
+            switch (random.nextInt(5)) {
+                case 0:
+                case 1:
+                    check(ints.put(key, value) == orMissing(expectedInts.put(key, value)), "int put " + key);
+                    check(longs.put(key, value) == orMissing(expectedLongs.put(key, (long) value)), "long put " + key);
+                    check(set.add(key) == expectedSet.add(key), "set add " + key);
+                    break;
+                case 2:
+                    check(ints.addTo(key, value) == expectedInts.merge(key, value, Integer::sum), "int addTo " + key);
+                    check(longs.putIfAbsent(key, value)
+                        == orMissing(expectedLongs.putIfAbsent(key, (long) value)), "long putIfAbsent " + key);
+                    check(set.contains(key) == expectedSet.contains(key), "set contains " + key);
+                    break;
+                default:
+                    check(ints.remove(key) == orMissing(expectedInts.remove(key)), "int remove " + key);
+                    check(longs.remove(key) == orMissing(expectedLongs.remove(key)), "long remove " + key);
+                    check(set.remove(key) == expectedSet.remove(key), "set remove " + key);
+                    break;
+            }
+            
+            if (op % 10_000 == 0) {
+                assertSame(ints, longs, set, expectedInts, expectedLongs, expectedSet);
+            }
+        }
+        assertSame(ints, longs, set, expectedInts, expectedLongs, expectedSet);
+        logger.info("   ✓ seed {}: {} random put/addTo/remove match java.util ({} keys left)",
+            seed, operations, expectedInts.size());
+    }
+    
+    private static void assertSame(LongIntHashMap ints, LongLongHashMap longs, LongHashSet set,
+                                   Map<Long, Integer> expectedInts, Map<Long, Long> expectedLongs,
+                                   Set<Long> expectedSet) {
+        check(ints.size() == expectedInts.size(), "int map size " + ints.size() + " != " + expectedInts.size());
+        check(longs.size() == expectedLongs.size(), "long map size " + longs.size() + " != " + expectedLongs.size());
+        check(set.size() == expectedSet.size(), "set size " + set.size() + " != " + expectedSet.size());
+        
+        // Mọi key còn lại đọc được (remove không làm đứt đường probe) và forEach không thừa key
+        expectedInts.forEach((key, value) -> check(ints.get(key) == value, "int map get " + key));
+        expectedLongs.forEach((key, value) -> check(longs.get(key) == value, "long map get " + key));
+        expectedSet.forEach(key -> check(set.contains(key), "set contains " + key));
+        ints.forEach((key, value) -> check(expectedInts.get(key) == value, "int map forEach " + key));
+        longs.forEach((key, value) -> check(expectedLongs.get(key) == value, "long map forEach " + key));
+        set.forEach(key -> check(expectedSet.contains(key), "set forEach " + key));
+    }
+    
+    private static void testStudentIdCodec() {
+        for (String studentId : new String[] {"SV00000000", "SV00000001", "SV20210001", "SV99999999"}) {
+            long key = StudentIdCodec.encode(studentId);
+            check(StudentIdCodec.isValidKey(key), studentId + " encoded to invalid key " + key);
+            check(StudentIdCodec.decode(key).equals(studentId), studentId + " round-trip gave " + StudentIdCodec.decode(key));
+        }
+        check(StudentIdCodec.encode("SV20210001") == 20210001L, "key is the numeric part");
+        check(StudentIdCodec.encode("SV20210001") < StudentIdCodec.encode("SV20210002"), "key order");
+        
+        for (String invalid : new String[] {null, "", "SV2021000", "SV202100011", "sv20210001", "SX20210001",
+                "SV2021000A", "SV-2021000"}) {
+            check(StudentIdCodec.encode(invalid) == StudentIdCodec.NO_KEY, "accepted " + invalid);
+        }
+        for (long invalid : new long[] {StudentIdCodec.NO_KEY, 100_000_000L}) {
+            try {
+                StudentIdCodec.decode(invalid);
+                throw new AssertionError("decoded " + invalid);
+            } catch (IllegalArgumentException expected) {
+                // Đúng: key ngoài khoảng 8 chữ số
+            }
+        }
+        
+        // Key 0 (SV00000000) đi qua nhánh sentinel của các collection
+        LongIntHashMap index = new LongIntHashMap(4, MISSING);
+        index.put(StudentIdCodec.encode("SV00000000"), 1);
+        index.put(StudentIdCodec.encode("SV20210001"), 2);
+        check(index.get(StudentIdCodec.encode("SV00000000")) == 1 && index.get(20210001L) == 2, "codec keys in map");
+        logger.info("   ✓ encode/decode round-trip, ordering and invalid formats");
+    }
+    
+    private static int orMissing(Integer value) {
+        return value != null ? value : MISSING;
+    }
+    
+    private static long orMissing(Long value) {
+        return value != null ? value : MISSING;
+    }
+    
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.student.integration.util;
+
+import com.student.integration.config.ConfigLoader;
+
+/**
+ * Dictionary dùng chung cho các cột ít giá trị (city, province, major, faculty,
+ * class_code, gender, status, academic_year)
+ *
+ * - Mỗi giá trị chỉ giữ 1 String trên heap dù xuất hiện ở hàng triệu record
+ * - So sánh equals ở stage sau gặp ngay nhánh == (cùng reference)
+ * - Lookup không lock và không cấp phát: bảng open addressing bất biến,
+ *   thêm entry thì copy bảng mới rồi publish (copy-on-write, hiếm khi xảy ra)
+ * - Có giới hạn: quá intern.max.entries hoặc chuỗi dài hơn intern.max.length
+ *   thì trả về nguyên giá trị (dữ liệu rác không làm dictionary phình ra)
+ */
+public final class StringInterner {
+    
+    private static StringInterner instance;
+    
+    private final int maxEntries;
+    private final int maxLength;
+    
+    // Kích thước lũy thừa của 2, load factor <= 0.5 nên luôn có slot trống
+    private volatile String[] table;
+    private int size; // guarded by this
+    
+    private StringInterner(int maxEntries, int maxLength) {
+        this.maxEntries = maxEntries;
+        this.maxLength = maxLength;
+        this.table = new String[64];
+    }
+    
+    public static synchronized StringInterner getInstance() {
+        if (instance == null) {
+            ConfigLoader config = ConfigLoader.getInstance();
+            instance = new StringInterner(
+                config.getIntProperty("intern.max.entries", 4096),
+                config.getIntProperty("intern.max.length", 64));
+        }
+        return instance;
+    }
+    
+    /**
+     * Dictionary riêng (không đọc config) - dùng cho benchmark
+     */
+    public static StringInterner of(int maxEntries, int maxLength) {
+        return new StringInterner(maxEntries, maxLength);
+    }
+    
+    /**
+     * Bản canonical của value (hoặc chính value nếu không intern được)
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+        
+        String[] current = table;
+        int mask = current.length - 1;
+        for (int i = spread(value.hashCode()) & mask; ; i = (i + 1) & mask) {
+            String entry = current[i];
+            if (entry == null) {
+                return insert(value);
+            }
+            if (entry.equals(value)) {
+                return entry;
+            }
+        }
+    }
+    
+    /**
+     * Như intern(String) nhưng đọc thẳng từ buffer của parser,
+     * chỉ tạo String mới khi giá trị chưa có trong dictionary
+     */
+    public String intern(char[] chars, int offset, int length) {
+        if (length > maxLength) {
+            return new String(chars, offset, length);
+        }
+        
+        // Cùng công thức với String.hashCode()
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[offset + i];
+        }
+        
+        String[] current = table;
+        int mask = current.length - 1;
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            String entry = current[i];
+            if (entry == null) {
+                return insert(new String(chars, offset, length));
+            }
+            if (matches(entry, chars, offset, length)) {
+                return entry;
+            }
+        }
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    private synchronized String insert(String value) {
+        // Thread khác có thể vừa thêm cùng giá trị
+        String[] current = table;
+        int mask = current.length - 1;
+        int slot = spread(value.hashCode()) & mask;
+        for (String entry; (entry = current[slot]) != null; slot = (slot + 1) & mask) {
+            if (entry.equals(value)) {
+                return entry;
+            }
+        }
+        
+        if (size >= maxEntries) {
+            return value;
+        }
+        
+        String[] next;
+        if ((size + 1) * 2 > current.length) {
+            next = new String[current.length * 2];
+            for (String entry : current) {
+                if (entry != null) {
+                    place(next, entry);
+                }
+            }
+            place(next, value);
+        } else {
+            next = current.clone();
+            next[slot] = value;
+        }
+        
+        size++;
+        table = next;
+        return value;
+    }
+    
+    private static void place(String[] target, String value) {
+        int mask = target.length - 1;
+        int i = spread(value.hashCode()) & mask;
+        while (target[i] != null) {
+            i = (i + 1) & mask;
+        }
+        target[i] = value;
+    }
+    
+    private static boolean matches(String entry, char[] chars, int offset, int length) {
+        if (entry.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (entry.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.student.integration.util;
+
+/**
+ * Đóng gói mã sinh viên (SV + 8 chữ số, format StudentIdValidator kiểm tra) thành long
+ *
+ * - Key = giá trị số của 8 chữ số (SV20210001 → 20210001), thứ tự key = thứ tự mã
+ * - Dùng làm key cho LongIntHashMap/LongLongHashMap/LongHashSet thay cho String
+ *   (8 byte thay vì ~60 byte String + hash/equals trên chuỗi)
+ * - Mã sai format → NO_KEY, caller tự quyết định (bỏ qua hoặc fallback theo String)
+ */
+public final class StudentIdCodec {
+    
+    /**
+     * Mã không đóng gói được (null, sai format)
+     */
+    public static final long NO_KEY = -1L;
+    
+    private static final int DIGITS = 8;
+    private static final int LENGTH = 2 + DIGITS;
+    
+    private StudentIdCodec() {}
+    
+    /**
+     * SV20210001 → 20210001, sai format → NO_KEY
+     */
+    public static long encode(String studentId) {
+        if (studentId == null || studentId.length() != LENGTH
+                || studentId.charAt(0) != 'S' || studentId.charAt(1) != 'V') {
+            return NO_KEY;
+        }
+        
+        long key = 0;
+        for (int i = 2; i < LENGTH; i++) {
+            int digit = studentId.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NO_KEY;
+            }
+            key = key * 10 + digit;
+        }
+        return key;
+    }
+    
+    /**
+     * 20210001 → SV20210001
+     */
+    public static String decode(long key) {
+        if (!isValidKey(key)) {
+            throw new IllegalArgumentException("Not a packed student id: " + key);
+        }
+        
+        char[] chars = new char[LENGTH];
+        chars[0] = 'S';
+        chars[1] = 'V';
+        for (int i = LENGTH - 1; i >= 2; i--) {
+            chars[i] = (char) ('0' + key % 10);
+            key /= 10;
+        }
+        return new String(chars);
+    }
+    
+    public static boolean isValidKey(long key) {
+        return key >= 0 && key < 100_000_000L;
+    }
+}
\ No newline at end of file
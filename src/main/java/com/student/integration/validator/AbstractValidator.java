@@ -1,10 +1,13 @@
 package com.student.integration.validator;
 
+import com.student.integration.metrics.RuleMetrics;
+import com.student.integration.metrics.ValidatorMetrics;
 import com.student.integration.model.dto.StudentRawDTO;
 import com.student.integration.model.dto.ValidationError;
 import com.student.integration.model.dto.ValidationResult;
 import com.student.integration.model.enums.ErrorType;
 import com.student.integration.model.enums.Severity;
+import com.student.integration.model.enums.ValidationErrorCode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,10 +21,21 @@ public abstract class AbstractValidator implements Validator {
     
     private Validator next;
     
+    // Counters + latency của rule này (null nếu metrics bị tắt)
+    private final RuleMetrics metrics =
+        ValidatorMetrics.getInstance().forRule(getClass().getSimpleName());
+    
     @Override
     public void validate(StudentRawDTO student, ValidationResult result) {
         // Thực hiện validation của validator này
-        doValidate(student, result);
+        if (metrics == null) {
+            doValidate(student, result);
+        } else {
+            int errorsBefore = result.getErrors().size();
+            long start = System.nanoTime();
+            doValidate(student, result);
+            metrics.record(System.nanoTime() - start, result.getErrors(), errorsBefore);
+        }
         
         // Tiếp tục chain (dù pass hay fail)
         if (next != null) {
@@ -47,8 +61,8 @@ public abstract class AbstractValidator implements Validator {
     /**
      * Helper method để add error vào result
      */
-    protected void addError(ValidationResult result, ErrorType errorType, 
-                           String field, String message, String invalidValue, 
+    protected void addError(ValidationResult result, ErrorType errorType,
+                           String field, String message, String invalidValue,
                            String rule, Severity severity) {
         ValidationError error = new ValidationError(
             errorType, field, message, invalidValue, rule, severity
@@ -58,11 +72,22 @@ public abstract class AbstractValidator implements Validator {
         logger.debug("Validation error: {} - {} (Value: {})", field, message, invalidValue);
     }
     
+    /**
+     * Helper method để add error theo code
+     * Message được resolve lazily từ template của code (không format trên hot path)
+     */
+    protected void addError(ValidationResult result, ValidationErrorCode code,
+                           String invalidValue, String... args) {
+        result.addError(new ValidationError(code, invalidValue, args));
+        
+        logger.debug("Validation error: {} (Value: {})", code, invalidValue);
+    }
+    
     /**
      * Helper: Check if string is null or empty
      */
     protected boolean isNullOrEmpty(String value) {
-        return value == null || value.trim().isEmpty();
+        return FieldFormats.isBlank(value);
     }
     
     /**
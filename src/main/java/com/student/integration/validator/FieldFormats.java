@@ -0,0 +1,292 @@
+package com.student.integration.validator;
+
+import java.math.BigDecimal;
+
+/**
+ * Các hàm kiểm tra format dùng chung cho validator chain và columnar engine
+ *
+ * Viết tay (không dùng String.matches) để không compile regex cho mỗi record
+ * và để JIT inline được trong vòng lặp theo cột.
+ * Mỗi hàm tương đương chính xác với regex ghi ở comment.
+ */
+public final class FieldFormats {
+    
+    private FieldFormats() {}
+    
+    /**
+     * null hoặc chỉ gồm ký tự <= ' ' (tương đương value.trim().isEmpty())
+     */
+    public static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * ^SV\d{8}$
+     */
+    public static boolean isStudentId(String value) {
+        if (value == null || value.length() != 10
+                || value.charAt(0) != 'S' || value.charAt(1) != 'V') {
+            return false;
+        }
+        for (int i = 2; i < 10; i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * ^[A-Z]{2}\d{2}[A-Z]\d{2}$
+     */
+    public static boolean isClassCode(String value) {
+        return value != null && value.length() == 7
+            && isUpper(value.charAt(0)) && isUpper(value.charAt(1))
+            && isDigit(value.charAt(2)) && isDigit(value.charAt(3))
+            && isUpper(value.charAt(4))
+            && isDigit(value.charAt(5)) && isDigit(value.charAt(6));
+    }
+    
+    /**
+     * ^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}$
+     *
+     * Domain không chứa '@' và TLD không chứa '.', nên '@' phải là duy nhất
+     * và dấu '.' tách TLD phải là dấu '.' cuối cùng.
+     */
+    public static boolean isEmail(String value) {
+        if (value == null) {
+            return false;
+        }
+        
+        int length = value.length();
+        int at = -1;
+        int lastDot = -1;
+        
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '@') {
+                if (at >= 0) {
+                    return false;
+                }
+                at = i;
+            } else if (at < 0) {
+                if (!isLocalPartChar(c)) {
+                    return false;
+                }
+            } else {
+                if (c == '.') {
+                    lastDot = i;
+                } else if (!isAlphaNumeric(c) && c != '-') {
+                    return false;
+                }
+            }
+        }
+        
+        // local part >= 1 ký tự, domain trước dấu '.' >= 1 ký tự, TLD >= 2 chữ cái
+        if (at < 1 || lastDot < at + 2 || length - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < length; i++) {
+            if (!isLetter(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Bỏ khoảng trắng và '-' ([\s-]) rồi kiểm tra ^(0|\+84)[0-9]{9}$
+     */
+    public static boolean isPhone(String value) {
+        if (value == null) {
+            return false;
+        }
+        
+        int count = 0;        // số ký tự sau khi bỏ [\s-]
+        boolean international = false;
+        
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '-' || isRegexWhitespace(c)) {
+                continue;
+            }
+            
+            if (count == 0) {
+                if (c == '+') {
+                    international = true;
+                } else if (c != '0') {
+                    return false;
+                }
+            } else if (international && count == 1) {
+                if (c != '8') return false;
+            } else if (international && count == 2) {
+                if (c != '4') return false;
+            } else if (!isDigit(c)) {
+                return false;
+            }
+            count++;
+        }
+        
+        return count == (international ? 12 : 10);
+    }
+    
+    /**
+     * Parse số thập phân như new BigDecimal(value.trim()), trả về null nếu sai format
+     * Kiểm tra cú pháp trước để không throw NumberFormatException cho dữ liệu rác
+     */
+    public static BigDecimal parseDecimal(String value) {
+        if (value == null) {
+            return null;
+        }
+        
+        String trimmed = value.trim();
+        if (!isDecimalSyntax(trimmed)) {
+            return null;
+        }
+        
+        try {
+            return new BigDecimal(trimmed);
+        } catch (NumberFormatException e) {
+            // VD: exponent vượt giới hạn int
+            return null;
+        }
+    }
+    
+    /**
+     * Parse giờ "HH:mm" hoặc "HH:mm:ss" (như LocalTime.parse) thành số giây trong ngày,
+     * -1 nếu sai format hoặc giờ/phút/giây ngoài phạm vi
+     */
+    public static int parseSecondOfDay(String value) {
+        if (value == null) {
+            return -1;
+        }
+        
+        int length = value.length();
+        if ((length != 5 && length != 8) || value.charAt(2) != ':'
+                || (length == 8 && value.charAt(5) != ':')) {
+            return -1;
+        }
+        
+        int hour = twoDigits(value, 0);
+        int minute = twoDigits(value, 3);
+        int second = length == 8 ? twoDigits(value, 6) : 0;
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return -1;
+        }
+        return hour * 3600 + minute * 60 + second;
+    }
+    
+    /**
+     * Parse số nguyên dương thập phân (không dấu, tối đa 9 chữ số), -1 nếu sai format
+     */
+    public static int parsePositiveInt(String value) {
+        if (value == null) {
+            return -1;
+        }
+        
+        String trimmed = value.trim();
+        int length = trimmed.length();
+        if (length == 0 || length > 9) {
+            return -1;
+        }
+        
+        int result = 0;
+        for (int i = 0; i < length; i++) {
+            char c = trimmed.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+    
+    private static int twoDigits(String value, int from) {
+        char high = value.charAt(from);
+        char low = value.charAt(from + 1);
+        if (!isDigit(high) || !isDigit(low)) {
+            return -1;
+        }
+        return (high - '0') * 10 + (low - '0');
+    }
+    
+    /**
+     * [+-]? (digits ('.' digits?)? | '.' digits) ([eE] [+-]? digits)?
+     */
+    private static boolean isDecimalSyntax(String s) {
+        int length = s.length();
+        int i = 0;
+        
+        if (i < length && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+            i++;
+        }
+        
+        int mantissaDigits = 0;
+        while (i < length && isDigit(s.charAt(i))) {
+            i++;
+            mantissaDigits++;
+        }
+        if (i < length && s.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(s.charAt(i))) {
+                i++;
+                mantissaDigits++;
+            }
+        }
+        if (mantissaDigits == 0) {
+            return false;
+        }
+        
+        if (i < length && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < length && isDigit(s.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        
+        return i == length;
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    private static boolean isUpper(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+    
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+    
+    private static boolean isAlphaNumeric(char c) {
+        return isLetter(c) || isDigit(c);
+    }
+    
+    private static boolean isLocalPartChar(char c) {
+        return isAlphaNumeric(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+    
+    /**
+     * \s trong java.util.regex: [ \t\n\x0B\f\r]
+     */
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
\ No newline at end of file
@@ -1,9 +1,16 @@
 package com.student.integration.validator;
 
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.loader.ArchivedTermSnapshot;
+import com.student.integration.loader.ClassCodeSnapshot;
+import com.student.integration.loader.StudentKeyResolver;
+import com.student.integration.validator.attendance.*;
 import com.student.integration.validator.impl.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.function.Supplier;
+
 /**
  * Builder class để xây dựng validation chain
  */
@@ -15,6 +22,17 @@ public class ValidationChainBuilder {
      * Build default validation chain cho Student
      */
     public static Validator buildStudentValidationChain() {
+        return buildChain(ClassCodeValidator::new);
+    }
+    
+    /**
+     * Build default chain với class snapshot chỉ định (null = tắt kiểm tra reference)
+     */
+    public static Validator buildStudentValidationChain(ClassCodeSnapshot classSnapshot) {
+        return buildChain(() -> new ClassCodeValidator(classSnapshot));
+    }
+    
+    private static Validator buildChain(Supplier<ClassCodeValidator> classCodeFactory) {
         
         // Create validators
         Validator requiredFields = new RequiredFieldsValidator();
@@ -23,7 +41,7 @@ public class ValidationChainBuilder {
         Validator phone = new PhoneValidator();
         Validator dob = new DateOfBirthValidator();
         Validator gpa = new GPAValidator();
-        Validator classCode = new ClassCodeValidator();
+        Validator classCode = classCodeFactory.get();
         
         // Build chain
         requiredFields.setNext(studentId);
@@ -38,6 +56,38 @@ public class ValidationChainBuilder {
         return requiredFields; // Return head of chain
     }
     
+    /**
+     * Build validation chain cho dòng điểm danh
+     * Student/class cần resolve được id (cột NOT NULL của bảng attendance)
+     */
+    public static AttendanceValidator buildAttendanceValidationChain(StudentKeyResolver studentResolver) {
+        return buildAttendanceValidationChain(studentResolver, ClassCodeSnapshot.getInstance(),
+            ArchivedTermSnapshot.getInstance());
+    }
+    
+    public static AttendanceValidator buildAttendanceValidationChain(StudentKeyResolver studentResolver,
+                                                                     ClassCodeSnapshot classSnapshot,
+                                                                     ArchivedTermSnapshot archivedTerms) {
+        int maxSession = ConfigLoader.getInstance().getIntProperty("attendance.session.max", 10);
+        
+        AttendanceValidator student = new AttendanceStudentValidator(studentResolver);
+        AttendanceValidator classCode = new AttendanceClassValidator(classSnapshot);
+        AttendanceValidator date = new AttendanceDateValidator(archivedTerms);
+        AttendanceValidator session = new SessionNumberValidator(maxSession);
+        AttendanceValidator status = new AttendanceStatusValidator();
+        AttendanceValidator checkTime = new CheckTimeValidator();
+        
+        student.setNext(classCode);
+        classCode.setNext(date);
+        date.setNext(session);
+        session.setNext(status);
+        status.setNext(checkTime);
+        
+        logger.info("✅ Attendance validation chain built with 6 validators");
+        
+        return student;
+    }
+    
     /**
      * Build custom chain
      */
@@ -0,0 +1,72 @@
+package com.student.integration.validator.attendance;
+
+import com.student.integration.metrics.RuleMetrics;
+import com.student.integration.metrics.ValidatorMetrics;
+import com.student.integration.model.dto.AttendanceRawDTO;
+import com.student.integration.model.dto.AttendanceValidationResult;
+import com.student.integration.model.dto.ValidationError;
+import com.student.integration.model.enums.ValidationErrorCode;
+import com.student.integration.validator.FieldFormats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Abstract base class cho attendance validators
+ * Cùng cách đo metrics theo rule với AbstractValidator
+ */
+public abstract class AbstractAttendanceValidator implements AttendanceValidator {
+    
+    protected static final Logger logger = LoggerFactory.getLogger(AbstractAttendanceValidator.class);
+    
+    private AttendanceValidator next;
+    
+    // Counters + latency của rule này (null nếu metrics bị tắt)
+    private final RuleMetrics metrics =
+        ValidatorMetrics.getInstance().forRule(getClass().getSimpleName());
+    
+    @Override
+    public void validate(AttendanceRawDTO row, AttendanceValidationResult result) {
+        if (metrics == null) {
+            doValidate(row, result);
+        } else {
+            int errorsBefore = result.getErrors().size();
+            long start = System.nanoTime();
+            doValidate(row, result);
+            metrics.record(System.nanoTime() - start, result.getErrors(), errorsBefore);
+        }
+        
+        // Tiếp tục chain (dù pass hay fail)
+        if (next != null) {
+            next.validate(row, result);
+        }
+    }
+    
+    /**
+     * Template method - subclass implement logic cụ thể
+     */
+    protected abstract void doValidate(AttendanceRawDTO row, AttendanceValidationResult result);
+    
+    @Override
+    public void setNext(AttendanceValidator next) {
+        this.next = next;
+    }
+    
+    @Override
+    public AttendanceValidator getNext() {
+        return next;
+    }
+    
+    /**
+     * Helper method để add error theo code (message resolve lazily)
+     */
+    protected void addError(AttendanceValidationResult result, ValidationErrorCode code,
+                           String invalidValue, String... args) {
+        result.addError(new ValidationError(code, invalidValue, args));
+        
+        logger.debug("Validation error: {} (Value: {})", code, invalidValue);
+    }
+    
+    protected boolean isNullOrEmpty(String value) {
+        return FieldFormats.isBlank(value);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.student.integration.validator.attendance;
+
+import com.student.integration.loader.ClassCodeSnapshot;
+import com.student.integration.model.dto.AttendanceRawDTO;
+import com.student.integration.model.dto.AttendanceValidationResult;
+import com.student.integration.model.enums.ValidationErrorCode;
+import com.student.integration.validator.FieldFormats;
+
+/**
+ * Validator cho class_code của dòng điểm danh
+ *
+ * Khác ClassCodeValidator (student): attendance.class_id là NOT NULL nên reference
+ * luôn được kiểm tra; snapshot chưa load được thì throw để chunk được giao lại
+ * thay vì cho dòng đi tiếp mà không có class_id
+ */
+public class AttendanceClassValidator extends AbstractAttendanceValidator {
+    
+    private final ClassCodeSnapshot classSnapshot;
+    
+    public AttendanceClassValidator(ClassCodeSnapshot classSnapshot) {
+        this.classSnapshot = classSnapshot;
+    }
+    
+    @Override
+    protected void doValidate(AttendanceRawDTO row, AttendanceValidationResult result) {
+        String classCode = row.getClassCode();
+        
+        if (isNullOrEmpty(classCode)) {
+            addError(result, ValidationErrorCode.CLASS_CODE_REQUIRED, classCode);
+            return;
+        }
+        
+        if (!FieldFormats.isClassCode(classCode)) {
+            addError(result, ValidationErrorCode.CLASS_CODE_FORMAT, classCode);
+            return;
+        }
+        
+        if (!classSnapshot.isLoaded()) {
+            throw new IllegalStateException("Class snapshot is not loaded, cannot resolve class_id");
+        }
+        
+        Integer classId = classSnapshot.getClassId(classCode);
+        if (classId == null) {
+            addError(result, ValidationErrorCode.CLASS_CODE_UNKNOWN, classCode);
+        } else {
+            result.getAttendance().setClassId(classId);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.student.integration.validator.attendance;
+
+import com.student.integration.loader.ArchivedTermSnapshot;
+import com.student.integration.model.dto.AttendanceRawDTO;
+import com.student.integration.model.dto.AttendanceValidationResult;
+import com.student.integration.model.enums.ValidationErrorCode;
+import com.student.integration.util.CoarseClock;
+import com.student.integration.util.IsoDates;
+
+/**
+ * Validator cho attendance_date
+ * - Format: yyyy-MM-dd
+ * - Không được ở tương lai
+ * - Không thuộc học kỳ đã archive (từng dòng vào attendance.error thay vì làm loader bỏ cả chunk)
+ */
+public class AttendanceDateValidator extends AbstractAttendanceValidator {
+    
+    private final ArchivedTermSnapshot archivedTerms;
+    
+    public AttendanceDateValidator(ArchivedTermSnapshot archivedTerms) {
+        this.archivedTerms = archivedTerms;
+    }
+    
+    @Override
+    protected void doValidate(AttendanceRawDTO row, AttendanceValidationResult result) {
+        String dateString = row.getAttendanceDate();
+        
+        if (isNullOrEmpty(dateString)) {
+            addError(result, ValidationErrorCode.ATTENDANCE_DATE_REQUIRED, dateString);
+            return;
+        }
+        
+        int ymd = IsoDates.parseYmd(dateString);
+        if (ymd == IsoDates.INVALID) {
+            addError(result, ValidationErrorCode.ATTENDANCE_DATE_FORMAT, dateString);
+            return;
+        }
+        
+        if (ymd > CoarseClock.todayYmd()) {
+            addError(result, ValidationErrorCode.ATTENDANCE_DATE_IN_FUTURE, dateString);
+            return;
+        }
+        
+        if (archivedTerms.isClosed(ymd)) {
+            addError(result, ValidationErrorCode.ATTENDANCE_DATE_TERM_CLOSED, dateString,
+                archivedTerms.getClosedThrough().toString());
+            return;
+        }
+        
+        result.getAttendance().setAttendanceDate(IsoDates.toLocalDate(ymd));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.student.integration.validator.attendance;
+
+import com.student.integration.model.dto.AttendanceRawDTO;
+import com.student.integration.model.dto.AttendanceValidationResult;
+import com.student.integration.model.enums.AttendanceStatus;
+import com.student.integration.model.enums.ValidationErrorCode;
+
+/**
+ * Validator cho status: PRESENT, ABSENT, LATE, EXCUSED (không phân biệt hoa thường)
+ */
+public class AttendanceStatusValidator extends AbstractAttendanceValidator {
+    
+    @Override
+    protected void doValidate(AttendanceRawDTO row, AttendanceValidationResult result) {
+        String statusString = row.getStatus();
+        
+        if (isNullOrEmpty(statusString)) {
+            addError(result, ValidationErrorCode.ATTENDANCE_STATUS_REQUIRED, statusString);
+            return;
+        }
+        
+        AttendanceStatus status = AttendanceStatus.fromString(statusString.trim());
+        if (status == null) {
+            addError(result, ValidationErrorCode.ATTENDANCE_STATUS_INVALID, statusString);
+            return;
+        }
+        
+        result.getAttendance().setStatus(status);
+    }
+}
\ No newline at end of file
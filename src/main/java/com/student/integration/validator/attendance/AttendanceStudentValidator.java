@@ -0,0 +1,47 @@
+package com.student.integration.validator.attendance;
+
+import com.student.integration.loader.StudentKeyResolver;
+import com.student.integration.model.dto.AttendanceRawDTO;
+import com.student.integration.model.dto.AttendanceValidationResult;
+import com.student.integration.model.enums.ValidationErrorCode;
+import com.student.integration.util.StudentIdCodec;
+
+/**
+ * Validator cho student_id của dòng điểm danh
+ * - Format: SV + 8 số
+ * - Reference: phải có trong bảng students (resolver đã prefetch cho cả chunk)
+ */
+public class AttendanceStudentValidator extends AbstractAttendanceValidator {
+    
+    private final StudentKeyResolver resolver;
+    
+    public AttendanceStudentValidator(StudentKeyResolver resolver) {
+        this.resolver = resolver;
+    }
+    
+    @Override
+    protected void doValidate(AttendanceRawDTO row, AttendanceValidationResult result) {
+        String studentCode = row.getStudentId();
+        
+        if (isNullOrEmpty(studentCode)) {
+            addError(result, ValidationErrorCode.STUDENT_ID_REQUIRED, studentCode);
+            return;
+        }
+        
+        // encode() kiểm tra luôn format SV + 8 số
+        long key = StudentIdCodec.encode(studentCode);
+        if (key == StudentIdCodec.NO_KEY) {
+            addError(result, ValidationErrorCode.STUDENT_ID_FORMAT, studentCode);
+            return;
+        }
+        
+        long studentId = resolver.resolve(key);
+        if (studentId == StudentKeyResolver.UNKNOWN) {
+            addError(result, ValidationErrorCode.STUDENT_UNKNOWN, studentCode);
+            return;
+        }
+        
+        result.getAttendance().setStudentCode(studentCode);
+        result.getAttendance().setStudentId(studentId);
+    }
+}
\ No newline at end of file
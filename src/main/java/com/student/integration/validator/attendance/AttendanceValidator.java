@@ -0,0 +1,20 @@
+package com.student.integration.validator.attendance;
+
+import com.student.integration.model.dto.AttendanceRawDTO;
+import com.student.integration.model.dto.AttendanceValidationResult;
+
+/**
+ * Interface cho validators của dòng điểm danh
+ * Chain of Responsibility như Validator (student)
+ */
+public interface AttendanceValidator {
+    
+    /**
+     * Validate một dòng, add errors và giá trị đã parse vào result
+     */
+    void validate(AttendanceRawDTO row, AttendanceValidationResult result);
+    
+    void setNext(AttendanceValidator next);
+    
+    AttendanceValidator getNext();
+}
\ No newline at end of file
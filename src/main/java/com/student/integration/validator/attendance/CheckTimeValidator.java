@@ -0,0 +1,55 @@
+package com.student.integration.validator.attendance;
+
+import com.student.integration.model.dto.AttendanceRawDTO;
+import com.student.integration.model.dto.AttendanceValidationResult;
+import com.student.integration.model.entity.Attendance;
+import com.student.integration.model.enums.ValidationErrorCode;
+import com.student.integration.validator.FieldFormats;
+
+import java.time.LocalTime;
+
+/**
+ * Validator cho check_in_time / check_out_time (không bắt buộc, VD: ABSENT)
+ * - Format: HH:mm hoặc HH:mm:ss
+ * - Check-out không được trước check-in
+ * Cột note không cần validate, được copy sang Attendance ở đây
+ */
+public class CheckTimeValidator extends AbstractAttendanceValidator {
+    
+    @Override
+    protected void doValidate(AttendanceRawDTO row, AttendanceValidationResult result) {
+        Attendance attendance = result.getAttendance();
+        
+        String note = row.getNote();
+        attendance.setNote(isNullOrEmpty(note) ? null : note);
+        
+        int checkIn = parseTime(result, row.getCheckInTime(), ValidationErrorCode.CHECK_IN_TIME_FORMAT);
+        int checkOut = parseTime(result, row.getCheckOutTime(), ValidationErrorCode.CHECK_OUT_TIME_FORMAT);
+        
+        if (checkIn >= 0) {
+            attendance.setCheckInTime(LocalTime.ofSecondOfDay(checkIn));
+        }
+        if (checkOut >= 0) {
+            attendance.setCheckOutTime(LocalTime.ofSecondOfDay(checkOut));
+        }
+        
+        if (checkIn >= 0 && checkOut >= 0 && checkOut < checkIn) {
+            addError(result, ValidationErrorCode.CHECK_OUT_BEFORE_CHECK_IN, row.getCheckOutTime());
+        }
+    }
+    
+    /**
+     * Số giây trong ngày, -1 nếu trống hoặc sai format (sai format thì add error)
+     */
+    private int parseTime(AttendanceValidationResult result, String value, ValidationErrorCode formatError) {
+        if (isNullOrEmpty(value)) {
+            return -1;
+        }
+        
+        int secondOfDay = FieldFormats.parseSecondOfDay(value.trim());
+        if (secondOfDay < 0) {
+            addError(result, formatError, value);
+        }
+        return secondOfDay;
+    }
+}
\ No newline at end of file
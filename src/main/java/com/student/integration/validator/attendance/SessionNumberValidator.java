@@ -0,0 +1,43 @@
+package com.student.integration.validator.attendance;
+
+import com.student.integration.model.dto.AttendanceRawDTO;
+import com.student.integration.model.dto.AttendanceValidationResult;
+import com.student.integration.model.enums.ValidationErrorCode;
+import com.student.integration.validator.FieldFormats;
+
+/**
+ * Validator cho session_number: số nguyên 1..maxSession (attendance.session.max)
+ */
+public class SessionNumberValidator extends AbstractAttendanceValidator {
+    
+    private final int maxSession;
+    private final String maxSessionText;
+    
+    public SessionNumberValidator(int maxSession) {
+        this.maxSession = maxSession;
+        this.maxSessionText = Integer.toString(maxSession);
+    }
+    
+    @Override
+    protected void doValidate(AttendanceRawDTO row, AttendanceValidationResult result) {
+        String sessionString = row.getSessionNumber();
+        
+        if (isNullOrEmpty(sessionString)) {
+            addError(result, ValidationErrorCode.SESSION_NUMBER_REQUIRED, sessionString);
+            return;
+        }
+        
+        int session = FieldFormats.parsePositiveInt(sessionString);
+        if (session < 0) {
+            addError(result, ValidationErrorCode.SESSION_NUMBER_FORMAT, sessionString);
+            return;
+        }
+        
+        if (session < 1 || session > maxSession) {
+            addError(result, ValidationErrorCode.SESSION_NUMBER_OUT_OF_RANGE, sessionString, maxSessionText);
+            return;
+        }
+        
+        result.getAttendance().setSessionNumber(session);
+    }
+}
\ No newline at end of file
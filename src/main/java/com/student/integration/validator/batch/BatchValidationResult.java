@@ -0,0 +1,62 @@
+package com.student.integration.validator.batch;
+
+import com.student.integration.model.dto.ValidationResult;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kết quả validate một batch
+ * - results: ValidationResult theo đúng thứ tự input
+ * - bitset theo rule: bit i bật = record i fail rule đó
+ */
+public class BatchValidationResult {
+    
+    private final List<ValidationResult> results;
+    private final Map<ValidationRule, BitSet> ruleFailures;
+    private final BitSet failedRows;
+    
+    BatchValidationResult(List<ValidationResult> results,
+                          EnumMap<ValidationRule, BitSet> ruleFailures,
+                          BitSet failedRows) {
+        this.results = results;
+        this.ruleFailures = ruleFailures;
+        this.failedRows = failedRows;
+    }
+    
+    public List<ValidationResult> getResults() {
+        return results;
+    }
+    
+    public int size() {
+        return results.size();
+    }
+    
+    /**
+     * Các record fail rule chỉ định (bản copy)
+     */
+    public BitSet getFailures(ValidationRule rule) {
+        return (BitSet) ruleFailures.get(rule).clone();
+    }
+    
+    /**
+     * Các record fail ít nhất 1 rule (bản copy)
+     */
+    public BitSet getFailedRows() {
+        return (BitSet) failedRows.clone();
+    }
+    
+    public int getValidCount() {
+        return results.size() - failedRows.cardinality();
+    }
+    
+    public int getInvalidCount() {
+        return failedRows.cardinality();
+    }
+    
+    public int getFailureCount(ValidationRule rule) {
+        return ruleFailures.get(rule).cardinality();
+    }
+}
\ No newline at end of file
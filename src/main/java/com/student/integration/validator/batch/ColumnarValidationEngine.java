@@ -0,0 +1,280 @@
+package com.student.integration.validator.batch;
+
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.loader.ClassCodeSnapshot;
+import com.student.integration.metrics.RuleMetrics;
+import com.student.integration.metrics.ValidatorMetrics;
+import com.student.integration.model.dto.ParsedStudentData;
+import com.student.integration.model.dto.StudentRawDTO;
+import com.student.integration.model.dto.ValidationResult;
+import com.student.integration.util.CoarseClock;
+import com.student.integration.util.IsoDates;
+import com.student.integration.validator.FieldFormats;
+import com.student.integration.validator.ValidationChainBuilder;
+import com.student.integration.validator.Validator;
+import com.student.integration.validator.impl.DateOfBirthValidator;
+import com.student.integration.validator.impl.GPAValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Validate theo cột cho file lớn (batch API song song với Validator chain)
+ *
+ * - Batch được chuyển sang struct-of-arrays (StudentColumns)
+ * - Mỗi rule quét một cột trong vòng lặp đơn giản → ghi fail vào BitSet của rule
+ * - Record pass tất cả rule: tạo ValidationResult trực tiếp (kèm parsed data)
+ * - Record fail ít nhất 1 rule: chạy lại qua validator chain để có đúng
+ *   danh sách ValidationError (thứ tự, code, args) như xử lý từng record
+ *
+ * → Kết quả giống hệt ValidationChainBuilder.buildStudentValidationChain()
+ *
+ * Metrics theo rule ghi vào cùng RuleMetrics với chain (tên validator): record pass được
+ * tính theo lần quét cột (thời gian chia đều), record fail do chain ở slow path tự ghi
+ */
+public class ColumnarValidationEngine {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarValidationEngine.class);
+    
+    private static final int MAX_EMAIL_LENGTH = 255;
+    private static final ValidationRule[] RULES = ValidationRule.values();
+    
+    // null = tắt kiểm tra reference (giống ClassCodeValidator)
+    private final ClassCodeSnapshot classSnapshot;
+    private final Validator rowChain;
+    private final int batchSize;
+    // Theo ordinal của ValidationRule, null nếu metrics bị tắt
+    private final RuleMetrics[] ruleMetrics;
+    
+    public ColumnarValidationEngine() {
+        this(ConfigLoader.getInstance().getBooleanProperty("validation.class.reference.enabled", true)
+            ? ClassCodeSnapshot.getInstance()
+            : null);
+    }
+    
+    public ColumnarValidationEngine(ClassCodeSnapshot classSnapshot) {
+        this.classSnapshot = classSnapshot;
+        this.rowChain = ValidationChainBuilder.buildStudentValidationChain(classSnapshot);
+        this.batchSize = Math.max(1,
+            ConfigLoader.getInstance().getIntProperty("validation.batch.size", 1024));
+        
+        ValidatorMetrics validatorMetrics = ValidatorMetrics.getInstance();
+        if (validatorMetrics.isEnabled()) {
+            this.ruleMetrics = new RuleMetrics[RULES.length];
+            for (ValidationRule rule : RULES) {
+                ruleMetrics[rule.ordinal()] = validatorMetrics.forRule(rule.getMetricsName());
+            }
+        } else {
+            this.ruleMetrics = null;
+        }
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * Validate toàn bộ records (VD: output của CSVReader.readCSV),
+     * chia thành các batch validation.batch.size records
+     */
+    public List<ValidationResult> validateAll(List<StudentRawDTO> records) {
+        List<ValidationResult> results = new ArrayList<>(records.size());
+        int invalid = 0;
+        
+        for (int from = 0; from < records.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, records.size());
+            BatchValidationResult batch = validate(records.subList(from, to));
+            results.addAll(batch.getResults());
+            invalid += batch.getInvalidCount();
+        }
+        
+        logger.info("Columnar validation: {} records ({} valid, {} invalid)",
+            records.size(), records.size() - invalid, invalid);
+        
+        return results;
+    }
+    
+    /**
+     * Validate một batch
+     */
+    public BatchValidationResult validate(List<StudentRawDTO> batch) {
+        StudentColumns columns = new StudentColumns(batch);
+        int size = columns.size;
+        
+        // Chốt trạng thái snapshot và ngày hiện tại cho cả batch
+        boolean checkReference = classSnapshot != null && classSnapshot.isLoaded();
+        int todayYmd = CoarseClock.todayYmd();
+        
+        EnumMap<ValidationRule, BitSet> failures = new EnumMap<>(ValidationRule.class);
+        long[] sweepNanos = new long[RULES.length];
+        sweep(ValidationRule.REQUIRED_FIELDS, () -> sweepRequiredFields(columns), failures, sweepNanos);
+        sweep(ValidationRule.STUDENT_ID, () -> sweepStudentId(columns), failures, sweepNanos);
+        sweep(ValidationRule.EMAIL, () -> sweepEmail(columns), failures, sweepNanos);
+        sweep(ValidationRule.PHONE, () -> sweepPhone(columns), failures, sweepNanos);
+        sweep(ValidationRule.DATE_OF_BIRTH, () -> sweepDateOfBirth(columns, todayYmd), failures, sweepNanos);
+        sweep(ValidationRule.GPA, () -> sweepGpa(columns), failures, sweepNanos);
+        sweep(ValidationRule.CLASS_CODE, () -> sweepClassCode(columns, checkReference), failures, sweepNanos);
+        
+        BitSet failedRows = new BitSet(size);
+        for (BitSet ruleFailures : failures.values()) {
+            failedRows.or(ruleFailures);
+        }
+        
+        // Record pass mọi rule không qua chain → ghi metrics ở đây, record fail do chain ghi
+        if (ruleMetrics != null && size > 0) {
+            long passed = size - failedRows.cardinality();
+            for (ValidationRule rule : RULES) {
+                ruleMetrics[rule.ordinal()].recordPasses(passed, sweepNanos[rule.ordinal()] / size);
+            }
+        }
+        
+        List<ValidationResult> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StudentRawDTO student = columns.records[i];
+            ValidationResult result = new ValidationResult(student);
+            
+            if (failedRows.get(i)) {
+                // Slow path: chain sinh errors giống hệt xử lý từng record
+                rowChain.validate(student, result);
+            } else {
+                ParsedStudentData parsed = result.getParsedData();
+                parsed.setDateOfBirth(IsoDates.toLocalDate(columns.dobYmd[i]));
+                parsed.setGpa(columns.gpaValue[i]);
+                if (checkReference) {
+                    parsed.setClassId(columns.classId[i]);
+                }
+            }
+            
+            results.add(result);
+        }
+        
+        return new BatchValidationResult(results, failures, failedRows);
+    }
+    
+    // ==================== Column sweeps ====================
+    
+    private static void sweep(ValidationRule rule, Supplier<BitSet> sweep,
+                              EnumMap<ValidationRule, BitSet> failures, long[] sweepNanos) {
+        long start = System.nanoTime();
+        failures.put(rule, sweep.get());
+        sweepNanos[rule.ordinal()] = System.nanoTime() - start;
+    }
+    
+    private BitSet sweepRequiredFields(StudentColumns c) {
+        BitSet failures = new BitSet(c.size);
+        for (int i = 0; i < c.size; i++) {
+            if (FieldFormats.isBlank(c.fullName[i])
+                    || FieldFormats.isBlank(c.gender[i])
+                    || FieldFormats.isBlank(c.major[i])
+                    || FieldFormats.isBlank(c.faculty[i])
+                    || FieldFormats.isBlank(c.status[i])) {
+                failures.set(i);
+            }
+        }
+        return failures;
+    }
+    
+    private BitSet sweepStudentId(StudentColumns c) {
+        BitSet failures = new BitSet(c.size);
+        String[] column = c.studentId;
+        for (int i = 0; i < c.size; i++) {
+            if (!FieldFormats.isStudentId(column[i])) {
+                failures.set(i);
+            }
+        }
+        return failures;
+    }
+    
+    private BitSet sweepEmail(StudentColumns c) {
+        BitSet failures = new BitSet(c.size);
+        String[] column = c.email;
+        for (int i = 0; i < c.size; i++) {
+            String email = column[i];
+            if (!FieldFormats.isEmail(email) || email.length() > MAX_EMAIL_LENGTH) {
+                failures.set(i);
+            }
+        }
+        return failures;
+    }
+    
+    private BitSet sweepPhone(StudentColumns c) {
+        BitSet failures = new BitSet(c.size);
+        String[] column = c.phone;
+        for (int i = 0; i < c.size; i++) {
+            if (!FieldFormats.isPhone(column[i])) {
+                failures.set(i);
+            }
+        }
+        return failures;
+    }
+    
+    private BitSet sweepDateOfBirth(StudentColumns c, int todayYmd) {
+        BitSet failures = new BitSet(c.size);
+        String[] column = c.dateOfBirth;
+        int[] dobYmd = c.dobYmd;
+        
+        for (int i = 0; i < c.size; i++) {
+            int ymd = IsoDates.parseYmd(column[i]);
+            dobYmd[i] = ymd;
+            
+            if (ymd == IsoDates.INVALID || ymd > todayYmd) {
+                failures.set(i);
+                continue;
+            }
+            
+            int age = IsoDates.yearsBetween(ymd, todayYmd);
+            if (age < DateOfBirthValidator.MIN_AGE || age > DateOfBirthValidator.MAX_AGE) {
+                failures.set(i);
+            }
+        }
+        return failures;
+    }
+    
+    private BitSet sweepGpa(StudentColumns c) {
+        BitSet failures = new BitSet(c.size);
+        String[] column = c.gpa;
+        BigDecimal[] gpaValue = c.gpaValue;
+        
+        for (int i = 0; i < c.size; i++) {
+            BigDecimal gpa = FieldFormats.parseDecimal(column[i]);
+            gpaValue[i] = gpa;
+            
+            if (gpa == null
+                    || gpa.compareTo(GPAValidator.MIN_GPA) < 0
+                    || gpa.compareTo(GPAValidator.MAX_GPA) > 0) {
+                failures.set(i);
+            }
+        }
+        return failures;
+    }
+    
+    private BitSet sweepClassCode(StudentColumns c, boolean checkReference) {
+        BitSet failures = new BitSet(c.size);
+        String[] column = c.classCode;
+        int[] classId = c.classId;
+        
+        for (int i = 0; i < c.size; i++) {
+            String classCode = column[i];
+            if (!FieldFormats.isClassCode(classCode)) {
+                failures.set(i);
+                continue;
+            }
+            
+            if (checkReference) {
+                Integer id = classSnapshot.getClassId(classCode);
+                if (id == null) {
+                    failures.set(i);
+                } else {
+                    classId[i] = id;
+                }
+            }
+        }
+        return failures;
+    }
+}
\ No newline at end of file
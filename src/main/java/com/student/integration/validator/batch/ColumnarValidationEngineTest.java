@@ -0,0 +1,170 @@
+package com.student.integration.validator.batch;
+
+import com.student.integration.generator.MessyDataGenerator;
+import com.student.integration.loader.ClassCodeSnapshot;
+import com.student.integration.metrics.RuleMetrics;
+import com.student.integration.metrics.ValidatorMetrics;
+import com.student.integration.model.dto.ParsedStudentData;
+import com.student.integration.model.dto.StudentRawDTO;
+import com.student.integration.model.dto.ValidationError;
+import com.student.integration.model.dto.ValidationResult;
+import com.student.integration.producer.CSVReader;
+import com.student.integration.validator.ValidationChainBuilder;
+import com.student.integration.validator.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Test columnar engine cho cùng kết quả với validator chain (không cần broker/DB)
+ *
+ * Dữ liệu: MessyDataGenerator với nhiều seed, mỗi record so sánh valid, danh sách errors
+ * (code, field, message, value, args), parsed data; metrics theo rule phải giống nhau
+ *
+ * 1. Class snapshot thiếu một class_code của generator (có lỗi reference)
+ * 2. Tắt kiểm tra reference (snapshot null)
+ */
+public class ColumnarValidationEngineTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarValidationEngineTest.class);
+    
+    private static final long[] SEEDS = {1L, 42L, 20240501L};
+    private static final int RECORDS = 3000;
+    
+    public static void main(String[] args) {
+        logger.info("╔══════════════════════════════════════════════╗");
+        logger.info("║   COLUMNAR VALIDATION ENGINE TEST            ║");
+        logger.info("╚══════════════════════════════════════════════╝\n");
+        
+        // IS01K01 không có trong snapshot → record của lớp đó fail reference
+        ClassCodeSnapshot snapshot = ClassCodeSnapshot.of(Map.of(
+            "SE01K01", 1, "SE01K02", 2, "AI01K01", 3, "DS01K01", 4, "CS01K01", 5));
+        
+        try {
+            for (long seed : SEEDS) {
+                List<StudentRawDTO> students = generate(seed);
+                
+                logger.info("1️⃣  Seed {}: {} records, class reference check...", seed, students.size());
+                compare(students, snapshot);
+                
+                logger.info("2️⃣  Seed {}: class reference check disabled...", seed);
+                compare(students, null);
+            }
+            
+            logger.info("\n✅ All tests passed!");
+            
+        } catch (Exception | AssertionError e) {
+            logger.error("❌ Test failed", e);
+            System.exit(1);
+        }
+    }
+    
+    private static void compare(List<StudentRawDTO> students, ClassCodeSnapshot snapshot) {
+        ValidatorMetrics metrics = ValidatorMetrics.getInstance();
+        
+        Validator chain = ValidationChainBuilder.buildStudentValidationChain(snapshot);
+        metrics.reset();
+        List<ValidationResult> expected = new ArrayList<>(students.size());
+        for (StudentRawDTO student : students) {
+            ValidationResult result = new ValidationResult(student);
+            chain.validate(student, result);
+            expected.add(result);
+        }
+        List<RuleMetrics.Snapshot> chainMetrics = metrics.snapshot();
+        
+        ColumnarValidationEngine engine = new ColumnarValidationEngine(snapshot);
+        metrics.reset();
+        List<ValidationResult> actual = engine.validateAll(students);
+        List<RuleMetrics.Snapshot> engineMetrics = metrics.snapshot();
+        
+        check(actual.size() == expected.size(), "engine returned " + actual.size() + " results");
+        int invalid = 0;
+        for (int i = 0; i < expected.size(); i++) {
+            compareResult(expected.get(i), actual.get(i), i);
+            if (!expected.get(i).isValid()) {
+                invalid++;
+            }
+        }
+        check(invalid > 0 && invalid < students.size(), "dataset should mix valid and invalid records");
+        
+        compareMetrics(chainMetrics, engineMetrics, students.size());
+        logger.info("   ✓ {} records identical ({} invalid), per-rule metrics identical", students.size(), invalid);
+    }
+    
+    private static void compareResult(ValidationResult expected, ValidationResult actual, int index) {
+        String row = "row " + index + " (" + expected.getRawData().getStudentId() + ")";
+        check(expected.getRawData() == actual.getRawData(), row + ": raw data differs");
+        check(expected.isValid() == actual.isValid(), row + ": valid " + actual.isValid());
+        
+        List<ValidationError> expectedErrors = expected.getErrors();
+        List<ValidationError> actualErrors = actual.getErrors();
+        check(expectedErrors.size() == actualErrors.size(),
+            row + ": errors " + actualErrors + ", expected " + expectedErrors);
+        for (int e = 0; e < expectedErrors.size(); e++) {
+            ValidationError want = expectedErrors.get(e);
+            ValidationError got = actualErrors.get(e);
+            check(want.getCode() == got.getCode()
+                    && want.getErrorType() == got.getErrorType()
+                    && want.getSeverity() == got.getSeverity()
+                    && Objects.equals(want.getErrorField(), got.getErrorField())
+                    && Objects.equals(want.getErrorMessage(), got.getErrorMessage())
+                    && Objects.equals(want.getInvalidValue(), got.getInvalidValue())
+                    && Objects.equals(want.getValidationRule(), got.getValidationRule())
+                    && Arrays.equals(want.getArgs(), got.getArgs()),
+                row + ": error " + e + " is " + got + ", expected " + want);
+        }
+        
+        ParsedStudentData wantParsed = expected.getParsedData();
+        ParsedStudentData gotParsed = actual.getParsedData();
+        if (expected.isValid()) {
+            check(Objects.equals(wantParsed.getDateOfBirth(), gotParsed.getDateOfBirth())
+                    && Objects.equals(wantParsed.getGpa(), gotParsed.getGpa())
+                    && Objects.equals(wantParsed.getClassId(), gotParsed.getClassId()),
+                row + ": parsed " + gotParsed + ", expected " + wantParsed);
+        }
+    }
+    
+    private static void compareMetrics(List<RuleMetrics.Snapshot> chain, List<RuleMetrics.Snapshot> engine,
+                                       int records) {
+        check(chain.size() == engine.size(), "rule count " + engine.size() + ", expected " + chain.size());
+        for (int i = 0; i < chain.size(); i++) {
+            RuleMetrics.Snapshot want = chain.get(i);
+            RuleMetrics.Snapshot got = engine.get(i);
+            String rule = want.getRule();
+            check(rule.equals(got.getRule()), "rule " + got.getRule() + ", expected " + rule);
+            check(want.getRuns() == records && got.getRuns() == records,
+                rule + ": runs " + got.getRuns() + ", expected " + records);
+            check(want.getPasses() == got.getPasses() && want.getFailures() == got.getFailures(),
+                rule + ": passes/failures " + got.getPasses() + "/" + got.getFailures()
+                    + ", expected " + want.getPasses() + "/" + want.getFailures());
+            check(want.getErrorsByType().equals(got.getErrorsByType()),
+                rule + ": errors by type " + got.getErrorsByType() + ", expected " + want.getErrorsByType());
+            check(got.getLatency().getCount() == records, rule + ": latency samples " + got.getLatency().getCount());
+        }
+    }
+    
+    private static List<StudentRawDTO> generate(long seed) throws Exception {
+        Path dir = Files.createTempDirectory("columnar-validation-test");
+        Path csvFile = dir.resolve("students_" + seed + ".csv");
+        try {
+            MessyDataGenerator.generateMessyStudentData(csvFile.toString(), RECORDS, seed);
+            return new CSVReader().readCSV(csvFile);
+        } finally {
+            Files.deleteIfExists(csvFile);
+            Files.deleteIfExists(dir);
+        }
+    }
+    
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.student.integration.validator.batch;
+
+import com.student.integration.model.dto.StudentRawDTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Batch records dạng struct-of-arrays: mỗi field là một mảng liên tục
+ *
+ * - Cột String lấy thẳng từ StudentRawDTO (không copy nội dung)
+ * - Cột typed (dobYmd, gpa, classId) được engine điền trong lúc sweep
+ */
+final class StudentColumns {
+    
+    final int size;
+    final StudentRawDTO[] records;
+    
+    // Required fields
+    final String[] fullName;
+    final String[] gender;
+    final String[] major;
+    final String[] faculty;
+    final String[] status;
+    
+    // Các cột có rule riêng
+    final String[] studentId;
+    final String[] email;
+    final String[] phone;
+    final String[] dateOfBirth;
+    final String[] gpa;
+    final String[] classCode;
+    
+    // Giá trị đã parse (IsoDates.INVALID / null / 0 nếu chưa parse được)
+    final int[] dobYmd;
+    final BigDecimal[] gpaValue;
+    final int[] classId;
+    
+    StudentColumns(List<StudentRawDTO> batch) {
+        this.size = batch.size();
+        this.records = batch.toArray(new StudentRawDTO[0]);
+        
+        this.fullName = new String[size];
+        this.gender = new String[size];
+        this.major = new String[size];
+        this.faculty = new String[size];
+        this.status = new String[size];
+        this.studentId = new String[size];
+        this.email = new String[size];
+        this.phone = new String[size];
+        this.dateOfBirth = new String[size];
+        this.gpa = new String[size];
+        this.classCode = new String[size];
+        
+        this.dobYmd = new int[size];
+        this.gpaValue = new BigDecimal[size];
+        this.classId = new int[size];
+        
+        for (int i = 0; i < size; i++) {
+            StudentRawDTO student = records[i];
+            fullName[i] = student.getFullName();
+            gender[i] = student.getGender();
+            major[i] = student.getMajor();
+            faculty[i] = student.getFaculty();
+            status[i] = student.getStatus();
+            studentId[i] = student.getStudentId();
+            email[i] = student.getEmail();
+            phone[i] = student.getPhone();
+            dateOfBirth[i] = student.getDateOfBirth();
+            gpa[i] = student.getGpa();
+            classCode[i] = student.getClassCode();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.student.integration.validator.batch;
+
+import com.student.integration.validator.Validator;
+import com.student.integration.validator.impl.ClassCodeValidator;
+import com.student.integration.validator.impl.DateOfBirthValidator;
+import com.student.integration.validator.impl.EmailValidator;
+import com.student.integration.validator.impl.GPAValidator;
+import com.student.integration.validator.impl.PhoneValidator;
+import com.student.integration.validator.impl.RequiredFieldsValidator;
+import com.student.integration.validator.impl.StudentIdValidator;
+
+/**
+ * Các rule của columnar engine, cùng thứ tự với validator chain
+ * Mỗi rule ứng với một validator trong ValidationChainBuilder
+ */
+public enum ValidationRule {
+    REQUIRED_FIELDS(RequiredFieldsValidator.class),
+    STUDENT_ID(StudentIdValidator.class),
+    EMAIL(EmailValidator.class),
+    PHONE(PhoneValidator.class),
+    DATE_OF_BIRTH(DateOfBirthValidator.class),
+    GPA(GPAValidator.class),
+    CLASS_CODE(ClassCodeValidator.class);
+    
+    private final String metricsName;
+    
+    ValidationRule(Class<? extends Validator> validator) {
+        this.metricsName = validator.getSimpleName();
+    }
+    
+    /**
+     * Tên rule trong ValidatorMetrics (= tên validator tương ứng, hai chế độ dùng chung số liệu)
+     */
+    public String getMetricsName() {
+        return metricsName;
+    }
+}
\ No newline at end of file
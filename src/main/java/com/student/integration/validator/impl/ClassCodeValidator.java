@@ -1,19 +1,32 @@
 package com.student.integration.validator.impl;
 
+import com.student.integration.config.ConfigLoader;
+import com.student.integration.loader.ClassCodeSnapshot;
 import com.student.integration.model.dto.StudentRawDTO;
 import com.student.integration.model.dto.ValidationResult;
-import com.student.integration.model.enums.ErrorType;
-import com.student.integration.model.enums.Severity;
+import com.student.integration.model.enums.ValidationErrorCode;
 import com.student.integration.validator.AbstractValidator;
+import com.student.integration.validator.FieldFormats;
 
 /**
  * Validator cho Class Code
  * Format: 2 chữ + 2 số + 1 chữ + 2 số (VD: SE01K01)
+ * Reference: class_code phải tồn tại trong bảng classes (snapshot in-memory)
  */
 public class ClassCodeValidator extends AbstractValidator {
     
-    private static final String CLASS_CODE_REGEX = "^[A-Z]{2}\\d{2}[A-Z]\\d{2}$";
-    private static final String RULE_NAME = "ClassCodeFormatRule";
+    // null = tắt kiểm tra reference
+    private final ClassCodeSnapshot classSnapshot;
+    
+    public ClassCodeValidator() {
+        this(ConfigLoader.getInstance().getBooleanProperty("validation.class.reference.enabled", true)
+            ? ClassCodeSnapshot.getInstance()
+            : null);
+    }
+    
+    public ClassCodeValidator(ClassCodeSnapshot classSnapshot) {
+        this.classSnapshot = classSnapshot;
+    }
     
     @Override
     protected void doValidate(StudentRawDTO student, ValidationResult result) {
@@ -21,17 +34,26 @@ public class ClassCodeValidator extends AbstractValidator {
         
         // Check null/empty
         if (isNullOrEmpty(classCode)) {
-            addError(result, ErrorType.MISSING_FIELD, "class_code",
-                "Class code is required",
-                classCode, RULE_NAME, Severity.HIGH);
+            addError(result, ValidationErrorCode.CLASS_CODE_REQUIRED, classCode);
             return;
         }
         
         // Check format
-        if (!matchesPattern(classCode, CLASS_CODE_REGEX)) {
-            addError(result, ErrorType.INVALID_FORMAT, "class_code",
-                "Class code must match format: 2 letters + 2 digits + 1 letter + 2 digits (e.g., SE01K01)",
-                classCode, RULE_NAME, Severity.HIGH);
+        if (!FieldFormats.isClassCode(classCode)) {
+            addError(result, ValidationErrorCode.CLASS_CODE_FORMAT, classCode);
+            return;
+        }
+        
+        // Check reference (bỏ qua nếu snapshot chưa load được từ DB)
+        if (classSnapshot != null && classSnapshot.isLoaded()) {
+            Integer classId = classSnapshot.getClassId(classCode);
+            
+            if (classId == null) {
+                addError(result, ValidationErrorCode.CLASS_CODE_UNKNOWN, classCode);
+            } else {
+                // Carry class_id sang Loader (không cần lookup lại)
+                result.getParsedData().setClassId(classId);
+            }
         }
     }
 }
\ No newline at end of file
@@ -2,15 +2,11 @@ package com.student.integration.validator.impl;
 
 import com.student.integration.model.dto.StudentRawDTO;
 import com.student.integration.model.dto.ValidationResult;
-import com.student.integration.model.enums.ErrorType;
-import com.student.integration.model.enums.Severity;
+import com.student.integration.model.enums.ValidationErrorCode;
+import com.student.integration.util.CoarseClock;
+import com.student.integration.util.IsoDates;
 import com.student.integration.validator.AbstractValidator;
 
-import java.time.LocalDate;
-import java.time.Period;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-
 /**
  * Validator cho Date of Birth
  * - Format: yyyy-MM-dd
@@ -18,9 +14,10 @@ import java.time.format.DateTimeParseException;
  */
 public class DateOfBirthValidator extends AbstractValidator {
     
-    private static final String RULE_NAME = "DateOfBirthRule";
-    private static final int MIN_AGE = 17;
-    private static final int MAX_AGE = 30;
+    public static final int MIN_AGE = 17;
+    public static final int MAX_AGE = 30;
+    private static final String MIN_AGE_TEXT = Integer.toString(MIN_AGE);
+    private static final String MAX_AGE_TEXT = Integer.toString(MAX_AGE);
     
     @Override
     protected void doValidate(StudentRawDTO student, ValidationResult result) {
@@ -28,43 +25,37 @@ public class DateOfBirthValidator extends AbstractValidator {
         
         // Check null/empty
         if (isNullOrEmpty(dobString)) {
-            addError(result, ErrorType.MISSING_FIELD, "date_of_birth",
-                "Date of birth is required",
-                dobString, RULE_NAME, Severity.CRITICAL);
+            addError(result, ValidationErrorCode.DOB_REQUIRED, dobString);
             return;
         }
         
-        // Try parse date
-        LocalDate dob;
-        try {
-            dob = LocalDate.parse(dobString, DateTimeFormatter.ISO_LOCAL_DATE);
-        } catch (DateTimeParseException e) {
-            addError(result, ErrorType.INVALID_FORMAT, "date_of_birth",
-                "Date of birth must be in format yyyy-MM-dd (e.g., 2003-05-15)",
-                dobString, RULE_NAME, Severity.HIGH);
+        // Parse date (fixed-width yyyy-MM-dd, không throw exception)
+        int dobYmd = IsoDates.parseYmd(dobString);
+        if (dobYmd == IsoDates.INVALID) {
+            addError(result, ValidationErrorCode.DOB_FORMAT, dobString);
             return;
         }
         
+        // Carry typed value sang Transformer
+        result.getParsedData().setDateOfBirth(IsoDates.toLocalDate(dobYmd));
+        
         // Check if date is in the future
-        if (dob.isAfter(LocalDate.now())) {
-            addError(result, ErrorType.BUSINESS_RULE_VIOLATION, "date_of_birth",
-                "Date of birth cannot be in the future",
-                dobString, RULE_NAME, Severity.HIGH);
+        int todayYmd = CoarseClock.todayYmd();
+        if (dobYmd > todayYmd) {
+            addError(result, ValidationErrorCode.DOB_IN_FUTURE, dobString);
             return;
         }
         
         // Calculate age
-        int age = Period.between(dob, LocalDate.now()).getYears();
+        int age = IsoDates.yearsBetween(dobYmd, todayYmd);
         
         // Check age range
         if (age < MIN_AGE) {
-            addError(result, ErrorType.OUT_OF_RANGE, "date_of_birth",
-                String.format("Student is too young (age: %d, minimum: %d)", age, MIN_AGE),
-                dobString, RULE_NAME, Severity.HIGH);
+            addError(result, ValidationErrorCode.DOB_TOO_YOUNG, dobString,
+                Integer.toString(age), MIN_AGE_TEXT);
         } else if (age > MAX_AGE) {
-            addError(result, ErrorType.OUT_OF_RANGE, "date_of_birth",
-                String.format("Student is too old (age: %d, maximum: %d)", age, MAX_AGE),
-                dobString, RULE_NAME, Severity.MEDIUM);
+            addError(result, ValidationErrorCode.DOB_TOO_OLD, dobString,
+                Integer.toString(age), MAX_AGE_TEXT);
         }
     }
 }
\ No newline at end of file
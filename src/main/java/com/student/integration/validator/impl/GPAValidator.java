@@ -2,9 +2,9 @@ package com.student.integration.validator.impl;
 
 import com.student.integration.model.dto.StudentRawDTO;
 import com.student.integration.model.dto.ValidationResult;
-import com.student.integration.model.enums.ErrorType;
-import com.student.integration.model.enums.Severity;
+import com.student.integration.model.enums.ValidationErrorCode;
 import com.student.integration.validator.AbstractValidator;
+import com.student.integration.validator.FieldFormats;
 
 import java.math.BigDecimal;
 
@@ -14,9 +14,10 @@ import java.math.BigDecimal;
  */
 public class GPAValidator extends AbstractValidator {
     
-    private static final String RULE_NAME = "GPARangeRule";
-    private static final BigDecimal MIN_GPA = new BigDecimal("0.0");
-    private static final BigDecimal MAX_GPA = new BigDecimal("4.0");
+    public static final BigDecimal MIN_GPA = new BigDecimal("0.0");
+    public static final BigDecimal MAX_GPA = new BigDecimal("4.0");
+    private static final String MIN_GPA_TEXT = MIN_GPA.toPlainString();
+    private static final String MAX_GPA_TEXT = MAX_GPA.toPlainString();
     
     @Override
     protected void doValidate(StudentRawDTO student, ValidationResult result) {
@@ -24,32 +25,25 @@ public class GPAValidator extends AbstractValidator {
         
         // Check null/empty
         if (isNullOrEmpty(gpaString)) {
-            addError(result, ErrorType.MISSING_FIELD, "gpa",
-                "GPA is required",
-                gpaString, RULE_NAME, Severity.HIGH);
+            addError(result, ValidationErrorCode.GPA_REQUIRED, gpaString);
             return;
         }
         
-        // Try parse as number
-        BigDecimal gpa;
-        try {
-            gpa = new BigDecimal(gpaString.trim());
-        } catch (NumberFormatException e) {
-            addError(result, ErrorType.INVALID_FORMAT, "gpa",
-                "GPA must be a number (e.g., 3.45)",
-                gpaString, RULE_NAME, Severity.HIGH);
+        // Parse as number (null nếu sai format, không throw exception)
+        BigDecimal gpa = FieldFormats.parseDecimal(gpaString);
+        if (gpa == null) {
+            addError(result, ValidationErrorCode.GPA_FORMAT, gpaString);
             return;
         }
         
+        // Carry typed value sang Transformer
+        result.getParsedData().setGpa(gpa);
+        
         // Check range
         if (gpa.compareTo(MIN_GPA) < 0) {
-            addError(result, ErrorType.OUT_OF_RANGE, "gpa",
-                String.format("GPA cannot be less than %.1f", MIN_GPA),
-                gpaString, RULE_NAME, Severity.HIGH);
+            addError(result, ValidationErrorCode.GPA_BELOW_MIN, gpaString, MIN_GPA_TEXT);
         } else if (gpa.compareTo(MAX_GPA) > 0) {
-            addError(result, ErrorType.OUT_OF_RANGE, "gpa",
-                String.format("GPA cannot be greater than %.1f", MAX_GPA),
-                gpaString, RULE_NAME, Severity.HIGH);
+            addError(result, ValidationErrorCode.GPA_ABOVE_MAX, gpaString, MAX_GPA_TEXT);
         }
     }
 }
\ No newline at end of file
@@ -2,9 +2,9 @@ package com.student.integration.validator.impl;
 
 import com.student.integration.model.dto.StudentRawDTO;
 import com.student.integration.model.dto.ValidationResult;
-import com.student.integration.model.enums.ErrorType;
-import com.student.integration.model.enums.Severity;
+import com.student.integration.model.enums.ValidationErrorCode;
 import com.student.integration.validator.AbstractValidator;
+import com.student.integration.validator.FieldFormats;
 
 /**
  * Validator cho Phone number
@@ -12,29 +12,19 @@ import com.student.integration.validator.AbstractValidator;
  */
 public class PhoneValidator extends AbstractValidator {
     
-    private static final String PHONE_REGEX = "^(0|\\+84)[0-9]{9}$";
-    private static final String RULE_NAME = "PhoneFormatRule";
-    
     @Override
     protected void doValidate(StudentRawDTO student, ValidationResult result) {
         String phone = student.getPhone();
         
         // Check null/empty
         if (isNullOrEmpty(phone)) {
-            addError(result, ErrorType.MISSING_FIELD, "phone",
-                "Phone number is required",
-                phone, RULE_NAME, Severity.HIGH);
+            addError(result, ValidationErrorCode.PHONE_REQUIRED, phone);
             return;
         }
         
-        // Remove spaces and dashes for validation
-        String cleanPhone = phone.replaceAll("[\\s-]", "");
-        
-        // Check format
-        if (!matchesPattern(cleanPhone, PHONE_REGEX)) {
-            addError(result, ErrorType.INVALID_FORMAT, "phone",
-                "Phone number must be 10 digits starting with 0 or +84 (e.g., 0901234567)",
-                phone, RULE_NAME, Severity.HIGH);
+        // Check format (bỏ qua spaces và dashes)
+        if (!FieldFormats.isPhone(phone)) {
+            addError(result, ValidationErrorCode.PHONE_FORMAT, phone);
         }
     }
 }
\ No newline at end of file
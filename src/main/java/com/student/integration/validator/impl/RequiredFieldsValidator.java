@@ -2,8 +2,7 @@ package com.student.integration.validator.impl;
 
 import com.student.integration.model.dto.StudentRawDTO;
 import com.student.integration.model.dto.ValidationResult;
-import com.student.integration.model.enums.ErrorType;
-import com.student.integration.model.enums.Severity;
+import com.student.integration.model.enums.ValidationErrorCode;
 import com.student.integration.validator.AbstractValidator;
 
 /**
@@ -11,44 +10,32 @@ import com.student.integration.validator.AbstractValidator;
  */
 public class RequiredFieldsValidator extends AbstractValidator {
     
-    private static final String RULE_NAME = "RequiredFieldsRule";
-    
     @Override
     protected void doValidate(StudentRawDTO student, ValidationResult result) {
         
         // Full name
         if (isNullOrEmpty(student.getFullName())) {
-            addError(result, ErrorType.MISSING_FIELD, "full_name",
-                "Full name is required",
-                student.getFullName(), RULE_NAME, Severity.CRITICAL);
+            addError(result, ValidationErrorCode.FULL_NAME_REQUIRED, student.getFullName());
         }
         
         // Gender
         if (isNullOrEmpty(student.getGender())) {
-            addError(result, ErrorType.MISSING_FIELD, "gender",
-                "Gender is required",
-                student.getGender(), RULE_NAME, Severity.HIGH);
+            addError(result, ValidationErrorCode.GENDER_REQUIRED, student.getGender());
         }
         
         // Major
         if (isNullOrEmpty(student.getMajor())) {
-            addError(result, ErrorType.MISSING_FIELD, "major",
-                "Major is required",
-                student.getMajor(), RULE_NAME, Severity.MEDIUM);
+            addError(result, ValidationErrorCode.MAJOR_REQUIRED, student.getMajor());
         }
         
         // Faculty
         if (isNullOrEmpty(student.getFaculty())) {
-            addError(result, ErrorType.MISSING_FIELD, "faculty",
-                "Faculty is required",
-                student.getFaculty(), RULE_NAME, Severity.MEDIUM);
+            addError(result, ValidationErrorCode.FACULTY_REQUIRED, student.getFaculty());
         }
         
         // Status
         if (isNullOrEmpty(student.getStatus())) {
-            addError(result, ErrorType.MISSING_FIELD, "status",
-                "Status is required",
-                student.getStatus(), RULE_NAME, Severity.MEDIUM);
+            addError(result, ValidationErrorCode.STATUS_REQUIRED, student.getStatus());
         }
     }
 }
\ No newline at end of file
@@ -1,17 +1,31 @@
 package com.student.integration.watcher;
 
 import com.student.integration.config.ConfigLoader;
+import com.student.integration.loader.ImportBatchRepository;
+import com.student.integration.model.entity.ImportBatch;
+import com.student.integration.model.enums.ImportBatchStatus;
+import com.student.integration.producer.AttendanceProducer;
 import com.student.integration.producer.StudentProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
  * File Watcher để tự động xử lý CSV files mới
  * CORE FEATURE: "Khi thêm bất kì file CSV sinh viên nào vào để thực hiện check rule"
+ *
+ * File chỉ được chuyển sang processed/ khi import_batches báo batch COMPLETED
+ * (record cuối đã load vào Clean DB), không phải ngay khi publish xong
+ *
+ * Batch đang chờ được khôi phục từ import_batches (PROCESSING, file còn trong thư mục) khi khởi động;
+ * batch không có tiến độ trong batch.completion.timeout.seconds → FAILED, file sang failed/
+ * (loader đã restart và mất bộ đếm batch thì không còn ai đánh dấu batch đó)
  */
 public class CSVFileWatcher {
     
@@ -19,13 +33,27 @@ public class CSVFileWatcher {
     
     private final Path watchDirectory;
     private final StudentProducer producer;
+    private final AttendanceProducer attendanceProducer;
+    private final ImportBatchRepository batchRepository;
     private volatile boolean running = false;
     
+    // Batch đang chờ pipeline xử lý xong: batch ID → file
+    private final Map<String, Path> pendingBatches = new LinkedHashMap<>();
+    private final Map<String, Integer> lastReportedProgress = new LinkedHashMap<>();
+    private final Map<String, Long> lastProgressAt = new LinkedHashMap<>();
+    private final long pollIntervalMs;
+    private final long completionTimeoutMs;
+    private long lastPollAt = 0;
+    
     public CSVFileWatcher() {
         ConfigLoader config = ConfigLoader.getInstance();
         String inputDir = config.getProperty("csv.input.directory", "./data/input");
         this.watchDirectory = Paths.get(inputDir);
         this.producer = new StudentProducer();
+        this.attendanceProducer = new AttendanceProducer();
+        this.batchRepository = new ImportBatchRepository();
+        this.pollIntervalMs = config.getIntProperty("filewatcher.poll.interval", 5000);
+        this.completionTimeoutMs = config.getIntProperty("batch.completion.timeout.seconds", 1800) * 1000L;
         
         // Create directories
         try {
@@ -59,10 +87,14 @@ public class CSVFileWatcher {
         );
         
         running = true;
+        recoverPendingBatches();
         
         while (running) {
             WatchKey key;
             try {
+                // Tiến độ các file đang xử lý
+                pollPendingBatches();
+                
                 // Wait for events
                 key = watchService.poll(1, TimeUnit.SECONDS);
                 if (key == null) continue;
@@ -124,41 +156,140 @@ public class CSVFileWatcher {
             long startTime = System.currentTimeMillis();
             
             logger.info("📤 Publishing to RabbitMQ queue...");
-            producer.publishFromCSVStreaming(csvFile);
+            String batchId = isAttendanceFile(csvFile)
+                ? attendanceProducer.publishFromCSV(csvFile)
+                : producer.publishFromCSVStreaming(csvFile);
             
             long duration = System.currentTimeMillis() - startTime;
             
-            logger.info("✅ SUCCESSFULLY PUBLISHED in {:.2f} seconds", duration / 1000.0);
+            logger.info(String.format("✅ SUCCESSFULLY PUBLISHED in %.2f seconds", duration / 1000.0));
             logger.info("   ⚡ Messages sent to validation queue");
             logger.info("   🔄 Validators will process automatically");
-            logger.info("   💾 Valid data will appear in Clean DB shortly\n");
-            
-            // Move to processed folder
-            Path processedDir = watchDirectory.resolve("processed");
-            String timestamp = String.valueOf(System.currentTimeMillis());
-            String newFileName = timestamp + "_" + csvFile.getFileName().toString();
-            Path target = processedDir.resolve(newFileName);
             
-            Files.move(csvFile, target, StandardCopyOption.REPLACE_EXISTING);
-            logger.info("📁 File moved to: processed/{}\n", newFileName);
+            if (batchRepository.findByBatchId(batchId) != null) {
+                // Chờ loader báo batch hoàn thành rồi mới chuyển file
+                pendingBatches.put(batchId, csvFile);
+                lastProgressAt.put(batchId, System.currentTimeMillis());
+                logger.info("   ⏳ Waiting for batch {} to be loaded into Clean DB\n", batchId);
+            } else {
+                // Không có import_batches (DB lỗi) → không theo dõi được, chuyển ngay như trước
+                logger.info("   💾 Valid data will appear in Clean DB shortly\n");
+                moveFile(csvFile, "processed");
+            }
             
         } catch (Exception e) {
             logger.error("❌ ERROR processing file {}: {}", csvFile, e.getMessage(), e);
+            moveFile(csvFile, "failed");
+        }
+    }
+    
+    /**
+     * Batch PROCESSING từ lần chạy trước mà file vẫn nằm trong thư mục input: tiếp tục chờ
+     * (đồng hồ timeout tính lại từ lúc khởi động)
+     */
+    private void recoverPendingBatches() {
+        try {
+            for (ImportBatch batch : batchRepository.findByStatus(ImportBatchStatus.PROCESSING)) {
+                Path csvFile = watchDirectory.resolve(batch.getFileName());
+                if (Files.exists(csvFile) && !pendingBatches.containsValue(csvFile)) {
+                    pendingBatches.put(batch.getBatchId(), csvFile);
+                    lastProgressAt.put(batch.getBatchId(), System.currentTimeMillis());
+                    logger.info("⏳ Resuming wait for batch {} ({}/{} rows loaded)", batch.getBatchId(),
+                        batch.getSuccessfulRows(), batch.getTotalRows());
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not recover pending batches: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * File điểm danh (attendance*.csv) đi vào attendance pipeline, còn lại là file sinh viên
+     */
+    private static boolean isAttendanceFile(Path csvFile) {
+        return csvFile.getFileName().toString().toLowerCase().startsWith("attendance");
+    }
+    
+    /**
+     * Kiểm tra import_batches của các file đang chờ (mỗi filewatcher.poll.interval)
+     * COMPLETED → processed/, FAILED → failed/, PROCESSING → log tiến độ
+     */
+    private void pollPendingBatches() {
+        long now = System.currentTimeMillis();
+        if (pendingBatches.isEmpty() || now - lastPollAt < pollIntervalMs) {
+            return;
+        }
+        lastPollAt = now;
+        
+        Iterator<Map.Entry<String, Path>> it = pendingBatches.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Path> entry = it.next();
+            String batchId = entry.getKey();
             
-            // Move to failed folder
             try {
-                Path failedDir = watchDirectory.resolve("failed");
-                String timestamp = String.valueOf(System.currentTimeMillis());
-                String newFileName = timestamp + "_" + csvFile.getFileName().toString();
-                Path target = failedDir.resolve(newFileName);
-                Files.move(csvFile, target, StandardCopyOption.REPLACE_EXISTING);
-                logger.info("📁 Failed file moved to: failed/{}\n", newFileName);
-            } catch (IOException ex) {
-                logger.error("Failed to move error file", ex);
+                ImportBatch batch = batchRepository.findByBatchId(batchId);
+                if (batch == null) {
+                    continue;
+                }
+                
+                if (batch.getStatus() == ImportBatchStatus.PROCESSING) {
+                    Integer last = lastReportedProgress.put(batchId, batch.getSuccessfulRows());
+                    if (last == null || last != batch.getSuccessfulRows()) {
+                        lastProgressAt.put(batchId, now);
+                        logger.info("⏳ {}: {}/{} rows loaded", batch.getFileName(),
+                            batch.getSuccessfulRows(), batch.getTotalRows());
+                        continue;
+                    }
+                    
+                    long idleMs = now - lastProgressAt.getOrDefault(batchId, now);
+                    if (completionTimeoutMs <= 0 || idleMs < completionTimeoutMs) {
+                        continue;
+                    }
+                    batch.setStatus(ImportBatchStatus.FAILED);
+                    batch.setErrorMessage(String.format("No progress for %d s: %d/%d rows loaded",
+                        idleMs / 1000, batch.getSuccessfulRows(), batch.getTotalRows()));
+                    if (!batchRepository.fail(batchId, batch.getErrorMessage())) {
+                        // Vừa COMPLETED/FAILED giữa hai lần đọc: lần poll sau thấy trạng thái cuối
+                        continue;
+                    }
+                }
+                
+                it.remove();
+                lastReportedProgress.remove(batchId);
+                lastProgressAt.remove(batchId);
+                
+                if (batch.getStatus() == ImportBatchStatus.COMPLETED) {
+                    logger.info("🎉 {} COMPLETED: {} rows, {} loaded, {} rejected",
+                        batch.getFileName(), batch.getTotalRows(),
+                        batch.getSuccessfulRows(), batch.getFailedRows());
+                    moveFile(entry.getValue(), "processed");
+                } else {
+                    logger.error("❌ {} FAILED: {}", batch.getFileName(), batch.getErrorMessage());
+                    moveFile(entry.getValue(), "failed");
+                }
+                
+            } catch (Exception e) {
+                logger.warn("Could not check batch {}: {}", batchId, e.getMessage());
             }
         }
     }
     
+    /**
+     * Chuyển file sang processed/ hoặc failed/ (thêm timestamp vào tên)
+     */
+    private void moveFile(Path csvFile, String folder) {
+        try {
+            String timestamp = String.valueOf(System.currentTimeMillis());
+            String newFileName = timestamp + "_" + csvFile.getFileName().toString();
+            Path target = watchDirectory.resolve(folder).resolve(newFileName);
+            
+            Files.move(csvFile, target, StandardCopyOption.REPLACE_EXISTING);
+            logger.info("📁 File moved to: {}/{}\n", folder, newFileName);
+        } catch (IOException e) {
+            logger.error("Failed to move file {} to {}/", csvFile, folder, e);
+        }
+    }
+    
     /**
      * Stop watching
      */
@@ -3,6 +3,8 @@ package com.student.integration.watcher;
 import com.student.integration.config.DatabaseConfig;
 import com.student.integration.config.QueueManager;
 import com.student.integration.config.RabbitMQConfig;
+import com.student.integration.consumer.AttendanceLoaderConsumer;
+import com.student.integration.consumer.AttendanceValidatorConsumer;
 import com.student.integration.consumer.TransformerLoaderConsumer;
 import com.student.integration.consumer.ValidatorConsumer;
 import org.slf4j.Logger;
@@ -13,9 +15,9 @@ import java.util.concurrent.Executors;
 
 /**
  * Test REALTIME File Watcher với consumers
- * 
+ *
  * CORE FEATURE: "Khi thêm bất kì file CSV sinh viên nào vào để thực hiện check rule"
- * 
+ *
  * HOW TO TEST:
  * 1. Run this test
  * 2. Copy CSV file to ./data/input/
@@ -36,6 +38,8 @@ public class FileWatcherTest {
         ExecutorService executorService = Executors.newFixedThreadPool(3);
         ValidatorConsumer validatorConsumer = null;
         TransformerLoaderConsumer transformerConsumer = null;
+        AttendanceValidatorConsumer attendanceValidator = null;
+        AttendanceLoaderConsumer attendanceLoader = null;
         CSVFileWatcher fileWatcher = null;
         
         try {
@@ -82,6 +86,14 @@ public class FileWatcherTest {
             
             Thread.sleep(2000);
             
+            // 4. Attendance consumers (file attendance*.csv) - subscribe không block
+            attendanceValidator = new AttendanceValidatorConsumer();
+            attendanceValidator.startConsuming(queueManager.getQueueAttendanceRaw(), 4);
+            attendanceLoader = new AttendanceLoaderConsumer();
+            attendanceLoader.startConsuming(queueManager.getQueueAttendanceValidated(), 4);
+            AttendanceValidatorConsumer finalAttendanceValidator = attendanceValidator;
+            AttendanceLoaderConsumer finalAttendanceLoader = attendanceLoader;
+            
             logger.info("\n📋 STEP 3: Starting File Watcher...\n");
             
             // 4. Start File Watcher
@@ -97,6 +109,8 @@ public class FileWatcherTest {
                     finalFileWatcher.stop();
                     if (finalValidatorConsumer != null) finalValidatorConsumer.stop();
                     if (finalTransformerConsumer != null) finalTransformerConsumer.stop();
+                    finalAttendanceValidator.stop();
+                    finalAttendanceLoader.stop();
                     executorService.shutdownNow();
                     dbConfig.close();
                     RabbitMQConfig.getInstance().closeConnection();
@@ -112,6 +126,7 @@ public class FileWatcherTest {
             logger.info("║                                                      ║");
             logger.info("║  ✅ Validator Consumer:   RUNNING                    ║");
             logger.info("║  ✅ Transformer Consumer: RUNNING                    ║");
+            logger.info("║  ✅ Attendance Consumers: RUNNING                    ║");
             logger.info("║  ✅ File Watcher:         ACTIVE                     ║");
             logger.info("║                                                      ║");
             logger.info("║  📂 Drop CSV files to: ./data/input/                 ║");
@@ -130,6 +145,8 @@ public class FileWatcherTest {
             try {
                 if (validatorConsumer != null) validatorConsumer.stop();
                 if (transformerConsumer != null) transformerConsumer.stop();
+                if (attendanceValidator != null) attendanceValidator.stop();
+                if (attendanceLoader != null) attendanceLoader.stop();
                 if (fileWatcher != null) fileWatcher.stop();
                 executorService.shutdownNow();
                 DatabaseConfig.getInstance().close();